@@ -1,36 +1,97 @@
 package io.github.logcontext;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableMap;
-import static java.util.Objects.nonNull;
-import static java.util.stream.Collectors.toList;
 
 /**
  * The AbstractLogContextBuilder class provides an abstract {@link LogContext.Builder} implementation that
  * keeps track of both nested and mapped diagnostic context values. Subclasses can retrieve references to
- * the context values via the {@link #getNestedContexts()} and {@link #getMappedContextValues()} methods.
+ * the context values via the {@link #getNestedContexts()} and {@link #getMappedContextValues()} methods,
+ * or without allocating via the indexed accessors such as {@link #getNestedContext(int)}.
+ *
+ * <p>The values are kept in flat arrays that only grow, so a builder that is {@link #reset()} and reused,
+ * for example through the {@link LogContextBuilderPool}, does not allocate once its arrays are large
+ * enough for the contexts being added. Subclasses that update a Mapped Diagnostic Context in place can
+ * restore the values they shadow with the {@link MappedContextUndoStack}.
+ *
+ * <p>Values added with {@link #andLazyMapped(String, Object)} are kept as {@link LazyMappedValue}s.
+ * Subclasses that can hand them to the logging framework unconverted retrieve them with {@link
+ * #getLazyMappedContextValue(int)}, while the other accessors convert them to strings.
+ *
+ * <p>Values added with the primitive overloads, such as {@link #andMapped(String, long)}, are kept unboxed
+ * and only converted to strings when they are read. The decimal forms of the last <code>long</code>
+ * values read are cached by the builder, so a reused builder to which the same identifiers keep being
+ * added does not convert them again.
  */
 public abstract class AbstractLogContextBuilder implements LogContext.Builder {
 
     /**
-     * The list of Nested Diagnostic Context (NDC) values to add.
+     * The initial capacity of the context arrays.
      */
-    private final List<String> nestedContexts;
+    private static final int INITIAL_CAPACITY = 4;
 
     /**
-     * The mapping of Mapped Diagnostic Context (MDC) keys to their values.
+     * The Nested Diagnostic Context (NDC) values to add, of which the first {@link #nestedCount} are used.
      */
-    private final Map<String, String> mappedContextValues;
+    private String[] nestedContexts;
+
+    /**
+     * The number of Nested Diagnostic Context (NDC) values to add.
+     */
+    private int nestedCount;
+
+    /**
+     * The Mapped Diagnostic Context (MDC) keys, aligned with {@link #mappedValues}.
+     */
+    private String[] mappedKeys;
+
+    /**
+     * The Mapped Diagnostic Context (MDC) values, aligned with {@link #mappedKeys}, which are either strings,
+     * {@link LazyMappedValue}s, or the {@link PrimitiveKind} of a value kept in {@link #primitiveValues}.
+     */
+    private Object[] mappedValues;
+
+    /**
+     * The unboxed Mapped Diagnostic Context (MDC) values, aligned with {@link #mappedKeys}, which are only
+     * used where {@link #mappedValues} holds a {@link PrimitiveKind}. Doubles are kept as their raw bits.
+     */
+    private long[] primitiveValues;
+
+    /**
+     * The decimal forms of the <code>long</code> values last read, or <code>null</code> until one is read.
+     */
+    private DecimalCache decimalCache;
+
+    /**
+     * The number of Mapped Diagnostic Context (MDC) values to add.
+     */
+    private int mappedCount;
+
+    /**
+     * The number of Mapped Diagnostic Context (MDC) values that are {@link LazyMappedValue}s.
+     */
+    private int lazyCount;
+
+    /**
+     * The {@link LoggingContextServiceProviderRegistry#getGeneration() registry generation} in which this
+     * builder was created, used by the {@link LogContextBuilderPool} to discard builders of replaced
+     * providers.
+     */
+    final int generation;
 
     /**
      * Constructs a new instance of AbstractLogContextBuilder. This is only meant to be called directly
      * by a subclass constructor.
      */
     protected AbstractLogContextBuilder() {
-        this.nestedContexts = new ArrayList<>();
-        this.mappedContextValues = new LinkedHashMap<>();
+        this.nestedContexts = new String[INITIAL_CAPACITY];
+        this.mappedKeys = new String[INITIAL_CAPACITY];
+        this.mappedValues = new Object[INITIAL_CAPACITY];
+        this.primitiveValues = new long[INITIAL_CAPACITY];
+        this.generation = LoggingContextServiceProviderRegistry.getGeneration();
     }
 
     /**
@@ -40,11 +101,16 @@ public abstract class AbstractLogContextBuilder implements LogContext.Builder {
      * @return a reference to the {Builder} for chaining.
      */
     public LogContext.Builder andNested(final String... context) {
-        final Optional<List<String>> stringContexts =
-                Optional.ofNullable(context)
-                        .map(Arrays::asList)
-                        .map(temp -> temp.stream().filter(Objects::nonNull).collect(toList()));
-        stringContexts.ifPresent(this.nestedContexts::addAll);
+        if (context != null) {
+            for (final String value : context) {
+                if (value != null) {
+                    if (nestedCount == nestedContexts.length) {
+                        nestedContexts = Arrays.copyOf(nestedContexts, nestedCount * 2);
+                    }
+                    nestedContexts[nestedCount++] = value;
+                }
+            }
+        }
 
         return this;
     }
@@ -57,28 +123,466 @@ public abstract class AbstractLogContextBuilder implements LogContext.Builder {
      * @return a reference to the {@link LogContext.Builder} for chaining.
      */
     public LogContext.Builder andMapped(final String context, final String value) {
-        if (nonNull(context) && !context.trim().isEmpty()) {
-            this.mappedContextValues.put(context, value);
+        putMapped(context, value);
+        return this;
+    }
+
+    /**
+     * Adds a <code>long</code> Mapped Diagnostic Context (MDC) value to the logging context, which is kept
+     * unboxed and only converted to its decimal form when it is read.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value   the value of the MDC attribute.
+     * @return a reference to the {@link LogContext.Builder} for chaining.
+     */
+    @Override
+    public LogContext.Builder andMapped(final String context, final long value) {
+        putPrimitive(context, PrimitiveKind.LONG, value);
+        return this;
+    }
+
+    /**
+     * Adds an <code>int</code> Mapped Diagnostic Context (MDC) value to the logging context, which is kept
+     * unboxed and only converted to its decimal form when it is read.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value   the value of the MDC attribute.
+     * @return a reference to the {@link LogContext.Builder} for chaining.
+     */
+    @Override
+    public LogContext.Builder andMapped(final String context, final int value) {
+        return andMapped(context, (long) value);
+    }
+
+    /**
+     * Adds a <code>double</code> Mapped Diagnostic Context (MDC) value to the logging context, which is kept
+     * unboxed and only converted with {@link Double#toString(double)} when it is read.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value   the value of the MDC attribute.
+     * @return a reference to the {@link LogContext.Builder} for chaining.
+     */
+    @Override
+    public LogContext.Builder andMapped(final String context, final double value) {
+        putPrimitive(context, PrimitiveKind.DOUBLE, Double.doubleToRawLongBits(value));
+        return this;
+    }
+
+    /**
+     * Adds a <code>boolean</code> Mapped Diagnostic Context (MDC) value to the logging context as one of the
+     * constant strings <code>"true"</code> and <code>"false"</code>.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value   the value of the MDC attribute.
+     * @return a reference to the {@link LogContext.Builder} for chaining.
+     */
+    @Override
+    public LogContext.Builder andMapped(final String context, final boolean value) {
+        putMapped(context, value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Adds a Mapped Diagnostic Context (MDC) value to the logging context as a {@link LazyMappedValue}, so
+     * that it is only converted to a string when it is first read.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value   the value of the MDC attribute, which may be <code>null</code>.
+     * @return a reference to the {@link LogContext.Builder} for chaining.
+     */
+    @Override
+    public LogContext.Builder andLazyMapped(final String context, final Object value) {
+        if (!isBlank(context)) {
+            putMapped(context, value instanceof LazyMappedValue ? value : LazyMappedValue.of(value));
+        }
+        return this;
+    }
+
+    /**
+     * Adds a Mapped Diagnostic Context (MDC) value to the logging context as a {@link LazyMappedValue}, so
+     * that the supplier is only called when the value is first read.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value   the supplier of the value of the MDC attribute.
+     * @return a reference to the {@link LogContext.Builder} for chaining.
+     */
+    @Override
+    public LogContext.Builder andLazyMapped(final String context, final Supplier<?> value) {
+        if (!isBlank(context)) {
+            putMapped(context, LazyMappedValue.of(value));
+        }
+        return this;
+    }
+
+    /**
+     * Adds or replaces a Mapped Diagnostic Context (MDC) value, keeping the position of a replaced key.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value   the string, {@link LazyMappedValue} or {@link PrimitiveKind} value of the MDC attribute.
+     * @return the index of the value, or <code>-1</code> if the key is blank and the value was ignored.
+     */
+    private int putMapped(final String context, final Object value) {
+        if (isBlank(context)) {
+            return -1;
+        }
+
+        final boolean lazy = value instanceof LazyMappedValue;
+        for (int i = 0; i < mappedCount; i++) {
+            if (mappedKeys[i].equals(context)) {
+                if (mappedValues[i] instanceof LazyMappedValue) {
+                    lazyCount--;
+                }
+                if (lazy) {
+                    lazyCount++;
+                }
+                mappedValues[i] = value;
+                return i;
+            }
+        }
+
+        ensureMappedCapacity(mappedCount + 1);
+        mappedKeys[mappedCount] = context;
+        mappedValues[mappedCount] = value;
+        if (lazy) {
+            lazyCount++;
+        }
+        return mappedCount++;
+    }
+
+    /**
+     * Adds or replaces an unboxed Mapped Diagnostic Context (MDC) value.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param kind    the kind of the value.
+     * @param bits    the value, or the raw bits of a <code>double</code>.
+     */
+    private void putPrimitive(final String context, final PrimitiveKind kind, final long bits) {
+        final int index = putMapped(context, kind);
+        if (index >= 0) {
+            primitiveValues[index] = bits;
+        }
+    }
+
+    /**
+     * Adds values that were validated when they were first added to a builder or a {@link
+     * LogContextTemplate}, without checking their keys again. The keys must not be blank, and must differ
+     * from each other and from the keys already added.
+     *
+     * @param nested the NDC values, none of which is <code>null</code>.
+     * @param keys   the MDC keys.
+     * @param values the string or {@link LazyMappedValue} MDC values, aligned with <code>keys</code>.
+     */
+    final void addValidated(final String[] nested, final String[] keys, final Object[] values) {
+        if (nestedCount + nested.length > nestedContexts.length) {
+            final int length = Math.max(nestedContexts.length * 2, nestedCount + nested.length);
+            nestedContexts = Arrays.copyOf(nestedContexts, length);
         }
+        System.arraycopy(nested, 0, nestedContexts, nestedCount, nested.length);
+        nestedCount += nested.length;
+
+        ensureMappedCapacity(mappedCount + keys.length);
+        System.arraycopy(keys, 0, mappedKeys, mappedCount, keys.length);
+        System.arraycopy(values, 0, mappedValues, mappedCount, keys.length);
+        mappedCount += keys.length;
+        for (final Object value : values) {
+            if (value instanceof LazyMappedValue) {
+                lazyCount++;
+            }
+        }
+    }
+
+    /**
+     * Adds a Mapped Diagnostic Context (MDC) value whose key was validated when it was first added to a
+     * {@link LogContextTemplate}, without checking the key again.
+     *
+     * @param key   the MDC key, which must differ from the keys already added.
+     * @param value the string or {@link LazyMappedValue} value of the MDC attribute.
+     */
+    final void addValidatedMapped(final String key, final Object value) {
+        ensureMappedCapacity(mappedCount + 1);
+        mappedKeys[mappedCount] = key;
+        mappedValues[mappedCount++] = value;
+        if (value instanceof LazyMappedValue) {
+            lazyCount++;
+        }
+    }
+
+    private void ensureMappedCapacity(final int capacity) {
+        if (capacity > mappedKeys.length) {
+            final int length = Math.max(mappedKeys.length * 2, capacity);
+            mappedKeys = Arrays.copyOf(mappedKeys, length);
+            mappedValues = Arrays.copyOf(mappedValues, length);
+            primitiveValues = Arrays.copyOf(primitiveValues, length);
+        }
+    }
+
+    /**
+     * Returns an immutable copy of the values of this builder. When attached, the copied values are added
+     * to a builder taken from the {@link LogContextBuilderPool}, which opens the logging context, so the
+     * values are copied but not validated again. Subclasses that keep the values in a store of their own
+     * override this method to attach them in constant time. Unboxed values are converted to strings once,
+     * when they are copied.
+     *
+     * @return the values of this builder as an {@link AttachableLogContext}.
+     */
+    @Override
+    public AttachableLogContext toAttachable() {
+        final Object[] values = Arrays.copyOf(mappedValues, mappedCount);
+        for (int i = 0; i < mappedCount; i++) {
+            if (values[i] instanceof PrimitiveKind) {
+                values[i] = renderPrimitive(i);
+            }
+        }
+        return new CopiedValues(
+                Arrays.copyOf(nestedContexts, nestedCount),
+                Arrays.copyOf(mappedKeys, mappedCount),
+                values);
+    }
+
+    /**
+     * Removes every context value added so far, so that the builder can be reused. The context arrays keep
+     * their capacity, but their elements are cleared so that no values are retained.
+     *
+     * <p>Implementations of {@link #get()} must not keep references to the builder's state once they
+     * return, since a pooled builder is reset as soon as its logging context has been created.
+     *
+     * @return a reference to this builder for chaining.
+     */
+    public AbstractLogContextBuilder reset() {
+        Arrays.fill(nestedContexts, 0, nestedCount, null);
+        Arrays.fill(mappedKeys, 0, mappedCount, null);
+        Arrays.fill(mappedValues, 0, mappedCount, null);
+        nestedCount = 0;
+        mappedCount = 0;
+        lazyCount = 0;
 
         return this;
     }
 
+    /**
+     * Returns the number of Nested Diagnostic Context values.
+     *
+     * @return the number of Nested Diagnostic Context values.
+     */
+    public int getNestedContextCount() {
+        return nestedCount;
+    }
+
+    /**
+     * Returns a Nested Diagnostic Context value, in the order the values were added.
+     *
+     * @param index the index of the value, from <code>0</code> to {@link #getNestedContextCount()}
+     *              (exclusive).
+     * @return the Nested Diagnostic Context value.
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of range.
+     */
+    public String getNestedContext(final int index) {
+        checkIndex(index, nestedCount);
+        return nestedContexts[index];
+    }
+
+    /**
+     * Returns the number of Mapped Diagnostic Context values.
+     *
+     * @return the number of Mapped Diagnostic Context values.
+     */
+    public int getMappedContextCount() {
+        return mappedCount;
+    }
+
+    /**
+     * Returns a Mapped Diagnostic Context key, in the order the keys were first added.
+     *
+     * @param index the index of the key, from <code>0</code> to {@link #getMappedContextCount()} (exclusive).
+     * @return the Mapped Diagnostic Context key.
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of range.
+     */
+    public String getMappedContextKey(final int index) {
+        checkIndex(index, mappedCount);
+        return mappedKeys[index];
+    }
+
+    /**
+     * Returns the Mapped Diagnostic Context value of the key at the same index, converting a {@link
+     * LazyMappedValue} or an unboxed value to a string.
+     *
+     * @param index the index of the value, from <code>0</code> to {@link #getMappedContextCount()}
+     *              (exclusive).
+     * @return the Mapped Diagnostic Context value.
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of range.
+     */
+    public String getMappedContextValue(final int index) {
+        checkIndex(index, mappedCount);
+        final Object value = mappedValues[index];
+        if (value instanceof PrimitiveKind) {
+            return renderPrimitive(index);
+        }
+        return value instanceof LazyMappedValue ? value.toString() : (String) value;
+    }
+
+    private String renderPrimitive(final int index) {
+        final long bits = primitiveValues[index];
+        if (mappedValues[index] == PrimitiveKind.DOUBLE) {
+            return Double.toString(Double.longBitsToDouble(bits));
+        }
+        if (decimalCache == null) {
+            decimalCache = new DecimalCache();
+        }
+        return decimalCache.toString(bits);
+    }
+
+    /**
+     * Returns the number of Mapped Diagnostic Context values that were added as {@link LazyMappedValue}s.
+     *
+     * @return the number of lazily converted Mapped Diagnostic Context values.
+     */
+    public int getLazyMappedContextCount() {
+        return lazyCount;
+    }
+
+    /**
+     * Returns the Mapped Diagnostic Context value of the key at the same index if it was added as a {@link
+     * LazyMappedValue}, without converting it.
+     *
+     * @param index the index of the value, from <code>0</code> to {@link #getMappedContextCount()}
+     *              (exclusive).
+     * @return the {@link LazyMappedValue}, or <code>null</code> if the value was added as a string.
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of range.
+     */
+    public LazyMappedValue getLazyMappedContextValue(final int index) {
+        checkIndex(index, mappedCount);
+        final Object value = mappedValues[index];
+        return value instanceof LazyMappedValue ? (LazyMappedValue) value : null;
+    }
+
     /**
      * Returns an immutable copy of the current Nested Diagnostic Context values.
      *
      * @return an immutable copy of the current Nested Diagnostic Context values.
      */
     public List<String> getNestedContexts() {
-        return unmodifiableList(nestedContexts);
+        return unmodifiableList(Arrays.asList(Arrays.copyOf(nestedContexts, nestedCount)));
     }
 
     /**
-     * Returns an immutable copy of the current Mapped Diagnostic Context values.
+     * Returns an immutable copy of the current Mapped Diagnostic Context values, in which {@link
+     * LazyMappedValue}s are converted to strings.
      *
      * @return an immutable copy of the current Mapped Diagnostic Context values.
      */
     public Map<String, String> getMappedContextValues() {
+        final Map<String, String> mappedContextValues = new LinkedHashMap<>();
+        for (int i = 0; i < mappedCount; i++) {
+            mappedContextValues.put(mappedKeys[i], getMappedContextValue(i));
+        }
         return unmodifiableMap(mappedContextValues);
     }
+
+    /**
+     * Returns whether a context name is <code>null</code>, empty, or only made of the characters removed
+     * by {@link String#trim()}, without allocating a trimmed copy.
+     *
+     * @param context the context name to check.
+     * @return <code>true</code> if the context name is blank.
+     */
+    private static boolean isBlank(final String context) {
+        if (context == null) {
+            return true;
+        }
+        for (int i = 0; i < context.length(); i++) {
+            if (context.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkIndex(final int index, final int count) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+    }
+
+    /**
+     * Adds values to a builder that is not an {@link AbstractLogContextBuilder} through its public methods.
+     *
+     * @param builder the builder to add the values to.
+     * @param nested  the NDC values.
+     * @param keys    the MDC keys.
+     * @param values  the string or {@link LazyMappedValue} MDC values, aligned with <code>keys</code>.
+     */
+    static void addTo(final LogContext.Builder builder, final String[] nested, final String[] keys,
+            final Object[] values) {
+        if (nested.length > 0) {
+            builder.andNested(nested);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            addTo(builder, keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Adds a value to a builder that is not an {@link AbstractLogContextBuilder} through its public methods.
+     *
+     * @param builder the builder to add the value to.
+     * @param key     the MDC key.
+     * @param value   the string or {@link LazyMappedValue} MDC value.
+     */
+    static void addTo(final LogContext.Builder builder, final String key, final Object value) {
+        if (value instanceof LazyMappedValue) {
+            builder.andLazyMapped(key, value);
+        } else {
+            builder.andMapped(key, (String) value);
+        }
+    }
+
+    /**
+     * The kinds of the values kept unboxed in {@link #primitiveValues}.
+     */
+    private enum PrimitiveKind {
+        LONG, DOUBLE
+    }
+
+    /**
+     * The immutable values of a builder, which are added to a pooled builder when attached.
+     */
+    private static final class CopiedValues implements AttachableLogContext {
+
+        /**
+         * The Nested Diagnostic Context (NDC) values.
+         */
+        private final String[] nestedContexts;
+
+        /**
+         * The Mapped Diagnostic Context (MDC) keys, aligned with {@link #mappedValues}.
+         */
+        private final String[] mappedKeys;
+
+        /**
+         * The string or {@link LazyMappedValue} Mapped Diagnostic Context (MDC) values.
+         */
+        private final Object[] mappedValues;
+
+        CopiedValues(final String[] nestedContexts, final String[] mappedKeys, final Object[] mappedValues) {
+            this.nestedContexts = nestedContexts;
+            this.mappedKeys = mappedKeys;
+            this.mappedValues = mappedValues;
+        }
+
+        @Override
+        public LogContext attach() {
+            final LogContext.Builder builder = LogContextBuilderPool.acquire();
+            try {
+                if (builder instanceof AbstractLogContextBuilder) {
+                    ((AbstractLogContextBuilder) builder)
+                            .addValidated(nestedContexts, mappedKeys, mappedValues);
+                } else {
+                    addTo(builder, nestedContexts, mappedKeys, mappedValues);
+                }
+                return builder.get();
+            } finally {
+                LogContextBuilderPool.release(builder);
+            }
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package io.github.logcontext;
+
+/**
+ * The AttachableLogContext interface represents an immutable set of logging context values, built
+ * once with {@link LogContext.Builder#toAttachable()} and then added to the logging context of any
+ * thread, any number of times. It suits code that switches between a few known contexts, such as a
+ * consumer that processes every record of a batch with the values of that record:
+ *
+ * <pre>
+ * final AttachableLogContext recordContext =
+ *     LogContext.Builder.builder().andMapped("tenant", tenant).andMapped("partition", p).toAttachable();
+ * try (LogContext context = recordContext.attach()) {
+ *   // logs with the values of the record
+ * }
+ * </pre>
+ *
+ * <p>Unlike a {@link LogContextSnapshot}, which replaces the logging context of the thread, the
+ * values are added over the current logging context, as by {@link LogContext.Builder#get()}.
+ * Providers that keep the values in a store of their own can attach them in constant time,
+ * whatever their number; the others add them one by one, but without validating them again.
+ */
+@FunctionalInterface
+public interface AttachableLogContext {
+
+  /**
+   * Adds the values to the logging context of the current thread and returns a {@link LogContext}
+   * that removes them when closed.
+   *
+   * @return a {@link LogContext} that removes the values.
+   */
+  LogContext attach();
+}
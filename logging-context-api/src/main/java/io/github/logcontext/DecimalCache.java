@@ -0,0 +1,41 @@
+package io.github.logcontext;
+
+/**
+ * The DecimalCache class keeps the decimal form of the <code>long</code> values last converted by a
+ * builder, so that a reused builder to which the same identifiers keep being added does not convert
+ * them again. The cache is direct-mapped: each value has a single entry, which is replaced by the
+ * next value mapped to it.
+ *
+ * <p>A cache is not thread-safe and is only meant to be used by the builder that owns it.
+ */
+final class DecimalCache {
+
+  /** The number of entries, which must be a power of two. */
+  static final int SIZE = 16;
+
+  /** The values of the entries, aligned with {@link #decimals}. */
+  private final long[] values = new long[SIZE];
+
+  /** The decimal forms of the entries, or <code>null</code> for empty entries. */
+  private final String[] decimals = new String[SIZE];
+
+  /**
+   * Returns the decimal form of a value, as {@link Long#toString(long)} would, from the cache if it
+   * was the last value of its entry.
+   *
+   * @param value the value to convert.
+   * @return the decimal form of the value.
+   */
+  String toString(final long value) {
+    final int index = (int) (value ^ (value >>> 32)) & (SIZE - 1);
+    final String cached = decimals[index];
+    if (cached != null && values[index] == value) {
+      return cached;
+    }
+
+    final String decimal = Long.toString(value);
+    values[index] = value;
+    decimals[index] = decimal;
+    return decimal;
+  }
+}
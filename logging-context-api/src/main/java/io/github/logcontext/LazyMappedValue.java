@@ -0,0 +1,109 @@
+package io.github.logcontext;
+
+import java.util.function.Supplier;
+
+/**
+ * The LazyMappedValue class holds a Mapped Diagnostic Context (MDC) value that is converted to a
+ * string only when it is first read, rather than when the logging context is created. Methods that
+ * are called far more often than they log, such as the advised methods of a service, therefore
+ * only pay for the conversion of their arguments when an event is actually logged.
+ *
+ * <p>The value is converted with {@link String#valueOf(Object)} at most once, by the first call to
+ * {@link #toString()}, after which the unrendered value or supplier is released. Concurrent first
+ * calls, for example from threads a snapshot of the logging context was attached to, wait for a
+ * single conversion.
+ *
+ * @see LogContext.Builder#andLazyMapped(String, Object)
+ * @see LogContext.Builder#andLazyMapped(String, Supplier)
+ */
+public final class LazyMappedValue {
+
+  /** The value to convert, or <code>null</code> once it has been converted. */
+  private Object value;
+
+  /** The supplier of the value to convert, or <code>null</code>. */
+  private Supplier<?> supplier;
+
+  /** The renderer of the value, or <code>null</code> to use {@link String#valueOf(Object)}. */
+  private ValueRenderer<Object> renderer;
+
+  /** The converted value, or <code>null</code> until it is first read. */
+  private volatile String rendered;
+
+  private LazyMappedValue(
+      final Object value, final Supplier<?> supplier, final ValueRenderer<Object> renderer) {
+    this.value = value;
+    this.supplier = supplier;
+    this.renderer = renderer;
+  }
+
+  /**
+   * Creates a LazyMappedValue that converts the provided value when it is first read.
+   *
+   * @param value the value of the MDC attribute, which may be <code>null</code>.
+   * @return a LazyMappedValue of the value.
+   */
+  public static LazyMappedValue of(final Object value) {
+    return new LazyMappedValue(value, null, null);
+  }
+
+  /**
+   * Creates a LazyMappedValue that obtains the value from the provided supplier and converts it
+   * when it is first read. The supplier is called at most once.
+   *
+   * @param supplier the supplier of the value of the MDC attribute. A <code>null</code> supplier is
+   *     treated as a supplier of <code>null</code>.
+   * @return a LazyMappedValue of the supplied value.
+   */
+  public static LazyMappedValue of(final Supplier<?> supplier) {
+    return new LazyMappedValue(null, supplier, null);
+  }
+
+  /**
+   * Creates a LazyMappedValue that converts the provided value with {@link
+   * ValueRenderers#render(Object, ValueRenderer)} when it is first read.
+   *
+   * @param value the value of the MDC attribute (never <code>null</code>).
+   * @param renderer the renderer of the value.
+   * @return a LazyMappedValue of the value.
+   */
+  static LazyMappedValue of(final Object value, final ValueRenderer<Object> renderer) {
+    return new LazyMappedValue(value, null, renderer);
+  }
+
+  /**
+   * Returns whether the value has already been converted to a string.
+   *
+   * @return <code>true</code> if {@link #toString()} has been called.
+   */
+  public boolean isRendered() {
+    return rendered != null;
+  }
+
+  /**
+   * Returns the value converted with {@link String#valueOf(Object)}, or with the renderer of a value
+   * added for a {@link LoggingContext} parameter, converting it if this is the first call.
+   *
+   * @return the string value of the MDC attribute.
+   */
+  @Override
+  public String toString() {
+    String result = rendered;
+    if (result == null) {
+      synchronized (this) {
+        result = rendered;
+        if (result == null) {
+          result =
+              renderer != null
+                  ? ValueRenderers.render(value, renderer)
+                  : String.valueOf(supplier != null ? supplier.get() : value);
+          value = null;
+          supplier = null;
+          renderer = null;
+          rendered = result;
+        }
+      }
+    }
+    return result;
+  }
+}
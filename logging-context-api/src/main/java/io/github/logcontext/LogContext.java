@@ -3,9 +3,7 @@ package io.github.logcontext;
 import static java.util.Objects.requireNonNull;
 
 import java.io.Closeable;
-import java.util.ServiceLoader;
 import java.util.function.Supplier;
-import java.util.stream.StreamSupport;
 
 /**
  * The LogContext class provides an {@link AutoCloseable} instance that will remove the associated
@@ -36,24 +34,19 @@ public interface LogContext extends AutoCloseable {
    * not marked for removal by the returned {@link LogContext}.
    *
    * <p>For cases where a Mapped Diagnostic Context value already exists, the existing value will be
-   * overwritten, but it will <em>not</em> be marked for removal by the {@link LogContext} and the
-   * original value will not be restored when the {@link LogContext} is closed. It will be up to the
-   * original source of the MDC key to remove it.
+   * shadowed while the {@link LogContext} is open and restored when it is closed, so that nested
+   * contexts can reuse a key without losing the outer value.
    */
   interface Builder extends Supplier<LogContext> {
 
     /**
-     * Retrieves an instance of the builder to use when creating the logging context.
+     * Retrieves an instance of the builder to use when creating the logging context. The builder
+     * is created by the provider cached in the {@link LoggingContextServiceProviderRegistry}.
      *
      * @return an instance of the builder to use when creating the logging context.
      */
     static Builder builder() {
-      ServiceLoader<LoggingContextServiceProvider> serviceLoader =
-          ServiceLoader.load(LoggingContextServiceProvider.class);
-      return StreamSupport.stream(serviceLoader.spliterator(), false)
-          .findFirst()
-          .map(LoggingContextServiceProvider::logContextBuilder)
-          .orElse(NO_OP_BUILDER);
+      return LoggingContextServiceProviderRegistry.getProvider().logContextBuilder();
     }
 
     /**
@@ -77,6 +70,18 @@ public interface LogContext extends AutoCloseable {
       return builder().andMapped(context, value);
     }
 
+    /**
+     * Opens a {@link MappedContextSlot} whose value of the provided named context can be replaced
+     * until it is closed.
+     *
+     * @param context the name of the MDC key of the slot (must not be <code>null</code>).
+     * @return a {@link MappedContextSlot} that can be used to remove the value.
+     * @throws NullPointerException if <code>context</code> is <code>null</code>.
+     */
+    static MappedContextSlot mappedContextSlot(final String context) {
+      return builder().getSlot(context);
+    }
+
     /**
      * Adds additional Nested Diagnostic Context (NDC) information to the logging context.
      *
@@ -94,6 +99,86 @@ public interface LogContext extends AutoCloseable {
      */
     Builder andMapped(final String context, final String value);
 
+    /**
+     * Adds an additional <code>long</code> Mapped Diagnostic Context (MDC) value to the logging
+     * context, such as an identifier, without boxing it. Builders that keep the value unboxed only
+     * convert it to its decimal form when it is read. Builders that cannot, such as this default
+     * implementation, convert it immediately.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value the value of the MDC attribute.
+     * @return a reference to the {@link Builder} for chaining.
+     */
+    default Builder andMapped(final String context, final long value) {
+      return andMapped(context, String.valueOf(value));
+    }
+
+    /**
+     * Adds an additional <code>int</code> Mapped Diagnostic Context (MDC) value to the logging
+     * context without boxing it, as {@link #andMapped(String, long)} does.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value the value of the MDC attribute.
+     * @return a reference to the {@link Builder} for chaining.
+     */
+    default Builder andMapped(final String context, final int value) {
+      return andMapped(context, String.valueOf(value));
+    }
+
+    /**
+     * Adds an additional <code>double</code> Mapped Diagnostic Context (MDC) value to the logging
+     * context without boxing it. The value is converted with {@link Double#toString(double)} when
+     * it is read, or immediately by builders that cannot defer the conversion.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value the value of the MDC attribute.
+     * @return a reference to the {@link Builder} for chaining.
+     */
+    default Builder andMapped(final String context, final double value) {
+      return andMapped(context, String.valueOf(value));
+    }
+
+    /**
+     * Adds an additional <code>boolean</code> Mapped Diagnostic Context (MDC) value to the logging
+     * context as <code>"true"</code> or <code>"false"</code>.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value the value of the MDC attribute.
+     * @return a reference to the {@link Builder} for chaining.
+     */
+    default Builder andMapped(final String context, final boolean value) {
+      return andMapped(context, String.valueOf(value));
+    }
+
+    /**
+     * Adds an additional Mapped Diagnostic Context (MDC) value to the logging context, which is
+     * converted with {@link String#valueOf(Object)} only when it is first read by the logging
+     * framework, for example through a {@link LazyMappedValue}. Builders that cannot defer the
+     * conversion, such as this default implementation, convert the value immediately.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value the value of the MDC attribute, which may be <code>null</code>.
+     * @return a reference to the {@link Builder} for chaining.
+     */
+    default Builder andLazyMapped(final String context, final Object value) {
+      return andMapped(context, String.valueOf(value));
+    }
+
+    /**
+     * Adds an additional Mapped Diagnostic Context (MDC) value to the logging context, which is
+     * obtained from the supplier and converted with {@link String#valueOf(Object)} only when it is
+     * first read by the logging framework. Builders that cannot defer the conversion, such as this
+     * default implementation, call the supplier immediately.
+     *
+     * @param context the name of the MDC key associated with the value to be added.
+     * @param value the supplier of the value of the MDC attribute, which is called at most once. A
+     *     <code>null</code> supplier is treated as a supplier of <code>null</code>.
+     * @return a reference to the {@link Builder} for chaining.
+     */
+    default Builder andLazyMapped(final String context, final Supplier<?> value) {
+      return andMapped(context, String.valueOf(value != null ? value.get() : null));
+    }
+
     /**
      * Updates the Nested Diagnostic Context and Mapped Diagnostic Contexts with the configured
      * values and returns a {@link LogContext} that can be used to remove the logging context
@@ -104,6 +189,34 @@ public interface LogContext extends AutoCloseable {
     @Override
     LogContext get();
 
+    /**
+     * Returns an immutable copy of the values of this builder that can be attached to the logging
+     * context of any thread, any number of times. Builders that cannot copy their values, such as
+     * this default implementation, return a context that calls {@link #get()} when attached, so
+     * this builder must then not be changed or reused afterwards.
+     *
+     * @return the values of this builder as an {@link AttachableLogContext}.
+     */
+    default AttachableLogContext toAttachable() {
+      return this::get;
+    }
+
+    /**
+     * Updates the logging contexts with the configured values, as {@link #get()} does, and returns
+     * a {@link MappedContextSlot} whose value of the provided key can be replaced until it is
+     * closed. The key has no value from this slot until one is set. Builders that cannot replace a
+     * value in place, such as this default implementation, open a logging context for every value.
+     *
+     * @param context the name of the MDC key of the slot (must not be <code>null</code>).
+     * @return a {@link MappedContextSlot} that can be used to remove the updates to the logging
+     *     contexts.
+     * @throws NullPointerException if <code>context</code> is <code>null</code>.
+     */
+    default MappedContextSlot getSlot(final String context) {
+      requireNonNull(context, "context must not be null");
+      return new ReopeningMappedContextSlot(get(), context);
+    }
+
     /**
      * A default {@link Builder} implementation that does nothing with the provided contexts and
      * returns an empty {@link Closeable} for the {@link LogContext}. This implementation is only
@@ -123,10 +236,52 @@ public interface LogContext extends AutoCloseable {
             return this;
           }
 
+          @Override
+          public Builder andMapped(String context, long value) {
+            return this;
+          }
+
+          @Override
+          public Builder andMapped(String context, int value) {
+            return this;
+          }
+
+          @Override
+          public Builder andMapped(String context, double value) {
+            return this;
+          }
+
+          @Override
+          public Builder andMapped(String context, boolean value) {
+            return this;
+          }
+
+          @Override
+          public Builder andLazyMapped(String context, Object value) {
+            return this;
+          }
+
+          @Override
+          public Builder andLazyMapped(String context, Supplier<?> value) {
+            return this;
+          }
+
           @Override
           public LogContext get() {
             return () -> {};
           }
+
+          @Override
+          public MappedContextSlot getSlot(String context) {
+            return new MappedContextSlot() {
+
+              @Override
+              public void set(String value) {}
+
+              @Override
+              public void close() {}
+            };
+          }
         };
   }
 }
@@ -0,0 +1,98 @@
+package io.github.logcontext;
+
+/**
+ * The LogContextBuilderPool class keeps a small pool of reusable {@link AbstractLogContextBuilder}
+ * instances for each thread, so that code creating a logging context on every call, such as the
+ * <code>@LoggingContext</code> advice, does not allocate a new builder each time.
+ *
+ * <p>A builder is taken from the pool with {@link #acquire()} and returned with {@link
+ * #release(LogContext.Builder)} once its {@link LogContext.Builder#get()} method has been called:
+ *
+ * <pre>
+ * final LogContext.Builder builder = LogContextBuilderPool.acquire().andNested("request");
+ * final LogContext context;
+ * try {
+ *   context = builder.get();
+ * } finally {
+ *   LogContextBuilderPool.release(builder);
+ * }
+ * </pre>
+ *
+ * <p>Only {@link AbstractLogContextBuilder} instances created by the active provider are pooled.
+ * Builders of other types are simply dropped by {@link #release(LogContext.Builder)}, and pooled
+ * builders are discarded once {@link LoggingContextServiceProviderRegistry#getGeneration()} shows
+ * that their provider is no longer active.
+ */
+public final class LogContextBuilderPool {
+
+  /** The maximum number of builders pooled by each thread. */
+  static final int CAPACITY = 4;
+
+  /** The builders pooled by each thread. */
+  private static final ThreadLocal<Pool> POOLS = ThreadLocal.withInitial(Pool::new);
+
+  /** Prevents instantiation of the LogContextBuilderPool utility class. */
+  private LogContextBuilderPool() {}
+
+  /**
+   * Returns an empty builder, reusing one released by the current thread if possible. Otherwise, a
+   * new builder is created with {@link LogContext.Builder#builder()}.
+   *
+   * @return an empty builder (never <code>null</code>).
+   */
+  public static LogContext.Builder acquire() {
+    final Pool pool = POOLS.get();
+    final int generation = LoggingContextServiceProviderRegistry.getGeneration();
+    while (pool.size > 0) {
+      final AbstractLogContextBuilder builder = pool.builders[--pool.size];
+      pool.builders[pool.size] = null;
+      if (builder.generation == generation) {
+        return builder;
+      }
+    }
+
+    return LogContext.Builder.builder();
+  }
+
+  /**
+   * Resets a builder obtained from {@link #acquire()} and returns it to the current thread's pool.
+   * The builder must not be used by the caller afterwards. Releasing a builder more than once has no
+   * further effect.
+   *
+   * @param builder the builder to release (ignored if <code>null</code>).
+   */
+  public static void release(final LogContext.Builder builder) {
+    if (builder instanceof AbstractLogContextBuilder) {
+      final AbstractLogContextBuilder pooled = (AbstractLogContextBuilder) builder;
+      final Pool pool = POOLS.get();
+      if (pool.size < CAPACITY
+          && pooled.generation == LoggingContextServiceProviderRegistry.getGeneration()
+          && !pool.contains(pooled)) {
+        pool.builders[pool.size++] = pooled.reset();
+      }
+    }
+  }
+
+  /** The builders pooled by a single thread. */
+  private static final class Pool {
+
+    /** The pooled builders, of which the first {@link #size} are available. */
+    private final AbstractLogContextBuilder[] builders = new AbstractLogContextBuilder[CAPACITY];
+
+    /** The number of available builders. */
+    private int size;
+
+    /**
+     * Returns whether a builder is already available in the pool, so that releasing a builder twice
+     * does not hand it out twice.
+     */
+    private boolean contains(final AbstractLogContextBuilder builder) {
+      for (int i = 0; i < size; i++) {
+        if (builders[i] == builder) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
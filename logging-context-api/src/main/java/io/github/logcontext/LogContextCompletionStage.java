@@ -0,0 +1,463 @@
+package io.github.logcontext;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The LogContextCompletionStage class provides a {@link CompletionStage} whose dependent stages run
+ * with the logging context of the thread that created them, whichever thread completes the stage
+ * they depend on and whichever executor runs them.
+ *
+ * <p>Each method that creates a dependent stage captures a {@link LogContextSnapshot} and attaches
+ * it around the function of the stage only, so the context of the completing thread is restored as
+ * soon as the function returns. Since snapshots share the immutable structures of the logging
+ * framework, creating a stage does not copy the logging context, and every dependent stage is
+ * itself a LogContextCompletionStage:
+ *
+ * <pre>
+ * LogContextCompletionStage.supplyAsync(() -&gt; orders.find(orderNumber), executor)
+ *     .thenApply(refunds::refund)
+ *     .whenComplete((refund, failure) -&gt; log.info("Refund completed"));
+ * </pre>
+ *
+ * <p>The stage is backed by a {@link CompletableFuture}, which is returned by {@link
+ * #toCompletableFuture()} so that it can be completed, joined or cancelled.
+ *
+ * @param <T> the type of the value of the stage.
+ */
+public final class LogContextCompletionStage<T> implements CompletionStage<T> {
+
+  /** The future backing the stage. */
+  private final CompletableFuture<T> future;
+
+  /**
+   * Constructs a new instance of LogContextCompletionStage.
+   *
+   * @param future the future backing the stage.
+   */
+  private LogContextCompletionStage(final CompletableFuture<T> future) {
+    this.future = future;
+  }
+
+  /**
+   * Returns a LogContextCompletionStage that is completed with the same result as the provided
+   * stage, and whose dependent stages run with the logging context of the thread that created them.
+   *
+   * @param stage the stage to wrap (must not be <code>null</code>).
+   * @param <T> the type of the value of the stage.
+   * @return the provided stage if it is already a LogContextCompletionStage, or a
+   *     LogContextCompletionStage backed by the provided stage.
+   * @throws NullPointerException if <code>stage</code> is <code>null</code>.
+   */
+  public static <T> LogContextCompletionStage<T> wrap(final CompletionStage<T> stage) {
+    requireNonNull(stage, "stage must not be null");
+    if (stage instanceof LogContextCompletionStage) {
+      return (LogContextCompletionStage<T>) stage;
+    }
+    return new LogContextCompletionStage<>(stage.toCompletableFuture());
+  }
+
+  /**
+   * Returns a stage that is completed with the value of the supplier, called with the logging
+   * context of the current thread by the {@link CompletableFuture#supplyAsync(Supplier) default
+   * asynchronous executor}.
+   *
+   * @param supplier the supplier of the value (must not be <code>null</code>).
+   * @param <T> the type of the value of the stage.
+   * @return the new stage.
+   * @throws NullPointerException if <code>supplier</code> is <code>null</code>.
+   */
+  public static <T> LogContextCompletionStage<T> supplyAsync(final Supplier<T> supplier) {
+    return new LogContextCompletionStage<>(
+        CompletableFuture.supplyAsync(contextSupplier(LogContextSnapshot.capture(), supplier)));
+  }
+
+  /**
+   * Returns a stage that is completed with the value of the supplier, called with the logging
+   * context of the current thread by the provided executor.
+   *
+   * @param supplier the supplier of the value (must not be <code>null</code>).
+   * @param executor the executor that calls the supplier (must not be <code>null</code>).
+   * @param <T> the type of the value of the stage.
+   * @return the new stage.
+   * @throws NullPointerException if <code>supplier</code> or <code>executor</code> is <code>null
+   *     </code>.
+   */
+  public static <T> LogContextCompletionStage<T> supplyAsync(
+      final Supplier<T> supplier, final Executor executor) {
+    return new LogContextCompletionStage<>(
+        CompletableFuture.supplyAsync(
+            contextSupplier(LogContextSnapshot.capture(), supplier), executor));
+  }
+
+  /**
+   * Returns a stage that is completed once the task, run with the logging context of the current
+   * thread by the {@link CompletableFuture#runAsync(Runnable) default asynchronous executor}, has
+   * completed.
+   *
+   * @param task the task to run (must not be <code>null</code>).
+   * @return the new stage.
+   * @throws NullPointerException if <code>task</code> is <code>null</code>.
+   */
+  public static LogContextCompletionStage<Void> runAsync(final Runnable task) {
+    return new LogContextCompletionStage<>(
+        CompletableFuture.runAsync(
+            LogContextExecutors.contextRunnable(LogContextSnapshot.capture(), task)));
+  }
+
+  /**
+   * Returns a stage that is completed once the task, run with the logging context of the current
+   * thread by the provided executor, has completed.
+   *
+   * @param task the task to run (must not be <code>null</code>).
+   * @param executor the executor that runs the task (must not be <code>null</code>).
+   * @return the new stage.
+   * @throws NullPointerException if <code>task</code> or <code>executor</code> is <code>null
+   *     </code>.
+   */
+  public static LogContextCompletionStage<Void> runAsync(
+      final Runnable task, final Executor executor) {
+    return new LogContextCompletionStage<>(
+        CompletableFuture.runAsync(
+            LogContextExecutors.contextRunnable(LogContextSnapshot.capture(), task), executor));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<U> thenApply(final Function<? super T, ? extends U> fn) {
+    return stage(future.thenApply(contextFunction(fn)));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<U> thenApplyAsync(
+      final Function<? super T, ? extends U> fn) {
+    return stage(future.thenApplyAsync(contextFunction(fn)));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<U> thenApplyAsync(
+      final Function<? super T, ? extends U> fn, final Executor executor) {
+    return stage(future.thenApplyAsync(contextFunction(fn), executor));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> thenAccept(final Consumer<? super T> action) {
+    return stage(future.thenAccept(contextConsumer(action)));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> thenAcceptAsync(final Consumer<? super T> action) {
+    return stage(future.thenAcceptAsync(contextConsumer(action)));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> thenAcceptAsync(
+      final Consumer<? super T> action, final Executor executor) {
+    return stage(future.thenAcceptAsync(contextConsumer(action), executor));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> thenRun(final Runnable action) {
+    return stage(future.thenRun(contextRunnable(action)));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> thenRunAsync(final Runnable action) {
+    return stage(future.thenRunAsync(contextRunnable(action)));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> thenRunAsync(
+      final Runnable action, final Executor executor) {
+    return stage(future.thenRunAsync(contextRunnable(action), executor));
+  }
+
+  @Override
+  public <U, V> LogContextCompletionStage<V> thenCombine(
+      final CompletionStage<? extends U> other,
+      final BiFunction<? super T, ? super U, ? extends V> fn) {
+    return stage(future.thenCombine(other, contextBiFunction(fn)));
+  }
+
+  @Override
+  public <U, V> LogContextCompletionStage<V> thenCombineAsync(
+      final CompletionStage<? extends U> other,
+      final BiFunction<? super T, ? super U, ? extends V> fn) {
+    return stage(future.thenCombineAsync(other, contextBiFunction(fn)));
+  }
+
+  @Override
+  public <U, V> LogContextCompletionStage<V> thenCombineAsync(
+      final CompletionStage<? extends U> other,
+      final BiFunction<? super T, ? super U, ? extends V> fn,
+      final Executor executor) {
+    return stage(future.thenCombineAsync(other, contextBiFunction(fn), executor));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<Void> thenAcceptBoth(
+      final CompletionStage<? extends U> other, final BiConsumer<? super T, ? super U> action) {
+    return stage(future.thenAcceptBoth(other, contextBiConsumer(action)));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<Void> thenAcceptBothAsync(
+      final CompletionStage<? extends U> other, final BiConsumer<? super T, ? super U> action) {
+    return stage(future.thenAcceptBothAsync(other, contextBiConsumer(action)));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<Void> thenAcceptBothAsync(
+      final CompletionStage<? extends U> other,
+      final BiConsumer<? super T, ? super U> action,
+      final Executor executor) {
+    return stage(future.thenAcceptBothAsync(other, contextBiConsumer(action), executor));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> runAfterBoth(
+      final CompletionStage<?> other, final Runnable action) {
+    return stage(future.runAfterBoth(other, contextRunnable(action)));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> runAfterBothAsync(
+      final CompletionStage<?> other, final Runnable action) {
+    return stage(future.runAfterBothAsync(other, contextRunnable(action)));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> runAfterBothAsync(
+      final CompletionStage<?> other, final Runnable action, final Executor executor) {
+    return stage(future.runAfterBothAsync(other, contextRunnable(action), executor));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<U> applyToEither(
+      final CompletionStage<? extends T> other, final Function<? super T, U> fn) {
+    return stage(future.applyToEither(other, contextFunction(fn)));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<U> applyToEitherAsync(
+      final CompletionStage<? extends T> other, final Function<? super T, U> fn) {
+    return stage(future.applyToEitherAsync(other, contextFunction(fn)));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<U> applyToEitherAsync(
+      final CompletionStage<? extends T> other,
+      final Function<? super T, U> fn,
+      final Executor executor) {
+    return stage(future.applyToEitherAsync(other, contextFunction(fn), executor));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> acceptEither(
+      final CompletionStage<? extends T> other, final Consumer<? super T> action) {
+    return stage(future.acceptEither(other, contextConsumer(action)));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> acceptEitherAsync(
+      final CompletionStage<? extends T> other, final Consumer<? super T> action) {
+    return stage(future.acceptEitherAsync(other, contextConsumer(action)));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> acceptEitherAsync(
+      final CompletionStage<? extends T> other,
+      final Consumer<? super T> action,
+      final Executor executor) {
+    return stage(future.acceptEitherAsync(other, contextConsumer(action), executor));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> runAfterEither(
+      final CompletionStage<?> other, final Runnable action) {
+    return stage(future.runAfterEither(other, contextRunnable(action)));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> runAfterEitherAsync(
+      final CompletionStage<?> other, final Runnable action) {
+    return stage(future.runAfterEitherAsync(other, contextRunnable(action)));
+  }
+
+  @Override
+  public LogContextCompletionStage<Void> runAfterEitherAsync(
+      final CompletionStage<?> other, final Runnable action, final Executor executor) {
+    return stage(future.runAfterEitherAsync(other, contextRunnable(action), executor));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<U> thenCompose(
+      final Function<? super T, ? extends CompletionStage<U>> fn) {
+    return stage(future.thenCompose(contextFunction(fn)));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<U> thenComposeAsync(
+      final Function<? super T, ? extends CompletionStage<U>> fn) {
+    return stage(future.thenComposeAsync(contextFunction(fn)));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<U> thenComposeAsync(
+      final Function<? super T, ? extends CompletionStage<U>> fn, final Executor executor) {
+    return stage(future.thenComposeAsync(contextFunction(fn), executor));
+  }
+
+  @Override
+  public LogContextCompletionStage<T> exceptionally(final Function<Throwable, ? extends T> fn) {
+    return stage(future.exceptionally(contextFunction(fn)));
+  }
+
+  @Override
+  public LogContextCompletionStage<T> whenComplete(
+      final BiConsumer<? super T, ? super Throwable> action) {
+    return stage(future.whenComplete(contextBiConsumer(action)));
+  }
+
+  @Override
+  public LogContextCompletionStage<T> whenCompleteAsync(
+      final BiConsumer<? super T, ? super Throwable> action) {
+    return stage(future.whenCompleteAsync(contextBiConsumer(action)));
+  }
+
+  @Override
+  public LogContextCompletionStage<T> whenCompleteAsync(
+      final BiConsumer<? super T, ? super Throwable> action, final Executor executor) {
+    return stage(future.whenCompleteAsync(contextBiConsumer(action), executor));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<U> handle(
+      final BiFunction<? super T, Throwable, ? extends U> fn) {
+    return stage(future.handle(contextBiFunction(fn)));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<U> handleAsync(
+      final BiFunction<? super T, Throwable, ? extends U> fn) {
+    return stage(future.handleAsync(contextBiFunction(fn)));
+  }
+
+  @Override
+  public <U> LogContextCompletionStage<U> handleAsync(
+      final BiFunction<? super T, Throwable, ? extends U> fn, final Executor executor) {
+    return stage(future.handleAsync(contextBiFunction(fn), executor));
+  }
+
+  /**
+   * Returns the {@link CompletableFuture} backing this stage. Completing the returned future
+   * completes this stage.
+   *
+   * @return the {@link CompletableFuture} backing this stage.
+   */
+  @Override
+  public CompletableFuture<T> toCompletableFuture() {
+    return future;
+  }
+
+  @Override
+  public String toString() {
+    return "LogContextCompletionStage[" + future + "]";
+  }
+
+  private static <U> LogContextCompletionStage<U> stage(final CompletableFuture<U> future) {
+    return new LogContextCompletionStage<>(future);
+  }
+
+  private static <U> Supplier<U> contextSupplier(
+      final LogContextSnapshot snapshot, final Supplier<U> supplier) {
+    requireNonNull(supplier, "supplier must not be null");
+    return () -> {
+      final LogContext context = snapshot.attach();
+      try {
+        return supplier.get();
+      } finally {
+        restore(context);
+      }
+    };
+  }
+
+  private static Runnable contextRunnable(final Runnable action) {
+    return LogContextExecutors.contextRunnable(LogContextSnapshot.capture(), action);
+  }
+
+  private static <A, R> Function<A, R> contextFunction(final Function<A, R> fn) {
+    requireNonNull(fn, "fn must not be null");
+    final LogContextSnapshot snapshot = LogContextSnapshot.capture();
+    return value -> {
+      final LogContext context = snapshot.attach();
+      try {
+        return fn.apply(value);
+      } finally {
+        restore(context);
+      }
+    };
+  }
+
+  private static <A, B, R> BiFunction<A, B, R> contextBiFunction(final BiFunction<A, B, R> fn) {
+    requireNonNull(fn, "fn must not be null");
+    final LogContextSnapshot snapshot = LogContextSnapshot.capture();
+    return (value, other) -> {
+      final LogContext context = snapshot.attach();
+      try {
+        return fn.apply(value, other);
+      } finally {
+        restore(context);
+      }
+    };
+  }
+
+  private static <A> Consumer<A> contextConsumer(final Consumer<A> action) {
+    requireNonNull(action, "action must not be null");
+    final LogContextSnapshot snapshot = LogContextSnapshot.capture();
+    return value -> {
+      final LogContext context = snapshot.attach();
+      try {
+        action.accept(value);
+      } finally {
+        restore(context);
+      }
+    };
+  }
+
+  private static <A, B> BiConsumer<A, B> contextBiConsumer(final BiConsumer<A, B> action) {
+    requireNonNull(action, "action must not be null");
+    final LogContextSnapshot snapshot = LogContextSnapshot.capture();
+    return (value, other) -> {
+      final LogContext context = snapshot.attach();
+      try {
+        action.accept(value, other);
+      } finally {
+        restore(context);
+      }
+    };
+  }
+
+  /**
+   * Closes a logging context returned by {@link LogContextSnapshot#attach()}.
+   *
+   * @param context the logging context to close.
+   * @throws IllegalStateException if the logging context cannot be closed.
+   */
+  private static void restore(final LogContext context) {
+    try {
+      context.close();
+    } catch (final RuntimeException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new IllegalStateException("Unable to restore the logging context", e);
+    }
+  }
+}
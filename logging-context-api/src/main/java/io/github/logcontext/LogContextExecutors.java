@@ -0,0 +1,270 @@
+package io.github.logcontext;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The LogContextExecutors class provides decorators that propagate the logging context of the
+ * thread that submits a task to the thread that runs it.
+ *
+ * <p>Each decorator captures a {@link LogContextSnapshot} when a task is submitted (or, for {@link
+ * #contextRunnable(Runnable)} and {@link #contextCallable(Callable)}, when the task is wrapped),
+ * attaches it on the worker thread while the task runs, and restores the worker's own logging
+ * context afterwards. Periodic tasks run every time with the snapshot captured when they were
+ * scheduled.
+ */
+public final class LogContextExecutors {
+
+  /** Prevents instantiation of the LogContextExecutors utility class. */
+  private LogContextExecutors() {}
+
+  /**
+   * Returns a {@link Runnable} that runs the provided task with the logging context of the current
+   * thread.
+   *
+   * @param task the task to run (must not be <code>null</code>).
+   * @return a {@link Runnable} that runs the task with the current logging context.
+   * @throws NullPointerException if <code>task</code> is <code>null</code>.
+   */
+  public static Runnable contextRunnable(final Runnable task) {
+    return contextRunnable(LogContextSnapshot.capture(), task);
+  }
+
+  /**
+   * Returns a {@link Callable} that calls the provided task with the logging context of the current
+   * thread.
+   *
+   * @param task the task to call (must not be <code>null</code>).
+   * @param <V> the result type of the task.
+   * @return a {@link Callable} that calls the task with the current logging context.
+   * @throws NullPointerException if <code>task</code> is <code>null</code>.
+   */
+  public static <V> Callable<V> contextCallable(final Callable<V> task) {
+    return contextCallable(LogContextSnapshot.capture(), task);
+  }
+
+  /**
+   * Returns an {@link Executor} that runs each task with the logging context of the thread that
+   * executed it.
+   *
+   * @param executor the executor that runs the tasks (must not be <code>null</code>).
+   * @return an {@link Executor} that propagates the logging context.
+   * @throws NullPointerException if <code>executor</code> is <code>null</code>.
+   */
+  public static Executor contextExecutor(final Executor executor) {
+    requireNonNull(executor, "executor must not be null");
+    return task -> executor.execute(contextRunnable(task));
+  }
+
+  /**
+   * Returns an {@link ExecutorService} that runs each task with the logging context of the thread
+   * that submitted it. Shutting down the returned service shuts down the provided one.
+   *
+   * @param executorService the executor service that runs the tasks (must not be <code>null</code>
+   *     ).
+   * @return an {@link ExecutorService} that propagates the logging context.
+   * @throws NullPointerException if <code>executorService</code> is <code>null</code>.
+   */
+  public static ExecutorService contextExecutorService(final ExecutorService executorService) {
+    return new ContextExecutorService<>(
+        requireNonNull(executorService, "executorService must not be null"));
+  }
+
+  /**
+   * Returns a {@link ScheduledExecutorService} that runs each task with the logging context of the
+   * thread that submitted or scheduled it. Shutting down the returned service shuts down the
+   * provided one.
+   *
+   * @param executorService the executor service that runs the tasks (must not be <code>null</code>
+   *     ).
+   * @return a {@link ScheduledExecutorService} that propagates the logging context.
+   * @throws NullPointerException if <code>executorService</code> is <code>null</code>.
+   */
+  public static ScheduledExecutorService contextScheduledExecutorService(
+      final ScheduledExecutorService executorService) {
+    return new ContextScheduledExecutorService(
+        requireNonNull(executorService, "executorService must not be null"));
+  }
+
+  /**
+   * Returns a {@link Runnable} that runs the provided task with an already captured snapshot.
+   *
+   * @param snapshot the logging context to run the task with.
+   * @param task the task to run (must not be <code>null</code>).
+   * @return a {@link Runnable} that runs the task with the snapshot attached.
+   * @throws NullPointerException if <code>task</code> is <code>null</code>.
+   */
+  static Runnable contextRunnable(final LogContextSnapshot snapshot, final Runnable task) {
+    requireNonNull(task, "task must not be null");
+    return () -> {
+      final Object mark = LogContextLeakDetector.taskStarted();
+      try (LogContext context = snapshot.attach()) {
+        task.run();
+      } catch (final RuntimeException | Error e) {
+        throw e;
+      } catch (final Exception e) {
+        throw new IllegalStateException("Unable to restore the logging context", e);
+      } finally {
+        LogContextLeakDetector.taskFinished(mark);
+      }
+    };
+  }
+
+  private static <V> Callable<V> contextCallable(
+      final LogContextSnapshot snapshot, final Callable<V> task) {
+    requireNonNull(task, "task must not be null");
+    return () -> {
+      final Object mark = LogContextLeakDetector.taskStarted();
+      try (LogContext context = snapshot.attach()) {
+        return task.call();
+      } finally {
+        LogContextLeakDetector.taskFinished(mark);
+      }
+    };
+  }
+
+  private static <V> List<Callable<V>> contextCallables(
+      final Collection<? extends Callable<V>> tasks) {
+    final LogContextSnapshot snapshot = LogContextSnapshot.capture();
+    final List<Callable<V>> contextTasks = new ArrayList<>(tasks.size());
+    for (final Callable<V> task : tasks) {
+      contextTasks.add(contextCallable(snapshot, task));
+    }
+    return contextTasks;
+  }
+
+  /**
+   * An {@link ExecutorService} that wraps every submitted task before passing it to the decorated
+   * service.
+   *
+   * @param <S> the type of the decorated service.
+   */
+  private static class ContextExecutorService<S extends ExecutorService>
+      implements ExecutorService {
+
+    /** The decorated executor service. */
+    protected final S delegate;
+
+    ContextExecutorService(final S delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+      delegate.execute(contextRunnable(command));
+    }
+
+    @Override
+    public <T> Future<T> submit(final Callable<T> task) {
+      return delegate.submit(contextCallable(task));
+    }
+
+    @Override
+    public <T> Future<T> submit(final Runnable task, final T result) {
+      return delegate.submit(contextRunnable(task), result);
+    }
+
+    @Override
+    public Future<?> submit(final Runnable task) {
+      return delegate.submit(contextRunnable(task));
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(final Collection<? extends Callable<T>> tasks)
+        throws InterruptedException {
+      return delegate.invokeAll(contextCallables(tasks));
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(
+        final Collection<? extends Callable<T>> tasks, final long timeout, final TimeUnit unit)
+        throws InterruptedException {
+      return delegate.invokeAll(contextCallables(tasks), timeout, unit);
+    }
+
+    @Override
+    public <T> T invokeAny(final Collection<? extends Callable<T>> tasks)
+        throws InterruptedException, ExecutionException {
+      return delegate.invokeAny(contextCallables(tasks));
+    }
+
+    @Override
+    public <T> T invokeAny(
+        final Collection<? extends Callable<T>> tasks, final long timeout, final TimeUnit unit)
+        throws InterruptedException, ExecutionException, TimeoutException {
+      return delegate.invokeAny(contextCallables(tasks), timeout, unit);
+    }
+
+    @Override
+    public void shutdown() {
+      delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit)
+        throws InterruptedException {
+      return delegate.awaitTermination(timeout, unit);
+    }
+  }
+
+  /** A {@link ScheduledExecutorService} that wraps every submitted and scheduled task. */
+  private static final class ContextScheduledExecutorService
+      extends ContextExecutorService<ScheduledExecutorService>
+      implements ScheduledExecutorService {
+
+    ContextScheduledExecutorService(final ScheduledExecutorService delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(
+        final Runnable command, final long delay, final TimeUnit unit) {
+      return delegate.schedule(contextRunnable(command), delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(
+        final Callable<V> callable, final long delay, final TimeUnit unit) {
+      return delegate.schedule(contextCallable(callable), delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(
+        final Runnable command, final long initialDelay, final long period, final TimeUnit unit) {
+      return delegate.scheduleAtFixedRate(contextRunnable(command), initialDelay, period, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(
+        final Runnable command, final long initialDelay, final long delay, final TimeUnit unit) {
+      return delegate.scheduleWithFixedDelay(contextRunnable(command), initialDelay, delay, unit);
+    }
+  }
+}
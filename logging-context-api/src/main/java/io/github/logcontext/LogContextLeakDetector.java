@@ -0,0 +1,294 @@
+package io.github.logcontext;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Consumer;
+
+/**
+ * The LogContextLeakDetector class detects logging context scopes that are not closed, closed out
+ * of order, closed twice or closed on another thread than the one that opened them. Such scopes
+ * silently corrupt the logging contexts of pooled threads, which then grow without bound.
+ *
+ * <p>The detection is disabled unless the {@value #LEAK_DETECTION_PROPERTY} system property is
+ * <code>true</code> when this class is loaded; the flag is a constant, so the JIT removes the
+ * detection entirely when it is disabled. When it is enabled, a thread tracks one in every N
+ * scopes it opens, where N is the {@value #SAMPLE_RATE_PROPERTY} system property (1 by default),
+ * so that the detection is cheap enough to leave on in production. A tracked scope records the
+ * thread and the call site that opened it, and is linked to the tracked scope it is nested in, so
+ * each thread keeps a stack of its open tracked scopes.
+ *
+ * <p>Violations are reported to the reporter set with {@link #setReporter(Consumer)} when a
+ * tracked scope is closed, and when a task run by the {@link LogContextExecutors} returns with
+ * tracked scopes still open. The default reporter prints the violation to the standard error
+ * stream.
+ */
+public final class LogContextLeakDetector {
+
+  /** The system property that enables the detection. */
+  public static final String LEAK_DETECTION_PROPERTY = "io.github.logcontext.leakDetection";
+
+  /** The system property of the number of scopes a thread opens for each tracked scope. */
+  public static final String SAMPLE_RATE_PROPERTY =
+      "io.github.logcontext.leakDetection.sampleRate";
+
+  /** Whether the detection is enabled. */
+  private static final boolean ENABLED = Boolean.getBoolean(LEAK_DETECTION_PROPERTY);
+
+  /** The number of scopes a thread opens for each tracked scope. */
+  private static final int SAMPLE_RATE = Math.max(1, Integer.getInteger(SAMPLE_RATE_PROPERTY, 1));
+
+  /** The reporter that prints violations to the standard error stream. */
+  private static final Consumer<Violation> DEFAULT_REPORTER = Throwable::printStackTrace;
+
+  /** The tracked scopes of each thread. */
+  private static final ThreadLocal<ThreadScopes> THREAD_SCOPES =
+      ThreadLocal.withInitial(ThreadScopes::new);
+
+  /** The reporter of violations. */
+  private static volatile Consumer<? super Violation> reporter = DEFAULT_REPORTER;
+
+  /** Prevents instantiation of the LogContextLeakDetector utility class. */
+  private LogContextLeakDetector() {}
+
+  /**
+   * Returns whether the detection is enabled.
+   *
+   * @return <code>true</code> if the {@value #LEAK_DETECTION_PROPERTY} system property was <code>
+   *     true</code>.
+   */
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  /**
+   * Sets the reporter of violations.
+   *
+   * @param violationReporter the reporter of violations, or <code>null</code> to print them to the
+   *     standard error stream.
+   */
+  public static void setReporter(final Consumer<? super Violation> violationReporter) {
+    reporter = violationReporter != null ? violationReporter : DEFAULT_REPORTER;
+  }
+
+  /**
+   * Returns a logging context that tracks the provided scope if the detection is enabled and the
+   * scope is sampled. Backend builders call this from {@link LogContext.Builder#get()}.
+   *
+   * @param backend the name of the backend that opened the scope.
+   * @param context the logging context of the scope.
+   * @return the tracking logging context, or <code>context</code> if it is not tracked.
+   */
+  public static LogContext track(final String backend, final LogContext context) {
+    return ENABLED ? track(backend, context, SAMPLE_RATE) : context;
+  }
+
+  /**
+   * Reports a violation if the detection is enabled and a backend removed another value from its
+   * Nested Diagnostic Context than the one its scope pushed.
+   *
+   * @param backend the name of the backend that removed the value.
+   * @param expected the value pushed by the scope.
+   * @param removed the value actually removed.
+   */
+  public static void checkRemoved(
+      final String backend, final String expected, final String removed) {
+    if (ENABLED) {
+      checkRemoved(backend, expected, removed, true);
+    }
+  }
+
+  static LogContext track(final String backend, final LogContext context, final int sampleRate) {
+    final ThreadScopes scopes = THREAD_SCOPES.get();
+    if (sampleRate > 1 && ++scopes.opened % sampleRate != 0) {
+      return context;
+    }
+    final TrackedScope scope = new TrackedScope(backend, context, scopes);
+    scopes.top = scope;
+    return scope;
+  }
+
+  static void checkRemoved(
+      final String backend, final String expected, final String removed, final boolean enabled) {
+    if (enabled && !expected.equals(removed)) {
+      report(
+          Violation.Kind.UNEXPECTED_VALUE_REMOVED,
+          backend + " removed " + removed + " instead of " + expected,
+          null);
+    }
+  }
+
+  /**
+   * Marks the start of a task run by the {@link LogContextExecutors}.
+   *
+   * @return the mark to pass to {@link #taskFinished(Object)}.
+   */
+  static Object taskStarted() {
+    return ENABLED ? THREAD_SCOPES.get().top : null;
+  }
+
+  /**
+   * Reports the tracked scopes that a task opened and did not close, and forgets them so they do
+   * not leak into the next task run by the thread. A task that closed the scope that was open when
+   * it started is reported as having closed it out of order, and the open scopes are left as they
+   * are, since the scope of the mark must not be brought back.
+   *
+   * @param mark the mark returned by {@link #taskStarted()}.
+   */
+  static void taskFinished(final Object mark) {
+    if (ENABLED) {
+      taskFinished(THREAD_SCOPES.get(), mark);
+    }
+  }
+
+  static void taskFinished(final ThreadScopes scopes, final Object mark) {
+    final TrackedScope top = scopes.top;
+    if (top == mark) {
+      return;
+    }
+
+    final TrackedScope markScope = (TrackedScope) mark;
+    final int markDepth = markScope == null ? 0 : markScope.depth;
+    TrackedScope ancestor = top;
+    while (ancestor != null && ancestor.depth > markDepth) {
+      ancestor = ancestor.parent;
+    }
+    if (ancestor != markScope) {
+      report(
+          Violation.Kind.CLOSED_OUT_OF_ORDER,
+          markScope.backend + " scope closed by a task that started inside it",
+          markScope.openedAt);
+      return;
+    }
+
+    report(
+        Violation.Kind.UNCLOSED,
+        (top.depth - markDepth) + " " + top.backend + " scope(s) left open by a task",
+        top.openedAt);
+    scopes.top = markScope;
+  }
+
+  static ThreadScopes threadScopes() {
+    return THREAD_SCOPES.get();
+  }
+
+  private static void report(
+      final Violation.Kind kind, final String message, final Throwable openedAt) {
+    reporter.accept(new Violation(kind, message, openedAt));
+  }
+
+  /** The tracked scopes of a thread. */
+  static final class ThreadScopes {
+
+    /** The thread that owns the scopes. */
+    final Thread owner = Thread.currentThread();
+
+    /** The innermost open tracked scope. */
+    TrackedScope top;
+
+    /** The number of scopes opened by the thread, used to sample them. */
+    int opened;
+  }
+
+  /** A logging context that checks that its scope is closed once, in order, by its thread. */
+  private static final class TrackedScope implements LogContext {
+
+    final String backend;
+
+    final LogContext context;
+
+    final ThreadScopes scopes;
+
+    final TrackedScope parent;
+
+    final int depth;
+
+    final Throwable openedAt;
+
+    boolean closed;
+
+    TrackedScope(final String backend, final LogContext context, final ThreadScopes scopes) {
+      this.backend = backend;
+      this.context = requireNonNull(context, "context must not be null");
+      this.scopes = scopes;
+      this.parent = scopes.top;
+      this.depth = parent == null ? 1 : parent.depth + 1;
+      this.openedAt = new Throwable("Scope opened by " + scopes.owner.getName());
+    }
+
+    @Override
+    public void close() throws Exception {
+      if (closed) {
+        report(Violation.Kind.CLOSED_TWICE, backend + " scope closed twice", openedAt);
+        return;
+      }
+      closed = true;
+      if (Thread.currentThread() != scopes.owner) {
+        report(
+            Violation.Kind.CLOSED_ON_OTHER_THREAD,
+            backend + " scope closed by " + Thread.currentThread().getName(),
+            openedAt);
+      } else {
+        checkOrder();
+      }
+      context.close();
+    }
+
+    private void checkOrder() {
+      final TrackedScope top = scopes.top;
+      if (top == null || top.depth < depth) {
+        report(
+            Violation.Kind.CLOSED_OUT_OF_ORDER,
+            backend + " scope closed after the scope it is nested in",
+            openedAt);
+        return;
+      }
+      if (top != this) {
+        report(
+            Violation.Kind.UNCLOSED,
+            (top.depth - depth) + " " + top.backend + " scope(s) left open by a closed scope",
+            top.openedAt);
+      }
+      scopes.top = parent;
+    }
+  }
+
+  /**
+   * The Violation class describes a misuse of a logging context scope. Its cause, if any, records
+   * the call site that opened the scope.
+   */
+  public static final class Violation extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The kind of misuse. */
+    public enum Kind {
+      /** A scope was not closed before its enclosing scope or task ended. */
+      UNCLOSED,
+      /** A scope was closed after the scope it is nested in. */
+      CLOSED_OUT_OF_ORDER,
+      /** A scope was closed more than once. */
+      CLOSED_TWICE,
+      /** A scope was closed by another thread than the one that opened it. */
+      CLOSED_ON_OTHER_THREAD,
+      /** A scope removed another Nested Diagnostic Context value than the one it pushed. */
+      UNEXPECTED_VALUE_REMOVED
+    }
+
+    /** The kind of misuse. */
+    private final Kind kind;
+
+    Violation(final Kind kind, final String message, final Throwable openedAt) {
+      super(message, openedAt);
+      this.kind = kind;
+    }
+
+    /**
+     * Returns the kind of misuse.
+     *
+     * @return the kind of misuse.
+     */
+    public Kind getKind() {
+      return kind;
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package io.github.logcontext;
+
+/**
+ * The LogContextSnapshot interface represents an immutable copy of the logging context of a thread,
+ * captured so that it can be applied to work that continues on another thread.
+ *
+ * <p>A snapshot is captured with {@link #capture()}, which asks the active {@link
+ * LoggingContextServiceProvider} for it. Providers share the immutable structures of their logging
+ * framework wherever possible, so that capturing a snapshot does not copy the context. The snapshot
+ * is applied with {@link #attach()}, which replaces the logging context of the current thread until
+ * the returned {@link LogContext} is closed:
+ *
+ * <pre>
+ * final LogContextSnapshot snapshot = LogContextSnapshot.capture();
+ * executor.execute(() -&gt; {
+ *   try (LogContext context = snapshot.attach()) {
+ *     // logs with the context of the submitting thread
+ *   }
+ * });
+ * </pre>
+ *
+ * <p>{@link LogContextExecutors} provides decorators that do this for every submitted task.
+ */
+public interface LogContextSnapshot {
+
+  /**
+   * A snapshot of an empty logging context that leaves the logging context unchanged when attached.
+   * It is used by providers that do not support snapshots.
+   */
+  LogContextSnapshot EMPTY = () -> () -> {};
+
+  /**
+   * Captures the logging context of the current thread with the active {@link
+   * LoggingContextServiceProvider}.
+   *
+   * @return a snapshot of the logging context of the current thread (never <code>null</code>).
+   */
+  static LogContextSnapshot capture() {
+    return LoggingContextServiceProviderRegistry.getProvider().captureSnapshot();
+  }
+
+  /**
+   * Replaces the logging context of the current thread with this snapshot and returns a {@link
+   * LogContext} that restores the previous logging context when closed.
+   *
+   * @return a {@link LogContext} that restores the previous logging context.
+   */
+  LogContext attach();
+}
@@ -0,0 +1,259 @@
+package io.github.logcontext;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The LogContextTemplate class provides a precompiled logging context made of static values, which
+ * are validated and frozen once when the template is built, and of slots, whose values are bound
+ * by position each time a logging context is opened:
+ *
+ * <pre>
+ * private static final LogContextTemplate REFUND =
+ *     LogContextTemplate.builder()
+ *         .andNested("REFUNDS")
+ *         .andMapped("service", "billing")
+ *         .andMappedSlot("order_number")
+ *         .andMappedSlot("customer")
+ *         .build();
+ *
+ * try (LogContext context = REFUND.open(orderNumber, customer)) {
+ *   logger.info("Refunding order");
+ * }
+ * </pre>
+ *
+ * <p>Opening a logging context copies the frozen values into a builder taken from the {@link
+ * LogContextBuilderPool}, adds the bound values without checking their keys again, and calls its
+ * {@link LogContext.Builder#get()} method once. A bound string is added as it is; any other object
+ * is added as a {@link LazyMappedValue}, which is only converted when it is first read. A template
+ * is immutable and can be shared between threads.
+ */
+public final class LogContextTemplate {
+
+  /** The NDC values. */
+  private final String[] nestedContexts;
+
+  /** The keys of the static MDC values, aligned with {@link #staticValues}. */
+  private final String[] staticKeys;
+
+  /** The static MDC values. */
+  private final String[] staticValues;
+
+  /** The MDC keys of the slots, in the order their values are bound. */
+  private final String[] slotKeys;
+
+  private LogContextTemplate(final Builder builder) {
+    this.nestedContexts = builder.nestedContexts.toArray(new String[0]);
+    this.staticKeys = builder.staticKeys.toArray(new String[0]);
+    this.staticValues = builder.staticValues.toArray(new String[0]);
+    this.slotKeys = builder.slotKeys.toArray(new String[0]);
+  }
+
+  /**
+   * Creates a new {@link Builder} of a template.
+   *
+   * @return a new {@link Builder}.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the number of slots, which is the number of values bound by {@link #open(Object...)}.
+   *
+   * @return the number of slots.
+   */
+  public int getSlotCount() {
+    return slotKeys.length;
+  }
+
+  /**
+   * Opens a logging context with the static values of a template without slots.
+   *
+   * @return a {@link LogContext} that can be used to remove the updates to the logging contexts.
+   * @throws IllegalArgumentException if the template has slots.
+   */
+  public LogContext open() {
+    checkSlotCount(0);
+    final LogContext.Builder builder = LogContextBuilderPool.acquire();
+    try {
+      addStaticValues(builder);
+      return builder.get();
+    } finally {
+      LogContextBuilderPool.release(builder);
+    }
+  }
+
+  /**
+   * Opens a logging context with the static values and the value of the only slot.
+   *
+   * @param value the value of the slot, which may be <code>null</code>.
+   * @return a {@link LogContext} that can be used to remove the updates to the logging contexts.
+   * @throws IllegalArgumentException if the template does not have exactly one slot.
+   */
+  public LogContext open(final Object value) {
+    checkSlotCount(1);
+    final LogContext.Builder builder = LogContextBuilderPool.acquire();
+    try {
+      addStaticValues(builder);
+      bind(builder, 0, value);
+      return builder.get();
+    } finally {
+      LogContextBuilderPool.release(builder);
+    }
+  }
+
+  /**
+   * Opens a logging context with the static values and the values of the two slots.
+   *
+   * @param value1 the value of the first slot, which may be <code>null</code>.
+   * @param value2 the value of the second slot, which may be <code>null</code>.
+   * @return a {@link LogContext} that can be used to remove the updates to the logging contexts.
+   * @throws IllegalArgumentException if the template does not have exactly two slots.
+   */
+  public LogContext open(final Object value1, final Object value2) {
+    checkSlotCount(2);
+    final LogContext.Builder builder = LogContextBuilderPool.acquire();
+    try {
+      addStaticValues(builder);
+      bind(builder, 0, value1);
+      bind(builder, 1, value2);
+      return builder.get();
+    } finally {
+      LogContextBuilderPool.release(builder);
+    }
+  }
+
+  /**
+   * Opens a logging context with the static values and the values of the slots, in the order the
+   * slots were added to the template.
+   *
+   * @param values the values of the slots, each of which may be <code>null</code> (must not be
+   *     <code>null</code>).
+   * @return a {@link LogContext} that can be used to remove the updates to the logging contexts.
+   * @throws NullPointerException if <code>values</code> is <code>null</code>.
+   * @throws IllegalArgumentException if the number of values differs from the number of slots.
+   */
+  public LogContext open(final Object... values) {
+    checkSlotCount(requireNonNull(values, "values must not be null").length);
+    final LogContext.Builder builder = LogContextBuilderPool.acquire();
+    try {
+      addStaticValues(builder);
+      for (int i = 0; i < values.length; i++) {
+        bind(builder, i, values[i]);
+      }
+      return builder.get();
+    } finally {
+      LogContextBuilderPool.release(builder);
+    }
+  }
+
+  private void checkSlotCount(final int valueCount) {
+    if (valueCount != slotKeys.length) {
+      throw new IllegalArgumentException(
+          valueCount + " value(s) bound to a template of " + slotKeys.length + " slot(s)");
+    }
+  }
+
+  private void addStaticValues(final LogContext.Builder builder) {
+    if (builder instanceof AbstractLogContextBuilder) {
+      ((AbstractLogContextBuilder) builder).addValidated(nestedContexts, staticKeys, staticValues);
+    } else {
+      AbstractLogContextBuilder.addTo(builder, nestedContexts, staticKeys, staticValues);
+    }
+  }
+
+  private void bind(final LogContext.Builder builder, final int slot, final Object value) {
+    final Object mappedValue =
+        value == null || value instanceof String || value instanceof LazyMappedValue
+            ? value
+            : LazyMappedValue.of(value);
+    if (builder instanceof AbstractLogContextBuilder) {
+      ((AbstractLogContextBuilder) builder).addValidatedMapped(slotKeys[slot], mappedValue);
+    } else {
+      AbstractLogContextBuilder.addTo(builder, slotKeys[slot], mappedValue);
+    }
+  }
+
+  /**
+   * The Builder class validates the values of a {@link LogContextTemplate}. Unlike a {@link
+   * LogContext.Builder}, it rejects invalid values rather than ignoring them, since a template is
+   * usually built once, when its class is initialized.
+   */
+  public static final class Builder {
+
+    private final List<String> nestedContexts = new ArrayList<>();
+
+    private final List<String> staticKeys = new ArrayList<>();
+
+    private final List<String> staticValues = new ArrayList<>();
+
+    private final List<String> slotKeys = new ArrayList<>();
+
+    private Builder() {}
+
+    /**
+     * Adds static Nested Diagnostic Context (NDC) values to the template.
+     *
+     * @param context the NDC values (must not be <code>null</code> or contain <code>null</code>).
+     * @return a reference to this builder for chaining.
+     * @throws NullPointerException if <code>context</code> or one of its values is <code>null
+     *     </code>.
+     */
+    public Builder andNested(final String... context) {
+      for (final String value : requireNonNull(context, "context must not be null")) {
+        nestedContexts.add(requireNonNull(value, "nested context values must not be null"));
+      }
+      return this;
+    }
+
+    /**
+     * Adds a static Mapped Diagnostic Context (MDC) value to the template.
+     *
+     * @param context the name of the MDC key, which must not be blank or already added.
+     * @param value the value of the MDC attribute, which may be <code>null</code>.
+     * @return a reference to this builder for chaining.
+     * @throws IllegalArgumentException if <code>context</code> is blank or already added.
+     */
+    public Builder andMapped(final String context, final String value) {
+      staticKeys.add(checkKey(context));
+      staticValues.add(value);
+      return this;
+    }
+
+    /**
+     * Adds a slot to the template, whose Mapped Diagnostic Context (MDC) value is bound by position
+     * each time a logging context is opened.
+     *
+     * @param context the name of the MDC key, which must not be blank or already added.
+     * @return a reference to this builder for chaining.
+     * @throws IllegalArgumentException if <code>context</code> is blank or already added.
+     */
+    public Builder andMappedSlot(final String context) {
+      slotKeys.add(checkKey(context));
+      return this;
+    }
+
+    /**
+     * Freezes the values added so far into a template. The builder can still be changed afterwards
+     * without affecting the template.
+     *
+     * @return a new {@link LogContextTemplate}.
+     */
+    public LogContextTemplate build() {
+      return new LogContextTemplate(this);
+    }
+
+    private String checkKey(final String context) {
+      if (context == null || context.trim().isEmpty()) {
+        throw new IllegalArgumentException("context must not be blank");
+      }
+      if (staticKeys.contains(context) || slotKeys.contains(context)) {
+        throw new IllegalArgumentException("context " + context + " is already added");
+      }
+      return context;
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package io.github.logcontext;
+
+/**
+ * The LogLevel enum lists the levels of log events, from the least to the most severe, in a form
+ * independent of the logging framework. It is used to create logging contexts only when the
+ * logging they are meant for is enabled.
+ *
+ * @see LoggingContext#ifEnabled()
+ * @see LoggingContextServiceProvider#loggingEnabled(String)
+ */
+public enum LogLevel {
+  TRACE,
+  DEBUG,
+  INFO,
+  WARN,
+  ERROR
+}
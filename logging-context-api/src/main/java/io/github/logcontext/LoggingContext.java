@@ -39,4 +39,25 @@ import java.lang.annotation.Target;
 @Inherited
 public @interface LoggingContext {
   String[] value() default {};
+
+  /**
+   * The level at which the logger of the advised class must be enabled for the logging context to
+   * be created. When the logger would discard events of this level, the advised method is invoked
+   * without any logging context, since nothing it logs through that logger would use it. This
+   * applies to methods and classes; the level of a method replaces the level of its class. By
+   * default, the logging context is always created, unless a default level is configured on the
+   * advice.
+   *
+   * <pre>
+   *   &#64;LoggingContext(value = "REFUND", ifEnabled = LogLevel.DEBUG)
+   *   public void issueRefund(@LoggingContext("order_number") String orderNumber) {
+   *     LOG.debug("Only given a logging context when debug logging is enabled");
+   *   }
+   * </pre>
+   *
+   * <p>At most one level should be provided; if there are several, the least severe is used.
+   *
+   * @return the level required for the logging context, or an empty array for none.
+   */
+  LogLevel[] ifEnabled() default {};
 }
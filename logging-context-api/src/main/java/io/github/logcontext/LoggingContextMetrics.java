@@ -0,0 +1,64 @@
+package io.github.logcontext;
+
+/**
+ * The LoggingContextMetrics interface is the service provider interface through which the library
+ * reports the cost of its logging contexts. The active implementation is resolved once by the
+ * {@link LoggingContextMetricsRegistry}; without one, the {@link #NO_OP} metrics are used and the
+ * instrumented code paths reduce to a constant check that the JIT removes.
+ *
+ * <p>Implementations are called on the threads that open and close logging contexts, so they must
+ * be thread safe and should not block or allocate. Every method does nothing by default.
+ */
+public interface LoggingContextMetrics {
+
+  /** The metrics used when none are configured, which record nothing. */
+  LoggingContextMetrics NO_OP =
+      new LoggingContextMetrics() {
+        @Override
+        public boolean isEnabled() {
+          return false;
+        }
+      };
+
+  /**
+   * Returns whether these metrics record anything. Instrumented code skips measuring, for example
+   * reading the clock, when they do not.
+   *
+   * @return <code>true</code> if the metrics record the reported operations.
+   */
+  default boolean isEnabled() {
+    return true;
+  }
+
+  /**
+   * Records that a logging context scope was opened by a backend builder.
+   *
+   * @param provider the name of the backend that opened the scope.
+   * @param nestedDepth the depth of the Nested Diagnostic Context (NDC) once the scope pushed its
+   *     values, including those of the enclosing scopes.
+   * @param mappedSize the number of Mapped Diagnostic Context (MDC) values put by the scope.
+   */
+  default void scopeOpened(final String provider, final int nestedDepth, final int mappedSize) {}
+
+  /**
+   * Records that a logging context scope opened by a backend builder was closed.
+   *
+   * @param provider the name of the backend that opened the scope.
+   */
+  default void scopeClosed(final String provider) {}
+
+  /**
+   * Records the time taken by an advice to find the plan of an advised call and open its logging
+   * context, excluding the advised method itself.
+   *
+   * @param nanos the elapsed time in nanoseconds.
+   */
+  default void adviceApplied(final long nanos) {}
+
+  /**
+   * Records the time taken by a {@link ValueRenderer} to convert a value.
+   *
+   * @param nanos the elapsed time in nanoseconds.
+   */
+  default void valueRendered(final long nanos) {}
+}
@@ -0,0 +1,89 @@
+package io.github.logcontext;
+
+import java.util.Map;
+
+/**
+ * The LoggingContextMetricsMXBean interface exposes the values recorded by {@link
+ * StripedLoggingContextMetrics} through JMX, under the {@link
+ * LoggingContextMetricsRegistry#OBJECT_NAME} object name.
+ *
+ * <p>Histograms are arrays of 65 counts. The count at index <code>0</code> is the number of zero
+ * values, and the count at index <code>i</code> is the number of values from <code>2^(i-1)</code>
+ * to <code>2^i - 1</code>.
+ */
+public interface LoggingContextMetricsMXBean {
+
+  /**
+   * Returns the number of scopes opened by each backend.
+   *
+   * @return the number of opened scopes keyed by backend name.
+   */
+  Map<String, Long> getScopesOpened();
+
+  /**
+   * Returns the number of scopes closed by each backend.
+   *
+   * @return the number of closed scopes keyed by backend name.
+   */
+  Map<String, Long> getScopesClosed();
+
+  /**
+   * Returns the histogram of the depth of the Nested Diagnostic Context once a scope pushed its
+   * values.
+   *
+   * @return the counts of the histogram buckets.
+   */
+  long[] getNestedDepthHistogram();
+
+  /**
+   * Returns the histogram of the number of Mapped Diagnostic Context values put per scope.
+   *
+   * @return the counts of the histogram buckets.
+   */
+  long[] getMappedSizeHistogram();
+
+  /**
+   * Returns the number of advised calls that opened a logging context.
+   *
+   * @return the number of advised calls.
+   */
+  long getAdviceCount();
+
+  /**
+   * Returns the total time taken by the advice to open the logging contexts of advised calls.
+   *
+   * @return the total time in nanoseconds.
+   */
+  long getAdviceNanos();
+
+  /**
+   * Returns the histogram of the time taken by the advice per advised call, in nanoseconds.
+   *
+   * @return the counts of the histogram buckets.
+   */
+  long[] getAdviceNanosHistogram();
+
+  /**
+   * Returns the number of values converted by renderers.
+   *
+   * @return the number of rendered values.
+   */
+  long getRenderCount();
+
+  /**
+   * Returns the total time taken by renderers to convert values.
+   *
+   * @return the total time in nanoseconds.
+   */
+  long getRenderNanos();
+
+  /**
+   * Returns the histogram of the time taken to convert a value, in nanoseconds.
+   *
+   * @return the counts of the histogram buckets.
+   */
+  long[] getRenderNanosHistogram();
+
+  /** Resets every count and histogram to zero. */
+  void reset();
+}
@@ -0,0 +1,186 @@
+package io.github.logcontext;
+
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.ServiceLoader;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The LoggingContextMetricsRegistry class resolves the active {@link LoggingContextMetrics} once,
+ * when it is first used, and keeps it in a constant. Unlike the {@link
+ * LoggingContextServiceProviderRegistry}, the metrics cannot be replaced afterwards: a constant
+ * lets the JIT remove the instrumentation entirely when the {@link LoggingContextMetrics#NO_OP}
+ * metrics are active.
+ *
+ * <p>The metrics are resolved as follows:
+ *
+ * <ol>
+ *   <li>the first {@link LoggingContextMetrics} found by the {@link ServiceLoader};
+ *   <li>otherwise, if the {@value #METRICS_PROPERTY} system property is <code>true</code>, a new
+ *       {@link StripedLoggingContextMetrics};
+ *   <li>otherwise, the {@link LoggingContextMetrics#NO_OP} metrics.
+ * </ol>
+ *
+ * <p>Metrics that implement {@link LoggingContextMetricsMXBean} are registered with the platform
+ * MBean server under the {@value #OBJECT_NAME} object name.
+ */
+public final class LoggingContextMetricsRegistry {
+
+  /** The system property that enables the {@link StripedLoggingContextMetrics}. */
+  public static final String METRICS_PROPERTY = "io.github.logcontext.metrics";
+
+  /** The JMX object name of the active metrics. */
+  public static final String OBJECT_NAME = "io.github.logcontext:type=LoggingContextMetrics";
+
+  /** The active metrics. */
+  private static final LoggingContextMetrics METRICS = load();
+
+  /** Prevents instantiation of the LoggingContextMetricsRegistry utility class. */
+  private LoggingContextMetricsRegistry() {}
+
+  /**
+   * Returns the active {@link LoggingContextMetrics}.
+   *
+   * @return the active metrics (never <code>null</code>).
+   */
+  public static LoggingContextMetrics getMetrics() {
+    return METRICS;
+  }
+
+  /**
+   * Returns whether the active metrics record anything. Instrumented code should check this before
+   * measuring an operation.
+   *
+   * @return <code>true</code> if the active metrics are enabled.
+   */
+  public static boolean isEnabled() {
+    return METRICS.isEnabled();
+  }
+
+  /**
+   * Returns the start time of an operation measured for the active metrics.
+   *
+   * @return the value of {@link System#nanoTime()}, or <code>0</code> without reading the clock if
+   *     the active metrics are disabled.
+   */
+  public static long startTime() {
+    return startTime(METRICS);
+  }
+
+  /**
+   * Records the time taken by an advice since the provided start time, if the active metrics are
+   * enabled.
+   *
+   * @param startTime the start time returned by {@link #startTime()}.
+   * @see LoggingContextMetrics#adviceApplied(long)
+   */
+  public static void recordAdvice(final long startTime) {
+    recordAdvice(METRICS, startTime);
+  }
+
+  /**
+   * Records the time taken to render a value since the provided start time, if the active metrics
+   * are enabled.
+   *
+   * @param startTime the start time returned by {@link #startTime()}.
+   * @see LoggingContextMetrics#valueRendered(long)
+   */
+  public static void recordRender(final long startTime) {
+    recordRender(METRICS, startTime);
+  }
+
+  /**
+   * Records that a backend opened a logging context scope, and returns a logging context that
+   * closes the scope and records that it was closed. Backend builders call this from {@link
+   * LogContext.Builder#get()} when the metrics are enabled.
+   *
+   * @param provider the name of the backend that opened the scope.
+   * @param nestedDepth the depth of the Nested Diagnostic Context once the scope pushed its values.
+   * @param mappedSize the number of Mapped Diagnostic Context values put by the scope.
+   * @param context the logging context of the scope.
+   * @return the logging context that records its closing.
+   */
+  public static LogContext recordScope(
+      final String provider, final int nestedDepth, final int mappedSize, final LogContext context) {
+    METRICS.scopeOpened(provider, nestedDepth, mappedSize);
+    return () -> {
+      try {
+        context.close();
+      } finally {
+        METRICS.scopeClosed(provider);
+      }
+    };
+  }
+
+  static long startTime(final LoggingContextMetrics metrics) {
+    return metrics.isEnabled() ? System.nanoTime() : 0L;
+  }
+
+  static void recordAdvice(final LoggingContextMetrics metrics, final long startTime) {
+    if (metrics.isEnabled()) {
+      metrics.adviceApplied(System.nanoTime() - startTime);
+    }
+  }
+
+  static void recordRender(final LoggingContextMetrics metrics, final long startTime) {
+    if (metrics.isEnabled()) {
+      metrics.valueRendered(System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * Resolves the active metrics and registers them with the platform MBean server if they are an
+   * MXBean.
+   *
+   * @return the active metrics.
+   */
+  private static LoggingContextMetrics load() {
+    final LoggingContextMetrics metrics =
+        select(
+            ServiceLoader.load(
+                    LoggingContextMetrics.class,
+                    LoggingContextMetricsRegistry.class.getClassLoader())
+                .iterator(),
+            Boolean.getBoolean(METRICS_PROPERTY));
+    register(metrics);
+    return metrics;
+  }
+
+  /**
+   * Selects the active metrics.
+   *
+   * @param loaded the metrics found by the service loader.
+   * @param enabled the value of the {@value #METRICS_PROPERTY} system property.
+   * @return the first loaded metrics, else new {@link StripedLoggingContextMetrics} if enabled,
+   *     else the {@link LoggingContextMetrics#NO_OP} metrics.
+   */
+  static LoggingContextMetrics select(
+      final Iterator<LoggingContextMetrics> loaded, final boolean enabled) {
+    if (loaded.hasNext()) {
+      return loaded.next();
+    }
+    return enabled ? new StripedLoggingContextMetrics() : LoggingContextMetrics.NO_OP;
+  }
+
+  /**
+   * Registers the metrics with the platform MBean server under the {@value #OBJECT_NAME} object
+   * name if they are an MXBean.
+   *
+   * @param metrics the metrics to register.
+   * @return <code>true</code> if the metrics were registered.
+   */
+  static boolean register(final LoggingContextMetrics metrics) {
+    if (!(metrics instanceof LoggingContextMetricsMXBean)) {
+      return false;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer()
+          .registerMBean(metrics, new ObjectName(OBJECT_NAME));
+      return true;
+    } catch (final JMException e) {
+      // Another copy of the library already registered its metrics; these stay usable directly.
+      return false;
+    }
+  }
+}
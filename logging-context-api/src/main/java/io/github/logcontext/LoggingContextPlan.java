@@ -0,0 +1,288 @@
+package io.github.logcontext;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+
+/**
+ * The LoggingContextPlan class is the resolved, immutable form of the {@link LoggingContext}
+ * annotations that apply to a single method: the nested contexts of its class and of the method
+ * itself, and the indexes of the annotated parameters together with their mapped context names.
+ *
+ * <p>A plan is resolved once per method and then applied to a {@link LogContext.Builder} on every
+ * call, so that weaving implementations do not have to repeat the annotation lookups.
+ */
+public final class LoggingContextPlan {
+
+  /** A plan that does not add anything to the logging context. */
+  public static final LoggingContextPlan EMPTY =
+      new LoggingContextPlan(null, null, new int[0], new String[0]);
+
+  /** The approximate size in bytes of an object header, used for footprint estimates. */
+  private static final int OBJECT_HEADER_SIZE = 16;
+
+  /** The approximate size in bytes of an object reference, used for footprint estimates. */
+  private static final int REFERENCE_SIZE = 4;
+
+  /** The nested contexts of the annotated class, or <code>null</code> if it has none. */
+  private final String[] typeContexts;
+
+  /** The nested contexts of the annotated method, or <code>null</code> if it has none. */
+  private final String[] methodContexts;
+
+  /** The indexes of the annotated parameters within the method arguments. */
+  private final int[] parameterIndexes;
+
+  /** The mapped context names of the annotated parameters, aligned with the indexes. */
+  private final String[] parameterContexts;
+
+  /** The level at which logging must be enabled for the plan to apply, or <code>null</code>. */
+  private final LogLevel enabledLevel;
+
+  /**
+   * Constructs a new instance of LoggingContextPlan.
+   *
+   * @param typeContexts the nested contexts of the class, or <code>null</code> for none.
+   * @param methodContexts the nested contexts of the method, or <code>null</code> for none.
+   * @param parameterIndexes the indexes of the annotated parameters (must not be <code>null</code>
+   *     ).
+   * @param parameterContexts the mapped context names of the annotated parameters, in the same
+   *     order as <code>parameterIndexes</code> (must not be <code>null</code>).
+   * @throws NullPointerException if <code>parameterIndexes</code> or <code>parameterContexts
+   *     </code> is <code>null</code>.
+   * @throws IllegalArgumentException if the parameter indexes and contexts differ in length.
+   */
+  public LoggingContextPlan(
+      final String[] typeContexts,
+      final String[] methodContexts,
+      final int[] parameterIndexes,
+      final String[] parameterContexts) {
+    this(typeContexts, methodContexts, parameterIndexes, parameterContexts, null);
+  }
+
+  /**
+   * Constructs a new instance of LoggingContextPlan that only applies when logging is enabled at
+   * the provided level.
+   *
+   * @param typeContexts the nested contexts of the class, or <code>null</code> for none.
+   * @param methodContexts the nested contexts of the method, or <code>null</code> for none.
+   * @param parameterIndexes the indexes of the annotated parameters (must not be <code>null</code>
+   *     ).
+   * @param parameterContexts the mapped context names of the annotated parameters, in the same
+   *     order as <code>parameterIndexes</code> (must not be <code>null</code>).
+   * @param enabledLevel the level at which logging must be enabled, or <code>null</code> to always
+   *     apply the plan.
+   * @throws NullPointerException if <code>parameterIndexes</code> or <code>parameterContexts
+   *     </code> is <code>null</code>.
+   * @throws IllegalArgumentException if the parameter indexes and contexts differ in length.
+   * @see LoggingContext#ifEnabled()
+   */
+  public LoggingContextPlan(
+      final String[] typeContexts,
+      final String[] methodContexts,
+      final int[] parameterIndexes,
+      final String[] parameterContexts,
+      final LogLevel enabledLevel) {
+    requireNonNull(parameterIndexes, "parameterIndexes must not be null");
+    requireNonNull(parameterContexts, "parameterContexts must not be null");
+    if (parameterIndexes.length != parameterContexts.length) {
+      throw new IllegalArgumentException("parameterIndexes and parameterContexts must align");
+    }
+
+    this.typeContexts = copyOrNull(typeContexts);
+    this.methodContexts = copyOrNull(methodContexts);
+    this.parameterIndexes = parameterIndexes.clone();
+    this.parameterContexts = parameterContexts.clone();
+    this.enabledLevel = enabledLevel;
+  }
+
+  /**
+   * Resolves the plan for a method invoked on an instance of the provided class by reading the
+   * {@link LoggingContext} annotations of the class, the method, and the method parameters.
+   *
+   * <p>Any {@link LoggingContext} without a value uses the simple name of the class, the name of
+   * the method, or the name of the parameter. Parameters only retain their source names when the
+   * class was compiled with <code>-parameters</code>. Only the last value of a parameter annotation
+   * is used as its mapped context name. The {@link LoggingContext#ifEnabled()} level of the method
+   * replaces the level of the class.
+   *
+   * @param type the class of the object on which the method is invoked (must not be <code>null
+   *     </code>).
+   * @param method the method being invoked (must not be <code>null</code>).
+   * @return the resolved plan.
+   * @throws NullPointerException if <code>type</code> or <code>method</code> is <code>null</code>.
+   */
+  public static LoggingContextPlan resolve(final Class<?> type, final Method method) {
+    requireNonNull(type, "type must not be null");
+    requireNonNull(method, "method must not be null");
+
+    final LoggingContext typeContext = type.getAnnotation(LoggingContext.class);
+    final LoggingContext methodContext = method.getAnnotation(LoggingContext.class);
+
+    final Parameter[] parameters = method.getParameters();
+    final int[] indexes = new int[parameters.length];
+    final String[] contexts = new String[parameters.length];
+    int annotated = 0;
+    for (int i = 0; i < parameters.length; i++) {
+      final LoggingContext parameterContext = parameters[i].getAnnotation(LoggingContext.class);
+      if (parameterContext != null) {
+        final String[] names = contextsOrDefault(parameterContext, parameters[i].getName());
+        indexes[annotated] = i;
+        contexts[annotated] = names[names.length - 1];
+        annotated++;
+      }
+    }
+
+    final LogLevel methodLevel = methodContext != null ? leastSevereLevel(methodContext) : null;
+    return new LoggingContextPlan(
+        typeContext != null ? contextsOrDefault(typeContext, type.getSimpleName()) : null,
+        methodContext != null ? contextsOrDefault(methodContext, method.getName()) : null,
+        Arrays.copyOf(indexes, annotated),
+        Arrays.copyOf(contexts, annotated),
+        methodLevel != null || typeContext == null ? methodLevel : leastSevereLevel(typeContext));
+  }
+
+  /**
+   * Adds the planned contexts to the provided builder: the class contexts first, then the method
+   * contexts, and finally the annotated parameters with their argument values. Integer, <code>
+   * double</code> and <code>boolean</code> arguments are added unboxed with {@link
+   * LogContext.Builder#andMapped(String, long)} and the other primitive overloads, so that builders
+   * keeping them unboxed only convert them when they are read. The other arguments are converted by
+   * {@link ValueRenderers}: strings, boxed primitives, enum constants and UUIDs immediately, and
+   * other arguments with {@link LogContext.Builder#andLazyMapped(String, Object)}, so that they are
+   * only converted to strings if an event is logged while the context is open.
+   *
+   * @param builder the {@link LogContext.Builder} to which the contexts should be added.
+   * @param arguments the arguments of the method invocation.
+   * @return the {@link LogContext.Builder} to use for any further chaining.
+   */
+  public LogContext.Builder apply(LogContext.Builder builder, final Object[] arguments) {
+    if (typeContexts != null) {
+      builder = builder.andNested(typeContexts);
+    }
+    if (methodContexts != null) {
+      builder = builder.andNested(methodContexts);
+    }
+    for (int i = 0; i < parameterIndexes.length; i++) {
+      final Object argument = arguments[parameterIndexes[i]];
+      if (argument != null && ValueRenderers.isUnboxable(argument.getClass())) {
+        builder = andUnboxed(builder, parameterContexts[i], argument);
+      } else {
+        final Object value = ValueRenderers.toMappedValue(argument);
+        builder =
+            value instanceof String
+                ? builder.andMapped(parameterContexts[i], (String) value)
+                : builder.andLazyMapped(parameterContexts[i], value);
+      }
+    }
+
+    return builder;
+  }
+
+  /**
+   * Adds a boxed integer, <code>double</code> or <code>boolean</code> argument to the builder with
+   * the primitive overload of its type.
+   */
+  private static LogContext.Builder andUnboxed(
+      final LogContext.Builder builder, final String context, final Object argument) {
+    if (argument instanceof Boolean) {
+      return builder.andMapped(context, ((Boolean) argument).booleanValue());
+    }
+    if (argument instanceof Double) {
+      return builder.andMapped(context, ((Double) argument).doubleValue());
+    }
+    return builder.andMapped(context, ((Number) argument).longValue());
+  }
+
+  /**
+   * Returns the level at which the logger of the advised class must be enabled for this plan to be
+   * applied.
+   *
+   * @return the level required for the logging context, or <code>null</code> if the plan always
+   *     applies.
+   * @see LoggingContext#ifEnabled()
+   */
+  public LogLevel getEnabledLevel() {
+    return enabledLevel;
+  }
+
+  /**
+   * Returns whether applying this plan would leave the logging context unchanged.
+   *
+   * @return <code>true</code> if the plan has no nested or mapped contexts.
+   */
+  public boolean isEmpty() {
+    return typeContexts == null && methodContexts == null && parameterIndexes.length == 0;
+  }
+
+  /**
+   * Returns an estimate of the heap retained by this plan in bytes, including its arrays and
+   * context strings. The estimate assumes compressed references and compact strings.
+   *
+   * @return the estimated footprint of the plan in bytes.
+   */
+  public long estimatedFootprint() {
+    return OBJECT_HEADER_SIZE
+        + 5 * REFERENCE_SIZE
+        + footprint(typeContexts)
+        + footprint(methodContexts)
+        + OBJECT_HEADER_SIZE
+        + 4L * parameterIndexes.length
+        + footprint(parameterContexts);
+  }
+
+  @Override
+  public String toString() {
+    return "LoggingContextPlan{nested="
+        + Arrays.toString(typeContexts)
+        + Arrays.toString(methodContexts)
+        + ", mapped="
+        + Arrays.toString(parameterContexts)
+        + "@"
+        + Arrays.toString(parameterIndexes)
+        + (enabledLevel != null ? ", ifEnabled=" + enabledLevel : "")
+        + "}";
+  }
+
+  private static String[] contextsOrDefault(
+      final LoggingContext loggingContext, final String defaultContext) {
+    final String[] contexts = loggingContext.value();
+    return contexts.length > 0 ? contexts : new String[] {defaultContext};
+  }
+
+  /**
+   * Returns the least severe {@link LoggingContext#ifEnabled()} level of an annotation.
+   *
+   * @param loggingContext the annotation.
+   * @return the level, or <code>null</code> if the annotation has none.
+   */
+  private static LogLevel leastSevereLevel(final LoggingContext loggingContext) {
+    LogLevel level = null;
+    for (final LogLevel candidate : loggingContext.ifEnabled()) {
+      if (level == null || candidate.compareTo(level) < 0) {
+        level = candidate;
+      }
+    }
+    return level;
+  }
+
+  private static String[] copyOrNull(final String[] contexts) {
+    return contexts != null ? contexts.clone() : null;
+  }
+
+  private static long footprint(final String[] strings) {
+    if (strings == null) {
+      return 0;
+    }
+
+    long size = OBJECT_HEADER_SIZE + (long) REFERENCE_SIZE * strings.length;
+    for (final String string : strings) {
+      if (string != null) {
+        size += 2 * OBJECT_HEADER_SIZE + 8 + string.length();
+      }
+    }
+    return size;
+  }
+}
@@ -0,0 +1,23 @@
+package io.github.logcontext;
+
+/**
+ * The LoggingContextPlanIndex interface is implemented by the classes that the
+ * <code>logging-context-processor</code> annotation processor generates for each class using the
+ * {@link LoggingContext} annotation. An index holds the {@link LoggingContextPlan} of every instance
+ * method declared by its class, resolved at compile time with the real parameter names.
+ *
+ * <p>Indexes are located by {@link LoggingContextPlanIndexes} and are not intended to be
+ * implemented by hand.
+ */
+public interface LoggingContextPlanIndex {
+
+  /**
+   * Returns the plan for an instance method declared by the indexed class.
+   *
+   * @param methodName the name of the method.
+   * @param parameterTypes the erased parameter types of the method.
+   * @return the plan of the method, or <code>null</code> if the method is not declared by the
+   *     indexed class.
+   */
+  LoggingContextPlan plan(String methodName, Class<?>[] parameterTypes);
+}
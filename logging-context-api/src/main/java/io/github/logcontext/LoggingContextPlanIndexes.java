@@ -0,0 +1,111 @@
+package io.github.logcontext;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.reflect.Method;
+
+/**
+ * The LoggingContextPlanIndexes class locates the {@link LoggingContextPlanIndex} generated at
+ * compile time for a class, so that weaving implementations can obtain a {@link LoggingContextPlan}
+ * without reading annotations at runtime.
+ *
+ * <p>The index of a class is a class in the same package named after the binary name of the
+ * indexed class, as returned by {@link #indexClassName(String)}. It is loaded at most once per
+ * indexed class.
+ */
+public final class LoggingContextPlanIndexes {
+
+  /** The suffix appended to the name of an indexed class to name its generated index. */
+  public static final String INDEX_CLASS_SUFFIX = "_LoggingContextPlans";
+
+  /** The index used for classes that were not processed by the annotation processor. */
+  private static final LoggingContextPlanIndex NO_INDEX = (methodName, parameterTypes) -> null;
+
+  /** The index of each class, loaded the first time the class is looked up. */
+  private static final ClassValue<LoggingContextPlanIndex> INDEXES =
+      new ClassValue<LoggingContextPlanIndex>() {
+        @Override
+        protected LoggingContextPlanIndex computeValue(final Class<?> type) {
+          return load(type);
+        }
+      };
+
+  /** Prevents instantiation of the LoggingContextPlanIndexes utility class. */
+  private LoggingContextPlanIndexes() {}
+
+  /**
+   * Returns the name of the generated index class for a class with the provided binary name. The
+   * binary name is kept as it is, including any <code>$</code> separating nested class names, so
+   * that the indexes of a nested class such as <code>Outer$Inner</code> and of a top-level class
+   * such as <code>Outer_Inner</code> cannot share a name.
+   *
+   * @param binaryName the binary name of the indexed class, as returned by {@link Class#getName()}.
+   * @return the binary name of the generated index class.
+   */
+  public static String indexClassName(final String binaryName) {
+    return binaryName + INDEX_CLASS_SUFFIX;
+  }
+
+  /**
+   * Returns the generated plan for a method invoked on an instance of the provided class. A
+   * generated plan is only available if the method is declared by the class itself and the class
+   * was compiled with the annotation processor.
+   *
+   * @param type the class of the object on which the method is invoked (must not be <code>null
+   *     </code>).
+   * @param method the invoked method (must not be <code>null</code>).
+   * @return the generated plan, or <code>null</code> if none is available.
+   * @throws NullPointerException if <code>type</code> or <code>method</code> is <code>null</code>.
+   */
+  public static LoggingContextPlan find(final Class<?> type, final Method method) {
+    requireNonNull(type, "type must not be null");
+    requireNonNull(method, "method must not be null");
+    if (method.getDeclaringClass() != type) {
+      return null;
+    }
+
+    return INDEXES.get(type).plan(method.getName(), method.getParameterTypes());
+  }
+
+  /**
+   * Returns whether the provided parameter types have the provided names. Generated indexes use
+   * this to identify overloaded methods without loading the parameter classes themselves.
+   *
+   * @param parameterTypes the parameter types of a method.
+   * @param parameterTypeNames the expected names of the parameter types, as returned by {@link
+   *     Class#getName()}.
+   * @return <code>true</code> if the parameter types match the names.
+   */
+  public static boolean matches(
+      final Class<?>[] parameterTypes, final String... parameterTypeNames) {
+    if (parameterTypes.length != parameterTypeNames.length) {
+      return false;
+    }
+    for (int i = 0; i < parameterTypes.length; i++) {
+      if (!parameterTypes[i].getName().equals(parameterTypeNames[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Loads and instantiates the generated index of the provided class.
+   *
+   * @param type the indexed class.
+   * @return the generated index, or an index without plans if the class has none.
+   */
+  private static LoggingContextPlanIndex load(final Class<?> type) {
+    try {
+      final Class<?> indexClass =
+          Class.forName(indexClassName(type.getName()), true, type.getClassLoader());
+      if (LoggingContextPlanIndex.class.isAssignableFrom(indexClass)) {
+        return (LoggingContextPlanIndex) indexClass.getConstructor().newInstance();
+      }
+    } catch (final ReflectiveOperationException | LinkageError e) {
+      // The class was not processed, so its plans will be resolved from its annotations.
+    }
+
+    return NO_INDEX;
+  }
+}
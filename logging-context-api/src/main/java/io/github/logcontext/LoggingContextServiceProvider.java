@@ -1,5 +1,7 @@
 package io.github.logcontext;
 
+import java.util.function.Predicate;
+
 public interface LoggingContextServiceProvider {
 
   /**
@@ -8,4 +10,28 @@ public interface LoggingContextServiceProvider {
    * @return a new instance of a LogContext.Builder specific to the provider implementation.
    */
   LogContext.Builder logContextBuilder();
+
+  /**
+   * Captures the logging context of the current thread so that it can be attached to another
+   * thread. Providers that do not support snapshots return {@link LogContextSnapshot#EMPTY}.
+   *
+   * @return a snapshot of the logging context of the current thread (never <code>null</code>).
+   */
+  default LogContextSnapshot captureSnapshot() {
+    return LogContextSnapshot.EMPTY;
+  }
+
+  /**
+   * Returns the predicate telling whether the logger of a category logs events of a level. The
+   * predicate is cached, for example by the {@link LoggingContext} advice for each advised class,
+   * and tested on every call. It should therefore follow changes of the logging configuration, such
+   * as a reload, rather than capture the levels enabled when it is created. Providers that cannot
+   * tell return a predicate that is always <code>true</code>.
+   *
+   * @param category the name of the logger, usually the name of a class.
+   * @return the predicate of the levels enabled for the category (never <code>null</code>).
+   */
+  default Predicate<LogLevel> loggingEnabled(final String category) {
+    return level -> true;
+  }
 }
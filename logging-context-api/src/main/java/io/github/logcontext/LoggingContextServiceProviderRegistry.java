@@ -0,0 +1,143 @@
+package io.github.logcontext;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+
+/**
+ * The LoggingContextServiceProviderRegistry class resolves the active {@link
+ * LoggingContextServiceProvider} once and caches it, so that {@link LogContext.Builder#builder()}
+ * does not have to run the {@link ServiceLoader} on every call.
+ *
+ * <p>Providers are resolved at most once per {@link ClassLoader}. The provider for the current
+ * thread's context class loader is resolved lazily on first use and becomes the active provider.
+ * After that, {@link #getProvider()} is a single field read. Applications that redeploy code in a
+ * new class loader can switch the active provider with {@link #resolve(ClassLoader)}, and tests can
+ * pin a specific provider with {@link #override(LoggingContextServiceProvider)}. {@link
+ * #invalidate()} discards everything that has been resolved so far.
+ */
+public final class LoggingContextServiceProviderRegistry {
+
+  /**
+   * The {@link LoggingContextServiceProvider} used when no provider can be found by the service
+   * loader. It always returns the {@link LogContext.Builder#NO_OP_BUILDER}.
+   */
+  public static final LoggingContextServiceProvider NO_OP_PROVIDER =
+      () -> LogContext.Builder.NO_OP_BUILDER;
+
+  /**
+   * The providers resolved so far, keyed by the class loader used to resolve them. Values are only
+   * weakly held so that a provider loaded by the key class loader does not keep it reachable.
+   */
+  private static final Map<ClassLoader, WeakReference<LoggingContextServiceProvider>> RESOLVED =
+      new WeakHashMap<>();
+
+  /** The active provider, or <code>null</code> if it has not been resolved yet. */
+  private static volatile LoggingContextServiceProvider activeProvider;
+
+  /** The number of times the active provider has been replaced or discarded. */
+  private static volatile int generation;
+
+  /** Prevents instantiation of the LoggingContextServiceProviderRegistry utility class. */
+  private LoggingContextServiceProviderRegistry() {}
+
+  /**
+   * Returns the active {@link LoggingContextServiceProvider}, resolving it with the current
+   * thread's context class loader if no provider has been resolved yet.
+   *
+   * @return the active {@link LoggingContextServiceProvider} (never <code>null</code>).
+   */
+  public static LoggingContextServiceProvider getProvider() {
+    final LoggingContextServiceProvider provider = activeProvider;
+    return provider != null ? provider : resolve(defaultClassLoader());
+  }
+
+  /**
+   * Makes the {@link LoggingContextServiceProvider} available to the provided class loader the
+   * active provider. The service loader is only consulted the first time a class loader is
+   * resolved.
+   *
+   * @param classLoader the class loader used to locate the provider (must not be <code>null</code>
+   *     ).
+   * @return the provider that is now active (never <code>null</code>).
+   * @throws NullPointerException if <code>classLoader</code> is <code>null</code>.
+   */
+  public static synchronized LoggingContextServiceProvider resolve(final ClassLoader classLoader) {
+    requireNonNull(classLoader, "classLoader must not be null");
+
+    final WeakReference<LoggingContextServiceProvider> cached = RESOLVED.get(classLoader);
+    LoggingContextServiceProvider provider = cached != null ? cached.get() : null;
+    if (provider == null) {
+      provider = load(classLoader);
+      RESOLVED.put(classLoader, new WeakReference<>(provider));
+    }
+
+    if (activeProvider != provider) {
+      activeProvider = provider;
+      generation++;
+    }
+    return provider;
+  }
+
+  /**
+   * Replaces the active provider with the provided one until {@link #invalidate()} or {@link
+   * #resolve(ClassLoader)} is called. This is primarily intended for tests.
+   *
+   * @param provider the provider to make active (must not be <code>null</code>).
+   * @throws NullPointerException if <code>provider</code> is <code>null</code>.
+   */
+  public static synchronized void override(final LoggingContextServiceProvider provider) {
+    activeProvider = requireNonNull(provider, "provider must not be null");
+    generation++;
+  }
+
+  /**
+   * Discards the active provider and every cached resolution. The next call to {@link
+   * #getProvider()} will run the service loader again.
+   */
+  public static synchronized void invalidate() {
+    RESOLVED.clear();
+    activeProvider = null;
+    generation++;
+  }
+
+  /**
+   * Returns a counter that changes whenever the active provider is replaced or discarded. Objects
+   * created by a provider can record it to detect that their provider is no longer active.
+   *
+   * @return the current generation of the active provider.
+   */
+  public static int getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Uses the {@link ServiceLoader} to locate the first {@link LoggingContextServiceProvider}
+   * visible to the provided class loader.
+   *
+   * @param classLoader the class loader used to locate the provider.
+   * @return the first provider found, or {@link #NO_OP_PROVIDER} if there is none.
+   */
+  private static LoggingContextServiceProvider load(final ClassLoader classLoader) {
+    final Iterator<LoggingContextServiceProvider> providers =
+        ServiceLoader.load(LoggingContextServiceProvider.class, classLoader).iterator();
+    return providers.hasNext() ? providers.next() : NO_OP_PROVIDER;
+  }
+
+  /**
+   * Returns the class loader used when the provider is resolved lazily: the current thread's
+   * context class loader, or the loader of this class if there is none.
+   *
+   * @return the class loader used for lazy resolution.
+   */
+  private static ClassLoader defaultClassLoader() {
+    final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    return contextClassLoader != null
+        ? contextClassLoader
+        : LoggingContextServiceProviderRegistry.class.getClassLoader();
+  }
+}
@@ -0,0 +1,32 @@
+package io.github.logcontext;
+
+/**
+ * The MappedContextSlot interface represents a logging context with a Mapped Diagnostic Context
+ * (MDC) key whose value can be replaced while the context is open. Code that logs once per item of
+ * a loop can then open and close a single logging context around the loop, and only replace the
+ * value for each item:
+ *
+ * <pre>
+ * try (MappedContextSlot orderNumber = LogContext.Builder.mappedContextSlot("order_number")) {
+ *   for (final Order order : orders) {
+ *     orderNumber.set(order.getNumber());
+ *     logger.info("Refunding order");
+ *   }
+ * }
+ * </pre>
+ *
+ * <p>Closing the slot restores the value the key had when the slot was opened, and removes the
+ * other values of the builder that opened it. Since a logging context restores the values it
+ * shadows when it is closed, the value must not be replaced while a logging context opened after
+ * the slot is still open.
+ */
+public interface MappedContextSlot extends LogContext {
+
+  /**
+   * Replaces the value of the key of this slot in the logging context of the current thread.
+   *
+   * @param value the value of the MDC attribute, or <code>null</code> to restore the value the key
+   *     had when the slot was opened until the next value is set.
+   */
+  void set(String value);
+}
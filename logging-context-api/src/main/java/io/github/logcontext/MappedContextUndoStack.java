@@ -0,0 +1,89 @@
+package io.github.logcontext;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * The MappedContextUndoStack class records the Mapped Diagnostic Context (MDC) values that a {@link
+ * LogContext} shadowed by putting a key that already had a value, so that the values can be
+ * restored when the {@link LogContext} is closed.
+ *
+ * <p>Each thread has its own stack, obtained with {@link #forCurrentThread()}. A {@link
+ * LogContext.Builder} records the {@link #size()} of the stack before it updates the MDC, calls
+ * {@link #push(String, String)} for each key that already had a value, and the returned {@link
+ * LogContext} calls {@link #restoreTo(int, BiConsumer)} with the recorded size when it is closed.
+ * Since nothing is pushed for keys that did not have a value, and the stack's arrays are reused,
+ * the stack does not allocate unless a key is shadowed at a depth that has not been reached before.
+ */
+public final class MappedContextUndoStack {
+
+  /** The initial capacity of the stack. */
+  private static final int INITIAL_CAPACITY = 8;
+
+  /** The stack of each thread. */
+  private static final ThreadLocal<MappedContextUndoStack> STACKS =
+      ThreadLocal.withInitial(MappedContextUndoStack::new);
+
+  /** The shadowed keys, of which the first {@link #size} are used. */
+  private String[] keys = new String[INITIAL_CAPACITY];
+
+  /** The shadowed values, aligned with {@link #keys}. */
+  private String[] values = new String[INITIAL_CAPACITY];
+
+  /** The number of shadowed values on the stack. */
+  private int size;
+
+  /** Constructs a new, empty instance of MappedContextUndoStack. */
+  MappedContextUndoStack() {}
+
+  /**
+   * Returns the stack of the current thread.
+   *
+   * @return the stack of the current thread (never <code>null</code>).
+   */
+  public static MappedContextUndoStack forCurrentThread() {
+    return STACKS.get();
+  }
+
+  /**
+   * Returns the number of shadowed values on the stack, which is the mark to pass to {@link
+   * #restoreTo(int, BiConsumer)}.
+   *
+   * @return the number of shadowed values on the stack.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Records the value that a key had before it was shadowed.
+   *
+   * @param key the shadowed MDC key.
+   * @param value the value of the key before it was shadowed.
+   */
+  public void push(final String key, final String value) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      values = Arrays.copyOf(values, size * 2);
+    }
+    keys[size] = key;
+    values[size++] = value;
+  }
+
+  /**
+   * Restores the values shadowed since the stack had the provided size, most recently shadowed
+   * first, and removes them from the stack. Nothing is restored if the stack is not larger than the
+   * mark, for example because the values were already restored.
+   *
+   * @param mark the size of the stack before the values to restore were pushed.
+   * @param restorer puts a key back into the MDC with its shadowed value.
+   */
+  public void restoreTo(final int mark, final BiConsumer<String, String> restorer) {
+    while (size > mark) {
+      size--;
+      restorer.accept(keys[size], values[size]);
+      keys[size] = null;
+      values[size] = null;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package io.github.logcontext;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The ReopeningMappedContextSlot class provides the {@link MappedContextSlot} of builders that
+ * cannot replace a value in place. Every value is added with a logging context of its own, which is
+ * closed when the value is replaced, so setting a value costs as much as opening and closing a
+ * logging context with {@link LogContext.Builder#mappedContext(String, String)}.
+ */
+final class ReopeningMappedContextSlot implements MappedContextSlot {
+
+  /** The logging context of the other values of the builder. */
+  private final LogContext context;
+
+  /** The MDC key of the slot. */
+  private final String key;
+
+  /** The logging context of the current value, or <code>null</code> if no value is set. */
+  private LogContext valueContext;
+
+  /**
+   * Constructs a new instance of ReopeningMappedContextSlot.
+   *
+   * @param context the logging context of the other values of the builder.
+   * @param key the MDC key of the slot (must not be <code>null</code>).
+   * @throws NullPointerException if <code>key</code> is <code>null</code>.
+   */
+  ReopeningMappedContextSlot(final LogContext context, final String key) {
+    this.context = context;
+    this.key = requireNonNull(key, "key must not be null");
+  }
+
+  @Override
+  public void set(final String value) {
+    try {
+      closeValue();
+    } catch (final RuntimeException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new IllegalStateException("Unable to restore the logging context", e);
+    }
+    if (value != null) {
+      valueContext = LogContext.Builder.mappedContext(key, value).get();
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    try {
+      closeValue();
+    } finally {
+      context.close();
+    }
+  }
+
+  private void closeValue() throws Exception {
+    final LogContext current = valueContext;
+    if (current != null) {
+      valueContext = null;
+      current.close();
+    }
+  }
+}
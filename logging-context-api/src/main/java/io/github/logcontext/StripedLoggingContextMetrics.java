@@ -0,0 +1,189 @@
+package io.github.logcontext;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The StripedLoggingContextMetrics class is the default {@link LoggingContextMetrics}
+ * implementation. Every count is a {@link LongAdder}, which spreads concurrent updates over
+ * several cells, and the histograms are arrays of such counts with one bucket per power of two,
+ * so recording never locks. The values are exposed through the {@link
+ * LoggingContextMetricsMXBean} interface.
+ *
+ * <p>It is used by the {@link LoggingContextMetricsRegistry} when the <code>
+ * io.github.logcontext.metrics</code> system property is <code>true</code>.
+ */
+public class StripedLoggingContextMetrics
+    implements LoggingContextMetrics, LoggingContextMetricsMXBean {
+
+  /** The scope counts of each backend. */
+  private final ConcurrentMap<String, ScopeCounts> scopes = new ConcurrentHashMap<>();
+
+  /** The depth of the Nested Diagnostic Context when a scope is opened. */
+  private final Histogram nestedDepths = new Histogram();
+
+  /** The number of Mapped Diagnostic Context values put per scope. */
+  private final Histogram mappedSizes = new Histogram();
+
+  /** The time taken by the advice per advised call. */
+  private final Histogram adviceNanos = new Histogram();
+
+  /** The time taken to render a value. */
+  private final Histogram renderNanos = new Histogram();
+
+  @Override
+  public void scopeOpened(final String provider, final int nestedDepth, final int mappedSize) {
+    scopeCounts(provider).opened.increment();
+    nestedDepths.record(nestedDepth);
+    mappedSizes.record(mappedSize);
+  }
+
+  @Override
+  public void scopeClosed(final String provider) {
+    scopeCounts(provider).closed.increment();
+  }
+
+  @Override
+  public void adviceApplied(final long nanos) {
+    adviceNanos.record(nanos);
+  }
+
+  @Override
+  public void valueRendered(final long nanos) {
+    renderNanos.record(nanos);
+  }
+
+  @Override
+  public Map<String, Long> getScopesOpened() {
+    final Map<String, Long> opened = new TreeMap<>();
+    scopes.forEach((provider, counts) -> opened.put(provider, counts.opened.sum()));
+    return Collections.unmodifiableMap(opened);
+  }
+
+  @Override
+  public Map<String, Long> getScopesClosed() {
+    final Map<String, Long> closed = new TreeMap<>();
+    scopes.forEach((provider, counts) -> closed.put(provider, counts.closed.sum()));
+    return Collections.unmodifiableMap(closed);
+  }
+
+  @Override
+  public long[] getNestedDepthHistogram() {
+    return nestedDepths.counts();
+  }
+
+  @Override
+  public long[] getMappedSizeHistogram() {
+    return mappedSizes.counts();
+  }
+
+  @Override
+  public long getAdviceCount() {
+    return adviceNanos.count.sum();
+  }
+
+  @Override
+  public long getAdviceNanos() {
+    return adviceNanos.total.sum();
+  }
+
+  @Override
+  public long[] getAdviceNanosHistogram() {
+    return adviceNanos.counts();
+  }
+
+  @Override
+  public long getRenderCount() {
+    return renderNanos.count.sum();
+  }
+
+  @Override
+  public long getRenderNanos() {
+    return renderNanos.total.sum();
+  }
+
+  @Override
+  public long[] getRenderNanosHistogram() {
+    return renderNanos.counts();
+  }
+
+  @Override
+  public void reset() {
+    scopes.clear();
+    nestedDepths.reset();
+    mappedSizes.reset();
+    adviceNanos.reset();
+    renderNanos.reset();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "StripedLoggingContextMetrics{opened=%s, closed=%s, advice=%d/%dns, render=%d/%dns}",
+        getScopesOpened(),
+        getScopesClosed(),
+        getAdviceCount(),
+        getAdviceNanos(),
+        getRenderCount(),
+        getRenderNanos());
+  }
+
+  private ScopeCounts scopeCounts(final String provider) {
+    final ScopeCounts counts = scopes.get(provider);
+    return counts != null ? counts : scopes.computeIfAbsent(provider, p -> new ScopeCounts());
+  }
+
+  /** The numbers of scopes opened and closed by a backend. */
+  private static final class ScopeCounts {
+
+    final LongAdder opened = new LongAdder();
+
+    final LongAdder closed = new LongAdder();
+  }
+
+  /** A histogram with one bucket per power of two, plus the count and total of its values. */
+  private static final class Histogram {
+
+    /** The number of buckets: one for zero and one per bit of a positive <code>long</code>. */
+    static final int BUCKETS = Long.SIZE + 1;
+
+    final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    final LongAdder count = new LongAdder();
+
+    final LongAdder total = new LongAdder();
+
+    Histogram() {
+      for (int i = 0; i < BUCKETS; i++) {
+        buckets[i] = new LongAdder();
+      }
+    }
+
+    void record(final long value) {
+      final long positive = Math.max(value, 0L);
+      buckets[Long.SIZE - Long.numberOfLeadingZeros(positive)].increment();
+      count.increment();
+      total.add(positive);
+    }
+
+    long[] counts() {
+      final long[] counts = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; i++) {
+        counts[i] = buckets[i].sum();
+      }
+      return counts;
+    }
+
+    void reset() {
+      for (final LongAdder bucket : buckets) {
+        bucket.reset();
+      }
+      count.reset();
+      total.reset();
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package io.github.logcontext;
+
+/**
+ * The ValueRenderer interface converts the arguments of parameters annotated with {@link
+ * LoggingContext} to their Mapped Diagnostic Context (MDC) values. Renderers are registered for a
+ * type with {@link ValueRenderers#register(Class, ValueRenderer)}, which applies them to arguments
+ * of that type and of its subtypes.
+ *
+ * <p>The rendered value is truncated to the {@link ValueRenderers#getMaxLength() maximum length}
+ * afterwards, so a renderer of large values can stop as soon as it has produced more than <code>
+ * maxLength</code> characters, rather than building the whole string only to have it cut.
+ *
+ * @param <T> the type of the rendered values.
+ */
+@FunctionalInterface
+public interface ValueRenderer<T> {
+
+  /**
+   * Converts a value to the string added to the logging context.
+   *
+   * @param value the value to convert (never <code>null</code>).
+   * @param maxLength the number of characters that will be kept of the result.
+   * @return the string form of the value, which may be longer than <code>maxLength</code>.
+   */
+  String render(T value, int maxLength);
+}
@@ -0,0 +1,351 @@
+package io.github.logcontext;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The ValueRenderers class converts the arguments of parameters annotated with {@link
+ * LoggingContext} to their Mapped Diagnostic Context (MDC) values, using the {@link ValueRenderer}
+ * registered for the type of the argument and truncating the result to a maximum length.
+ *
+ * <p>The renderer of each argument type is resolved on first use and cached: a renderer registered
+ * for the class or one of its superclasses, then one registered for one of its interfaces, then a
+ * built-in renderer, and finally one registered for {@link Object}. Without any renderer, values
+ * are converted with {@link Object#toString()}.
+ *
+ * <p>Strings, other {@link CharSequence}s, boxed primitives, enum constants and {@link UUID}s have
+ * built-in renderers that are cheap enough to run when the logging context is created. Collections
+ * and maps that use the {@link AbstractCollection#toString()} or {@link AbstractMap#toString()}
+ * format stop rendering their elements once the maximum length is reached. Every other value is
+ * only rendered when an event is logged, as a {@link LazyMappedValue}.
+ *
+ * <p>Values longer than the maximum length are cut and end with <code>"..."</code>. By default the
+ * length is not limited.
+ */
+public final class ValueRenderers {
+
+  /** The maximum length of values when it has not been configured, which does not limit them. */
+  public static final int UNLIMITED = Integer.MAX_VALUE;
+
+  /** The suffix of truncated values. */
+  private static final String ELLIPSIS = "...";
+
+  /** The length of the longest string form of a <code>long</code> or a <code>double</code>. */
+  private static final int MAX_PRIMITIVE_LENGTH = 24;
+
+  /** The renderer of values that are converted with {@link Object#toString()}. */
+  private static final ValueRenderer<Object> TO_STRING = (value, maxLength) -> value.toString();
+
+  /** The renderer of {@link CharSequence}s, which only copies the characters that are kept. */
+  private static final ValueRenderer<Object> CHAR_SEQUENCE =
+      (value, maxLength) -> {
+        final CharSequence chars = (CharSequence) value;
+        return chars.length() > maxLength
+            ? chars.subSequence(0, maxLength + 1).toString()
+            : chars.toString();
+      };
+
+  /** The renderer of collections using the {@link AbstractCollection#toString()} format. */
+  private static final ValueRenderer<Object> COLLECTION =
+      (value, maxLength) -> renderCollection((Collection<?>) value, maxLength);
+
+  /** The renderer of maps using the {@link AbstractMap#toString()} format. */
+  private static final ValueRenderer<Object> MAP =
+      (value, maxLength) -> renderMap((Map<?, ?>) value, maxLength);
+
+  /** The renderers registered for each type, replaced on every registration. */
+  private static volatile Map<Class<?>, ValueRenderer<?>> registered = Collections.emptyMap();
+
+  /** The resolved renderer of each type, replaced whenever a renderer is registered. */
+  private static volatile ClassValue<Resolution> resolutions = newResolutions();
+
+  /** The maximum length of rendered values. */
+  private static volatile int maxLength = UNLIMITED;
+
+  /** Prevents instantiation of the ValueRenderers utility class. */
+  private ValueRenderers() {}
+
+  /**
+   * Registers the renderer of values of the provided type and of its subtypes, replacing any
+   * renderer previously registered for the same type. Renderers are meant to be registered once
+   * when the application starts, since every registration discards the resolved renderers.
+   *
+   * @param <T> the type of the rendered values.
+   * @param type the type of the rendered values (must not be <code>null</code>).
+   * @param renderer the renderer of the values (must not be <code>null</code>).
+   * @throws NullPointerException if <code>type</code> or <code>renderer</code> is <code>null
+   *     </code>.
+   */
+  public static synchronized <T> void register(
+      final Class<T> type, final ValueRenderer<? super T> renderer) {
+    requireNonNull(type, "type must not be null");
+    requireNonNull(renderer, "renderer must not be null");
+
+    final Map<Class<?>, ValueRenderer<?>> renderers = new HashMap<>(registered);
+    renderers.put(type, renderer);
+    registered = renderers;
+    resolutions = newResolutions();
+  }
+
+  /**
+   * Removes every registered renderer and no longer limits the length of values. This is primarily
+   * intended for tests.
+   */
+  public static synchronized void reset() {
+    registered = Collections.emptyMap();
+    resolutions = newResolutions();
+    maxLength = UNLIMITED;
+  }
+
+  /**
+   * Returns the maximum length of rendered values.
+   *
+   * @return the maximum length, or {@link #UNLIMITED} if the length is not limited.
+   */
+  public static int getMaxLength() {
+    return maxLength;
+  }
+
+  /**
+   * Sets the maximum length of rendered values. Longer values are cut so that, together with the
+   * <code>"..."</code> suffix, they have this length. The length of values that have already been
+   * rendered does not change.
+   *
+   * @param maxLength the maximum length, or {@link #UNLIMITED} to not limit the length.
+   * @throws IllegalArgumentException if <code>maxLength</code> is not greater than 3.
+   */
+  public static void setMaxLength(final int maxLength) {
+    if (maxLength <= ELLIPSIS.length()) {
+      throw new IllegalArgumentException("maxLength must be greater than " + ELLIPSIS.length());
+    }
+    ValueRenderers.maxLength = maxLength;
+  }
+
+  /**
+   * Converts a value to its Mapped Diagnostic Context (MDC) value with the renderer of its type,
+   * truncating it to the maximum length.
+   *
+   * @param value the value to convert, which may be <code>null</code>.
+   * @return the string form of the value, or <code>"null"</code> for a <code>null</code> value.
+   */
+  public static String render(final Object value) {
+    return value != null ? render(value, resolutions.get(value.getClass()).renderer) : "null";
+  }
+
+  /**
+   * Converts a value to its Mapped Diagnostic Context (MDC) value if the renderer of its type is
+   * cheap, or wraps it in a {@link LazyMappedValue} that renders it when it is first read.
+   *
+   * @param value the value to convert, which may be <code>null</code>.
+   * @return the string form of the value, or a {@link LazyMappedValue}.
+   */
+  static Object toMappedValue(final Object value) {
+    if (value == null) {
+      return "null";
+    }
+    final Resolution resolution = resolutions.get(value.getClass());
+    return resolution.eager
+        ? render(value, resolution.renderer)
+        : LazyMappedValue.of(value, resolution.renderer);
+  }
+
+  /**
+   * Returns whether the boxed values of a type can be added to a builder unboxed instead, with
+   * {@link LogContext.Builder#andMapped(String, long)} and the other primitive overloads. This is
+   * the case for integers other than characters, doubles and booleans, unless a renderer was
+   * registered for them or the maximum length could truncate them.
+   *
+   * @param type the type of the values.
+   * @return <code>true</code> if the values are rendered as their unboxed values would be.
+   */
+  static boolean isUnboxable(final Class<?> type) {
+    if (type != Long.class
+        && type != Integer.class
+        && type != Short.class
+        && type != Byte.class
+        && type != Double.class
+        && type != Boolean.class) {
+      return false;
+    }
+    return maxLength >= MAX_PRIMITIVE_LENGTH && resolutions.get(type).renderer == TO_STRING;
+  }
+
+  /**
+   * Converts a value with the provided renderer, truncating it to the maximum length. The time
+   * taken is reported to the {@link LoggingContextMetrics} when they are enabled.
+   *
+   * @param value the value to convert (never <code>null</code>).
+   * @param renderer the renderer of the value.
+   * @return the string form of the value.
+   */
+  static String render(final Object value, final ValueRenderer<Object> renderer) {
+    final int limit = maxLength;
+    final long start = LoggingContextMetricsRegistry.startTime();
+    try {
+      return truncate(String.valueOf(renderer.render(value, limit)), limit);
+    } finally {
+      LoggingContextMetricsRegistry.recordRender(start);
+    }
+  }
+
+  private static String truncate(final String value, final int limit) {
+    if (value.length() <= limit) {
+      return value;
+    }
+    int end = limit - ELLIPSIS.length();
+    if (Character.isHighSurrogate(value.charAt(end - 1))) {
+      end--;
+    }
+    return value.substring(0, end) + ELLIPSIS;
+  }
+
+  private static String renderCollection(final Collection<?> collection, final int limit) {
+    final Iterator<?> elements = collection.iterator();
+    if (!elements.hasNext()) {
+      return "[]";
+    }
+    final StringBuilder builder = new StringBuilder().append('[');
+    while (elements.hasNext() && builder.length() <= limit) {
+      final Object element = elements.next();
+      appendElement(builder, element == collection ? "(this Collection)" : element, limit);
+      builder.append(elements.hasNext() ? ", " : "]");
+    }
+    return builder.toString();
+  }
+
+  private static String renderMap(final Map<?, ?> map, final int limit) {
+    final Iterator<? extends Map.Entry<?, ?>> entries = map.entrySet().iterator();
+    if (!entries.hasNext()) {
+      return "{}";
+    }
+    final StringBuilder builder = new StringBuilder().append('{');
+    while (entries.hasNext() && builder.length() <= limit) {
+      final Map.Entry<?, ?> entry = entries.next();
+      appendElement(builder, entry.getKey() == map ? "(this Map)" : entry.getKey(), limit);
+      builder.append('=');
+      appendElement(builder, entry.getValue() == map ? "(this Map)" : entry.getValue(), limit);
+      builder.append(entries.hasNext() ? ", " : "}");
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Appends an element of a collection or map with the renderer of its type, keeping at most the
+   * characters needed to exceed the maximum length.
+   */
+  private static void appendElement(
+      final StringBuilder builder, final Object element, final int limit) {
+    final int remaining = limit - builder.length() + 1;
+    if (remaining <= 0) {
+      return;
+    }
+    final String value =
+        element != null
+            ? String.valueOf(resolutions.get(element.getClass()).renderer.render(element, remaining))
+            : "null";
+    builder.append(value, 0, Math.min(value.length(), remaining));
+  }
+
+  private static ClassValue<Resolution> newResolutions() {
+    return new ClassValue<Resolution>() {
+      @Override
+      protected Resolution computeValue(final Class<?> type) {
+        return resolve(type);
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Resolution resolve(final Class<?> type) {
+    final Map<Class<?>, ValueRenderer<?>> renderers = registered;
+    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+      final ValueRenderer<?> renderer = renderers.get(c);
+      if (renderer != null) {
+        return new Resolution((ValueRenderer<Object>) renderer, false);
+      }
+    }
+    final ValueRenderer<?> interfaceRenderer = findInterfaceRenderer(type, renderers);
+    if (interfaceRenderer != null) {
+      return new Resolution((ValueRenderer<Object>) interfaceRenderer, false);
+    }
+
+    if (CharSequence.class.isAssignableFrom(type)) {
+      return new Resolution(CHAR_SEQUENCE, true);
+    }
+    if (isBoxedPrimitive(type) || Enum.class.isAssignableFrom(type) || type == UUID.class) {
+      return new Resolution(TO_STRING, true);
+    }
+    if (Collection.class.isAssignableFrom(type)
+        && declaresToString(type, AbstractCollection.class)) {
+      return new Resolution(COLLECTION, false);
+    }
+    if (Map.class.isAssignableFrom(type) && declaresToString(type, AbstractMap.class)) {
+      return new Resolution(MAP, false);
+    }
+
+    final ValueRenderer<?> objectRenderer = renderers.get(Object.class);
+    return new Resolution(
+        objectRenderer != null ? (ValueRenderer<Object>) objectRenderer : TO_STRING, false);
+  }
+
+  private static ValueRenderer<?> findInterfaceRenderer(
+      final Class<?> type, final Map<Class<?>, ValueRenderer<?>> renderers) {
+    final Deque<Class<?>> pending = new ArrayDeque<>();
+    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+      Collections.addAll(pending, c.getInterfaces());
+    }
+    while (!pending.isEmpty()) {
+      final Class<?> candidate = pending.removeFirst();
+      final ValueRenderer<?> renderer = renderers.get(candidate);
+      if (renderer != null) {
+        return renderer;
+      }
+      Collections.addAll(pending, candidate.getInterfaces());
+    }
+    return null;
+  }
+
+  private static boolean isBoxedPrimitive(final Class<?> type) {
+    return type == Integer.class
+        || type == Long.class
+        || type == Boolean.class
+        || type == Character.class
+        || type == Double.class
+        || type == Float.class
+        || type == Short.class
+        || type == Byte.class;
+  }
+
+  private static boolean declaresToString(final Class<?> type, final Class<?> declaringClass) {
+    try {
+      return type.getMethod("toString").getDeclaringClass() == declaringClass;
+    } catch (final NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /** The renderer resolved for a type. */
+  private static final class Resolution {
+
+    /** The renderer of values of the type. */
+    final ValueRenderer<Object> renderer;
+
+    /** Whether the values are rendered when the logging context is created. */
+    final boolean eager;
+
+    Resolution(final ValueRenderer<Object> renderer, final boolean eager) {
+      this.renderer = renderer;
+      this.eager = eager;
+    }
+  }
+}
@@ -1,10 +1,16 @@
 package io.github.logcontext;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.Matchers.anEmptyMap;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * The AbstractLogContextBuilderTest class provides a set of JUnit test cases for the {@link
@@ -136,6 +142,304 @@ class AbstractLogContextBuilderTest {
         assertThat(logContextBuilder.getMappedContextValues(), anEmptyMap());
     }
 
+    /**
+     * Test method for {@link AbstractLogContextBuilder#andMapped(String, String)} that ensures a replaced
+     * value keeps the position of the original key.
+     */
+    @Test
+    void testAndMapped_replacedValueKeepsOrder() {
+        logContextBuilder.andMapped(CONTEXT_1, VALUE_1).andMapped(CONTEXT_2, VALUE_2).andMapped(CONTEXT_1, VALUE_2);
+
+        assertThat(logContextBuilder.getMappedContextCount(), equalTo(2));
+        assertThat(logContextBuilder.getMappedContextKey(0), equalTo(CONTEXT_1));
+        assertThat(logContextBuilder.getMappedContextValue(0), equalTo(VALUE_2));
+        assertThat(logContextBuilder.getMappedContextKey(1), equalTo(CONTEXT_2));
+        assertThat(logContextBuilder.getMappedContextValue(1), equalTo(VALUE_2));
+    }
+
+    /**
+     * Test method for {@link AbstractLogContextBuilder#andLazyMapped(String, Object)} and {@link
+     * AbstractLogContextBuilder#andLazyMapped(String, java.util.function.Supplier)} that ensures the values
+     * are kept unconverted until they are read as strings.
+     */
+    @Test
+    void testAndLazyMapped() {
+        final LazyMappedValue lazyValue = LazyMappedValue.of(1);
+        LogContext.Builder builder = logContextBuilder.andMapped(CONTEXT_1, VALUE_1)
+                .andLazyMapped(CONTEXT_2, () -> VALUE_2)
+                .andLazyMapped("lazy", lazyValue);
+
+        assertThat(builder, sameInstance(logContextBuilder));
+        assertThat(logContextBuilder.getMappedContextCount(), equalTo(3));
+        assertThat(logContextBuilder.getLazyMappedContextCount(), equalTo(2));
+        assertThat(logContextBuilder.getLazyMappedContextValue(0), nullValue());
+        assertThat(logContextBuilder.getLazyMappedContextValue(1).isRendered(), equalTo(false));
+        assertThat(logContextBuilder.getLazyMappedContextValue(2), sameInstance(lazyValue));
+
+        assertThat(logContextBuilder.getMappedContextValue(1), equalTo(VALUE_2));
+        assertThat(logContextBuilder.getLazyMappedContextValue(1).isRendered(), equalTo(true));
+        assertThat(logContextBuilder.getMappedContextValues(), hasEntry("lazy", "1"));
+    }
+
+    /**
+     * Test method for {@link AbstractLogContextBuilder#andLazyMapped(String, Object)} that ensures replacing
+     * values keeps the number of lazy values, and that blank contexts are ignored.
+     */
+    @Test
+    void testAndLazyMapped_replaceAndIgnoreBlankContext() {
+        logContextBuilder.andLazyMapped(CONTEXT_1, (Object) VALUE_1).andLazyMapped(CONTEXT_1, (Object) VALUE_2);
+
+        assertThat(logContextBuilder.getLazyMappedContextCount(), equalTo(1));
+
+        logContextBuilder.andMapped(CONTEXT_1, VALUE_1);
+
+        assertThat(logContextBuilder.getLazyMappedContextCount(), equalTo(0));
+        assertThat(logContextBuilder.getMappedContextValue(0), equalTo(VALUE_1));
+
+        logContextBuilder.andLazyMapped(" ", (Object) VALUE_1).andLazyMapped(null, () -> VALUE_1);
+
+        assertThat(logContextBuilder.getMappedContextCount(), equalTo(1));
+
+        logContextBuilder.andLazyMapped(CONTEXT_2, (Object) VALUE_2);
+        logContextBuilder.reset();
+
+        assertThat(logContextBuilder.getLazyMappedContextCount(), equalTo(0));
+    }
+
+    /**
+     * Test method for {@link AbstractLogContextBuilder#andMapped(String, long)}, {@link
+     * AbstractLogContextBuilder#andMapped(String, int)}, {@link AbstractLogContextBuilder#andMapped(String,
+     * double)} and {@link AbstractLogContextBuilder#andMapped(String, boolean)} that ensures the values are
+     * read as their string forms, and that the decimal form of a <code>long</code> is reused.
+     */
+    @Test
+    void testAndMapped_primitives() {
+        LogContext.Builder builder = logContextBuilder.andMapped("long", Long.MIN_VALUE)
+                .andMapped("int", -42)
+                .andMapped("double", 1.5d)
+                .andMapped("boolean", true)
+                .andMapped("false", false);
+
+        assertThat(builder, sameInstance(logContextBuilder));
+        assertThat(logContextBuilder.getMappedContextCount(), equalTo(5));
+        assertThat(logContextBuilder.getLazyMappedContextCount(), equalTo(0));
+        assertThat(logContextBuilder.getLazyMappedContextValue(0), nullValue());
+        assertThat(logContextBuilder.getMappedContextValue(0), equalTo("-9223372036854775808"));
+        assertThat(logContextBuilder.getMappedContextValue(0),
+                sameInstance(logContextBuilder.getMappedContextValue(0)));
+        assertThat(logContextBuilder.getMappedContextValues(), hasEntry("int", "-42"));
+        assertThat(logContextBuilder.getMappedContextValues(), hasEntry("double", "1.5"));
+        assertThat(logContextBuilder.getMappedContextValues(), hasEntry("boolean", "true"));
+        assertThat(logContextBuilder.getMappedContextValues(), hasEntry("false", "false"));
+    }
+
+    /**
+     * Test method for {@link AbstractLogContextBuilder#andMapped(String, long)} that ensures unboxed values
+     * replace and are replaced by other values in place, that blank contexts are ignored, and that they are
+     * kept beyond the initial capacity.
+     */
+    @Test
+    void testAndMapped_replacePrimitives() {
+        logContextBuilder.andMapped(CONTEXT_1, 1L).andMapped(CONTEXT_1, 2.5d).andMapped(" ", 3L)
+                .andMapped(null, 4);
+
+        assertThat(logContextBuilder.getMappedContextValues(),
+                equalTo(Collections.singletonMap(CONTEXT_1, "2.5")));
+
+        logContextBuilder.andLazyMapped(CONTEXT_1, (Object) VALUE_1).andMapped(CONTEXT_1, 5L);
+
+        assertThat(logContextBuilder.getLazyMappedContextCount(), equalTo(0));
+        assertThat(logContextBuilder.getMappedContextValue(0), equalTo("5"));
+
+        for (int i = 0; i < 10; i++) {
+            logContextBuilder.andMapped("id" + i, 1000L + i);
+        }
+
+        assertThat(logContextBuilder.getMappedContextCount(), equalTo(11));
+        assertThat(logContextBuilder.getMappedContextValue(10), equalTo("1009"));
+    }
+
+    /**
+     * Test method for {@link AbstractLogContextBuilder#andNested(String...)} and {@link
+     * AbstractLogContextBuilder#andMapped(String, String)} that ensures the context arrays grow beyond their
+     * initial capacity.
+     */
+    @Test
+    void testAndNestedAndMapped_growsCapacity() {
+        for (int i = 0; i < 10; i++) {
+            logContextBuilder.andNested(CONTEXT_1 + i).andMapped(CONTEXT_2 + i, VALUE_1 + i);
+        }
+
+        assertThat(logContextBuilder.getNestedContextCount(), equalTo(10));
+        assertThat(logContextBuilder.getNestedContext(9), equalTo(CONTEXT_1 + 9));
+        assertThat(logContextBuilder.getMappedContextCount(), equalTo(10));
+        assertThat(logContextBuilder.getMappedContextKey(9), equalTo(CONTEXT_2 + 9));
+        assertThat(logContextBuilder.getMappedContextValue(9), equalTo(VALUE_1 + 9));
+        assertThat(logContextBuilder.getNestedContexts(), hasSize(10));
+        assertThat(logContextBuilder.getMappedContextValues(), aMapWithSize(10));
+    }
+
+    /**
+     * Test method for {@link AbstractLogContextBuilder#getNestedContexts()} and {@link
+     * AbstractLogContextBuilder#getMappedContextValues()} that ensures the returned values are copies that
+     * are not affected by later changes to the builder.
+     */
+    @Test
+    void testGetContexts_copies() {
+        logContextBuilder.andNested(CONTEXT_1).andMapped(CONTEXT_1, VALUE_1);
+
+        final List<String> nestedContexts = logContextBuilder.getNestedContexts();
+        final Map<String, String> mappedContextValues = logContextBuilder.getMappedContextValues();
+        logContextBuilder.reset().andNested(CONTEXT_2).andMapped(CONTEXT_2, VALUE_2);
+
+        assertThat(nestedContexts, contains(CONTEXT_1));
+        assertThat(mappedContextValues, equalTo(Collections.singletonMap(CONTEXT_1, VALUE_1)));
+    }
+
+    /**
+     * Test method for {@link AbstractLogContextBuilder#reset()}.
+     */
+    @Test
+    void testReset() {
+        logContextBuilder.andNested(CONTEXT_1, CONTEXT_2).andMapped(CONTEXT_1, VALUE_1);
+
+        assertThat(logContextBuilder.reset(), sameInstance(logContextBuilder));
+        assertThat(logContextBuilder.getNestedContextCount(), equalTo(0));
+        assertThat(logContextBuilder.getMappedContextCount(), equalTo(0));
+        assertThat(logContextBuilder.getNestedContexts(), empty());
+        assertThat(logContextBuilder.getMappedContextValues(), anEmptyMap());
+
+        logContextBuilder.andNested(CONTEXT_2).andMapped(CONTEXT_2, VALUE_2);
+
+        assertThat(logContextBuilder.getNestedContexts(), contains(CONTEXT_2));
+        assertThat(logContextBuilder.getMappedContextValues(), hasEntry(CONTEXT_2, VALUE_2));
+    }
+
+    /**
+     * Test method for the indexed accessors of {@link AbstractLogContextBuilder} that ensures an {@link
+     * IndexOutOfBoundsException} is thrown for indexes outside of the added values.
+     */
+    @Test
+    void testIndexedAccessors_outOfRange() {
+        logContextBuilder.andNested(CONTEXT_1).andMapped(CONTEXT_1, VALUE_1);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> logContextBuilder.getNestedContext(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> logContextBuilder.getNestedContext(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> logContextBuilder.getMappedContextKey(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> logContextBuilder.getMappedContextValue(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> logContextBuilder.getLazyMappedContextValue(1));
+    }
+
+    /**
+     * Test method for {@link AbstractLogContextBuilder#toAttachable()} that ensures the values are copied,
+     * so that they are attached unchanged after the builder is reset, as many times as needed, and that a
+     * lazy value is rendered only once.
+     */
+    @Test
+    void testToAttachable() {
+        final AtomicInteger rendered = new AtomicInteger();
+        logContextBuilder.andNested(CONTEXT_1)
+                .andMapped(CONTEXT_1, VALUE_1)
+                .andLazyMapped(CONTEXT_2, () -> rendered.incrementAndGet());
+
+        final AttachableLogContext attachable = logContextBuilder.toAttachable();
+        logContextBuilder.reset().andNested(CONTEXT_2).andMapped(CONTEXT_1, VALUE_2);
+
+        for (int i = 0; i < 2; i++) {
+            final TestableLogContext context = (TestableLogContext) attachable.attach();
+
+            assertThat(context.hasNestedContext(CONTEXT_1), equalTo(true));
+            assertThat(context.hasNestedContext(CONTEXT_2), equalTo(false));
+            assertThat(context.hasMappedContextValue(CONTEXT_1, VALUE_1), equalTo(true));
+            assertThat(context.hasMappedContextValue(CONTEXT_2, "1"), equalTo(true));
+        }
+        assertThat(rendered.get(), equalTo(1));
+    }
+
+    /**
+     * Test method for {@link AbstractLogContextBuilder#toAttachable()} that ensures unboxed values are copied
+     * as their string forms.
+     */
+    @Test
+    void testToAttachable_primitives() {
+        logContextBuilder.andMapped(CONTEXT_1, 12345L).andMapped(CONTEXT_2, 0.25d);
+
+        final AttachableLogContext attachable = logContextBuilder.toAttachable();
+        logContextBuilder.reset().andMapped(CONTEXT_1, 1L);
+
+        final TestableLogContext context = (TestableLogContext) attachable.attach();
+
+        assertThat(context.hasMappedContextValue(CONTEXT_1, "12345"), equalTo(true));
+        assertThat(context.hasMappedContextValue(CONTEXT_2, "0.25"), equalTo(true));
+    }
+
+    /**
+     * Test method for {@link AbstractLogContextBuilder#toAttachable()} that ensures a builder without Nested
+     * Diagnostic Context (NDC) values attaches only its mapped values.
+     */
+    @Test
+    void testToAttachable_noNested() {
+        logContextBuilder.andMapped(CONTEXT_1, VALUE_1);
+
+        final TestableLogContext context = (TestableLogContext) logContextBuilder.toAttachable().attach();
+
+        assertThat(context.hasNestedContext(CONTEXT_1), equalTo(false));
+        assertThat(context.hasMappedContextValue(CONTEXT_1, VALUE_1), equalTo(true));
+    }
+
+    /**
+     * Test method for {@link AbstractLogContextBuilder#toAttachable()} that ensures the copied values are
+     * added to a pooled {@link AbstractLogContextBuilder} as they are, keeping lazy values unconverted.
+     */
+    @Test
+    void testToAttachable_pooledBuilder() {
+        final List<Object> opened = new ArrayList<>();
+        LoggingContextServiceProviderRegistry.override(() -> new AbstractLogContextBuilder() {
+            @Override
+            public LogContext get() {
+                opened.add(getNestedContexts());
+                opened.add(getLazyMappedContextValue(1));
+                return () -> {};
+            }
+        });
+        try {
+            final LazyMappedValue lazyValue = LazyMappedValue.of(2);
+            logContextBuilder.andNested(CONTEXT_1)
+                    .andMapped(CONTEXT_1, VALUE_1)
+                    .andLazyMapped(CONTEXT_2, lazyValue);
+
+            logContextBuilder.toAttachable().attach();
+
+            assertThat(opened.get(0), equalTo(Collections.singletonList(CONTEXT_1)));
+            assertThat(opened.get(1), sameInstance(lazyValue));
+            assertThat(lazyValue.isRendered(), equalTo(false));
+        } finally {
+            LoggingContextServiceProviderRegistry.invalidate();
+        }
+    }
+
+    /**
+     * Test method for the methods of {@link AbstractLogContextBuilder} that add validated values, which
+     * ensures that the values are appended, growing the context arrays as needed.
+     */
+    @Test
+    void testAddValidated() {
+        logContextBuilder.andNested(CONTEXT_1).andMapped(CONTEXT_1, VALUE_1);
+
+        logContextBuilder.addValidated(
+                new String[] {"a", "b", "c", "d"},
+                new String[] {"k1", "k2", "k3", "k4"},
+                new Object[] {"v1", LazyMappedValue.of(2), "v3", null});
+        logContextBuilder.addValidatedMapped(CONTEXT_2, LazyMappedValue.of(VALUE_2));
+        logContextBuilder.addValidated(new String[0], new String[0], new Object[0]);
+
+        assertThat(logContextBuilder.getNestedContexts(), contains(CONTEXT_1, "a", "b", "c", "d"));
+        assertThat(logContextBuilder.getMappedContextCount(), equalTo(6));
+        assertThat(logContextBuilder.getLazyMappedContextCount(), equalTo(2));
+        assertThat(logContextBuilder.getMappedContextValues(), hasEntry("k2", "2"));
+        assertThat(logContextBuilder.getMappedContextValues(), hasEntry(CONTEXT_2, VALUE_2));
+    }
+
     /**
      * A concrete implementation of {@link AbstractLogContextBuilder} for testing the concrete methods.
      * This implementation does not provide an implementation of the {@link #get()} method.
@@ -0,0 +1,47 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The DecimalCacheTest class provides a set of JUnit test cases for the {@link DecimalCache}
+ * class.
+ */
+class DecimalCacheTest {
+
+  private final DecimalCache cache = new DecimalCache();
+
+  /**
+   * Test method for {@link DecimalCache#toString(long)} that ensures the decimal form of a value is
+   * reused while the value is the last one of its entry.
+   */
+  @Test
+  void testToString_reusesDecimal() {
+    final String decimal = cache.toString(1234567890123L);
+
+    assertThat(decimal, equalTo("1234567890123"));
+    assertThat(cache.toString(1234567890123L), sameInstance(decimal));
+    assertThat(cache.toString(Long.MIN_VALUE), equalTo(Long.toString(Long.MIN_VALUE)));
+    assertThat(cache.toString(-1L), equalTo("-1"));
+    assertThat(cache.toString(0L), equalTo("0"));
+  }
+
+  /**
+   * Test method for {@link DecimalCache#toString(long)} that ensures a value mapped to the entry of
+   * another value replaces it.
+   */
+  @Test
+  void testToString_replacesEntry() {
+    final String decimal = cache.toString(1L);
+
+    final long other = 1L + DecimalCache.SIZE;
+
+    assertThat(cache.toString(other), equalTo(Long.toString(other)));
+    assertThat(cache.toString(1L), not(sameInstance(decimal)));
+    assertThat(cache.toString(1L), equalTo("1"));
+  }
+}
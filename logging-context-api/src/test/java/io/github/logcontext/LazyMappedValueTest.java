@@ -0,0 +1,51 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LazyMappedValueTest class provides a set of JUnit test cases for the {@link LazyMappedValue}
+ * class.
+ */
+public class LazyMappedValueTest {
+
+  /** Test method for {@link LazyMappedValue#of(Object)}. */
+  @Test
+  void testOf_value() {
+    final LazyMappedValue value = LazyMappedValue.of(42L);
+
+    assertThat(value.isRendered(), equalTo(false));
+    assertThat(value.toString(), equalTo("42"));
+    assertThat(value.isRendered(), equalTo(true));
+    assertThat(LazyMappedValue.of((Object) null).toString(), equalTo("null"));
+  }
+
+  /**
+   * Test method for {@link LazyMappedValue#of(Supplier)} that ensures the supplier is only called
+   * when the value is first read, and only once.
+   */
+  @Test
+  void testOf_supplier() {
+    final AtomicInteger calls = new AtomicInteger();
+    final LazyMappedValue value = LazyMappedValue.of(() -> "call" + calls.incrementAndGet());
+
+    assertThat(calls.get(), equalTo(0));
+    assertThat(value.toString(), equalTo("call1"));
+    assertThat(value.toString(), equalTo("call1"));
+    assertThat(calls.get(), equalTo(1));
+  }
+
+  /**
+   * Test method for {@link LazyMappedValue#of(Supplier)} that ensures a <code>null</code> supplier
+   * and a supplier of <code>null</code> are rendered as <code>"null"</code>.
+   */
+  @Test
+  void testOf_nullSupplier() {
+    assertThat(LazyMappedValue.of((Supplier<?>) null).toString(), equalTo("null"));
+    assertThat(LazyMappedValue.of(() -> null).toString(), equalTo("null"));
+  }
+}
@@ -0,0 +1,136 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import io.github.logcontext.LogContext.Builder;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LogContextBuilderPoolTest class provides a set of JUnit test cases for the {@link
+ * LogContextBuilderPool} class.
+ */
+class LogContextBuilderPoolTest {
+
+  /** Makes the active provider create poolable builders and empties the thread's pool. */
+  @BeforeEach
+  void setUp() {
+    LoggingContextServiceProviderRegistry.override(PoolableLogContextBuilder::new);
+    drainPool();
+  }
+
+  /** Clears the provider overridden by a test case and empties the thread's pool. */
+  @AfterEach
+  void tearDown() {
+    drainPool();
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Test method for {@link LogContextBuilderPool#acquire()} and {@link
+   * LogContextBuilderPool#release(Builder)} that ensures a released builder is reset and reused.
+   */
+  @Test
+  void testAcquire_reusesReleasedBuilder() {
+    final Builder builder = LogContextBuilderPool.acquire();
+    assertThat(builder, instanceOf(PoolableLogContextBuilder.class));
+    builder.andNested("CONTEXT").andMapped("key", "value").get();
+
+    LogContextBuilderPool.release(builder);
+    final Builder reused = LogContextBuilderPool.acquire();
+
+    assertThat(reused, sameInstance(builder));
+    assertThat(((AbstractLogContextBuilder) reused).getNestedContextCount(), equalTo(0));
+    assertThat(((AbstractLogContextBuilder) reused).getMappedContextCount(), equalTo(0));
+    assertThat(LogContextBuilderPool.acquire(), not(sameInstance(builder)));
+  }
+
+  /**
+   * Test method for {@link LogContextBuilderPool#release(Builder)} that ensures releasing a builder
+   * twice does not hand it out twice.
+   */
+  @Test
+  void testRelease_twice() {
+    final Builder builder = LogContextBuilderPool.acquire();
+
+    LogContextBuilderPool.release(builder);
+    LogContextBuilderPool.release(builder);
+
+    assertThat(LogContextBuilderPool.acquire(), sameInstance(builder));
+    assertThat(LogContextBuilderPool.acquire(), not(sameInstance(builder)));
+  }
+
+  /**
+   * Test method for {@link LogContextBuilderPool#release(Builder)} that ensures no more than {@link
+   * LogContextBuilderPool#CAPACITY} builders are pooled.
+   */
+  @Test
+  void testRelease_capacity() {
+    final List<Builder> builders = new ArrayList<>();
+    for (int i = 0; i <= LogContextBuilderPool.CAPACITY; i++) {
+      builders.add(LogContextBuilderPool.acquire());
+    }
+    builders.forEach(LogContextBuilderPool::release);
+
+    for (int i = LogContextBuilderPool.CAPACITY - 1; i >= 0; i--) {
+      assertThat(LogContextBuilderPool.acquire(), sameInstance(builders.get(i)));
+    }
+    assertThat(
+        LogContextBuilderPool.acquire(),
+        not(sameInstance(builders.get(LogContextBuilderPool.CAPACITY))));
+  }
+
+  /**
+   * Test method for {@link LogContextBuilderPool#release(Builder)} that ensures builders that are
+   * not {@link AbstractLogContextBuilder} instances are not pooled.
+   */
+  @Test
+  void testRelease_notPoolable() {
+    LogContextBuilderPool.release(null);
+    LogContextBuilderPool.release(Builder.NO_OP_BUILDER);
+
+    assertThat(LogContextBuilderPool.acquire(), instanceOf(PoolableLogContextBuilder.class));
+  }
+
+  /**
+   * Test method for {@link LogContextBuilderPool#acquire()} and {@link
+   * LogContextBuilderPool#release(Builder)} that ensures builders of a replaced provider are
+   * discarded.
+   */
+  @Test
+  void testAcquire_providerReplaced() {
+    final Builder pooled = LogContextBuilderPool.acquire();
+    final Builder released = LogContextBuilderPool.acquire();
+    LogContextBuilderPool.release(pooled);
+
+    LoggingContextServiceProviderRegistry.override(PoolableLogContextBuilder::new);
+    LogContextBuilderPool.release(released);
+
+    final Builder builder = LogContextBuilderPool.acquire();
+    assertThat(builder, not(sameInstance(pooled)));
+    assertThat(builder, not(sameInstance(released)));
+  }
+
+  /** Removes every builder pooled by the current thread. */
+  private static void drainPool() {
+    LoggingContextServiceProviderRegistry.override(
+        LoggingContextServiceProviderRegistry.getProvider());
+    LogContextBuilderPool.acquire();
+  }
+
+  /** A minimal {@link AbstractLogContextBuilder} that does not update any logging context. */
+  private static class PoolableLogContextBuilder extends AbstractLogContextBuilder {
+
+    @Override
+    public LogContext get() {
+      return () -> {};
+    }
+  }
+}
@@ -11,7 +11,9 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import io.github.logcontext.LogContext.Builder;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -95,6 +97,72 @@ public class LogContextBuilderTest {
             .entrySet().iterator().next());
   }
 
+  /**
+   * Test method for the default {@link LogContext.Builder#andLazyMapped(String, Object)} and {@link
+   * LogContext.Builder#andLazyMapped(String, Supplier)} implementations, which
+   * convert the values immediately.
+   */
+  @Test
+  void testAndLazyMapped() {
+    final Builder logContextBuilder =
+        new TestLogContextBuilder()
+            .andLazyMapped(TestValues.MAPPED_CONTEXT_1, (Object) 1)
+            .andLazyMapped(TestValues.MAPPED_CONTEXT_2, () -> 2)
+            .andLazyMapped("supplied_null", (Supplier<?>) null);
+
+    final TestableLogContext testableContext = assertTestableLogContext(logContextBuilder);
+    final Map<String, String> expected = new HashMap<>();
+    expected.put(TestValues.MAPPED_CONTEXT_1, "1");
+    expected.put(TestValues.MAPPED_CONTEXT_2, "2");
+    expected.put("supplied_null", "null");
+    expected.entrySet().forEach(entry -> assertLogContextContainsMappings(testableContext, entry));
+  }
+
+  /**
+   * Test method for the default {@link LogContext.Builder#andMapped(String, long)}, {@link
+   * LogContext.Builder#andMapped(String, int)}, {@link LogContext.Builder#andMapped(String,
+   * double)} and {@link LogContext.Builder#andMapped(String, boolean)} implementations, which
+   * convert the values immediately.
+   */
+  @Test
+  void testAndMapped_primitives() {
+    final Builder logContextBuilder =
+        new TestLogContextBuilder()
+            .andMapped(TestValues.MAPPED_CONTEXT_1, 1L)
+            .andMapped(TestValues.MAPPED_CONTEXT_2, 2)
+            .andMapped("double", 0.5d)
+            .andMapped("boolean", true);
+
+    final TestableLogContext testableContext = assertTestableLogContext(logContextBuilder);
+    final Map<String, String> expected = new HashMap<>();
+    expected.put(TestValues.MAPPED_CONTEXT_1, "1");
+    expected.put(TestValues.MAPPED_CONTEXT_2, "2");
+    expected.put("double", "0.5");
+    expected.put("boolean", "true");
+    expected.entrySet().forEach(entry -> assertLogContextContainsMappings(testableContext, entry));
+  }
+
+  /**
+   * Test method for the default {@link LogContext.Builder#toAttachable()} implementation, which
+   * opens the logging context of the builder when attached.
+   */
+  @Test
+  void testToAttachable() {
+    final Builder logContextBuilder =
+        Builder.nestedContext(TestValues.NESTED_CONTEXT_1)
+            .andMapped(TestValues.MAPPED_CONTEXT_1, TestValues.MAPPED_CONTEXT_VALUE_1);
+
+    final LogContext logContext = logContextBuilder.toAttachable().attach();
+
+    assertThat(logContext, instanceOf(TestableLogContext.class));
+    final TestableLogContext testableContext = (TestableLogContext) logContext;
+    assertLogContextContainsNested(testableContext, TestValues.NESTED_CONTEXT_1);
+    assertThat(
+        testableContext.hasMappedContextValue(
+            TestValues.MAPPED_CONTEXT_1, TestValues.MAPPED_CONTEXT_VALUE_1),
+        equalTo(true));
+  }
+
   /**
    * Test for the {@link Builder#NO_OP_BUILDER} no-op implementation.
    *
@@ -104,10 +172,22 @@ public class LogContextBuilderTest {
   void testNoOpBuilder() throws Exception {
     assertThat(NO_OP_BUILDER.andMapped(null, null), equalTo(NO_OP_BUILDER));
     assertThat(NO_OP_BUILDER.andNested(null, null), equalTo(NO_OP_BUILDER));
+    assertThat(NO_OP_BUILDER.andLazyMapped(null, (Object) null), equalTo(NO_OP_BUILDER));
+    assertThat(NO_OP_BUILDER.andLazyMapped(null, () -> null), equalTo(NO_OP_BUILDER));
+    assertThat(NO_OP_BUILDER.andMapped(null, 1L), equalTo(NO_OP_BUILDER));
+    assertThat(NO_OP_BUILDER.andMapped(null, 1), equalTo(NO_OP_BUILDER));
+    assertThat(NO_OP_BUILDER.andMapped(null, 1.0d), equalTo(NO_OP_BUILDER));
+    assertThat(NO_OP_BUILDER.andMapped(null, true), equalTo(NO_OP_BUILDER));
     final LogContext noOpLogContext = NO_OP_BUILDER.get();
 
     assertThat(noOpLogContext, notNullValue());
     assertDoesNotThrow(() -> noOpLogContext.close());
+
+    final MappedContextSlot noOpSlot = NO_OP_BUILDER.getSlot(null);
+
+    assertThat(noOpSlot, notNullValue());
+    assertDoesNotThrow(() -> noOpSlot.set(null));
+    assertDoesNotThrow(() -> noOpSlot.close());
   }
 
   private void assertTestLogContextBuilder(Builder logContextBuilder) {
@@ -0,0 +1,370 @@
+package io.github.logcontext;
+
+import static io.github.logcontext.ThreadLocalLoggingContextServiceProvider.CONTEXT;
+import static java.util.Collections.nCopies;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LogContextCompletionStageTest class provides a set of JUnit test cases for the {@link
+ * LogContextCompletionStage} class.
+ */
+class LogContextCompletionStageTest {
+
+  /** The timeout of waiting for a stage, in seconds. */
+  private static final long TIMEOUT = 5;
+
+  /** An executor that runs tasks on the thread that completes the stage. */
+  private static final Executor DIRECT = Runnable::run;
+
+  /** A stage that is already completed, for the methods that combine two stages. */
+  private static final CompletionStage<String> COMPLETED = CompletableFuture.completedFuture("other");
+
+  /** The logging contexts seen by the functions of the stages. */
+  private final Queue<String> contexts = new ConcurrentLinkedQueue<>();
+
+  /** Makes the active provider capture snapshots of the thread's context. */
+  @BeforeEach
+  void setUp() {
+    LoggingContextServiceProviderRegistry.override(new ThreadLocalLoggingContextServiceProvider());
+  }
+
+  /** Clears the provider overridden by a test case and the logging context of the thread. */
+  @AfterEach
+  void tearDown() {
+    CONTEXT.remove();
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#supplyAsync(java.util.function.Supplier)} and
+   * {@link LogContextCompletionStage#supplyAsync(java.util.function.Supplier, Executor)}.
+   */
+  @Test
+  void testSupplyAsync() throws Exception {
+    CONTEXT.set("creator");
+
+    assertThat(get(LogContextCompletionStage.supplyAsync(CONTEXT::get)), equalTo("creator"));
+    assertThat(get(LogContextCompletionStage.supplyAsync(CONTEXT::get, DIRECT)), equalTo("creator"));
+    assertThat(CONTEXT.get(), equalTo("creator"));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#runAsync(Runnable)} and {@link
+   * LogContextCompletionStage#runAsync(Runnable, Executor)}.
+   */
+  @Test
+  void testRunAsync() throws Exception {
+    CONTEXT.set("creator");
+
+    get(LogContextCompletionStage.runAsync(() -> record(null)));
+    get(LogContextCompletionStage.runAsync(() -> record(null), DIRECT));
+
+    assertThat(new ArrayList<>(contexts), equalTo(nCopies(2, "creator")));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#wrap(CompletionStage)} that ensures a stage
+   * that is already a {@link LogContextCompletionStage} is returned as is.
+   */
+  @Test
+  void testWrap() {
+    final CompletableFuture<String> future = new CompletableFuture<>();
+    final LogContextCompletionStage<String> stage = LogContextCompletionStage.wrap(future);
+
+    assertThat(stage.toCompletableFuture(), sameInstance(future));
+    assertThat(LogContextCompletionStage.wrap(stage), sameInstance(stage));
+    assertThat(stage.toString(), containsString("LogContextCompletionStage"));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#wrap(CompletionStage)} that ensures a {@link
+   * NullPointerException} is thrown for a <code>null</code> stage.
+   */
+  @Test
+  void testWrap_nullStage() {
+    assertThrows(NullPointerException.class, () -> LogContextCompletionStage.wrap(null));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#thenApply(Function)} and its asynchronous
+   * variants.
+   */
+  @Test
+  void testThenApply() throws Exception {
+    assertDependentStage(stage -> stage.thenApply(this::record));
+    assertDependentStage(stage -> stage.thenApplyAsync(this::record));
+    assertDependentStage(stage -> stage.thenApplyAsync(this::record, DIRECT));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#thenAccept(java.util.function.Consumer)} and
+   * its asynchronous variants.
+   */
+  @Test
+  void testThenAccept() throws Exception {
+    assertDependentStage(stage -> stage.thenAccept(this::record));
+    assertDependentStage(stage -> stage.thenAcceptAsync(this::record));
+    assertDependentStage(stage -> stage.thenAcceptAsync(this::record, DIRECT));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#thenRun(Runnable)} and its asynchronous
+   * variants.
+   */
+  @Test
+  void testThenRun() throws Exception {
+    assertDependentStage(stage -> stage.thenRun(() -> record(null)));
+    assertDependentStage(stage -> stage.thenRunAsync(() -> record(null)));
+    assertDependentStage(stage -> stage.thenRunAsync(() -> record(null), DIRECT));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#thenCombine(CompletionStage,
+   * java.util.function.BiFunction)} and its asynchronous variants.
+   */
+  @Test
+  void testThenCombine() throws Exception {
+    assertDependentStage(stage -> stage.thenCombine(COMPLETED, (value, other) -> record(value)));
+    assertDependentStage(
+        stage -> stage.thenCombineAsync(COMPLETED, (value, other) -> record(value)));
+    assertDependentStage(
+        stage -> stage.thenCombineAsync(COMPLETED, (value, other) -> record(value), DIRECT));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#thenAcceptBoth(CompletionStage,
+   * java.util.function.BiConsumer)} and its asynchronous variants.
+   */
+  @Test
+  void testThenAcceptBoth() throws Exception {
+    assertDependentStage(stage -> stage.thenAcceptBoth(COMPLETED, (value, other) -> record(value)));
+    assertDependentStage(
+        stage -> stage.thenAcceptBothAsync(COMPLETED, (value, other) -> record(value)));
+    assertDependentStage(
+        stage -> stage.thenAcceptBothAsync(COMPLETED, (value, other) -> record(value), DIRECT));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#runAfterBoth(CompletionStage, Runnable)} and
+   * its asynchronous variants.
+   */
+  @Test
+  void testRunAfterBoth() throws Exception {
+    assertDependentStage(stage -> stage.runAfterBoth(COMPLETED, () -> record(null)));
+    assertDependentStage(stage -> stage.runAfterBothAsync(COMPLETED, () -> record(null)));
+    assertDependentStage(stage -> stage.runAfterBothAsync(COMPLETED, () -> record(null), DIRECT));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#applyToEither(CompletionStage, Function)} and
+   * its asynchronous variants.
+   */
+  @Test
+  void testApplyToEither() throws Exception {
+    assertDependentStage(stage -> stage.applyToEither(new CompletableFuture<>(), this::record));
+    assertDependentStage(stage -> stage.applyToEitherAsync(new CompletableFuture<>(), this::record));
+    assertDependentStage(
+        stage -> stage.applyToEitherAsync(new CompletableFuture<>(), this::record, DIRECT));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#acceptEither(CompletionStage,
+   * java.util.function.Consumer)} and its asynchronous variants.
+   */
+  @Test
+  void testAcceptEither() throws Exception {
+    assertDependentStage(stage -> stage.acceptEither(new CompletableFuture<>(), this::record));
+    assertDependentStage(stage -> stage.acceptEitherAsync(new CompletableFuture<>(), this::record));
+    assertDependentStage(
+        stage -> stage.acceptEitherAsync(new CompletableFuture<>(), this::record, DIRECT));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#runAfterEither(CompletionStage, Runnable)} and
+   * its asynchronous variants.
+   */
+  @Test
+  void testRunAfterEither() throws Exception {
+    assertDependentStage(
+        stage -> stage.runAfterEither(new CompletableFuture<>(), () -> record(null)));
+    assertDependentStage(
+        stage -> stage.runAfterEitherAsync(new CompletableFuture<>(), () -> record(null)));
+    assertDependentStage(
+        stage -> stage.runAfterEitherAsync(new CompletableFuture<>(), () -> record(null), DIRECT));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#thenCompose(Function)} and its asynchronous
+   * variants.
+   */
+  @Test
+  void testThenCompose() throws Exception {
+    assertDependentStage(
+        stage -> stage.thenCompose(value -> CompletableFuture.completedFuture(record(value))));
+    assertDependentStage(
+        stage -> stage.thenComposeAsync(value -> CompletableFuture.completedFuture(record(value))));
+    assertDependentStage(
+        stage ->
+            stage.thenComposeAsync(
+                value -> CompletableFuture.completedFuture(record(value)), DIRECT));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#whenComplete(java.util.function.BiConsumer)}
+   * and its asynchronous variants.
+   */
+  @Test
+  void testWhenComplete() throws Exception {
+    assertDependentStage(stage -> stage.whenComplete((value, failure) -> record(value)));
+    assertDependentStage(stage -> stage.whenCompleteAsync((value, failure) -> record(value)));
+    assertDependentStage(
+        stage -> stage.whenCompleteAsync((value, failure) -> record(value), DIRECT));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#handle(java.util.function.BiFunction)} and its
+   * asynchronous variants.
+   */
+  @Test
+  void testHandle() throws Exception {
+    assertDependentStage(stage -> stage.handle((value, failure) -> record(value)));
+    assertDependentStage(stage -> stage.handleAsync((value, failure) -> record(value)));
+    assertDependentStage(stage -> stage.handleAsync((value, failure) -> record(value), DIRECT));
+  }
+
+  /** Test method for {@link LogContextCompletionStage#exceptionally(Function)}. */
+  @Test
+  void testExceptionally() throws Exception {
+    final CompletableFuture<String> source = new CompletableFuture<>();
+    CONTEXT.set("creator");
+    final LogContextCompletionStage<String> stage =
+        LogContextCompletionStage.wrap(source).exceptionally(failure -> record("recovered"));
+    CONTEXT.set("completer");
+
+    source.completeExceptionally(new IllegalStateException("failed"));
+
+    assertThat(get(stage), equalTo("recovered"));
+    assertThat(new ArrayList<>(contexts), equalTo(nCopies(1, "creator")));
+    assertThat(CONTEXT.get(), equalTo("completer"));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#thenApply(Function)} that ensures a long chain
+   * of stages runs with the context of the thread that created each stage.
+   */
+  @Test
+  void testThenApply_chain() throws Exception {
+    final CompletableFuture<String> source = new CompletableFuture<>();
+    CONTEXT.set("first");
+    LogContextCompletionStage<String> stage =
+        LogContextCompletionStage.wrap(source).thenApply(this::record);
+    CONTEXT.set("second");
+    stage = stage.thenApplyAsync(this::record).thenApply(this::record);
+    CONTEXT.set("completer");
+
+    source.complete("value");
+
+    assertThat(get(stage), equalTo("value"));
+    assertThat(new ArrayList<>(contexts), contains("first", "second", "second"));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#thenApply(Function)} that ensures a {@link
+   * NullPointerException} is thrown for a <code>null</code> function.
+   */
+  @Test
+  void testThenApply_nullFunction() {
+    final LogContextCompletionStage<String> stage =
+        LogContextCompletionStage.wrap(new CompletableFuture<>());
+
+    assertThrows(NullPointerException.class, () -> stage.thenApply(null));
+    assertThrows(NullPointerException.class, () -> stage.thenAccept(null));
+    assertThrows(NullPointerException.class, () -> stage.thenRun(null));
+    assertThrows(NullPointerException.class, () -> stage.handle(null));
+    assertThrows(NullPointerException.class, () -> stage.whenComplete(null));
+    assertThrows(NullPointerException.class, () -> LogContextCompletionStage.supplyAsync(null));
+  }
+
+  /**
+   * Test method for {@link LogContextCompletionStage#thenApply(Function)} that ensures failures to
+   * restore the logging context complete the stage exceptionally.
+   */
+  @Test
+  void testThenApply_restoreFails() {
+    assertRestoreFailure(
+        new IllegalArgumentException("restore failed"), IllegalArgumentException.class);
+    assertRestoreFailure(new Exception("restore failed"), IllegalStateException.class);
+  }
+
+  private void assertRestoreFailure(
+      final Exception failure, final Class<? extends Exception> expected) {
+    LoggingContextServiceProviderRegistry.override(
+        new ThreadLocalLoggingContextServiceProvider() {
+          @Override
+          public LogContextSnapshot captureSnapshot() {
+            return () ->
+                () -> {
+                  throw failure;
+                };
+          }
+        });
+    final CompletableFuture<String> stage =
+        LogContextCompletionStage.wrap(CompletableFuture.completedFuture("value"))
+            .thenApply(Function.identity())
+            .toCompletableFuture();
+
+    final ExecutionException exception =
+        assertThrows(ExecutionException.class, () -> stage.get(TIMEOUT, TimeUnit.SECONDS));
+    assertThat(exception.getCause(), instanceOf(expected));
+  }
+
+  /**
+   * Creates a dependent stage with the context <code>"creator"</code>, completes the stage it
+   * depends on with the context <code>"completer"</code>, and ensures that the function of the
+   * dependent stage ran with the creator's context while the completer's context is restored.
+   */
+  private void assertDependentStage(
+      final Function<LogContextCompletionStage<String>, CompletionStage<?>> dependent)
+      throws Exception {
+    contexts.clear();
+    final CompletableFuture<String> source = new CompletableFuture<>();
+    CONTEXT.set("creator");
+    final CompletionStage<?> stage = dependent.apply(LogContextCompletionStage.wrap(source));
+    CONTEXT.set("completer");
+
+    source.complete("value");
+    get(stage);
+
+    assertThat(stage, instanceOf(LogContextCompletionStage.class));
+    assertThat(new ArrayList<>(contexts), equalTo(nCopies(1, "creator")));
+    assertThat(CONTEXT.get(), equalTo("completer"));
+  }
+
+  private <T> T record(final T value) {
+    contexts.add(String.valueOf(CONTEXT.get()));
+    return value;
+  }
+
+  private static <T> T get(final CompletionStage<T> stage) throws Exception {
+    return stage.toCompletableFuture().get(TIMEOUT, TimeUnit.SECONDS);
+  }
+}
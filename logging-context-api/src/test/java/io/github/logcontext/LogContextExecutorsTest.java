@@ -0,0 +1,330 @@
+package io.github.logcontext;
+
+import static io.github.logcontext.ThreadLocalLoggingContextServiceProvider.CONTEXT;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LogContextExecutorsTest class provides a set of JUnit test cases for the {@link
+ * LogContextExecutors} class.
+ */
+class LogContextExecutorsTest {
+
+  /** The timeout of the operations on the executors, in seconds. */
+  private static final long TIMEOUT = 5;
+
+  /** Makes the active provider capture snapshots of {@link ThreadLocalLoggingContextServiceProvider#CONTEXT}. */
+  @BeforeEach
+  void setUp() {
+    LoggingContextServiceProviderRegistry.override(new ThreadLocalLoggingContextServiceProvider());
+    CONTEXT.set("submitter");
+  }
+
+  /** Clears the provider overridden by a test case and the logging context of the thread. */
+  @AfterEach
+  void tearDown() {
+    CONTEXT.remove();
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Test method for {@link LogContextExecutors#contextRunnable(Runnable)} that ensures the task
+   * runs with the context captured when it was wrapped, and the previous context is restored.
+   */
+  @Test
+  void testContextRunnable() {
+    final AtomicReference<String> context = new AtomicReference<>();
+    final Runnable runnable = LogContextExecutors.contextRunnable(() -> context.set(CONTEXT.get()));
+    CONTEXT.set("worker");
+
+    runnable.run();
+
+    assertThat(context.get(), equalTo("submitter"));
+    assertThat(CONTEXT.get(), equalTo("worker"));
+  }
+
+  /**
+   * Test method for {@link LogContextExecutors#contextRunnable(Runnable)} that ensures the previous
+   * context is restored when the task fails.
+   */
+  @Test
+  void testContextRunnable_taskFails() {
+    final Runnable runnable =
+        LogContextExecutors.contextRunnable(
+            () -> {
+              throw new IllegalArgumentException("task failed");
+            });
+    CONTEXT.set("worker");
+
+    assertThrows(IllegalArgumentException.class, runnable::run);
+    assertThat(CONTEXT.get(), equalTo("worker"));
+  }
+
+  /**
+   * Test method for {@link LogContextExecutors#contextRunnable(Runnable)} that ensures an {@link
+   * Error} thrown by the task is propagated as is.
+   */
+  @Test
+  void testContextRunnable_taskThrowsError() {
+    final Runnable runnable =
+        LogContextExecutors.contextRunnable(
+            () -> {
+              throw new AssertionError("task failed");
+            });
+
+    assertThrows(AssertionError.class, runnable::run);
+  }
+
+  /**
+   * Test method for {@link LogContextExecutors#contextRunnable(Runnable)} that ensures a checked
+   * exception thrown while restoring the context is wrapped in an {@link IllegalStateException}.
+   */
+  @Test
+  void testContextRunnable_restoreFails() {
+    LoggingContextServiceProviderRegistry.override(
+        new ThreadLocalLoggingContextServiceProvider() {
+          @Override
+          public LogContextSnapshot captureSnapshot() {
+            return () ->
+                () -> {
+                  throw new Exception("restore failed");
+                };
+          }
+        });
+    final Runnable runnable = LogContextExecutors.contextRunnable(() -> {});
+
+    final IllegalStateException exception = assertThrows(IllegalStateException.class, runnable::run);
+    assertThat(exception.getCause().getMessage(), equalTo("restore failed"));
+  }
+
+  /**
+   * Test method for {@link LogContextExecutors#contextRunnable(Runnable)} that ensures a {@link
+   * NullPointerException} is thrown for a <code>null</code> task.
+   */
+  @Test
+  void testContextRunnable_nullTask() {
+    assertThrows(NullPointerException.class, () -> LogContextExecutors.contextRunnable(null));
+  }
+
+  /**
+   * Test method for {@link LogContextExecutors#contextCallable(Callable)} that ensures the task is
+   * called with the context captured when it was wrapped, and the previous context is restored.
+   */
+  @Test
+  void testContextCallable() throws Exception {
+    final Callable<String> callable = LogContextExecutors.contextCallable(CONTEXT::get);
+    CONTEXT.set("worker");
+
+    assertThat(callable.call(), equalTo("submitter"));
+    assertThat(CONTEXT.get(), equalTo("worker"));
+  }
+
+  /**
+   * Test method for {@link LogContextExecutors#contextCallable(Callable)} that ensures a {@link
+   * NullPointerException} is thrown for a <code>null</code> task.
+   */
+  @Test
+  void testContextCallable_nullTask() {
+    assertThrows(NullPointerException.class, () -> LogContextExecutors.contextCallable(null));
+  }
+
+  /**
+   * Test method for {@link LogContextExecutors#contextExecutor(java.util.concurrent.Executor)} that
+   * ensures the task runs with the context captured when it was executed.
+   */
+  @Test
+  void testContextExecutor() {
+    final List<Runnable> tasks = new ArrayList<>();
+    final AtomicReference<String> context = new AtomicReference<>();
+
+    LogContextExecutors.contextExecutor(tasks::add).execute(() -> context.set(CONTEXT.get()));
+    CONTEXT.set("worker");
+    tasks.forEach(Runnable::run);
+
+    assertThat(context.get(), equalTo("submitter"));
+    assertThat(CONTEXT.get(), equalTo("worker"));
+  }
+
+  /**
+   * Test method for {@link LogContextExecutors#contextExecutor(java.util.concurrent.Executor)} that
+   * ensures a {@link NullPointerException} is thrown for a <code>null</code> executor.
+   */
+  @Test
+  void testContextExecutor_nullExecutor() {
+    assertThrows(NullPointerException.class, () -> LogContextExecutors.contextExecutor(null));
+  }
+
+  /**
+   * Test method for {@link LogContextExecutors#contextExecutorService(ExecutorService)} that
+   * ensures every submitted task runs with the submitter's context and the worker's context is
+   * restored afterwards.
+   */
+  @Test
+  void testContextExecutorService() throws Exception {
+    final ExecutorService executorService =
+        LogContextExecutors.contextExecutorService(Executors.newSingleThreadExecutor());
+    try {
+      final CountDownLatch executed = new CountDownLatch(1);
+      final AtomicReference<String> context = new AtomicReference<>();
+      executorService.execute(
+          () -> {
+            context.set(CONTEXT.get());
+            executed.countDown();
+          });
+      assertThat(executed.await(TIMEOUT, TimeUnit.SECONDS), equalTo(true));
+      assertThat(context.get(), equalTo("submitter"));
+
+      assertThat(executorService.submit(CONTEXT::get).get(), equalTo("submitter"));
+      assertThat(
+          executorService.submit(() -> context.set(CONTEXT.get() + "-runnable"), "result").get(),
+          equalTo("result"));
+      assertThat(context.get(), equalTo("submitter-runnable"));
+      assertThat(executorService.submit(() -> context.set(CONTEXT.get())).get(), nullValue());
+      assertThat(context.get(), equalTo("submitter"));
+
+      final List<Callable<String>> tasks = asList(CONTEXT::get, CONTEXT::get);
+      assertThat(values(executorService.invokeAll(tasks)), contains("submitter", "submitter"));
+      assertThat(
+          values(executorService.invokeAll(tasks, TIMEOUT, TimeUnit.SECONDS)),
+          contains("submitter", "submitter"));
+      assertThat(executorService.invokeAny(tasks), equalTo("submitter"));
+      assertThat(executorService.invokeAny(tasks, TIMEOUT, TimeUnit.SECONDS), equalTo("submitter"));
+
+      assertThat(executorService.submit(CONTEXT::get).get(), equalTo("submitter"));
+      CONTEXT.remove();
+      assertThat(executorService.submit(CONTEXT::get).get(), nullValue());
+    } finally {
+      executorService.shutdown();
+    }
+
+    assertThat(executorService.isShutdown(), equalTo(true));
+    assertThat(executorService.awaitTermination(TIMEOUT, TimeUnit.SECONDS), equalTo(true));
+    assertThat(executorService.isTerminated(), equalTo(true));
+  }
+
+  /**
+   * Test method for {@link LogContextExecutors#contextExecutorService(ExecutorService)} that
+   * ensures {@link ExecutorService#shutdownNow()} is delegated.
+   */
+  @Test
+  void testContextExecutorService_shutdownNow() throws Exception {
+    final ExecutorService delegate = Executors.newSingleThreadExecutor();
+    final ExecutorService executorService = LogContextExecutors.contextExecutorService(delegate);
+
+    assertThat(executorService.shutdownNow().isEmpty(), equalTo(true));
+    assertThat(delegate.isShutdown(), equalTo(true));
+  }
+
+  /**
+   * Test method for {@link LogContextExecutors#contextExecutorService(ExecutorService)} that
+   * ensures a {@link NullPointerException} is thrown for a <code>null</code> executor service.
+   */
+  @Test
+  void testContextExecutorService_nullExecutorService() {
+    assertThrows(
+        NullPointerException.class, () -> LogContextExecutors.contextExecutorService(null));
+  }
+
+  /**
+   * Test method for {@link
+   * LogContextExecutors#contextScheduledExecutorService(ScheduledExecutorService)} that ensures
+   * every scheduled task runs with the context of the thread that scheduled it.
+   */
+  @Test
+  void testContextScheduledExecutorService() throws Exception {
+    final ScheduledExecutorService executorService =
+        LogContextExecutors.contextScheduledExecutorService(
+            Executors.newSingleThreadScheduledExecutor());
+    try {
+      final AtomicReference<String> context = new AtomicReference<>();
+      executorService.schedule(() -> context.set(CONTEXT.get()), 1, TimeUnit.MILLISECONDS).get();
+      assertThat(context.get(), equalTo("submitter"));
+
+      assertThat(
+          executorService.schedule(CONTEXT::get, 1, TimeUnit.MILLISECONDS).get(),
+          equalTo("submitter"));
+
+      assertPeriodic(
+          (task, rate) -> executorService.scheduleAtFixedRate(task, 0, rate, TimeUnit.MILLISECONDS));
+      assertPeriodic(
+          (task, delay) ->
+              executorService.scheduleWithFixedDelay(task, 0, delay, TimeUnit.MILLISECONDS));
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  /**
+   * Test method for {@link
+   * LogContextExecutors#contextScheduledExecutorService(ScheduledExecutorService)} that ensures a
+   * {@link NullPointerException} is thrown for a <code>null</code> executor service.
+   */
+  @Test
+  void testContextScheduledExecutorService_nullExecutorService() {
+    assertThrows(
+        NullPointerException.class,
+        () -> LogContextExecutors.contextScheduledExecutorService(null));
+  }
+
+  /**
+   * Schedules a periodic task and ensures it runs with the scheduling thread's context every time,
+   * even though each run changes the context of the worker thread.
+   */
+  private static void assertPeriodic(final PeriodicScheduler scheduler)
+      throws InterruptedException {
+    final CountDownLatch runs = new CountDownLatch(3);
+    final List<String> contexts = new ArrayList<>();
+    final ScheduledFuture<?> future =
+        scheduler.schedule(
+            () -> {
+              synchronized (contexts) {
+                contexts.add(CONTEXT.get());
+              }
+              CONTEXT.set("leaked");
+              runs.countDown();
+            },
+            1);
+    try {
+      assertThat(runs.await(TIMEOUT, TimeUnit.SECONDS), equalTo(true));
+    } finally {
+      future.cancel(false);
+    }
+    synchronized (contexts) {
+      assertThat(contexts.subList(0, 3), contains("submitter", "submitter", "submitter"));
+    }
+  }
+
+  private static <T> List<T> values(final List<Future<T>> futures) throws Exception {
+    final List<T> values = new ArrayList<>();
+    for (final Future<T> future : futures) {
+      values.add(future.get());
+    }
+    return values;
+  }
+
+  /** Schedules a periodic task with a period in milliseconds. */
+  @FunctionalInterface
+  private interface PeriodicScheduler {
+
+    ScheduledFuture<?> schedule(Runnable task, long period);
+  }
+}
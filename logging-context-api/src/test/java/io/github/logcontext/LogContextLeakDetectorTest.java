@@ -0,0 +1,256 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import io.github.logcontext.LogContextLeakDetector.ThreadScopes;
+import io.github.logcontext.LogContextLeakDetector.Violation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LogContextLeakDetectorTest class provides a set of JUnit test cases for the {@link
+ * LogContextLeakDetector} class. The detection is disabled in the tests of this module, so the
+ * tests call the methods that track scopes regardless of the system property.
+ */
+class LogContextLeakDetectorTest {
+
+  private final List<Violation> violations = new ArrayList<>();
+
+  private final AtomicInteger closed = new AtomicInteger();
+
+  private final LogContext context = closed::incrementAndGet;
+
+  /** Collects the reported violations and clears the tracked scopes of the current thread. */
+  @BeforeEach
+  void setUp() {
+    LogContextLeakDetector.setReporter(violations::add);
+    LogContextLeakDetector.threadScopes().top = null;
+    LogContextLeakDetector.threadScopes().opened = 0;
+  }
+
+  /** Restores the default reporter. */
+  @AfterEach
+  void tearDown() {
+    LogContextLeakDetector.setReporter(null);
+  }
+
+  /**
+   * Test method for {@link LogContextLeakDetector#track(String, LogContext)} that ensures scopes
+   * are not tracked when the detection is disabled.
+   */
+  @Test
+  void testTrack_disabled() throws Exception {
+    assertThat(LogContextLeakDetector.isEnabled(), equalTo(false));
+    assertThat(LogContextLeakDetector.track("test", context), sameInstance(context));
+    assertThat(LogContextLeakDetector.taskStarted(), nullValue());
+
+    LogContextLeakDetector.taskFinished(new Object());
+    LogContextLeakDetector.checkRemoved("test", "users", "orders");
+
+    assertThat(violations, empty());
+  }
+
+  /**
+   * Test method for {@link LogContextLeakDetector#track(String, LogContext, int)} that ensures
+   * nested scopes closed in order are not reported.
+   */
+  @Test
+  void testTrack_closedInOrder() throws Exception {
+    final LogContext outer = LogContextLeakDetector.track("test", context, 1);
+    final LogContext inner = LogContextLeakDetector.track("test", context, 1);
+
+    inner.close();
+    outer.close();
+
+    assertThat(closed.get(), equalTo(2));
+    assertThat(LogContextLeakDetector.threadScopes().top, nullValue());
+    assertThat(violations, empty());
+  }
+
+  /**
+   * Test method for {@link LogContextLeakDetector#track(String, LogContext, int)} that ensures only
+   * one in every sample rate scopes is tracked.
+   */
+  @Test
+  void testTrack_sampled() {
+    assertThat(LogContextLeakDetector.track("test", context, 2), sameInstance(context));
+    assertThat(LogContextLeakDetector.track("test", context, 2), not(sameInstance(context)));
+    assertThat(LogContextLeakDetector.track("test", context, 2), sameInstance(context));
+  }
+
+  /**
+   * Test method for {@link LogContextLeakDetector#track(String, LogContext, int)} that ensures a
+   * scope closed twice is reported, and its logging context only closed once.
+   */
+  @Test
+  void testClose_twice() throws Exception {
+    final LogContext scope = LogContextLeakDetector.track("test", context, 1);
+
+    scope.close();
+    scope.close();
+
+    assertThat(closed.get(), equalTo(1));
+    assertThat(kinds(), contains(Violation.Kind.CLOSED_TWICE));
+    assertThat(violations.get(0).getCause().getMessage(), containsString("Scope opened by"));
+  }
+
+  /**
+   * Test method for {@link LogContextLeakDetector#track(String, LogContext, int)} that ensures a
+   * scope closed by another thread is reported.
+   */
+  @Test
+  void testClose_otherThread() throws Exception {
+    final LogContext scope = LogContextLeakDetector.track("test", context, 1);
+    final Thread thread =
+        new Thread(
+            () -> {
+              try {
+                scope.close();
+              } catch (final Exception e) {
+                throw new IllegalStateException(e);
+              }
+            });
+
+    thread.start();
+    thread.join();
+
+    assertThat(closed.get(), equalTo(1));
+    assertThat(kinds(), contains(Violation.Kind.CLOSED_ON_OTHER_THREAD));
+  }
+
+  /**
+   * Test method for {@link LogContextLeakDetector#track(String, LogContext, int)} that ensures the
+   * scopes left open by a closed scope are reported and forgotten, and reported again if they are
+   * closed afterwards.
+   */
+  @Test
+  void testClose_outOfOrder() throws Exception {
+    final LogContext outer = LogContextLeakDetector.track("test", context, 1);
+    final LogContext inner = LogContextLeakDetector.track("test", context, 1);
+
+    outer.close();
+
+    assertThat(kinds(), contains(Violation.Kind.UNCLOSED));
+    assertThat(
+        violations.get(0).getMessage(), equalTo("1 test scope(s) left open by a closed scope"));
+    assertThat(LogContextLeakDetector.threadScopes().top, nullValue());
+
+    inner.close();
+
+    assertThat(kinds(), contains(Violation.Kind.UNCLOSED, Violation.Kind.CLOSED_OUT_OF_ORDER));
+    assertThat(closed.get(), equalTo(2));
+  }
+
+  /**
+   * Test method for {@link LogContextLeakDetector#taskFinished(ThreadScopes, Object)} that ensures
+   * the scopes left open by a task are reported and forgotten.
+   */
+  @Test
+  void testTaskFinished() throws Exception {
+    final ThreadScopes scopes = LogContextLeakDetector.threadScopes();
+    final LogContext outer = LogContextLeakDetector.track("test", context, 1);
+    final Object mark = scopes.top;
+
+    LogContextLeakDetector.track("test", context, 1);
+    LogContextLeakDetector.track("test", context, 1);
+    LogContextLeakDetector.taskFinished(scopes, mark);
+
+    assertThat(kinds(), contains(Violation.Kind.UNCLOSED));
+    assertThat(violations.get(0).getMessage(), equalTo("2 test scope(s) left open by a task"));
+    assertThat(scopes.top, sameInstance(mark));
+
+    LogContextLeakDetector.taskFinished(scopes, mark);
+    outer.close();
+    LogContextLeakDetector.track("test", context, 1);
+    LogContextLeakDetector.taskFinished(scopes, null);
+
+    assertThat(kinds(), contains(Violation.Kind.UNCLOSED, Violation.Kind.UNCLOSED));
+    assertThat(scopes.top, nullValue());
+  }
+
+  /**
+   * Test method for {@link LogContextLeakDetector#taskFinished(ThreadScopes, Object)} that ensures
+   * a task that closed the only scope open when it started is reported as closing it out of order,
+   * without failing, and that the scopes it left open are kept.
+   */
+  @Test
+  void testTaskFinished_markClosed() throws Exception {
+    final ThreadScopes scopes = LogContextLeakDetector.threadScopes();
+    final LogContext outer = LogContextLeakDetector.track("test", context, 1);
+    final Object mark = scopes.top;
+
+    outer.close();
+    LogContextLeakDetector.taskFinished(scopes, mark);
+
+    assertThat(kinds(), contains(Violation.Kind.CLOSED_OUT_OF_ORDER));
+    assertThat(
+        violations.get(0).getMessage(),
+        equalTo("test scope closed by a task that started inside it"));
+    assertThat(scopes.top, nullValue());
+
+    final LogContext sibling = LogContextLeakDetector.track("test", context, 1);
+    LogContextLeakDetector.taskFinished(scopes, mark);
+    sibling.close();
+
+    assertThat(
+        kinds(),
+        contains(Violation.Kind.CLOSED_OUT_OF_ORDER, Violation.Kind.CLOSED_OUT_OF_ORDER));
+    assertThat(scopes.top, nullValue());
+  }
+
+  /**
+   * Test method for {@link LogContextLeakDetector#taskFinished(ThreadScopes, Object)} that ensures
+   * a task that closed the scope open when it started does not bring that scope back, so closing
+   * the enclosing scope afterwards is not reported.
+   */
+  @Test
+  void testTaskFinished_markAboveTop() throws Exception {
+    final ThreadScopes scopes = LogContextLeakDetector.threadScopes();
+    final LogContext outer = LogContextLeakDetector.track("test", context, 1);
+    final LogContext inner = LogContextLeakDetector.track("test", context, 1);
+    final Object mark = scopes.top;
+
+    inner.close();
+    LogContextLeakDetector.taskFinished(scopes, mark);
+
+    assertThat(kinds(), contains(Violation.Kind.CLOSED_OUT_OF_ORDER));
+    assertThat(scopes.top, sameInstance(outer));
+
+    outer.close();
+
+    assertThat(kinds(), contains(Violation.Kind.CLOSED_OUT_OF_ORDER));
+    assertThat(scopes.top, nullValue());
+  }
+
+  /**
+   * Test method for {@link LogContextLeakDetector#checkRemoved(String, String, String, boolean)}
+   * that ensures only an unexpected value removed while the detection is enabled is reported.
+   */
+  @Test
+  void testCheckRemoved() {
+    LogContextLeakDetector.checkRemoved("test", "users", "users", true);
+    LogContextLeakDetector.checkRemoved("test", "users", "orders", false);
+    LogContextLeakDetector.checkRemoved("test", "users", "orders", true);
+
+    assertThat(kinds(), contains(Violation.Kind.UNEXPECTED_VALUE_REMOVED));
+    assertThat(violations.get(0).getMessage(), equalTo("test removed orders instead of users"));
+    assertThat(violations.get(0).getCause(), nullValue());
+  }
+
+  private List<Violation.Kind> kinds() {
+    final List<Violation.Kind> kinds = new ArrayList<>();
+    violations.forEach(violation -> kinds.add(violation.getKind()));
+    return kinds;
+  }
+}
@@ -0,0 +1,63 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LogContextSnapshotTest class provides a set of JUnit test cases for the {@link
+ * LogContextSnapshot} class.
+ */
+class LogContextSnapshotTest {
+
+  /** Clears the provider overridden by a test case. */
+  @AfterEach
+  void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Test method for {@link LogContextSnapshot#capture()} that ensures the snapshot is captured by
+   * the active provider.
+   */
+  @Test
+  void testCapture() {
+    final LogContextSnapshot snapshot = () -> LogContextSnapshot.EMPTY.attach();
+    LoggingContextServiceProviderRegistry.override(
+        new LoggingContextServiceProvider() {
+          @Override
+          public LogContext.Builder logContextBuilder() {
+            return LogContext.Builder.NO_OP_BUILDER;
+          }
+
+          @Override
+          public LogContextSnapshot captureSnapshot() {
+            return snapshot;
+          }
+        });
+
+    assertThat(LogContextSnapshot.capture(), sameInstance(snapshot));
+  }
+
+  /**
+   * Test method for {@link LogContextSnapshot#capture()} that ensures providers that do not support
+   * snapshots capture the {@link LogContextSnapshot#EMPTY} snapshot.
+   */
+  @Test
+  void testCapture_notSupported() {
+    LoggingContextServiceProviderRegistry.override(TestLogContextBuilder::new);
+
+    assertThat(LogContextSnapshot.capture(), sameInstance(LogContextSnapshot.EMPTY));
+  }
+
+  /** Test method for {@link LogContextSnapshot#EMPTY}. */
+  @Test
+  void testEmpty_attach() throws Exception {
+    try (LogContext context = LogContextSnapshot.EMPTY.attach()) {
+      assertThat(context, notNullValue());
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LogContextTemplateTest class provides a set of JUnit test cases for the {@link
+ * LogContextTemplate} class.
+ */
+class LogContextTemplateTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  private static final String CONTEXT_2 = "CONTEXT2";
+
+  private static final String CONTEXT_3 = "CONTEXT3";
+
+  private static final String VALUE_1 = "value1";
+
+  /** The template with one static value of each kind and two slots. */
+  private final LogContextTemplate template =
+      LogContextTemplate.builder()
+          .andNested(CONTEXT_1)
+          .andMapped(CONTEXT_1, VALUE_1)
+          .andMappedSlot(CONTEXT_2)
+          .andMappedSlot(CONTEXT_3)
+          .build();
+
+  /** Clears the provider overridden by a test case. */
+  @AfterEach
+  void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Test method for {@link LogContextTemplate#open(Object, Object)} to ensure that the static
+   * values and the bound values are added to a pooled builder, a string as it is and any other
+   * object as a {@link LazyMappedValue}.
+   */
+  @Test
+  void testOpen_twoValues() {
+    LoggingContextServiceProviderRegistry.override(RecordingLogContextBuilder::new);
+
+    final RecordedContext context = (RecordedContext) template.open("2", 3);
+
+    assertThat(context.nestedContexts, contains(CONTEXT_1));
+    assertThat(context.mappedValues.keySet(), contains(CONTEXT_1, CONTEXT_2, CONTEXT_3));
+    assertThat(context.mappedValues, hasEntry(CONTEXT_1, VALUE_1));
+    assertThat(context.mappedValues, hasEntry(CONTEXT_2, "2"));
+    assertThat(context.mappedValues, hasEntry(CONTEXT_3, "3"));
+    assertThat(context.lazyCount, equalTo(1));
+    assertThat(template.getSlotCount(), equalTo(2));
+  }
+
+  /**
+   * Test method for {@link LogContextTemplate#open(Object)} and {@link LogContextTemplate#open()}
+   * to ensure that templates with one slot and without slots are opened.
+   */
+  @Test
+  void testOpen_oneValueAndNone() {
+    LoggingContextServiceProviderRegistry.override(RecordingLogContextBuilder::new);
+
+    final RecordedContext oneSlot =
+        (RecordedContext)
+            LogContextTemplate.builder().andMappedSlot(CONTEXT_2).build().open((Object) null);
+
+    assertThat(oneSlot.nestedContexts.isEmpty(), equalTo(true));
+    assertThat(oneSlot.mappedValues, hasEntry(CONTEXT_2, null));
+    assertThat(oneSlot.lazyCount, equalTo(0));
+
+    final RecordedContext noSlots =
+        (RecordedContext) LogContextTemplate.builder().andNested(CONTEXT_1).build().open();
+
+    assertThat(noSlots.nestedContexts, contains(CONTEXT_1));
+    assertThat(noSlots.mappedValues.isEmpty(), equalTo(true));
+  }
+
+  /**
+   * Test method for {@link LogContextTemplate#open(Object...)} to ensure that more than two values
+   * are bound in the order of the slots, and that a builder that outgrows its initial capacity
+   * keeps every value.
+   */
+  @Test
+  void testOpen_values() {
+    LoggingContextServiceProviderRegistry.override(RecordingLogContextBuilder::new);
+    final LogContextTemplate.Builder builder =
+        LogContextTemplate.builder().andNested("a", "b", "c", "d", "e");
+    for (int i = 0; i < 5; i++) {
+      builder.andMapped("static" + i, String.valueOf(i)).andMappedSlot("slot" + i);
+    }
+    final LazyMappedValue lazyValue = LazyMappedValue.of(4);
+
+    final RecordedContext context =
+        (RecordedContext) builder.build().open("0", "1", "2", "3", lazyValue);
+
+    assertThat(context.nestedContexts, contains("a", "b", "c", "d", "e"));
+    assertThat(context.mappedValues.size(), equalTo(10));
+    assertThat(context.mappedValues, hasEntry("static4", "4"));
+    assertThat(context.mappedValues, hasEntry("slot4", "4"));
+    assertThat(context.lazyCount, equalTo(1));
+  }
+
+  /**
+   * Test method for {@link LogContextTemplate#open(Object, Object)} to ensure that the values are
+   * added through the public methods of a builder that is not an {@link
+   * AbstractLogContextBuilder}.
+   */
+  @Test
+  void testOpen_otherBuilder() {
+    final LogContext logContext = template.open("2", 3);
+
+    assertThat(logContext, instanceOf(TestableLogContext.class));
+    final TestableLogContext context = (TestableLogContext) logContext;
+    assertThat(context.hasNestedContext(CONTEXT_1), equalTo(true));
+    assertThat(context.hasMappedContextValue(CONTEXT_1, VALUE_1), equalTo(true));
+    assertThat(context.hasMappedContextValue(CONTEXT_2, "2"), equalTo(true));
+    assertThat(context.hasMappedContextValue(CONTEXT_3, "3"), equalTo(true));
+  }
+
+  /**
+   * Test method for the <code>open</code> methods of {@link LogContextTemplate} to ensure that a
+   * number of values other than the number of slots is rejected.
+   */
+  @Test
+  void testOpen_wrongValueCount() {
+    assertThrows(IllegalArgumentException.class, () -> template.open());
+    assertThrows(IllegalArgumentException.class, () -> template.open("2"));
+    assertThrows(IllegalArgumentException.class, () -> template.open("2", "3", "4"));
+    assertThrows(NullPointerException.class, () -> template.open((Object[]) null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> LogContextTemplate.builder().build().open("2", "3"));
+  }
+
+  /**
+   * Test method for {@link LogContextTemplate.Builder} to ensure that invalid values are rejected
+   * and that a built template is not changed by the builder afterwards.
+   */
+  @Test
+  void testBuilder_validation() {
+    final LogContextTemplate.Builder builder =
+        LogContextTemplate.builder().andMapped(CONTEXT_1, VALUE_1);
+
+    assertThrows(NullPointerException.class, () -> builder.andNested((String[]) null));
+    assertThrows(NullPointerException.class, () -> builder.andNested(CONTEXT_1, null));
+    assertThrows(IllegalArgumentException.class, () -> builder.andMapped(null, VALUE_1));
+    assertThrows(IllegalArgumentException.class, () -> builder.andMapped(" ", VALUE_1));
+    assertThrows(IllegalArgumentException.class, () -> builder.andMappedSlot(CONTEXT_1));
+
+    final LogContextTemplate built = builder.andMappedSlot(CONTEXT_2).build();
+    assertThrows(IllegalArgumentException.class, () -> builder.andMapped(CONTEXT_2, VALUE_1));
+    builder.andMappedSlot(CONTEXT_3);
+
+    assertThat(built.getSlotCount(), equalTo(1));
+  }
+
+  /** The values of a builder when its logging context was opened. */
+  private static final class RecordedContext implements LogContext {
+
+    final List<String> nestedContexts;
+
+    final Map<String, String> mappedValues = new LinkedHashMap<>();
+
+    final int lazyCount;
+
+    RecordedContext(final AbstractLogContextBuilder builder) {
+      nestedContexts = new ArrayList<>(builder.getNestedContexts());
+      for (int i = 0; i < builder.getMappedContextCount(); i++) {
+        mappedValues.put(builder.getMappedContextKey(i), builder.getMappedContextValue(i));
+      }
+      lazyCount = builder.getLazyMappedContextCount();
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  /** A builder whose logging context records its values. */
+  private static final class RecordingLogContextBuilder extends AbstractLogContextBuilder {
+
+    @Override
+    public LogContext get() {
+      return new RecordedContext(this);
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Iterator;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LoggingContextMetricsRegistryTest class provides a set of JUnit test cases for the {@link
+ * LoggingContextMetricsRegistry} class. The tests of this module enable the {@link
+ * StripedLoggingContextMetrics} through the service loader.
+ */
+class LoggingContextMetricsRegistryTest {
+
+  private StripedLoggingContextMetrics metrics;
+
+  /** Resets the active metrics. */
+  @BeforeEach
+  void setUp() {
+    metrics = (StripedLoggingContextMetrics) LoggingContextMetricsRegistry.getMetrics();
+    metrics.reset();
+  }
+
+  /**
+   * Test method for {@link LoggingContextMetricsRegistry#getMetrics()} that ensures the metrics
+   * found by the service loader are active and registered with the platform MBean server.
+   */
+  @Test
+  void testGetMetrics() throws Exception {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = new ObjectName(LoggingContextMetricsRegistry.OBJECT_NAME);
+    metrics.adviceApplied(100L);
+
+    assertThat(LoggingContextMetricsRegistry.isEnabled(), equalTo(true));
+    assertThat(server.isRegistered(name), equalTo(true));
+    assertThat(server.getAttribute(name, "AdviceCount"), equalTo(1L));
+  }
+
+  /**
+   * Test method for {@link LoggingContextMetricsRegistry#recordScope(String, int, int,
+   * LogContext)} that ensures the opening and closing of a scope are recorded, and that the
+   * context of the scope is closed.
+   */
+  @Test
+  void testRecordScope() throws Exception {
+    final boolean[] closed = new boolean[1];
+
+    final LogContext context =
+        LoggingContextMetricsRegistry.recordScope("test", 2, 1, () -> closed[0] = true);
+
+    assertThat(metrics.getScopesOpened(), equalTo(Collections.singletonMap("test", 1L)));
+    assertThat(metrics.getScopesClosed(), equalTo(Collections.singletonMap("test", 0L)));
+
+    context.close();
+
+    assertThat(closed[0], equalTo(true));
+    assertThat(metrics.getScopesClosed(), equalTo(Collections.singletonMap("test", 1L)));
+    assertThat(metrics.getNestedDepthHistogram()[2], equalTo(1L));
+    assertThat(metrics.getMappedSizeHistogram()[1], equalTo(1L));
+  }
+
+  /**
+   * Test method for {@link ValueRenderers#render(Object)} that ensures the time taken to render a
+   * value is recorded.
+   */
+  @Test
+  void testValueRendered() {
+    ValueRenderers.render(Collections.singletonList("order"));
+
+    assertThat(metrics.getRenderCount(), equalTo(1L));
+    assertThat(metrics.getRenderNanos(), greaterThan(0L));
+  }
+
+  /**
+   * Test method for {@link LoggingContextMetricsRegistry#startTime()} and {@link
+   * LoggingContextMetricsRegistry#recordAdvice(long)} that ensures the time is only measured and
+   * recorded for enabled metrics.
+   */
+  @Test
+  void testRecordAdvice() {
+    final StripedLoggingContextMetrics other = new StripedLoggingContextMetrics();
+
+    LoggingContextMetricsRegistry.recordAdvice(LoggingContextMetricsRegistry.startTime());
+    LoggingContextMetricsRegistry.recordAdvice(other, 0L);
+    LoggingContextMetricsRegistry.recordRender(other, 0L);
+
+    assertThat(metrics.getAdviceCount(), equalTo(1L));
+    assertThat(other.getAdviceCount(), equalTo(1L));
+    assertThat(other.getRenderCount(), equalTo(1L));
+    assertThat(LoggingContextMetricsRegistry.startTime(LoggingContextMetrics.NO_OP), equalTo(0L));
+    LoggingContextMetricsRegistry.recordAdvice(LoggingContextMetrics.NO_OP, 0L);
+    LoggingContextMetricsRegistry.recordRender(LoggingContextMetrics.NO_OP, 0L);
+  }
+
+  /**
+   * Test method for {@link LoggingContextMetricsRegistry#select(Iterator, boolean)} that ensures
+   * loaded metrics are preferred, then the striped metrics if they are enabled.
+   */
+  @Test
+  void testSelect() {
+    final Iterator<LoggingContextMetrics> none = Collections.emptyIterator();
+
+    assertThat(
+        LoggingContextMetricsRegistry.select(
+            Collections.singletonList(LoggingContextMetrics.NO_OP).iterator(), true),
+        sameInstance(LoggingContextMetrics.NO_OP));
+    assertThat(
+        LoggingContextMetricsRegistry.select(none, true),
+        instanceOf(StripedLoggingContextMetrics.class));
+    assertThat(
+        LoggingContextMetricsRegistry.select(none, false),
+        sameInstance(LoggingContextMetrics.NO_OP));
+  }
+
+  /**
+   * Test method for {@link LoggingContextMetricsRegistry#register(LoggingContextMetrics)} that
+   * ensures only MXBeans are registered, and only once.
+   */
+  @Test
+  void testRegister() {
+    assertThat(
+        LoggingContextMetricsRegistry.register(LoggingContextMetrics.NO_OP), equalTo(false));
+    assertThat(
+        LoggingContextMetricsRegistry.register(new StripedLoggingContextMetrics()), equalTo(false));
+  }
+}
@@ -0,0 +1,30 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LoggingContextMetricsTest class provides a set of JUnit test cases for the default methods
+ * of the {@link LoggingContextMetrics} interface.
+ */
+class LoggingContextMetricsTest {
+
+  /**
+   * Test method for {@link LoggingContextMetrics#NO_OP} that ensures it is disabled and ignores
+   * every recorded value.
+   */
+  @Test
+  void testNoOp() {
+    final LoggingContextMetrics metrics = LoggingContextMetrics.NO_OP;
+
+    metrics.scopeOpened("log4j2", 1, 1);
+    metrics.scopeClosed("log4j2");
+    metrics.adviceApplied(100L);
+    metrics.valueRendered(100L);
+
+    assertThat(metrics.isEnabled(), equalTo(false));
+    assertThat(new LoggingContextMetrics() {}.isEnabled(), equalTo(true));
+  }
+}
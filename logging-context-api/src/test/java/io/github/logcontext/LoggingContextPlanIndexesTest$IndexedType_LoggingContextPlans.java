@@ -0,0 +1,29 @@
+package io.github.logcontext;
+
+/**
+ * A hand-written equivalent of the index that the annotation processor generates for {@link
+ * LoggingContextPlanIndexesTest.IndexedType}.
+ */
+public final class LoggingContextPlanIndexesTest$IndexedType_LoggingContextPlans
+    implements LoggingContextPlanIndex {
+
+  private static final String[] TYPE_CONTEXTS = new String[] {"INDEXED"};
+
+  private static final LoggingContextPlan PLAN_0 =
+      new LoggingContextPlan(
+          TYPE_CONTEXTS, new String[] {"lookup"}, new int[] {0}, new String[] {"userId"});
+
+  @Override
+  public LoggingContextPlan plan(final String methodName, final Class<?>[] parameterTypes) {
+    switch (methodName) {
+      case "lookup":
+        if (LoggingContextPlanIndexes.matches(parameterTypes, "java.lang.String")) {
+          return PLAN_0;
+        }
+        break;
+      default:
+        break;
+    }
+    return null;
+  }
+}
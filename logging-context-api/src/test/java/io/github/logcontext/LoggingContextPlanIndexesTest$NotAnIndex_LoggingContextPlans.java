@@ -0,0 +1,7 @@
+package io.github.logcontext;
+
+/**
+ * A class named like a generated index for {@link LoggingContextPlanIndexesTest.NotAnIndex} that
+ * does not implement {@link LoggingContextPlanIndex}.
+ */
+public final class LoggingContextPlanIndexesTest$NotAnIndex_LoggingContextPlans {}
@@ -0,0 +1,109 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Method;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LoggingContextPlanIndexesTest class provides a set of JUnit test cases for the {@link
+ * LoggingContextPlanIndexes} class.
+ */
+class LoggingContextPlanIndexesTest {
+
+  /**
+   * Test method for {@link LoggingContextPlanIndexes#indexClassName(String)} that ensures the
+   * indexes of a nested class and of a top-level class with an underscore get different names.
+   */
+  @Test
+  void testIndexClassName() {
+    assertThat(
+        LoggingContextPlanIndexes.indexClassName("com.example.Orders$Refunds"),
+        equalTo("com.example.Orders$Refunds_LoggingContextPlans"));
+    assertThat(
+        LoggingContextPlanIndexes.indexClassName("com.example.Orders_Refunds"),
+        equalTo("com.example.Orders_Refunds_LoggingContextPlans"));
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlanIndexes#find(Class, Method)} that ensures the plan is
+   * taken from the generated index instead of the annotations.
+   */
+  @Test
+  void testFind_generatedIndex() throws Exception {
+    final Method lookup = IndexedType.class.getMethod("lookup", String.class);
+
+    final LoggingContextPlan plan = LoggingContextPlanIndexes.find(IndexedType.class, lookup);
+
+    assertThat(plan.toString(), containsString("[INDEXED][lookup]"));
+    assertThat(plan.toString(), containsString("[userId]@[0]"));
+    assertThat(
+        LoggingContextPlanIndexes.find(
+            IndexedType.class, IndexedType.class.getMethod("lookup", Integer.class)),
+        nullValue());
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlanIndexes#find(Class, Method)} that ensures no plan is
+   * found for inherited methods, classes without an index, or classes with an invalid index.
+   */
+  @Test
+  void testFind_noGeneratedPlan() throws Exception {
+    assertThat(
+        LoggingContextPlanIndexes.find(IndexedType.class, Object.class.getMethod("hashCode")),
+        nullValue());
+    assertThat(
+        LoggingContextPlanIndexes.find(Object.class, Object.class.getMethod("hashCode")),
+        nullValue());
+    assertThat(
+        LoggingContextPlanIndexes.find(
+            NotAnIndex.class, NotAnIndex.class.getMethod("lookup", String.class)),
+        nullValue());
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlanIndexes#find(Class, Method)} that ensures a {@link
+   * NullPointerException} is thrown for <code>null</code> arguments.
+   */
+  @Test
+  void testFind_nullArguments() throws Exception {
+    final Method method = Object.class.getMethod("hashCode");
+
+    assertThrows(NullPointerException.class, () -> LoggingContextPlanIndexes.find(null, method));
+    assertThrows(
+        NullPointerException.class, () -> LoggingContextPlanIndexes.find(Object.class, null));
+  }
+
+  /** Test method for {@link LoggingContextPlanIndexes#matches(Class[], String...)}. */
+  @Test
+  void testMatches() {
+    final Class<?>[] parameterTypes = {String.class, int[].class};
+
+    assertThat(
+        LoggingContextPlanIndexes.matches(parameterTypes, "java.lang.String", "[I"),
+        equalTo(true));
+    assertThat(
+        LoggingContextPlanIndexes.matches(parameterTypes, "java.lang.String", "int"),
+        equalTo(false));
+    assertThat(
+        LoggingContextPlanIndexes.matches(parameterTypes, "java.lang.String"), equalTo(false));
+  }
+
+  /** An example class with a hand-written index. */
+  public static class IndexedType {
+
+    public void lookup(final String userId) {}
+
+    public void lookup(final Integer userId) {}
+  }
+
+  /** An example class whose index does not implement {@link LoggingContextPlanIndex}. */
+  public static class NotAnIndex {
+
+    public void lookup(final String userId) {}
+  }
+}
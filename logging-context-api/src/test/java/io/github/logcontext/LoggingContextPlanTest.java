@@ -0,0 +1,283 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import io.github.logcontext.LogContext.Builder;
+import java.lang.reflect.Method;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+/**
+ * The LoggingContextPlanTest class provides a set of JUnit test cases for the {@link
+ * LoggingContextPlan} class.
+ */
+class LoggingContextPlanTest {
+
+  private static final String TYPE_CONTEXT = "ORDERS";
+
+  private static final String METHOD_CONTEXT = "REFUND";
+
+  private static final String PARAMETER_CONTEXT = "order_number";
+
+  /**
+   * Test method for {@link LoggingContextPlan#resolve(Class, Method)} and {@link
+   * LoggingContextPlan#apply(Builder, Object[])} for named class, method, and parameter contexts.
+   */
+  @Test
+  void testResolveAndApply_namedContexts() throws Exception {
+    final Method method =
+        AnnotatedType.class.getMethod("refund", String.class, int.class, String.class);
+    final LoggingContextPlan plan = LoggingContextPlan.resolve(AnnotatedType.class, method);
+
+    final Builder builder = mockBuilder();
+    plan.apply(builder, new Object[] {"A-1", 5, "ignored"});
+
+    final InOrder inOrder = inOrder(builder);
+    inOrder.verify(builder).andNested(TYPE_CONTEXT);
+    inOrder.verify(builder).andNested(METHOD_CONTEXT);
+    inOrder.verify(builder).andMapped(PARAMETER_CONTEXT, "A-1");
+    inOrder.verify(builder).andMapped("last", 5L);
+    verifyNoMoreInteractions(builder);
+
+    assertThat(plan.isEmpty(), equalTo(false));
+    assertThat(plan.toString(), containsString(PARAMETER_CONTEXT));
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlan#apply(Builder, Object[])} that ensures <code>null
+   * </code> arguments are added as the <code>"null"</code> string rather than lazily.
+   */
+  @Test
+  void testApply_nullArgument() throws Exception {
+    final Method method =
+        AnnotatedType.class.getMethod("refund", String.class, int.class, String.class);
+    final LoggingContextPlan plan = LoggingContextPlan.resolve(AnnotatedType.class, method);
+
+    final Builder builder = mockBuilder();
+    plan.apply(builder, new Object[] {null, 5, null});
+
+    verify(builder).andMapped(PARAMETER_CONTEXT, "null");
+    verify(builder).andMapped("last", 5L);
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlan#apply(Builder, Object[])} that ensures arguments
+   * without a cheap renderer are added as {@link LazyMappedValue}s.
+   */
+  @Test
+  void testApply_lazyArgument() throws Exception {
+    final Method method =
+        AnnotatedType.class.getMethod("refund", String.class, int.class, String.class);
+    final LoggingContextPlan plan = LoggingContextPlan.resolve(AnnotatedType.class, method);
+    final Object argument =
+        new Object() {
+          @Override
+          public String toString() {
+            return "order";
+          }
+        };
+
+    final Builder builder = mockBuilder();
+    plan.apply(builder, new Object[] {argument, 5, null});
+
+    final ArgumentCaptor<Object> value = ArgumentCaptor.forClass(Object.class);
+    verify(builder).andLazyMapped(eq(PARAMETER_CONTEXT), value.capture());
+    assertThat(value.getValue(), instanceOf(LazyMappedValue.class));
+    assertThat(((LazyMappedValue) value.getValue()).isRendered(), equalTo(false));
+    assertThat(value.getValue().toString(), equalTo("order"));
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlan#apply(Builder, Object[])} that ensures integer,
+   * <code>double</code> and <code>boolean</code> arguments are added unboxed, while other boxed
+   * primitives and arguments with a registered renderer are converted to strings.
+   */
+  @Test
+  void testApply_unboxedArguments() {
+    final LoggingContextPlan plan =
+        new LoggingContextPlan(
+            null,
+            null,
+            new int[] {0, 1, 2, 3, 4, 5, 6},
+            new String[] {"long", "short", "byte", "double", "boolean", "float", "char"});
+    final Object[] arguments = {7L, (short) 6, (byte) 5, 0.5d, true, 1.5f, 'c'};
+
+    final Builder builder = mockBuilder();
+    plan.apply(builder, arguments);
+
+    verify(builder).andMapped("long", 7L);
+    verify(builder).andMapped("short", 6L);
+    verify(builder).andMapped("byte", 5L);
+    verify(builder).andMapped("double", 0.5d);
+    verify(builder).andMapped("boolean", true);
+    verify(builder).andMapped("float", "1.5");
+    verify(builder).andMapped("char", "c");
+    verifyNoMoreInteractions(builder);
+
+    ValueRenderers.register(Long.class, (value, maxLength) -> "#" + value);
+    try {
+      final Builder renderedBuilder = mockBuilder();
+      plan.apply(renderedBuilder, arguments);
+
+      verify(renderedBuilder).andLazyMapped(eq("long"), any(Object.class));
+      verify(renderedBuilder).andMapped("short", 6L);
+    } finally {
+      ValueRenderers.reset();
+    }
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlan#resolve(Class, Method)} that ensures an empty
+   * annotation defaults to the class and method names.
+   */
+  @Test
+  void testResolve_defaultContexts() throws Exception {
+    final Method method = DefaultType.class.getMethod("cancel");
+    final LoggingContextPlan plan = LoggingContextPlan.resolve(DefaultType.class, method);
+
+    final Builder builder = mockBuilder();
+    plan.apply(builder, new Object[0]);
+
+    final InOrder inOrder = inOrder(builder);
+    inOrder.verify(builder).andNested("DefaultType");
+    inOrder.verify(builder).andNested("cancel");
+    verifyNoMoreInteractions(builder);
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlan#resolve(Class, Method)} that ensures the level of a
+   * method replaces the level of its class, and that the least severe of several levels is used.
+   */
+  @Test
+  void testResolve_enabledLevel() throws Exception {
+    final LoggingContextPlan find =
+        LoggingContextPlan.resolve(GatedType.class, GatedType.class.getMethod("find"));
+    final LoggingContextPlan save =
+        LoggingContextPlan.resolve(GatedType.class, GatedType.class.getMethod("save"));
+    final LoggingContextPlan refund =
+        LoggingContextPlan.resolve(
+            AnnotatedType.class,
+            AnnotatedType.class.getMethod("refund", String.class, int.class, String.class));
+
+    assertThat(find.getEnabledLevel(), equalTo(LogLevel.DEBUG));
+    assertThat(find.toString(), containsString("ifEnabled=DEBUG"));
+    assertThat(save.getEnabledLevel(), equalTo(LogLevel.INFO));
+    assertThat(refund.getEnabledLevel(), nullValue());
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlan#resolve(Class, Method)} for a method without any
+   * annotations.
+   */
+  @Test
+  void testResolve_noAnnotations() throws Exception {
+    final LoggingContextPlan plan =
+        LoggingContextPlan.resolve(Object.class, Object.class.getMethod("hashCode"));
+
+    final Builder builder = mockBuilder();
+    plan.apply(builder, new Object[0]);
+
+    assertThat(plan.isEmpty(), equalTo(true));
+    verifyNoInteractions(builder);
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlan#resolve(Class, Method)} that ensures a {@link
+   * NullPointerException} is thrown for <code>null</code> arguments.
+   */
+  @Test
+  void testResolve_nullArguments() throws Exception {
+    final Method method = Object.class.getMethod("hashCode");
+
+    assertThrows(NullPointerException.class, () -> LoggingContextPlan.resolve(null, method));
+    assertThrows(NullPointerException.class, () -> LoggingContextPlan.resolve(Object.class, null));
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlan#LoggingContextPlan(String[], String[], int[],
+   * String[])} that ensures the parameter indexes and contexts must be present and aligned.
+   */
+  @Test
+  void testLoggingContextPlan_invalidParameters() {
+    assertThrows(
+        NullPointerException.class,
+        () -> new LoggingContextPlan(null, null, null, new String[0]));
+    assertThrows(
+        NullPointerException.class, () -> new LoggingContextPlan(null, null, new int[0], null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new LoggingContextPlan(null, null, new int[] {0}, new String[0]));
+  }
+
+  /** Test method for {@link LoggingContextPlan#estimatedFootprint()}. */
+  @Test
+  void testEstimatedFootprint() {
+    final LoggingContextPlan plan =
+        new LoggingContextPlan(
+            new String[] {TYPE_CONTEXT},
+            new String[] {METHOD_CONTEXT, null},
+            new int[] {0},
+            new String[] {PARAMETER_CONTEXT});
+
+    assertThat(plan.estimatedFootprint(), greaterThan(LoggingContextPlan.EMPTY.estimatedFootprint()));
+  }
+
+  private Builder mockBuilder() {
+    final Builder builder = mock(Builder.class);
+    when(builder.andNested(any())).thenReturn(builder);
+    when(builder.andMapped(anyString(), anyString())).thenReturn(builder);
+    when(builder.andLazyMapped(anyString(), any(Object.class))).thenReturn(builder);
+    when(builder.andMapped(anyString(), anyLong())).thenReturn(builder);
+    when(builder.andMapped(anyString(), anyDouble())).thenReturn(builder);
+    when(builder.andMapped(anyString(), anyBoolean())).thenReturn(builder);
+    return builder;
+  }
+
+  /** An example class with named logging contexts. */
+  @LoggingContext(TYPE_CONTEXT)
+  public static class AnnotatedType {
+
+    @LoggingContext(METHOD_CONTEXT)
+    public void refund(
+        @LoggingContext(PARAMETER_CONTEXT) final String orderNumber,
+        @LoggingContext({"first", "last"}) final int amount,
+        final String reason) {}
+  }
+
+  /** An example class with logging contexts that require logging to be enabled. */
+  @LoggingContext(value = TYPE_CONTEXT, ifEnabled = LogLevel.DEBUG)
+  public static class GatedType {
+
+    public void find() {}
+
+    @LoggingContext(ifEnabled = {LogLevel.WARN, LogLevel.INFO})
+    public void save() {}
+  }
+
+  /** An example class with default logging contexts. */
+  @LoggingContext
+  public static class DefaultType {
+
+    @LoggingContext
+    public void cancel() {}
+  }
+}
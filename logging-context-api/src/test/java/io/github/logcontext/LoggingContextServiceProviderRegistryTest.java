@@ -0,0 +1,134 @@
+package io.github.logcontext;
+
+import static io.github.logcontext.LoggingContextServiceProviderRegistry.NO_OP_PROVIDER;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LoggingContextServiceProviderRegistryTest class provides a set of JUnit test cases for the
+ * {@link LoggingContextServiceProviderRegistry} class.
+ */
+class LoggingContextServiceProviderRegistryTest {
+
+  /** Clears any provider resolved or overridden by a test case. */
+  @AfterEach
+  void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Test method for {@link LoggingContextServiceProviderRegistry#getProvider()} that ensures the
+   * provider is located by the service loader and then reused.
+   */
+  @Test
+  void testGetProvider_resolvedOnce() {
+    final LoggingContextServiceProvider provider =
+        LoggingContextServiceProviderRegistry.getProvider();
+
+    assertThat(provider, instanceOf(TestLoggingContextServiceProvider.class));
+    assertThat(LoggingContextServiceProviderRegistry.getProvider(), sameInstance(provider));
+  }
+
+  /**
+   * Test method for {@link LoggingContextServiceProviderRegistry#override(
+   * LoggingContextServiceProvider)}.
+   */
+  @Test
+  void testOverride() {
+    final LoggingContextServiceProvider override = TestLogContextBuilder::new;
+
+    LoggingContextServiceProviderRegistry.override(override);
+
+    assertThat(LoggingContextServiceProviderRegistry.getProvider(), sameInstance(override));
+    assertThat(LogContext.Builder.builder(), instanceOf(TestLogContextBuilder.class));
+  }
+
+  /**
+   * Test method for {@link LoggingContextServiceProviderRegistry#override(
+   * LoggingContextServiceProvider)} that ensures a {@link NullPointerException} is thrown for a
+   * <code>null</code> provider.
+   */
+  @Test
+  void testOverride_nullProvider() {
+    assertThrows(
+        NullPointerException.class, () -> LoggingContextServiceProviderRegistry.override(null));
+  }
+
+  /**
+   * Test method for {@link LoggingContextServiceProviderRegistry#invalidate()} that ensures the
+   * service loader is consulted again after the registry is invalidated.
+   */
+  @Test
+  void testInvalidate() {
+    final LoggingContextServiceProvider provider =
+        LoggingContextServiceProviderRegistry.getProvider();
+
+    LoggingContextServiceProviderRegistry.invalidate();
+
+    final LoggingContextServiceProvider reloaded =
+        LoggingContextServiceProviderRegistry.getProvider();
+    assertThat(reloaded, instanceOf(TestLoggingContextServiceProvider.class));
+    assertThat(reloaded, not(sameInstance(provider)));
+  }
+
+  /**
+   * Test method for {@link LoggingContextServiceProviderRegistry#resolve(ClassLoader)} that ensures
+   * providers are cached per class loader and the no-op provider is used when none is available.
+   */
+  @Test
+  void testResolve_perClassLoader() throws Exception {
+    final ClassLoader testClassLoader = getClass().getClassLoader();
+    final LoggingContextServiceProvider provider =
+        LoggingContextServiceProviderRegistry.resolve(testClassLoader);
+
+    try (URLClassLoader emptyClassLoader = new URLClassLoader(new URL[0], null)) {
+      assertThat(
+          LoggingContextServiceProviderRegistry.resolve(emptyClassLoader),
+          sameInstance(NO_OP_PROVIDER));
+      assertThat(LoggingContextServiceProviderRegistry.getProvider(), sameInstance(NO_OP_PROVIDER));
+      assertThat(LogContext.Builder.builder(), sameInstance(LogContext.Builder.NO_OP_BUILDER));
+    }
+
+    assertThat(
+        LoggingContextServiceProviderRegistry.resolve(testClassLoader), sameInstance(provider));
+  }
+
+  /**
+   * Test method for {@link LoggingContextServiceProviderRegistry#resolve(ClassLoader)} that ensures
+   * a {@link NullPointerException} is thrown for a <code>null</code> class loader.
+   */
+  @Test
+  void testResolve_nullClassLoader() {
+    assertThrows(
+        NullPointerException.class, () -> LoggingContextServiceProviderRegistry.resolve(null));
+  }
+
+  /**
+   * Test method for {@link LoggingContextServiceProviderRegistry#getGeneration()} that ensures the
+   * generation changes whenever the active provider is replaced or discarded.
+   */
+  @Test
+  void testGetGeneration() {
+    LoggingContextServiceProviderRegistry.getProvider();
+    final int resolved = LoggingContextServiceProviderRegistry.getGeneration();
+
+    LoggingContextServiceProviderRegistry.getProvider();
+    assertThat(LoggingContextServiceProviderRegistry.getGeneration(), equalTo(resolved));
+
+    LoggingContextServiceProviderRegistry.override(TestLogContextBuilder::new);
+    final int overridden = LoggingContextServiceProviderRegistry.getGeneration();
+    assertThat(overridden, not(equalTo(resolved)));
+
+    LoggingContextServiceProviderRegistry.invalidate();
+    assertThat(LoggingContextServiceProviderRegistry.getGeneration(), not(equalTo(overridden)));
+  }
+}
@@ -0,0 +1,33 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LoggingContextServiceProviderTest class provides a set of JUnit test cases for the default
+ * methods of the {@link LoggingContextServiceProvider} interface.
+ */
+class LoggingContextServiceProviderTest {
+
+  private final LoggingContextServiceProvider provider = new TestLoggingContextServiceProvider();
+
+  /** Test method for {@link LoggingContextServiceProvider#captureSnapshot()}. */
+  @Test
+  void testCaptureSnapshot() {
+    assertThat(provider.captureSnapshot(), sameInstance(LogContextSnapshot.EMPTY));
+  }
+
+  /**
+   * Test method for {@link LoggingContextServiceProvider#loggingEnabled(String)} that ensures every
+   * level is considered enabled by default.
+   */
+  @Test
+  void testLoggingEnabled() {
+    for (final LogLevel level : LogLevel.values()) {
+      assertThat(provider.loggingEnabled("category").test(level), equalTo(true));
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The MappedContextUndoStackTest class provides a set of JUnit test cases for the {@link
+ * MappedContextUndoStack} class.
+ */
+class MappedContextUndoStackTest {
+
+  /** The stack being tested. */
+  private final MappedContextUndoStack undoStack = new MappedContextUndoStack();
+
+  /** The values restored by the stack, as <code>key=value</code>. */
+  private final List<String> restored = new ArrayList<>();
+
+  /**
+   * Test method for {@link MappedContextUndoStack#restoreTo(int, java.util.function.BiConsumer)}
+   * that ensures only the values pushed after the mark are restored, most recent first.
+   */
+  @Test
+  void testRestoreTo() {
+    undoStack.push("outer", "1");
+    final int mark = undoStack.size();
+    undoStack.push("orderId", "A");
+    undoStack.push("orderId", "B");
+
+    undoStack.restoreTo(mark, this::restore);
+
+    assertThat(restored, contains("orderId=B", "orderId=A"));
+    assertThat(undoStack.size(), equalTo(mark));
+  }
+
+  /**
+   * Test method for {@link MappedContextUndoStack#restoreTo(int, java.util.function.BiConsumer)}
+   * that ensures nothing is restored twice.
+   */
+  @Test
+  void testRestoreTo_alreadyRestored() {
+    undoStack.push("orderId", "A");
+    undoStack.restoreTo(0, this::restore);
+    restored.clear();
+
+    undoStack.restoreTo(0, this::restore);
+    undoStack.restoreTo(1, this::restore);
+
+    assertThat(restored, empty());
+  }
+
+  /**
+   * Test method for {@link MappedContextUndoStack#push(String, String)} that ensures the stack grows
+   * beyond its initial capacity.
+   */
+  @Test
+  void testPush_growsCapacity() {
+    for (int i = 0; i < 20; i++) {
+      undoStack.push("key" + i, "value" + i);
+    }
+
+    assertThat(undoStack.size(), equalTo(20));
+    undoStack.restoreTo(19, this::restore);
+    assertThat(restored, contains("key19=value19"));
+  }
+
+  /**
+   * Test method for {@link MappedContextUndoStack#forCurrentThread()} that ensures each thread has
+   * its own stack.
+   */
+  @Test
+  void testForCurrentThread() throws Exception {
+    final MappedContextUndoStack current = MappedContextUndoStack.forCurrentThread();
+
+    assertThat(MappedContextUndoStack.forCurrentThread(), sameInstance(current));
+    assertThat(
+        CompletableFuture.supplyAsync(MappedContextUndoStack::forCurrentThread).get(),
+        not(sameInstance(current)));
+  }
+
+  private void restore(final String key, final String value) {
+    restored.add(key + "=" + value);
+  }
+}
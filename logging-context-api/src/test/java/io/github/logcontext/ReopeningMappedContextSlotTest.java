@@ -0,0 +1,161 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ReopeningMappedContextSlotTest class provides a set of JUnit test cases for the {@link
+ * ReopeningMappedContextSlot} class.
+ */
+class ReopeningMappedContextSlotTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  /** The mapped values of the current thread, as updated by the {@link MapLogContextBuilder}. */
+  private static final Map<String, String> MAPPED = new HashMap<>();
+
+  /** Makes the active provider update the {@link #MAPPED} values. */
+  @BeforeEach
+  void setUp() {
+    MAPPED.clear();
+    LoggingContextServiceProviderRegistry.override(MapLogContextBuilder::new);
+  }
+
+  /** Clears the provider overridden by the test case. */
+  @AfterEach
+  void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Test method for {@link ReopeningMappedContextSlot#set(String)} to ensure that each value
+   * replaces the previous one, that a <code>null</code> value restores the value the key had when
+   * the slot was opened, and that closing the slot restores it and closes the other values.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testSet() throws Exception {
+    final LogContext context = mock(LogContext.class);
+    MAPPED.put(CONTEXT_1, "outer");
+    final MappedContextSlot slot = new ReopeningMappedContextSlot(context, CONTEXT_1);
+
+    slot.set("1");
+
+    assertThat(MAPPED, hasEntry(CONTEXT_1, "1"));
+
+    slot.set("2");
+
+    assertThat(MAPPED, hasEntry(CONTEXT_1, "2"));
+
+    slot.set(null);
+
+    assertThat(MAPPED, hasEntry(CONTEXT_1, "outer"));
+
+    slot.set("3");
+    slot.close();
+
+    assertThat(MAPPED, hasEntry(CONTEXT_1, "outer"));
+    verify(context).close();
+  }
+
+  /**
+   * Test method for {@link LogContext.Builder#mappedContextSlot(String)} to ensure that the key has
+   * no value until one is set and none once the slot is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testMappedContextSlot() throws Exception {
+    try (MappedContextSlot slot = LogContext.Builder.mappedContextSlot(CONTEXT_1)) {
+      assertThat(MAPPED, anEmptyMap());
+
+      slot.set("1");
+
+      assertThat(MAPPED, hasEntry(CONTEXT_1, "1"));
+    }
+
+    assertThat(MAPPED, anEmptyMap());
+    assertThrows(
+        NullPointerException.class, () -> LogContext.Builder.mappedContextSlot(null));
+  }
+
+  /**
+   * Test method for {@link ReopeningMappedContextSlot#set(String)} to ensure that a checked
+   * exception thrown while restoring the previous value is rethrown as an {@link
+   * IllegalStateException}, and an unchecked exception as it is.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testSet_closeFails() throws Exception {
+    final IOException checked = new IOException("checked");
+    final IllegalArgumentException unchecked = new IllegalArgumentException("unchecked");
+    final MappedContextSlot slot =
+        new ReopeningMappedContextSlot(mock(LogContext.class), CONTEXT_1);
+    final LogContext failing = mock(LogContext.class);
+    doThrow(checked).doThrow(unchecked).when(failing).close();
+    LoggingContextServiceProviderRegistry.override(() -> new FailingLogContextBuilder(failing));
+
+    slot.set("1");
+
+    assertThat(
+        assertThrows(IllegalStateException.class, () -> slot.set("2")).getCause(),
+        sameInstance(checked));
+
+    slot.set("3");
+
+    assertThat(
+        assertThrows(IllegalArgumentException.class, () -> slot.set("4")),
+        sameInstance(unchecked));
+    assertThat(MAPPED, anEmptyMap());
+  }
+
+  /** A builder that puts its mapped values into {@link #MAPPED} and restores them when closed. */
+  private static class MapLogContextBuilder extends AbstractLogContextBuilder {
+
+    @Override
+    public LogContext get() {
+      final Map<String, String> shadowed = new HashMap<>();
+      getMappedContextValues()
+          .forEach((key, value) -> shadowed.put(key, MAPPED.put(key, value)));
+      return () ->
+          shadowed.forEach(
+              (key, value) -> {
+                if (value != null) {
+                  MAPPED.put(key, value);
+                } else {
+                  MAPPED.remove(key);
+                }
+              });
+    }
+  }
+
+  /** A builder whose logging contexts are all the same provided context. */
+  private static class FailingLogContextBuilder extends AbstractLogContextBuilder {
+
+    private final LogContext context;
+
+    FailingLogContextBuilder(final LogContext context) {
+      this.context = context;
+    }
+
+    @Override
+    public LogContext get() {
+      return context;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The StripedLoggingContextMetricsTest class provides a set of JUnit test cases for the {@link
+ * StripedLoggingContextMetrics} class.
+ */
+class StripedLoggingContextMetricsTest {
+
+  private final StripedLoggingContextMetrics metrics = new StripedLoggingContextMetrics();
+
+  /**
+   * Test method for {@link StripedLoggingContextMetrics#scopeOpened(String, int, int)} and {@link
+   * StripedLoggingContextMetrics#scopeClosed(String)} that ensures scopes are counted per backend
+   * and their sizes are recorded in power of two buckets.
+   */
+  @Test
+  void testScopes() {
+    metrics.scopeOpened("log4j2", 0, 1);
+    metrics.scopeOpened("log4j2", 3, 4);
+    metrics.scopeOpened("slf4j", 1, 0);
+    metrics.scopeClosed("log4j2");
+
+    assertThat(metrics.getScopesOpened().get("log4j2"), equalTo(2L));
+    assertThat(metrics.getScopesOpened().get("slf4j"), equalTo(1L));
+    assertThat(metrics.getScopesClosed().get("log4j2"), equalTo(1L));
+    assertThat(metrics.getScopesClosed().get("slf4j"), equalTo(0L));
+    assertThat(metrics.getNestedDepthHistogram()[0], equalTo(1L));
+    assertThat(metrics.getNestedDepthHistogram()[1], equalTo(1L));
+    assertThat(metrics.getNestedDepthHistogram()[2], equalTo(1L));
+    assertThat(metrics.getMappedSizeHistogram()[0], equalTo(1L));
+    assertThat(metrics.getMappedSizeHistogram()[1], equalTo(1L));
+    assertThat(metrics.getMappedSizeHistogram()[3], equalTo(1L));
+    assertThat(metrics.getMappedSizeHistogram().length, equalTo(65));
+  }
+
+  /**
+   * Test method for {@link StripedLoggingContextMetrics#adviceApplied(long)} and {@link
+   * StripedLoggingContextMetrics#valueRendered(long)} that ensures times are counted, summed and
+   * recorded in power of two buckets, with negative times counted as zero.
+   */
+  @Test
+  void testTimes() {
+    metrics.adviceApplied(100L);
+    metrics.adviceApplied(Long.MAX_VALUE);
+    metrics.valueRendered(-5L);
+
+    assertThat(metrics.getAdviceCount(), equalTo(2L));
+    assertThat(metrics.getAdviceNanos(), equalTo(100L + Long.MAX_VALUE));
+    assertThat(metrics.getAdviceNanosHistogram()[7], equalTo(1L));
+    assertThat(metrics.getAdviceNanosHistogram()[63], equalTo(1L));
+    assertThat(metrics.getRenderCount(), equalTo(1L));
+    assertThat(metrics.getRenderNanos(), equalTo(0L));
+    assertThat(metrics.getRenderNanosHistogram()[0], equalTo(1L));
+  }
+
+  /** Test method for {@link StripedLoggingContextMetrics#reset()}. */
+  @Test
+  void testReset() {
+    metrics.scopeOpened("log4j2", 1, 1);
+    metrics.adviceApplied(100L);
+    metrics.valueRendered(100L);
+
+    metrics.reset();
+
+    assertThat(metrics.getScopesOpened(), anEmptyMap());
+    assertThat(metrics.getScopesClosed(), equalTo(Collections.emptyMap()));
+    assertThat(metrics.getNestedDepthHistogram()[1], equalTo(0L));
+    assertThat(metrics.getAdviceCount(), equalTo(0L));
+    assertThat(metrics.getRenderNanos(), equalTo(0L));
+    assertThat(metrics.isEnabled(), equalTo(true));
+    assertThat(metrics.toString(), containsString("advice=0/0ns"));
+  }
+}
@@ -0,0 +1,37 @@
+package io.github.logcontext;
+
+/**
+ * A {@link LoggingContextServiceProvider} whose logging context is a single value per thread, kept
+ * in {@link #CONTEXT}. Its builders set the value to their nested contexts joined with <code>/
+ * </code>, followed by their mapped contexts, and its snapshots capture and attach that value.
+ *
+ * <p>The fixture is published in the test-jar of this module, so that the tests of the other
+ * modules can install it with {@link LoggingContextServiceProviderRegistry#override}.
+ */
+public class ThreadLocalLoggingContextServiceProvider implements LoggingContextServiceProvider {
+
+  /** The logging context of each thread. */
+  public static final ThreadLocal<String> CONTEXT = new ThreadLocal<>();
+
+  @Override
+  public LogContext.Builder logContextBuilder() {
+    return new AbstractLogContextBuilder() {
+      @Override
+      public LogContext get() {
+        final String previous = CONTEXT.get();
+        CONTEXT.set(String.join("/", getNestedContexts()) + getMappedContextValues());
+        return () -> CONTEXT.set(previous);
+      }
+    };
+  }
+
+  @Override
+  public LogContextSnapshot captureSnapshot() {
+    final String captured = CONTEXT.get();
+    return () -> {
+      final String previous = CONTEXT.get();
+      CONTEXT.set(captured);
+      return () -> CONTEXT.set(previous);
+    };
+  }
+}
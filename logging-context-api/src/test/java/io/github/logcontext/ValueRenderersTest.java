@@ -0,0 +1,237 @@
+package io.github.logcontext;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ValueRenderersTest class provides a set of JUnit test cases for the {@link ValueRenderers}
+ * class.
+ */
+class ValueRenderersTest {
+
+  /** Removes the renderers and the maximum length configured by a test case. */
+  @AfterEach
+  void tearDown() {
+    ValueRenderers.reset();
+  }
+
+  /** Test method for {@link ValueRenderers#render(Object)} for the built-in renderers. */
+  @Test
+  void testRender_builtInTypes() {
+    final UUID uuid = UUID.randomUUID();
+
+    assertThat(ValueRenderers.render(null), equalTo("null"));
+    assertThat(ValueRenderers.render("order"), equalTo("order"));
+    assertThat(ValueRenderers.render(new StringBuilder("order")), equalTo("order"));
+    assertThat(ValueRenderers.render(42), equalTo("42"));
+    assertThat(ValueRenderers.render(42L), equalTo("42"));
+    assertThat(ValueRenderers.render(true), equalTo("true"));
+    assertThat(ValueRenderers.render('c'), equalTo("c"));
+    assertThat(ValueRenderers.render(1.5d), equalTo("1.5"));
+    assertThat(ValueRenderers.render(1.5f), equalTo("1.5"));
+    assertThat(ValueRenderers.render((short) 7), equalTo("7"));
+    assertThat(ValueRenderers.render((byte) 7), equalTo("7"));
+    assertThat(ValueRenderers.render(Status.OPEN), equalTo("OPEN"));
+    assertThat(ValueRenderers.render(Status.CLOSED), equalTo("closed"));
+    assertThat(ValueRenderers.render(uuid), equalTo(uuid.toString()));
+    assertThat(ValueRenderers.render(new Order("A-1")), equalTo("Order A-1"));
+  }
+
+  /**
+   * Test method for {@link ValueRenderers#render(Object)} that ensures collections and maps are
+   * rendered in their usual format, and that those with their own format keep it.
+   */
+  @Test
+  void testRender_collections() {
+    final List<Object> list = new ArrayList<>(Arrays.asList(1, null, "b"));
+    list.add(list);
+    final Map<Object, Object> map = new LinkedHashMap<>();
+    map.put("a", 1);
+    map.put(map, map);
+
+    assertThat(ValueRenderers.render(list), equalTo("[1, null, b, (this Collection)]"));
+    assertThat(ValueRenderers.render(map), equalTo("{a=1, (this Map)=(this Map)}"));
+    assertThat(ValueRenderers.render(new ArrayList<>()), equalTo("[]"));
+    assertThat(ValueRenderers.render(new LinkedHashMap<>()), equalTo("{}"));
+    assertThat(
+        ValueRenderers.render(Collections.unmodifiableList(Arrays.asList(1, 2))),
+        equalTo("[1, 2]"));
+  }
+
+  /**
+   * Test method for {@link ValueRenderers#setMaxLength(int)} that ensures long values are cut, and
+   * that collections stop rendering their elements once the maximum length is reached.
+   */
+  @Test
+  void testSetMaxLength() {
+    final AtomicInteger renderedElements = new AtomicInteger();
+
+    ValueRenderers.setMaxLength(8);
+
+    assertThat(ValueRenderers.getMaxLength(), equalTo(8));
+    assertThat(ValueRenderers.render("order"), equalTo("order"));
+    assertThat(ValueRenderers.render("order-1234"), equalTo("order..."));
+    assertThat(ValueRenderers.render(new StringBuilder("order-1234")), equalTo("order..."));
+    assertThat(ValueRenderers.render("1234\uD83D\uDE00xyz"), equalTo("1234..."));
+    assertThat(ValueRenderers.render(new Order("A-12345")), equalTo("Order..."));
+    assertThat(ValueRenderers.render(Arrays.asList("abcdefgh", 1)), equalTo("[abcd..."));
+    assertThat(
+        ValueRenderers.render(Collections.singletonMap("key", "value")), equalTo("{key=..."));
+    assertThat(ValueRenderers.render(countingCollection(renderedElements)), equalTo("[0, 1..."));
+    assertThat(renderedElements.get(), lessThan(10));
+  }
+
+  /**
+   * Test method for {@link ValueRenderers#setMaxLength(int)} that ensures an {@link
+   * IllegalArgumentException} is thrown for a length that cannot hold the truncation suffix.
+   */
+  @Test
+  void testSetMaxLength_tooShort() {
+    assertThrows(IllegalArgumentException.class, () -> ValueRenderers.setMaxLength(3));
+  }
+
+  /**
+   * Test method for {@link ValueRenderers#register(Class, ValueRenderer)} that ensures renderers
+   * apply to subclasses and implementations of their type, before the built-in renderers, and that
+   * a renderer registered for {@link Object} applies to the remaining values.
+   */
+  @Test
+  void testRegister() {
+    ValueRenderers.register(Order.class, (order, maxLength) -> "order " + order.number);
+    ValueRenderers.register(Serializable.class, (value, maxLength) -> "serializable");
+    ValueRenderers.register(Object.class, (value, maxLength) -> "object");
+
+    assertThat(ValueRenderers.render(new Order("A-1")), equalTo("order A-1"));
+    assertThat(ValueRenderers.render(new Order("A-1") {}), equalTo("order A-1"));
+    assertThat(ValueRenderers.render(42), equalTo("serializable"));
+    assertThat(ValueRenderers.render(new ArrayList<>()), equalTo("serializable"));
+    assertThat(ValueRenderers.render(Collections.emptyIterator()), equalTo("object"));
+    assertThat(ValueRenderers.toMappedValue(42), instanceOf(LazyMappedValue.class));
+
+    ValueRenderers.register(Order.class, (order, maxLength) -> null);
+
+    assertThat(ValueRenderers.render(new Order("A-1")), equalTo("null"));
+  }
+
+  /**
+   * Test method for {@link ValueRenderers#register(Class, ValueRenderer)} that ensures a {@link
+   * NullPointerException} is thrown for <code>null</code> arguments.
+   */
+  @Test
+  void testRegister_nullArguments() {
+    assertThrows(
+        NullPointerException.class, () -> ValueRenderers.register(null, (value, max) -> ""));
+    assertThrows(NullPointerException.class, () -> ValueRenderers.register(Order.class, null));
+  }
+
+  /**
+   * Test method for {@link ValueRenderers#toMappedValue(Object)} that ensures cheap values are
+   * rendered immediately and other values when they are first read.
+   */
+  @Test
+  void testToMappedValue() {
+    ValueRenderers.setMaxLength(8);
+
+    final Object lazyValue = ValueRenderers.toMappedValue(new Order("A-12345"));
+
+    assertThat(ValueRenderers.toMappedValue(null), equalTo("null"));
+    assertThat(ValueRenderers.toMappedValue(42), equalTo("42"));
+    assertThat(ValueRenderers.toMappedValue(Status.OPEN), equalTo("OPEN"));
+    assertThat(lazyValue, instanceOf(LazyMappedValue.class));
+    assertThat(((LazyMappedValue) lazyValue).isRendered(), equalTo(false));
+    assertThat(lazyValue.toString(), equalTo("Order..."));
+  }
+
+  /**
+   * Test method for {@link ValueRenderers#isUnboxable(Class)} that ensures only integers, doubles
+   * and booleans rendered by their built-in renderer without truncation can be added unboxed.
+   */
+  @Test
+  void testIsUnboxable() {
+    assertThat(ValueRenderers.isUnboxable(Long.class), equalTo(true));
+    assertThat(ValueRenderers.isUnboxable(Integer.class), equalTo(true));
+    assertThat(ValueRenderers.isUnboxable(Short.class), equalTo(true));
+    assertThat(ValueRenderers.isUnboxable(Byte.class), equalTo(true));
+    assertThat(ValueRenderers.isUnboxable(Double.class), equalTo(true));
+    assertThat(ValueRenderers.isUnboxable(Boolean.class), equalTo(true));
+    assertThat(ValueRenderers.isUnboxable(Float.class), equalTo(false));
+    assertThat(ValueRenderers.isUnboxable(Character.class), equalTo(false));
+    assertThat(ValueRenderers.isUnboxable(String.class), equalTo(false));
+
+    ValueRenderers.register(Number.class, (value, max) -> "#" + value);
+
+    assertThat(ValueRenderers.isUnboxable(Long.class), equalTo(false));
+    assertThat(ValueRenderers.isUnboxable(Boolean.class), equalTo(true));
+
+    ValueRenderers.setMaxLength(20);
+
+    assertThat(ValueRenderers.isUnboxable(Boolean.class), equalTo(false));
+  }
+
+  private static AbstractCollection<Integer> countingCollection(final AtomicInteger counter) {
+    return new AbstractCollection<Integer>() {
+      @Override
+      public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+          @Override
+          public boolean hasNext() {
+            return true;
+          }
+
+          @Override
+          public Integer next() {
+            return counter.getAndIncrement();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return Integer.MAX_VALUE;
+      }
+    };
+  }
+
+  /** An example enum, one constant of which has its own string form. */
+  private enum Status {
+    OPEN,
+    CLOSED {
+      @Override
+      public String toString() {
+        return "closed";
+      }
+    }
+  }
+
+  /** An example value without a built-in renderer. */
+  private static class Order {
+
+    private final String number;
+
+    Order(final String number) {
+      this.number = number;
+    }
+
+    @Override
+    public String toString() {
+      return "Order " + number;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package io.github.logcontext.aop;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.logcontext.LogLevel;
+import io.github.logcontext.LoggingContext;
+import io.github.logcontext.LoggingContextServiceProvider;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import java.util.function.Predicate;
+
+/**
+ * The LoggerLevels class answers whether the logger of an advised class logs the level required by
+ * {@link LoggingContext#ifEnabled()}. The predicate of the active {@link
+ * LoggingContextServiceProvider} is obtained on first use and again whenever the provider is
+ * replaced; the predicate itself follows reloads of the logging configuration.
+ */
+public final class LoggerLevels {
+
+  /** The name of the logger. */
+  private final String category;
+
+  /** The predicate of the enabled levels, or <code>null</code> until it is first needed. */
+  private volatile ProviderLevels providerLevels;
+
+  /**
+   * Creates the levels of the logger with the provided name.
+   *
+   * @param category the name of the logger, usually the name of the advised class.
+   * @throws NullPointerException if <code>category</code> is <code>null</code>.
+   */
+  public LoggerLevels(final String category) {
+    this.category = requireNonNull(category, "category must not be null");
+  }
+
+  /**
+   * Returns whether the logger logs events of the provided level.
+   *
+   * @param level the level to check.
+   * @return <code>true</code> if the logger logs events of the level.
+   */
+  public boolean isEnabled(final LogLevel level) {
+    final int generation = LoggingContextServiceProviderRegistry.getGeneration();
+    ProviderLevels current = providerLevels;
+    if (current == null || current.generation != generation) {
+      current =
+          new ProviderLevels(
+              generation,
+              LoggingContextServiceProviderRegistry.getProvider().loggingEnabled(category));
+      providerLevels = current;
+    }
+    return current.enabled.test(level);
+  }
+
+  @Override
+  public String toString() {
+    return "LoggerLevels{category=" + category + "}";
+  }
+
+  /** The predicate of the enabled levels of a logger, obtained from a provider generation. */
+  private static final class ProviderLevels {
+
+    /** The registry generation of the provider of the predicate. */
+    final int generation;
+
+    /** The predicate of the enabled levels. */
+    final Predicate<LogLevel> enabled;
+
+    ProviderLevels(final int generation, final Predicate<LogLevel> enabled) {
+      this.generation = generation;
+      this.enabled = enabled;
+    }
+  }
+}
@@ -2,9 +2,13 @@ package io.github.logcontext.aop;
 
 import io.github.logcontext.LogContext;
 import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogContextBuilderPool;
+import io.github.logcontext.LogLevel;
 import io.github.logcontext.LoggingContext;
+import io.github.logcontext.LoggingContextMetricsRegistry;
+import io.github.logcontext.LoggingContextPlan;
+import io.github.logcontext.LoggingContextPlanIndexes;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -68,12 +72,37 @@ public class LoggingContextAdvice {
   @Pointcut("execution(* *(.., @io.github.logcontext.LoggingContext (*), ..))")
   public void argumentLoggingContext() {}
 
+  /** The plans resolved for the advised methods. */
+  private final LoggingContextPlanCache planCache = new LoggingContextPlanCache();
+
+  /** The levels enabled for the logger of each advised class. */
+  private final ClassValue<LoggerLevels> loggerLevels =
+      new ClassValue<LoggerLevels>() {
+        @Override
+        protected LoggerLevels computeValue(final Class<?> type) {
+          return new LoggerLevels(type.getName());
+        }
+      };
+
+  /** The level required by plans without their own level, or <code>null</code> for none. */
+  private volatile LogLevel defaultEnabledLevel;
+
   /**
    * Examines an advice {@link ProceedingJoinPoint}'s target class, method, and method parameters
    * for elements with the {@link LoggingContext} annotation. Any matches will have their associated
    * context value added to the current logging context. The logging context values will be removed
    * after the method's invocation.
    *
+   * <p>The annotations of each advised method are only examined on its first invocation. The
+   * resulting {@link LoggingContextPlan} is cached and reused for subsequent invocations. The
+   * builder is taken from the {@link LogContextBuilderPool} and returned to it once the logging
+   * context has been created.
+   *
+   * <p>When the plan, or else this advice, requires a {@link LoggingContext#ifEnabled()} level that
+   * the logger named after the advised class does not log, the method is invoked without creating
+   * a logging context. The time taken to open the logging context is reported to the {@link
+   * io.github.logcontext.LoggingContextMetrics} when they are enabled.
+   *
    * @param joinPoint the join point around a method that includes a logging context.
    * @return the return value from the invoked join point.
    * @throws Throwable if the invoked method threw an exceptions.
@@ -81,19 +110,32 @@ public class LoggingContextAdvice {
   @Around("classLoggingContext() || methodLoggingContext() || argumentLoggingContext()")
   public Object includeLoggingContext(final ProceedingJoinPoint joinPoint) throws Throwable {
     if (joinPoint.getSignature() instanceof MethodSignature) {
-      MethodSignature ms = (MethodSignature) joinPoint.getSignature();
+      final long start = LoggingContextMetricsRegistry.startTime();
+      final MethodSignature ms = (MethodSignature) joinPoint.getSignature();
       final Class<?> clazz = joinPoint.getTarget().getClass();
-      final Method method = clazz.getMethod(ms.getName(), ms.getParameterTypes());
-
-      final Builder contextBuilder = Builder.builder();
+      final Method method = ms.getMethod();
+      final LoggingContextPlan plan =
+          method != null
+              ? planCache.get(clazz, method, LoggingContextAdvice::resolvePlan)
+              : LoggingContextPlan.resolve(
+                  clazz, clazz.getMethod(ms.getName(), ms.getParameterTypes()));
+
+      final LogLevel enabledLevel =
+          plan.getEnabledLevel() != null ? plan.getEnabledLevel() : defaultEnabledLevel;
+      if (enabledLevel != null && !loggerLevels.get(clazz).isEnabled(enabledLevel)) {
+        return joinPoint.proceed();
+      }
 
-      try (LogContext context =
-          addLoggingContext(
-                  method.getParameters(),
-                  joinPoint.getArgs(),
-                  addLoggingContext(method, addLoggingContext(clazz, contextBuilder)))
-              .get()) {
+      final Builder builder = LogContextBuilderPool.acquire();
+      final LogContext loggingContext;
+      try {
+        loggingContext = plan.apply(builder, joinPoint.getArgs()).get();
+      } finally {
+        LogContextBuilderPool.release(builder);
+      }
+      LoggingContextMetricsRegistry.recordAdvice(start);
 
+      try (LogContext context = loggingContext) {
         return joinPoint.proceed();
       }
     } else {
@@ -102,64 +144,57 @@ public class LoggingContextAdvice {
   }
 
   /**
-   * Adds the logging context associated with the provided class to the provided logging context
-   * builder's nested context.
+   * Returns the cache of {@link LoggingContextPlan} instances resolved by this advice, which
+   * provides statistics such as its hit rate and estimated footprint.
    *
-   * @param clazz the annotated class that may have logging context annotations.
-   * @param builder the {@link Builder} to which the logging contexts should be added.
+   * @return the plan cache used by this advice.
    */
-  private Builder addLoggingContext(final Class<?> clazz, final Builder builder) {
-    if (clazz.isAnnotationPresent(LoggingContext.class)) {
-      final LoggingContext loggingContext = clazz.getAnnotation(LoggingContext.class);
-      final String[] contexts = getContextsOrDefault(loggingContext.value(), clazz.getSimpleName());
-      return builder.andNested(contexts);
-    }
-
-    return builder;
+  public LoggingContextPlanCache getPlanCache() {
+    return planCache;
   }
 
   /**
-   * Adds the logging context associated with the provided method to the provided logging context
-   * builder's nested context.
+   * Returns the level at which the logger of an advised class must be enabled for methods whose
+   * annotations do not require a level of their own.
    *
-   * @param method the method that may have logging context annotations.
-   * @param builder the {@link Builder} to which the logging contexts should be added.
+   * @return the default level, or <code>null</code> if such methods always get a logging context.
    */
-  private Builder addLoggingContext(final Method method, final Builder builder) {
-    if (method.isAnnotationPresent(LoggingContext.class)) {
-      final LoggingContext loggingContext = method.getAnnotation(LoggingContext.class);
-      final String[] contexts = getContextsOrDefault(loggingContext.value(), method.getName());
-      return builder.andNested(contexts);
-    }
+  public LogLevel getDefaultEnabledLevel() {
+    return defaultEnabledLevel;
+  }
 
-    return builder;
+  /**
+   * Sets the level at which the logger of an advised class must be enabled for methods whose
+   * annotations do not require a level of their own, as if they were annotated with {@link
+   * LoggingContext#ifEnabled()}. This turns the check on for every advised method.
+   *
+   * @param defaultEnabledLevel the default level, or <code>null</code> to always create the
+   *     logging context of such methods.
+   */
+  public void setDefaultEnabledLevel(final LogLevel defaultEnabledLevel) {
+    this.defaultEnabledLevel = defaultEnabledLevel;
   }
 
   /**
-   * Adds the logging context associated with the provided parameters and their values to the
-   * provided context builder's mapped context.
+   * Resolves the plan for a method invoked on an instance of the provided class. The annotations
+   * are read from the public method of the class itself so that overriding methods contribute their
+   * own annotations; non-public methods fall back to the method of the join point signature. A plan
+   * generated by the <code>logging-context-processor</code> annotation processor is preferred over
+   * reading the annotations.
    *
-   * @param parameters the annotated elements that may have logging context annotations.
-   * @param values the values associated with the parameters.
-   * @param builder the {@link Builder} to which the logging contexts should be added.
+   * @param clazz the class of the advised object.
+   * @param method the method of the join point signature.
+   * @return the resolved plan.
    */
-  private Builder addLoggingContext(
-      final Parameter[] parameters, final Object[] values, Builder builder) {
-    for (int i = 0; i < parameters.length; i++) {
-      if (parameters[i].isAnnotationPresent(LoggingContext.class)) {
-        final LoggingContext loggingContext = parameters[i].getAnnotation(LoggingContext.class);
-        final String[] loggingContextNames =
-            getContextsOrDefault(loggingContext.value(), parameters[i].getName());
-        builder =
-            builder.andMapped(
-                loggingContextNames[loggingContextNames.length - 1], String.valueOf(values[i]));
-      }
+  private static LoggingContextPlan resolvePlan(final Class<?> clazz, final Method method) {
+    Method targetMethod;
+    try {
+      targetMethod = clazz.getMethod(method.getName(), method.getParameterTypes());
+    } catch (final NoSuchMethodException e) {
+      targetMethod = method;
     }
 
-    return builder;
-  }
-
-  private String[] getContextsOrDefault(final String[] contexts, final String defaultContext) {
-    return (contexts != null && contexts.length > 0) ? contexts : new String[] {defaultContext};
+    final LoggingContextPlan generatedPlan = LoggingContextPlanIndexes.find(clazz, targetMethod);
+    return generatedPlan != null ? generatedPlan : LoggingContextPlan.resolve(clazz, targetMethod);
   }
 }
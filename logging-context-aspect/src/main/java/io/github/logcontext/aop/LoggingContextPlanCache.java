@@ -0,0 +1,135 @@
+package io.github.logcontext.aop;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.logcontext.LoggingContextPlan;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * The LoggingContextPlanCache class caches the {@link LoggingContextPlan} resolved for each
+ * advised method so that the annotations only have to be read on the first call.
+ *
+ * <p>Plans are keyed by the class of the advised object and the invoked {@link Method}. The
+ * per-class tables are held in a {@link ClassValue}, so they do not prevent the advised classes
+ * from being unloaded. The cache keeps simple statistics about its hit rate and the estimated heap
+ * retained by the plans it has resolved.
+ */
+public class LoggingContextPlanCache {
+
+  /** The cached plans, grouped by the class of the advised object. */
+  private final ClassValue<ConcurrentMap<Method, LoggingContextPlan>> plans =
+      new ClassValue<ConcurrentMap<Method, LoggingContextPlan>>() {
+        @Override
+        protected ConcurrentMap<Method, LoggingContextPlan> computeValue(final Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  /** The number of lookups answered from the cache. */
+  private final LongAdder hits = new LongAdder();
+
+  /** The number of lookups that had to resolve a plan. */
+  private final LongAdder misses = new LongAdder();
+
+  /** The number of plans added to the cache. */
+  private final LongAdder size = new LongAdder();
+
+  /** The estimated heap retained by the plans added to the cache, in bytes. */
+  private final LongAdder footprint = new LongAdder();
+
+  /**
+   * Returns the plan for the method invoked on an instance of the provided class, resolving and
+   * caching it with the provided resolver if it is not cached yet.
+   *
+   * @param type the class of the advised object (must not be <code>null</code>).
+   * @param method the invoked method used as the cache key (must not be <code>null</code>).
+   * @param resolver the function used to resolve a missing plan from the class and method.
+   * @return the plan for the method.
+   * @throws NullPointerException if <code>type</code> or <code>method</code> is <code>null</code>.
+   */
+  public LoggingContextPlan get(
+      final Class<?> type,
+      final Method method,
+      final BiFunction<Class<?>, Method, LoggingContextPlan> resolver) {
+    requireNonNull(method, "method must not be null");
+    final ConcurrentMap<Method, LoggingContextPlan> typePlans =
+        plans.get(requireNonNull(type, "type must not be null"));
+
+    final LoggingContextPlan cached = typePlans.get(method);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+
+    misses.increment();
+    final LoggingContextPlan resolved = resolver.apply(type, method);
+    final LoggingContextPlan existing = typePlans.putIfAbsent(method, resolved);
+    if (existing != null) {
+      return existing;
+    }
+
+    size.increment();
+    footprint.add(resolved.estimatedFootprint());
+    return resolved;
+  }
+
+  /**
+   * Returns the number of lookups answered from the cache.
+   *
+   * @return the number of cache hits.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of lookups that had to resolve a plan.
+   *
+   * @return the number of cache misses.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the fraction of lookups answered from the cache.
+   *
+   * @return the hit rate between <code>0.0</code> and <code>1.0</code>, or <code>0.0</code> if no
+   *     lookups have been made.
+   */
+  public double getHitRate() {
+    final long hitCount = getHitCount();
+    final long total = hitCount + getMissCount();
+    return total == 0 ? 0.0 : (double) hitCount / total;
+  }
+
+  /**
+   * Returns the number of plans added to the cache. Plans of unloaded classes are not subtracted.
+   *
+   * @return the number of cached plans.
+   */
+  public long getSize() {
+    return size.sum();
+  }
+
+  /**
+   * Returns the estimated heap retained by the cached plans in bytes, as reported by {@link
+   * LoggingContextPlan#estimatedFootprint()}. Plans of unloaded classes are not subtracted.
+   *
+   * @return the estimated footprint of the cached plans in bytes.
+   */
+  public long getEstimatedFootprint() {
+    return footprint.sum();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "LoggingContextPlanCache{size=%d, hitRate=%.4f, hits=%d, misses=%d, footprint=%dB}",
+        getSize(), getHitRate(), getHitCount(), getMissCount(), getEstimatedFootprint());
+  }
+}
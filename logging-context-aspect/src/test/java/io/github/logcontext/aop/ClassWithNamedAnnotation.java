@@ -2,6 +2,7 @@ package io.github.logcontext.aop;
 
 import static io.github.logcontext.aop.ClassWithNamedAnnotation.LOGGING_CONTEXT_NAME;
 
+import io.github.logcontext.LogLevel;
 import io.github.logcontext.LoggingContext;
 
 @LoggingContext(LOGGING_CONTEXT_NAME)
@@ -57,6 +58,10 @@ public class ClassWithNamedAnnotation {
 
   public void methodA0_P1D_RV(@LoggingContext final String param1) {}
 
+  @LoggingContext(value = METHOD_LOGGING_CONTEXT_1, ifEnabled = LogLevel.DEBUG)
+  public void methodA1N_P1N_RV_debug(
+      @LoggingContext(PARAMETER_1_NAMED_LOGGING_CONTEXT) final String param1) {}
+
   public Object methodA0_P1D_P2D_RO(
       @LoggingContext final String param1, @LoggingContext final int param2) {
     return OBJECT;
@@ -164,4 +169,8 @@ public class ClassWithNamedAnnotation {
   public void methodA2N_P1D_P2N_RV(
       @LoggingContext final String param1,
       @LoggingContext(PARAMETER_2_NAMED_LOGGING_CONTEXT) final int param2) {}
+
+  @LoggingContext(METHOD_LOGGING_CONTEXT_1)
+  void methodA1N_P1N_RV_packagePrivate(
+      @LoggingContext(PARAMETER_1_NAMED_LOGGING_CONTEXT) final String param1) {}
 }
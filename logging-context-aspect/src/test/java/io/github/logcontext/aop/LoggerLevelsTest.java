@@ -0,0 +1,78 @@
+package io.github.logcontext.aop;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogLevel;
+import io.github.logcontext.LoggingContextServiceProvider;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LoggerLevelsTest class provides a set of JUnit test cases for the {@link LoggerLevels}
+ * class.
+ */
+class LoggerLevelsTest {
+
+  private static final String CATEGORY = "io.github.logcontext.OrdersService";
+
+  /** The number of predicates obtained from the test providers. */
+  private final AtomicInteger predicates = new AtomicInteger();
+
+  /** Restores the provider found by the service loader. */
+  @AfterEach
+  void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Test method for {@link LoggerLevels#isEnabled(LogLevel)} that ensures the predicate of the
+   * provider is obtained once, and again after the provider is replaced.
+   */
+  @Test
+  void testIsEnabled() {
+    final LoggerLevels levels = new LoggerLevels(CATEGORY);
+
+    LoggingContextServiceProviderRegistry.override(providerEnabling(LogLevel.INFO));
+    assertThat(levels.isEnabled(LogLevel.DEBUG), equalTo(false));
+    assertThat(levels.isEnabled(LogLevel.INFO), equalTo(true));
+    assertThat(levels.isEnabled(LogLevel.ERROR), equalTo(true));
+    assertThat(predicates.get(), equalTo(1));
+
+    LoggingContextServiceProviderRegistry.override(providerEnabling(LogLevel.TRACE));
+    assertThat(levels.isEnabled(LogLevel.TRACE), equalTo(true));
+    assertThat(predicates.get(), equalTo(2));
+    assertThat(levels.toString(), containsString(CATEGORY));
+  }
+
+  /**
+   * Test method for {@link LoggerLevels#LoggerLevels(String)} that ensures a {@link
+   * NullPointerException} is thrown for a <code>null</code> category.
+   */
+  @Test
+  void testLoggerLevels_nullCategory() {
+    assertThrows(NullPointerException.class, () -> new LoggerLevels(null));
+  }
+
+  private LoggingContextServiceProvider providerEnabling(final LogLevel threshold) {
+    return new LoggingContextServiceProvider() {
+      @Override
+      public Builder logContextBuilder() {
+        return Builder.NO_OP_BUILDER;
+      }
+
+      @Override
+      public Predicate<LogLevel> loggingEnabled(final String category) {
+        assertThat(category, equalTo(CATEGORY));
+        predicates.incrementAndGet();
+        return level -> level.compareTo(threshold) >= 0;
+      }
+    };
+  }
+}
@@ -4,18 +4,25 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import io.github.logcontext.LogContext;
 import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogLevel;
 import io.github.logcontext.LoggingContext;
+import io.github.logcontext.LoggingContextServiceProvider;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
 import java.lang.reflect.Method;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -117,7 +124,7 @@ class LoggingContextAdviceTest {
                   .verify(mockBuilder)
                   .andMapped(
                       ClassWithNamedAnnotation.PARAMETER_2_NAMED_LOGGING_CONTEXT,
-                      String.valueOf(PARAMETER_2_VALUE_INT));
+                      (long) PARAMETER_2_VALUE_INT);
               orderedCalls.verify(mockBuilder).get();
             });
     withMockJoinPoint(
@@ -214,8 +221,205 @@ class LoggingContextAdviceTest {
     verifyNoMoreInteractions(joinPoint);
   }
 
+  /**
+   * Test method for {@link LoggingContextAdvice#includeLoggingContext(ProceedingJoinPoint)} that
+   * ensures the plan resolved for a method is cached and reused on later invocations.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testIncludeLoggingContext_planCachedAfterFirstCall() throws Throwable {
+    for (int i = 0; i < 3; i++) {
+      withMockJoinPoint(ClassWithNamedAnnotation.class, "methodA1N_P1N_RV", null, "value1")
+          .accept(
+              (orderedCalls, mockBuilder) -> {
+                orderedCalls
+                    .verify(mockBuilder)
+                    .andNested(ClassWithNamedAnnotation.LOGGING_CONTEXT_NAME);
+                orderedCalls
+                    .verify(mockBuilder)
+                    .andNested(ClassWithNamedAnnotation.METHOD_LOGGING_CONTEXT_1);
+                orderedCalls
+                    .verify(mockBuilder)
+                    .andMapped(ClassWithNamedAnnotation.PARAMETER_1_NAMED_LOGGING_CONTEXT, "value1");
+                orderedCalls.verify(mockBuilder).get();
+              });
+    }
+
+    final LoggingContextPlanCache planCache = advice.getPlanCache();
+    assertThat(planCache.getMissCount(), equalTo(1L));
+    assertThat(planCache.getHitCount(), equalTo(2L));
+    assertThat(planCache.getSize(), equalTo(1L));
+  }
+
+  /**
+   * Test method for {@link LoggingContextAdvice#includeLoggingContext(ProceedingJoinPoint)} that
+   * ensures the annotations of a non-public method are read from the join point signature.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testIncludeLoggingContext_nonPublicMethod() throws Throwable {
+    final Method method =
+        ClassWithNamedAnnotation.class.getDeclaredMethod(
+            "methodA1N_P1N_RV_packagePrivate", String.class);
+    final ProceedingJoinPoint joinPoint =
+        mockJoinPoint(method, new ClassWithNamedAnnotation(), null, PARAMETER_1_VALUE);
+
+    withMockBuilderAndContext(
+        (mockBuilder, mockContext) -> {
+          try {
+            advice.includeLoggingContext(joinPoint);
+
+            final InOrder inOrder = Mockito.inOrder(mockBuilder, joinPoint, mockContext);
+            inOrder.verify(mockBuilder).andNested(ClassWithNamedAnnotation.LOGGING_CONTEXT_NAME);
+            inOrder.verify(mockBuilder).andNested(ClassWithNamedAnnotation.METHOD_LOGGING_CONTEXT_1);
+            inOrder
+                .verify(mockBuilder)
+                .andMapped(
+                    ClassWithNamedAnnotation.PARAMETER_1_NAMED_LOGGING_CONTEXT, PARAMETER_1_VALUE);
+            inOrder.verify(mockBuilder).get();
+            inOrder.verify(joinPoint).proceed();
+            inOrder.verify(mockContext).close();
+          } catch (Throwable t) {
+            fail(t);
+          }
+        });
+  }
+
+  /**
+   * Test method for {@link LoggingContextAdvice#includeLoggingContext(ProceedingJoinPoint)} that
+   * ensures a signature without a resolved {@link Method} looks the method up on the target class.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testIncludeLoggingContext_signatureWithoutMethod() throws Throwable {
+    final Method method =
+        ClassWithNamedAnnotation.class.getMethod("methodA0_P1N_RV", String.class);
+    final ProceedingJoinPoint joinPoint =
+        mockJoinPoint(method, new ClassWithNamedAnnotation(), null, PARAMETER_1_VALUE);
+    when(((MethodSignature) joinPoint.getSignature()).getMethod()).thenReturn(null);
+
+    withMockBuilderAndContext(
+        (mockBuilder, mockContext) -> {
+          try {
+            advice.includeLoggingContext(joinPoint);
+
+            verify(mockBuilder)
+                .andMapped(
+                    ClassWithNamedAnnotation.PARAMETER_1_NAMED_LOGGING_CONTEXT, PARAMETER_1_VALUE);
+            verify(mockContext).close();
+          } catch (Throwable t) {
+            fail(t);
+          }
+        });
+
+    assertThat(advice.getPlanCache().getSize(), equalTo(0L));
+  }
+
+  /**
+   * Test method for {@link LoggingContextAdvice#includeLoggingContext(ProceedingJoinPoint)} that
+   * ensures a method requiring a disabled level is invoked without a logging context, and gets one
+   * once the active provider enables the level.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testIncludeLoggingContext_levelNotEnabled() throws Throwable {
+    final Method method =
+        ClassWithNamedAnnotation.class.getMethod("methodA1N_P1N_RV_debug", String.class);
+    final ProceedingJoinPoint joinPoint =
+        mockJoinPoint(method, new ClassWithNamedAnnotation(), null, PARAMETER_1_VALUE);
+
+    try {
+      LoggingContextServiceProviderRegistry.override(providerEnabling(LogLevel.INFO));
+      withMockBuilderAndContext(
+          (mockBuilder, mockContext) -> {
+            try {
+              advice.includeLoggingContext(joinPoint);
+
+              verify(joinPoint).proceed();
+              verifyNoInteractions(mockBuilder, mockContext);
+            } catch (Throwable t) {
+              fail(t);
+            }
+          });
+
+      LoggingContextServiceProviderRegistry.override(providerEnabling(LogLevel.DEBUG));
+      withMockBuilderAndContext(
+          (mockBuilder, mockContext) -> {
+            try {
+              advice.includeLoggingContext(joinPoint);
+
+              verify(mockBuilder).andNested(ClassWithNamedAnnotation.METHOD_LOGGING_CONTEXT_1);
+              verify(mockContext).close();
+            } catch (Throwable t) {
+              fail(t);
+            }
+          });
+    } finally {
+      LoggingContextServiceProviderRegistry.invalidate();
+    }
+  }
+
+  /**
+   * Test method for {@link LoggingContextAdvice#setDefaultEnabledLevel(LogLevel)} that ensures the
+   * default level applies to methods without a level of their own, and that the predicate of the
+   * logger is reused.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testSetDefaultEnabledLevel() throws Throwable {
+    final Method method = ClassWithNamedAnnotation.class.getMethod("methodA1N_P1N_RV", String.class);
+    final ProceedingJoinPoint joinPoint =
+        mockJoinPoint(method, new ClassWithNamedAnnotation(), null, PARAMETER_1_VALUE);
+
+    advice.setDefaultEnabledLevel(LogLevel.DEBUG);
+    assertThat(advice.getDefaultEnabledLevel(), equalTo(LogLevel.DEBUG));
+    try {
+      LoggingContextServiceProviderRegistry.override(providerEnabling(LogLevel.WARN));
+      withMockBuilderAndContext(
+          (mockBuilder, mockContext) -> {
+            try {
+              advice.includeLoggingContext(joinPoint);
+              advice.includeLoggingContext(joinPoint);
+
+              verify(joinPoint, times(2)).proceed();
+              verifyNoInteractions(mockBuilder, mockContext);
+            } catch (Throwable t) {
+              fail(t);
+            }
+          });
+    } finally {
+      LoggingContextServiceProviderRegistry.invalidate();
+    }
+  }
+
   // ---- BEGIN UTILITY CODE
 
+  /**
+   * Creates a provider whose loggers log the events of the provided level and above.
+   *
+   * @param threshold the least severe level that is logged.
+   * @return the provider.
+   */
+  private static LoggingContextServiceProvider providerEnabling(final LogLevel threshold) {
+    return new LoggingContextServiceProvider() {
+      @Override
+      public Builder logContextBuilder() {
+        return Builder.NO_OP_BUILDER;
+      }
+
+      @Override
+      public Predicate<LogLevel> loggingEnabled(final String category) {
+        assertThat(category, equalTo(ClassWithNamedAnnotation.class.getName()));
+        return level -> level.compareTo(threshold) >= 0;
+      }
+    };
+  }
+
   /**
    * Creates a test context for verifying that a method call (via an AspectJ {@link
    * ProceedingJoinPoint}) properly updates the logging context and clears it afterwards. The
@@ -295,6 +499,8 @@ class LoggingContextAdviceTest {
     final LogContext mockContext = mock(LogContext.class);
     final Builder mockBuilder = mock(Builder.class);
     when(mockBuilder.andMapped(anyString(), anyString())).thenReturn(mockBuilder);
+    when(mockBuilder.andLazyMapped(anyString(), any(Object.class))).thenReturn(mockBuilder);
+    when(mockBuilder.andMapped(anyString(), anyLong())).thenReturn(mockBuilder);
     when(mockBuilder.andNested(any())).thenReturn(mockBuilder);
     when(mockBuilder.get()).thenReturn(mockContext);
 
@@ -0,0 +1,120 @@
+package io.github.logcontext.aop;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.logcontext.LoggingContextPlan;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LoggingContextPlanCacheTest class provides a set of JUnit test cases for the {@link
+ * LoggingContextPlanCache} class.
+ */
+class LoggingContextPlanCacheTest {
+
+  /** The plan cache being tested. */
+  private final LoggingContextPlanCache planCache = new LoggingContextPlanCache();
+
+  /**
+   * Test method for {@link LoggingContextPlanCache#get(Class, Method, java.util.function.BiFunction)}
+   * that ensures plans are only resolved once per class and method.
+   */
+  @Test
+  void testGet() throws Exception {
+    final Method method = ClassWithNamedAnnotation.class.getMethod("methodA0_P1N_RV", String.class);
+    final AtomicInteger resolutions = new AtomicInteger();
+
+    final LoggingContextPlan plan =
+        planCache.get(
+            ClassWithNamedAnnotation.class,
+            method,
+            (type, m) -> {
+              resolutions.incrementAndGet();
+              return LoggingContextPlan.resolve(type, m);
+            });
+    final LoggingContextPlan cached =
+        planCache.get(
+            ClassWithNamedAnnotation.class,
+            method,
+            (type, m) -> {
+              throw new AssertionError("plan resolved twice");
+            });
+
+    assertThat(cached, sameInstance(plan));
+    assertThat(resolutions.get(), equalTo(1));
+    assertThat(planCache.getHitCount(), equalTo(1L));
+    assertThat(planCache.getMissCount(), equalTo(1L));
+    assertThat(planCache.getHitRate(), equalTo(0.5));
+    assertThat(planCache.getSize(), equalTo(1L));
+    assertThat(planCache.getEstimatedFootprint(), equalTo(plan.estimatedFootprint()));
+    assertThat(planCache.toString(), containsString("size=1"));
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlanCache#get(Class, Method, java.util.function.BiFunction)}
+   * that ensures the same method invoked on different classes has separate plans.
+   */
+  @Test
+  void testGet_separatePlansPerClass() throws Exception {
+    final Method method = Object.class.getMethod("toString");
+
+    final LoggingContextPlan named =
+        planCache.get(ClassWithNamedAnnotation.class, method, LoggingContextPlan::resolve);
+    final LoggingContextPlan unnamed =
+        planCache.get(ClassWithNoAnnotation.class, method, LoggingContextPlan::resolve);
+
+    assertThat(named.isEmpty(), equalTo(false));
+    assertThat(unnamed.isEmpty(), equalTo(true));
+    assertThat(planCache.getSize(), equalTo(2L));
+    assertThat(planCache.getEstimatedFootprint(), greaterThan(0L));
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlanCache#get(Class, Method, java.util.function.BiFunction)}
+   * that ensures a concurrently resolved plan does not replace the one already cached.
+   */
+  @Test
+  void testGet_concurrentResolution() throws Exception {
+    final Method method = Object.class.getMethod("toString");
+
+    final LoggingContextPlan[] first = new LoggingContextPlan[1];
+    final LoggingContextPlan raced =
+        planCache.get(
+            ClassWithNamedAnnotation.class,
+            method,
+            (type, m) -> {
+              first[0] = planCache.get(type, m, LoggingContextPlan::resolve);
+              return LoggingContextPlan.resolve(type, m);
+            });
+
+    assertThat(raced, sameInstance(first[0]));
+    assertThat(planCache.getSize(), equalTo(1L));
+  }
+
+  /** Test method for {@link LoggingContextPlanCache#getHitRate()} before any lookups. */
+  @Test
+  void testGetHitRate_noLookups() {
+    assertThat(planCache.getHitRate(), equalTo(0.0));
+  }
+
+  /**
+   * Test method for {@link LoggingContextPlanCache#get(Class, Method, java.util.function.BiFunction)}
+   * that ensures a {@link NullPointerException} is thrown for <code>null</code> keys.
+   */
+  @Test
+  void testGet_nullKeys() throws Exception {
+    final Method method = Object.class.getMethod("toString");
+
+    assertThrows(
+        NullPointerException.class, () -> planCache.get(null, method, LoggingContextPlan::resolve));
+    assertThrows(
+        NullPointerException.class,
+        () -> planCache.get(Object.class, null, LoggingContextPlan::resolve));
+  }
+}
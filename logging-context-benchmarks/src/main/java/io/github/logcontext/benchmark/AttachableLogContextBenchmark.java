@@ -0,0 +1,143 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.AttachableLogContext;
+import io.github.logcontext.LogContext;
+import io.github.logcontext.log4j2.ContextStoreDataInjector;
+import io.github.logcontext.log4j2.Log4j2LogContextBuilder;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The AttachableLogContextBenchmark class compares opening the logging context of a record of a
+ * batch with a builder filled for every record, as the fluent API does, against attaching an
+ * {@link AttachableLogContext} built once for the batch. The store variants run in their own fork
+ * with the {@link ContextStoreDataInjector}, where attaching links a single entry whatever the
+ * number of values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AttachableLogContextBenchmark {
+
+  /** The number of mapped values of a record. */
+  @Param({"1", "4", "16"})
+  public int valueCount;
+
+  /** The builder, reused for every record just as a pooled builder would be. */
+  private final Log4j2LogContextBuilder builder = new Log4j2LogContextBuilder();
+
+  /** The keys of the mapped values. */
+  private String[] keys;
+
+  /** The mapped values. */
+  private String[] values;
+
+  /** The values of the record, built once. */
+  private AttachableLogContext attachable;
+
+  /**
+   * Creates the injector, which selects what the builders keep in the context store, then creates
+   * the values of the record and builds the attachable logging context.
+   */
+  @Setup
+  public void setUp() {
+    ContextDataInjectorFactory.createInjector();
+    keys = new String[valueCount];
+    values = new String[valueCount];
+    for (int i = 0; i < valueCount; i++) {
+      keys[i] = "key" + i;
+      values[i] = "value" + i;
+    }
+    attachable = fill(new Log4j2LogContextBuilder()).toAttachable();
+  }
+
+  /** Clears the thread context of the benchmark thread. */
+  @TearDown
+  public void tearDown() {
+    ThreadContext.clearAll();
+  }
+
+  /**
+   * Fills the builder and opens its logging context in the thread context map.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(value = 1)
+  public void threadContextMapBuilder() throws Exception {
+    build();
+  }
+
+  /**
+   * Attaches the values in the thread context map.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(value = 1)
+  public void threadContextMapAttach() throws Exception {
+    attach();
+  }
+
+  /**
+   * Fills the builder and opens its logging context in the context store.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(
+      value = 1,
+      jvmArgsAppend =
+          "-Dlog4j2.contextDataInjector=io.github.logcontext.log4j2.ContextStoreDataInjector")
+  public void contextStoreBuilder() throws Exception {
+    build();
+  }
+
+  /**
+   * Attaches the values in the context store.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(
+      value = 1,
+      jvmArgsAppend =
+          "-Dlog4j2.contextDataInjector=io.github.logcontext.log4j2.ContextStoreDataInjector")
+  public void contextStoreAttach() throws Exception {
+    attach();
+  }
+
+  private void build() throws Exception {
+    try (LogContext context = fill(builder.reset()).get()) {
+      // The record is processed here.
+    }
+  }
+
+  private void attach() throws Exception {
+    try (LogContext context = attachable.attach()) {
+      // The record is processed here.
+    }
+  }
+
+  private LogContext.Builder fill(final LogContext.Builder recordBuilder) {
+    for (int i = 0; i < valueCount; i++) {
+      recordBuilder.andMapped(keys[i], values[i]);
+    }
+    return recordBuilder;
+  }
+}
@@ -0,0 +1,50 @@
+package io.github.logcontext.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.Main;
+
+/**
+ * The BenchmarkMain class runs the JMH benchmarks with the options used to compare releases: the
+ * <code>gc</code> profiler, which reports the bytes allocated per operation, and a JSON result file
+ * named <code>jmh-result.json</code>. Each of these defaults is only added if the corresponding
+ * option is not provided on the command line, and all other arguments are passed to JMH unchanged.
+ */
+public final class BenchmarkMain {
+
+  /** Prevents instantiation of the BenchmarkMain class. */
+  private BenchmarkMain() {}
+
+  /**
+   * Runs the JMH benchmarks.
+   *
+   * @param args the JMH command line arguments.
+   * @throws Exception if the benchmarks cannot be run.
+   */
+  public static void main(final String[] args) throws Exception {
+    Main.main(withDefaults(args));
+  }
+
+  /**
+   * Adds the default profiler and result options to JMH command line arguments.
+   *
+   * @param args the JMH command line arguments.
+   * @return the arguments with the default options that are not overridden.
+   */
+  static String[] withDefaults(final String[] args) {
+    final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+    addDefault(arguments, "-prof", "gc");
+    addDefault(arguments, "-rf", "json");
+    addDefault(arguments, "-rff", "jmh-result.json");
+    return arguments.toArray(new String[0]);
+  }
+
+  private static void addDefault(
+      final List<String> arguments, final String option, final String value) {
+    if (!arguments.contains(option)) {
+      arguments.add(option);
+      arguments.add(value);
+    }
+  }
+}
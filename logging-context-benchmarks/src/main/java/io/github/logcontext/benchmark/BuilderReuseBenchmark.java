@@ -0,0 +1,119 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.AbstractLogContextBuilder;
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogContextBuilderPool;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The BuilderReuseBenchmark class measures the cost of filling an {@link AbstractLogContextBuilder}
+ * with the contexts of a typical advised call, either with a builder reused through the {@link
+ * LogContextBuilderPool} or with a new builder per call. The builder does not update any logging
+ * framework so that only the builder itself is measured.
+ *
+ * <p>Run with <code>-prof gc</code> to compare the allocation rate: the pooled cycle should report
+ * close to zero bytes per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuilderReuseBenchmark {
+
+  /** The nested contexts of the class, as held by a precompiled plan. */
+  private static final String[] TYPE_CONTEXTS = {"OrdersService"};
+
+  /** The nested contexts of the method, as held by a precompiled plan. */
+  private static final String[] METHOD_CONTEXTS = {"refund"};
+
+  /** The logging context returned by every builder. */
+  private static final LogContext NO_OP_CONTEXT = () -> {};
+
+  /** Makes the registry create {@link CountingLogContextBuilder} instances. */
+  @Setup
+  public void setUp() {
+    LoggingContextServiceProviderRegistry.override(CountingLogContextBuilder::new);
+  }
+
+  /** Restores the provider found by the service loader. */
+  @TearDown
+  public void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Fills a builder taken from the pool and releases it once its context has been created.
+   *
+   * @param blackhole receives the builder, which escapes just as it does when a real logging
+   *     framework is updated.
+   * @return the logging context, so that the work cannot be eliminated.
+   */
+  @Benchmark
+  public LogContext pooledBuilder(final Blackhole blackhole) {
+    final Builder builder = LogContextBuilderPool.acquire();
+    try {
+      blackhole.consume(builder);
+      return fill(builder).get();
+    } finally {
+      LogContextBuilderPool.release(builder);
+    }
+  }
+
+  /**
+   * Fills a new builder, which is how each advised call behaved before builders were pooled.
+   *
+   * @param blackhole receives the builder, which escapes just as it does when a real logging
+   *     framework is updated.
+   * @return the logging context, so that the work cannot be eliminated.
+   */
+  @Benchmark
+  public LogContext newBuilder(final Blackhole blackhole) {
+    final Builder builder = Builder.builder();
+    blackhole.consume(builder);
+    return fill(builder).get();
+  }
+
+  private static Builder fill(final Builder builder) {
+    return builder
+        .andNested(TYPE_CONTEXTS)
+        .andNested(METHOD_CONTEXTS)
+        .andMapped("order_number", "ORD-1")
+        .andMapped("customer", "CUST-1");
+  }
+
+  /**
+   * An {@link AbstractLogContextBuilder} whose {@link #get()} only reads the collected contexts.
+   */
+  private static final class CountingLogContextBuilder extends AbstractLogContextBuilder {
+
+    /** The number of values read, kept so that the reads cannot be eliminated. */
+    private int read;
+
+    @Override
+    public LogContext get() {
+      for (int i = 0; i < getNestedContextCount(); i++) {
+        read += getNestedContext(i).length();
+      }
+      for (int i = 0; i < getMappedContextCount(); i++) {
+        read += getMappedContextKey(i).length() + getMappedContextValue(i).length();
+      }
+      return NO_OP_CONTEXT;
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LogContextCompletionStage;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import io.github.logcontext.log4j2.spi.Log4j2LoggingContextServiceProvider;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.ThreadContext.ContextStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The CompletionStageChainBenchmark class measures the throughput of long {@link CompletionStage}
+ * chains that are created on a thread with a Log4j thread context and run on another thread, which
+ * completes the first stage of the chain.
+ *
+ * <p>The chain is built with plain {@link CompletableFuture} stages, which lose the logging context,
+ * with {@link LogContextCompletionStage}, which shares the captured thread context between stages,
+ * and with stages that copy the thread context map and stack for every stage, as a hand-written
+ * wrapper around {@link ThreadContext#getContext()} would. Run with <code>-prof gc</code> to compare
+ * the bytes allocated per chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompletionStageChainBenchmark {
+
+  /** The number of dependent stages in each chain. */
+  @Param({"10", "100"})
+  public int chainLength;
+
+  /** The number of entries in the thread context map of the thread that creates the chain. */
+  @Param({"2", "8"})
+  public int mappedEntries;
+
+  /** The thread that completes the first stage of every chain. */
+  private ExecutorService completer;
+
+  /**
+   * Selects the Log4j 2 provider and starts the completing thread. The thread context of the
+   * benchmark threads is filled by {@link RequestThreadContext}.
+   */
+  @Setup
+  public void setUp() {
+    LoggingContextServiceProviderRegistry.override(new Log4j2LoggingContextServiceProvider());
+    completer = Executors.newSingleThreadExecutor();
+  }
+
+  /** Stops the completing thread and restores the provider found by the service loader. */
+  @TearDown
+  public void tearDown() {
+    completer.shutdownNow();
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Runs a chain of {@link CompletableFuture} stages that do not propagate the logging context.
+   *
+   * @param threadContext the thread context of the benchmark thread.
+   * @return the result of the chain.
+   */
+  @Benchmark
+  public Integer plainChain(final RequestThreadContext threadContext) {
+    final CompletableFuture<Integer> first = new CompletableFuture<>();
+    CompletableFuture<Integer> last = first;
+    for (int i = 0; i < chainLength; i++) {
+      last = last.thenApply(CompletionStageChainBenchmark::increment);
+    }
+    return complete(first, last);
+  }
+
+  /**
+   * Runs a chain of {@link LogContextCompletionStage} stages that attach the shared snapshot of the
+   * logging context.
+   *
+   * @param threadContext the thread context of the benchmark thread.
+   * @return the result of the chain.
+   */
+  @Benchmark
+  public Integer contextChain(final RequestThreadContext threadContext) {
+    final CompletableFuture<Integer> first = new CompletableFuture<>();
+    LogContextCompletionStage<Integer> last = LogContextCompletionStage.wrap(first);
+    for (int i = 0; i < chainLength; i++) {
+      last = last.thenApply(CompletionStageChainBenchmark::increment);
+    }
+    return complete(first, last);
+  }
+
+  /**
+   * Runs a chain of {@link CompletableFuture} stages that each copy the thread context map and
+   * stack when they are created and restore the copies when they run.
+   *
+   * @param threadContext the thread context of the benchmark thread.
+   * @return the result of the chain.
+   */
+  @Benchmark
+  public Integer copyingChain(final RequestThreadContext threadContext) {
+    final CompletableFuture<Integer> first = new CompletableFuture<>();
+    CompletableFuture<Integer> last = first;
+    for (int i = 0; i < chainLength; i++) {
+      last = last.thenApply(copyingFunction(CompletionStageChainBenchmark::increment));
+    }
+    return complete(first, last);
+  }
+
+  private Integer complete(
+      final CompletableFuture<Integer> first, final CompletionStage<Integer> last) {
+    completer.execute(() -> first.complete(0));
+    return last.toCompletableFuture().join();
+  }
+
+  private static Integer increment(final Integer value) {
+    return value + 1;
+  }
+
+  private static <T, R> Function<T, R> copyingFunction(final Function<T, R> fn) {
+    final Map<String, String> mappedContexts = ThreadContext.getContext();
+    final ContextStack nestedContexts = ThreadContext.cloneStack();
+    return value -> {
+      final Map<String, String> previousMappedContexts = ThreadContext.getContext();
+      final ContextStack previousNestedContexts = ThreadContext.cloneStack();
+      ThreadContext.clearAll();
+      ThreadContext.putAll(mappedContexts);
+      ThreadContext.setStack(nestedContexts);
+      try {
+        return fn.apply(value);
+      } finally {
+        ThreadContext.clearAll();
+        ThreadContext.putAll(previousMappedContexts);
+        ThreadContext.setStack(previousNestedContexts);
+      }
+    };
+  }
+
+  /** The thread context of a benchmark thread, as set up by the advice of a request handler. */
+  @State(Scope.Thread)
+  public static class RequestThreadContext {
+
+    /**
+     * Fills the thread context of the benchmark thread.
+     *
+     * @param benchmark the benchmark state, which holds the number of mapped entries.
+     */
+    @Setup
+    public void fillThreadContext(final CompletionStageChainBenchmark benchmark) {
+      ThreadContext.push("OrdersService");
+      ThreadContext.push("refund");
+      for (int i = 0; i < benchmark.mappedEntries; i++) {
+        ThreadContext.put("key" + i, "value" + i);
+      }
+    }
+
+    /** Clears the thread context of the benchmark thread. */
+    @TearDown
+    public void clearThreadContext() {
+      ThreadContext.clearAll();
+    }
+  }
+}
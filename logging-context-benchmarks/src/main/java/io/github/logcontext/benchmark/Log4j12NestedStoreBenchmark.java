@@ -0,0 +1,114 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.NestedStore;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.RestoreMode;
+import io.github.logcontext.log4j12.ThreadLocalNDC;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.NDC;
+import org.apache.logging.log4j.ThreadContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The Log4j12NestedStoreBenchmark class measures the throughput of logging contexts that push two
+ * nested context values for each {@link NestedStore} of the {@link Log4j12LogContextBuilder}, with
+ * an increasing number of threads. Each scope renders its nested values once, as <code>%x</code>
+ * or <code>%X{ndc}</code> would for one log event.
+ *
+ * <p>Like the rest of this module, the benchmark runs on the <code>log4j-1.2-api</code> bridge,
+ * where the NDC is the Log4j 2 thread context stack. Both stacks are kept per thread, so neither
+ * locks: the benchmark compares a stack that is copied and frozen on every push and pop with one
+ * that is changed in place, and the allocations of the copies weigh more as threads are added. It
+ * does not measure the cost of the context data of each log event once the {@link
+ * io.github.logcontext.log4j12.ThreadLocalNDCContextDataProvider} is registered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Log4j12NestedStoreBenchmark {
+
+  /** The stack onto which the nested context values are pushed. */
+  @Param({"LOG4J_NDC", "THREAD_LOCAL_STACK"})
+  public NestedStore nestedStore;
+
+  /** The builder of each thread, reused for every call just as a pooled builder would be. */
+  private Log4j12LogContextBuilder builder;
+
+  /** Creates the builder and fills it with the nested context values. */
+  @Setup
+  public void setUp() {
+    builder =
+        (Log4j12LogContextBuilder)
+            new Log4j12LogContextBuilder(RestoreMode.DEPTH_MARK, nestedStore)
+                .andNested("request", "order");
+  }
+
+  /** Clears the nested contexts of the benchmark thread. */
+  @TearDown
+  public void tearDown() {
+    NDC.remove();
+    ThreadLocalNDC.clear();
+  }
+
+  /**
+   * Opens and closes a logging context on a single thread.
+   *
+   * @param blackhole consumes the rendered nested values.
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Threads(1)
+  public void oneThread(final Blackhole blackhole) throws Exception {
+    openAndRender(blackhole);
+  }
+
+  /**
+   * Opens and closes logging contexts on four threads.
+   *
+   * @param blackhole consumes the rendered nested values.
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Threads(4)
+  public void fourThreads(final Blackhole blackhole) throws Exception {
+    openAndRender(blackhole);
+  }
+
+  /**
+   * Opens and closes logging contexts on as many threads as there are available processors.
+   *
+   * @param blackhole consumes the rendered nested values.
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void allProcessors(final Blackhole blackhole) throws Exception {
+    openAndRender(blackhole);
+  }
+
+  private void openAndRender(final Blackhole blackhole) throws Exception {
+    try (LogContext context = builder.get()) {
+      blackhole.consume(
+          nestedStore == NestedStore.LOG4J_NDC
+              ? ThreadContext.getImmutableStack().toString()
+              : ThreadLocalNDC.get());
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.RestoreMode;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.NDC;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The Log4j12RestoreBenchmark class measures a complete update and restore of the Log4J 1.2
+ * logging contexts for each {@link RestoreMode} of the {@link Log4j12LogContextBuilder}, with an
+ * increasing number of nested context values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Log4j12RestoreBenchmark {
+
+  /** The restore mode of the builder. */
+  @Param({"DEPTH_MARK", "PER_ENTRY"})
+  public RestoreMode restoreMode;
+
+  /** The number of nested context values added by each call. */
+  @Param({"1", "4", "16"})
+  public int nestedCount;
+
+  /** The builder, reused for every call just as a pooled builder would be. */
+  private Log4j12LogContextBuilder builder;
+
+  /** Creates the builder and fills it with the nested and mapped context values. */
+  @Setup
+  public void setUp() {
+    builder = new Log4j12LogContextBuilder(restoreMode);
+    for (int i = 0; i < nestedCount; i++) {
+      builder.andNested("context" + i);
+    }
+    builder.andMapped("order_number", "ORD-1");
+  }
+
+  /** Clears the nested context of the benchmark thread. */
+  @TearDown
+  public void tearDown() {
+    NDC.clear();
+  }
+
+  /**
+   * Updates the logging contexts and immediately restores them.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  public void updateAndRestore() throws Exception {
+    try (LogContext context = builder.get()) {
+      // The contexts are only updated and restored.
+    }
+  }
+}
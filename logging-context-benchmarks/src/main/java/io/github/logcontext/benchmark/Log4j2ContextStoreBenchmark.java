@@ -0,0 +1,108 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.log4j2.ContextStoreDataInjector;
+import io.github.logcontext.log4j2.Log4j2LogContextBuilder;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.ContextDataInjector;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.apache.logging.log4j.util.StringMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The Log4j2ContextStoreBenchmark class compares the {@link Log4j2LogContextBuilder} writing its
+ * mapped values through to the default copy-on-write thread context map with the builder keeping
+ * them in the store read by the {@link ContextStoreDataInjector}. Each scope adds three mapped
+ * values to a thread context that may already hold unrelated entries, and then injects the context
+ * data of a number of log events, as Log4j does when creating each event. Each variant runs in its
+ * own fork because Log4j selects the context data injector once per JVM.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class Log4j2ContextStoreBenchmark {
+
+  /** The number of unrelated entries already in the thread context map. */
+  @Param({"0", "8"})
+  public int existingEntries;
+
+  /** The number of log events created in each scope. */
+  @Param({"0", "1", "4"})
+  public int eventsPerScope;
+
+  /** The builder, reused for every call just as a pooled builder would be. */
+  private final Log4j2LogContextBuilder builder = new Log4j2LogContextBuilder();
+
+  /** The context data injector selected by Log4j. */
+  private ContextDataInjector injector;
+
+  /** Fills the thread context map and the builder, and creates the injector. */
+  @Setup
+  public void setUp() {
+    injector = ContextDataInjectorFactory.createInjector();
+    for (int i = 0; i < existingEntries; i++) {
+      ThreadContext.put("existing" + i, "value" + i);
+    }
+    builder
+        .andMapped("order_number", "ORD-1")
+        .andMapped("customer", "C-42")
+        .andMapped("channel", "web");
+  }
+
+  /** Clears the thread context of the benchmark thread. */
+  @TearDown
+  public void tearDown() {
+    ThreadContext.clearAll();
+  }
+
+  /**
+   * Opens a scope in the thread context map and injects the context data of its events.
+   *
+   * @param blackhole consumes the injected context data.
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(value = 1)
+  public void threadContextMap(final Blackhole blackhole) throws Exception {
+    scope(blackhole);
+  }
+
+  /**
+   * Opens a scope in the context store and injects the context data of its events.
+   *
+   * @param blackhole consumes the injected context data.
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(
+      value = 1,
+      jvmArgsAppend =
+          "-Dlog4j2.contextDataInjector=io.github.logcontext.log4j2.ContextStoreDataInjector")
+  public void contextStore(final Blackhole blackhole) throws Exception {
+    scope(blackhole);
+  }
+
+  private void scope(final Blackhole blackhole) throws Exception {
+    try (LogContext context = builder.get()) {
+      for (int i = 0; i < eventsPerScope; i++) {
+        final StringMap contextData = injector.injectContextData(null, null);
+        blackhole.consume(contextData);
+      }
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.log4j2.Log4j2LogContextBuilder;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.ThreadContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The Log4j2ThreadContextMapBenchmark class measures a complete update and restore of the Log4j
+ * thread context by the {@link Log4j2LogContextBuilder}, once with the default copy-on-write thread
+ * context map and once with the garbage-free map that the builder updates in place. Each variant
+ * runs in its own fork because Log4j selects the map implementation once per JVM.
+ *
+ * <p>Run with <code>-prof gc</code> to compare the bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class Log4j2ThreadContextMapBenchmark {
+
+  /** The number of unrelated entries already in the thread context map. */
+  @Param({"0", "8"})
+  public int existingEntries;
+
+  /** The builder, reused for every call just as a pooled builder would be. */
+  private final Log4j2LogContextBuilder builder = new Log4j2LogContextBuilder();
+
+  /** Fills the thread context map and the builder. */
+  @Setup
+  public void setUp() {
+    for (int i = 0; i < existingEntries; i++) {
+      ThreadContext.put("existing" + i, "value" + i);
+    }
+    builder.andNested("OrdersService", "refund").andMapped("order_number", "ORD-1");
+  }
+
+  /** Clears the thread context of the benchmark thread. */
+  @TearDown
+  public void tearDown() {
+    ThreadContext.clearAll();
+  }
+
+  /**
+   * Updates and restores the thread context with the default copy-on-write map.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "-Dlog4j2.garbagefreeThreadContextMap=false")
+  public void copyOnWriteMap() throws Exception {
+    updateAndRestore();
+  }
+
+  /**
+   * Updates and restores the thread context with the garbage-free map.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "-Dlog4j2.garbagefreeThreadContextMap=true")
+  public void garbageFreeMap() throws Exception {
+    updateAndRestore();
+  }
+
+  private void updateAndRestore() throws Exception {
+    try (LogContext context = builder.get()) {
+      // The contexts are only updated and restored.
+    }
+  }
+}
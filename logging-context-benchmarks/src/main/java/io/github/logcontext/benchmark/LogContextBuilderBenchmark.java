@@ -0,0 +1,141 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LoggingContextServiceProvider;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import io.github.logcontext.log4j12.spi.Log4j12LoggingContextServiceProvider;
+import io.github.logcontext.log4j2.spi.Log4j2LoggingContextServiceProvider;
+import io.github.logcontext.slf4j.spi.Slf4jLoggingContextServiceProvider;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The LogContextBuilderBenchmark class measures the fluent API of each backend provider: obtaining
+ * a builder with {@link Builder#builder()}, filling it with {@link Builder#andNested(String...)}
+ * and {@link Builder#andMapped(String, String)}, updating the logging framework with {@link
+ * Builder#get()} and restoring it with {@link LogContext#close()}, for an increasing number of
+ * context values.
+ *
+ * <p>The builder is obtained for every call, as application code using the fluent API does, so
+ * these benchmarks are the baseline to compare releases against.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogContextBuilderBenchmark {
+
+  /** The backend providers that can be measured. */
+  public enum Backend {
+
+    /** The Log4j 2 thread context. */
+    LOG4J2(Log4j2LoggingContextServiceProvider::new),
+
+    /** The Log4J 1.2 NDC and MDC. */
+    LOG4J12(Log4j12LoggingContextServiceProvider::new),
+
+    /** The SLF4J MDC, bound to Logback. */
+    SLF4J(Slf4jLoggingContextServiceProvider::new);
+
+    /** Creates the provider of the backend. */
+    private final Supplier<LoggingContextServiceProvider> provider;
+
+    Backend(final Supplier<LoggingContextServiceProvider> provider) {
+      this.provider = provider;
+    }
+  }
+
+  /** The backend provider to measure. */
+  @Param({"LOG4J2", "LOG4J12", "SLF4J"})
+  public Backend backend;
+
+  /** The number of nested and the number of mapped context values added by each call. */
+  @Param({"1", "4", "16"})
+  public int contextSize;
+
+  /** The nested context values. */
+  private String[] nestedContexts;
+
+  /** The mapped context keys. */
+  private String[] mappedKeys;
+
+  /** The mapped context values. */
+  private String[] mappedValues;
+
+  /** Selects the provider of the backend and creates the context values. */
+  @Setup
+  public void setUp() {
+    LoggingContextServiceProviderRegistry.override(backend.provider.get());
+    nestedContexts = new String[contextSize];
+    mappedKeys = new String[contextSize];
+    mappedValues = new String[contextSize];
+    for (int i = 0; i < contextSize; i++) {
+      nestedContexts[i] = "context" + i;
+      mappedKeys[i] = "key" + i;
+      mappedValues[i] = "value" + i;
+    }
+  }
+
+  /** Restores the provider found by the service loader. */
+  @TearDown
+  public void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Obtains a builder of the backend provider.
+   *
+   * @return the builder, so that the lookup cannot be eliminated.
+   */
+  @Benchmark
+  public Builder builder() {
+    return Builder.builder();
+  }
+
+  /**
+   * Obtains and fills a builder without updating the logging framework.
+   *
+   * @return the filled builder, so that it cannot be eliminated.
+   */
+  @Benchmark
+  public Builder fill() {
+    return fill(Builder.builder());
+  }
+
+  /**
+   * Obtains and fills a builder, updates the logging framework and immediately restores it.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  public void getAndClose() throws Exception {
+    try (LogContext context = fill(Builder.builder()).get()) {
+      // The contexts are only updated and restored.
+    }
+  }
+
+  private Builder fill(final Builder builder) {
+    for (int i = 0; i < contextSize; i++) {
+      builder.andNested(nestedContexts[i]);
+    }
+    for (int i = 0; i < contextSize; i++) {
+      builder.andMapped(mappedKeys[i], mappedValues[i]);
+    }
+    return builder;
+  }
+}
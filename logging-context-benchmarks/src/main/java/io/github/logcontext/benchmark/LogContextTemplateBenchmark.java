@@ -0,0 +1,108 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogContextBuilderPool;
+import io.github.logcontext.LogContextTemplate;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import io.github.logcontext.log4j2.ContextStoreDataInjector;
+import io.github.logcontext.log4j2.spi.Log4j2LoggingContextServiceProvider;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The LogContextTemplateBenchmark class compares opening a logging context made of static values
+ * and one changing mapped value with a pooled builder filled through the fluent API against a
+ * {@link LogContextTemplate} whose static values were validated once. It runs with the {@link
+ * ContextStoreDataInjector}, so that the Log4j 2 backend adds little beyond the cost of the builder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(
+    value = 1,
+    jvmArgsAppend =
+        "-Dlog4j2.contextDataInjector=io.github.logcontext.log4j2.ContextStoreDataInjector")
+public class LogContextTemplateBenchmark {
+
+  /** The template of the logging context. */
+  private static final LogContextTemplate TEMPLATE =
+      LogContextTemplate.builder()
+          .andNested("OrdersService", "refund")
+          .andMapped("service", "billing")
+          .andMapped("region", "eu-west-1")
+          .andMappedSlot("order_number")
+          .build();
+
+  /** The values of the changing mapped value, bound in turn. */
+  private final String[] orderNumbers = {"ORD-1", "ORD-2", "ORD-3", "ORD-4"};
+
+  /** The index of the next value. */
+  private int order;
+
+  /** Creates the injector and makes the registry create Log4j 2 builders. */
+  @Setup
+  public void setUp() {
+    ContextDataInjectorFactory.createInjector();
+    LoggingContextServiceProviderRegistry.override(new Log4j2LoggingContextServiceProvider());
+  }
+
+  /** Restores the provider found by the service loader and clears the thread context. */
+  @TearDown
+  public void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+    ThreadContext.clearAll();
+  }
+
+  /**
+   * Fills a pooled builder with every value and opens its logging context.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  public void pooledBuilder() throws Exception {
+    final Builder builder = LogContextBuilderPool.acquire();
+    try (LogContext context =
+        builder
+            .andNested("OrdersService", "refund")
+            .andMapped("service", "billing")
+            .andMapped("region", "eu-west-1")
+            .andMapped("order_number", nextOrderNumber())
+            .get()) {
+      // The order is processed here.
+    } finally {
+      LogContextBuilderPool.release(builder);
+    }
+  }
+
+  /**
+   * Binds the changing value to the template and opens its logging context.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  public void template() throws Exception {
+    try (LogContext context = TEMPLATE.open(nextOrderNumber())) {
+      // The order is processed here.
+    }
+  }
+
+  private String nextOrderNumber() {
+    order = (order + 1) & (orderNumbers.length - 1);
+    return orderNumbers[order];
+  }
+}
@@ -0,0 +1,140 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LogLevel;
+import io.github.logcontext.LoggingContext;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import io.github.logcontext.aop.LoggingContextAdvice;
+import io.github.logcontext.log4j2.spi.Log4j2LoggingContextServiceProvider;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * The LoggingContextAdviceBenchmark class measures the cost of the {@link LoggingContextAdvice}
+ * around a method call, with the Log4j 2 provider. The advice is applied with Spring AOP, as in the
+ * example applications, so the calls are compared in three steps: calling the service directly,
+ * calling a method of the proxy that the advice does not match, which only adds the cost of the
+ * proxy, and calling an advised method, which also opens and closes the logging context. A fourth
+ * method is only given a logging context if its logger logs trace events, which Log4j does not
+ * without a configuration, so the advice skips the logging context.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingContextAdviceBenchmark {
+
+  /** The order number passed to every call, which is not a constant the JIT could fold. */
+  private String orderNumber = "ORD-1";
+
+  /** The service called directly. */
+  private final OrdersService service = new OrdersService();
+
+  /** The service called through a proxy applying the {@link LoggingContextAdvice}. */
+  private OrdersService advisedService;
+
+  /** Selects the Log4j 2 provider and creates the proxy of the service. */
+  @Setup
+  public void setUp() {
+    LoggingContextServiceProviderRegistry.override(new Log4j2LoggingContextServiceProvider());
+    final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(service);
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAspect(new LoggingContextAdvice());
+    advisedService = proxyFactory.getProxy();
+  }
+
+  /** Restores the provider found by the service loader. */
+  @TearDown
+  public void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Calls the annotated method of the service without the advice.
+   *
+   * @return the result of the call.
+   */
+  @Benchmark
+  public int unadvised() {
+    return service.refund(orderNumber);
+  }
+
+  /**
+   * Calls a method of the proxy that is not annotated, so the advice is not invoked.
+   *
+   * @return the result of the call.
+   */
+  @Benchmark
+  public int proxied() {
+    return advisedService.status(orderNumber);
+  }
+
+  /**
+   * Calls the annotated method of the proxy, so the advice opens and closes the logging context.
+   *
+   * @return the result of the call.
+   */
+  @Benchmark
+  public int advised() {
+    return advisedService.refund(orderNumber);
+  }
+
+  /**
+   * Calls an annotated method of the proxy that requires trace logging, so the advice only checks
+   * the level of the logger.
+   *
+   * @return the result of the call.
+   */
+  @Benchmark
+  public int advisedLevelDisabled() {
+    return advisedService.trace(orderNumber);
+  }
+
+  /** A service with a method annotated like a typical request handler. */
+  public static class OrdersService {
+
+    /**
+     * Refunds an order inside a logging context.
+     *
+     * @param orderNumber the order number, added to the mapped context.
+     * @return a value derived from the order number.
+     */
+    @LoggingContext("refund")
+    public int refund(@LoggingContext("order_number") final String orderNumber) {
+      return orderNumber.length();
+    }
+
+    /**
+     * Traces an order inside a logging context when trace logging is enabled.
+     *
+     * @param orderNumber the order number, added to the mapped context.
+     * @return a value derived from the order number.
+     */
+    @LoggingContext(value = "trace", ifEnabled = LogLevel.TRACE)
+    public int trace(@LoggingContext("order_number") final String orderNumber) {
+      return orderNumber.length();
+    }
+
+    /**
+     * Returns the status of an order without a logging context.
+     *
+     * @param orderNumber the order number.
+     * @return a value derived from the order number.
+     */
+    public int status(final String orderNumber) {
+      return orderNumber.length();
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.MappedContextSlot;
+import io.github.logcontext.log4j2.ContextStoreDataInjector;
+import io.github.logcontext.log4j2.Log4j2LogContextBuilder;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The MappedContextSlotBenchmark class compares the cost per item of a loop that logs each item
+ * with its own mapped value, either by opening and closing a logging context for every item or by
+ * setting the value of a {@link MappedContextSlot} opened once for the loop. The store variants
+ * run in their own fork with the {@link ContextStoreDataInjector}, where the slot never copies the
+ * copy-on-write thread context map.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MappedContextSlotBenchmark {
+
+  /** The number of unrelated entries already in the thread context map. */
+  @Param({"0", "8"})
+  public int existingEntries;
+
+  /** The values of the items, set in turn. */
+  private final String[] items = {"ORD-1", "ORD-2", "ORD-3", "ORD-4"};
+
+  /** The builder, reused for every item just as a pooled builder would be. */
+  private final Log4j2LogContextBuilder builder = new Log4j2LogContextBuilder();
+
+  /** The slot, opened once for all the items. */
+  private MappedContextSlot slot;
+
+  /** The index of the next item. */
+  private int item;
+
+  /** Creates the injector, fills the thread context map and opens the slot. */
+  @Setup
+  public void setUp() {
+    ContextDataInjectorFactory.createInjector();
+    for (int i = 0; i < existingEntries; i++) {
+      ThreadContext.put("existing" + i, "value" + i);
+    }
+    slot = new Log4j2LogContextBuilder().getSlot("order_number");
+  }
+
+  /**
+   * Closes the slot and clears the thread context of the benchmark thread.
+   *
+   * @throws Exception if the slot cannot be closed.
+   */
+  @TearDown
+  public void tearDown() throws Exception {
+    slot.close();
+    ThreadContext.clearAll();
+  }
+
+  /**
+   * Opens and closes a logging context for an item in the thread context map.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(value = 1)
+  public void threadContextMapReopen() throws Exception {
+    reopen();
+  }
+
+  /** Sets the value of an item in the thread context map. */
+  @Benchmark
+  @Fork(value = 1)
+  public void threadContextMapSlot() {
+    slot.set(nextItem());
+  }
+
+  /**
+   * Opens and closes a logging context for an item in the context store.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(
+      value = 1,
+      jvmArgsAppend =
+          "-Dlog4j2.contextDataInjector=io.github.logcontext.log4j2.ContextStoreDataInjector")
+  public void contextStoreReopen() throws Exception {
+    reopen();
+  }
+
+  /** Sets the value of an item in the context store. */
+  @Benchmark
+  @Fork(
+      value = 1,
+      jvmArgsAppend =
+          "-Dlog4j2.contextDataInjector=io.github.logcontext.log4j2.ContextStoreDataInjector")
+  public void contextStoreSlot() {
+    slot.set(nextItem());
+  }
+
+  private void reopen() throws Exception {
+    try (LogContext context = builder.reset().andMapped("order_number", nextItem()).get()) {
+      // The item is processed here.
+    }
+  }
+
+  private String nextItem() {
+    item = (item + 1) & (items.length - 1);
+    return items[item];
+  }
+}
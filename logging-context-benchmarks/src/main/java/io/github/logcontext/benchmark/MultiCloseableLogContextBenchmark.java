@@ -0,0 +1,79 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.MultiCloseableLogContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The MultiCloseableLogContextBenchmark class measures the overhead of closing a group of contexts
+ * with a {@link MultiCloseableLogContext}, as done by the builders that create one closeable per
+ * context value. The closeables only count their invocations, so that the iteration over the group
+ * is what is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiCloseableLogContextBenchmark {
+
+  /** The number of closeables in the group. */
+  @Param({"1", "4", "16"})
+  public int closeableCount;
+
+  /** The number of times a closeable of the group was closed. */
+  private int closed;
+
+  /** The closeables of the group. */
+  private List<AutoCloseable> closeables;
+
+  /** The group of closeables, which can be closed any number of times. */
+  private MultiCloseableLogContext context;
+
+  /** Creates the group of closeables. */
+  @Setup
+  public void setUp() {
+    closeables = new ArrayList<>(closeableCount);
+    for (int i = 0; i < closeableCount; i++) {
+      closeables.add(() -> closed++);
+    }
+    context = new MultiCloseableLogContext(closeables);
+  }
+
+  /**
+   * Closes an existing group of closeables.
+   *
+   * @return the number of closed closeables, so that the close cannot be eliminated.
+   * @throws Exception if a closeable cannot be closed.
+   */
+  @Benchmark
+  public int close() throws Exception {
+    context.close();
+    return closed;
+  }
+
+  /**
+   * Creates and closes a group of closeables, as a builder does for every logging context.
+   *
+   * @return the number of closed closeables, so that the close cannot be eliminated.
+   * @throws Exception if a closeable cannot be closed.
+   */
+  @Benchmark
+  public int createAndClose() throws Exception {
+    new MultiCloseableLogContext(closeables).close();
+    return closed;
+  }
+}
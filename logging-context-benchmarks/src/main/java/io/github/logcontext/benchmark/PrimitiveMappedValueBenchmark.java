@@ -0,0 +1,136 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.log4j2.Log4j2LogContextBuilder;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The PrimitiveMappedValueBenchmark class compares opening a logging context made of four <code>
+ * long</code> identifiers converted by the caller with {@link String#valueOf(long)}, as the advice
+ * used to do, against adding them with {@link LogContext.Builder#andMapped(String, long)}. The
+ * builder is reused for every record, just as a pooled builder would be, so that the decimal forms
+ * it caches are reused whenever the identifiers repeat. The store variants run in their own fork
+ * with the {@link io.github.logcontext.log4j2.ContextStoreDataInjector}, which allocates less than
+ * the thread context map for the logging context itself. Run with the <code>gc</code> profiler to
+ * compare the bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PrimitiveMappedValueBenchmark {
+
+  /** The keys of the identifiers. */
+  private static final String[] KEYS = {"tenant_id", "user_id", "account_id", "order_id"};
+
+  /** The first value of each identifier, large enough not to be a cached {@link Long}. */
+  private static final long FIRST_ID = 10_000_000_000L;
+
+  /**
+   * The number of distinct values each identifier takes over consecutive records, none of which is
+   * a value of another identifier.
+   */
+  @Param({"1", "1024"})
+  public int distinctIds;
+
+  /** The builder, reused for every record just as a pooled builder would be. */
+  private final Log4j2LogContextBuilder builder = new Log4j2LogContextBuilder();
+
+  /** The number of the current record. */
+  private long record;
+
+  /** Creates the injector, which selects what the builder keeps in the context store. */
+  @Setup
+  public void setUp() {
+    ContextDataInjectorFactory.createInjector();
+  }
+
+  /** Clears the thread context of the benchmark thread. */
+  @TearDown
+  public void tearDown() {
+    ThreadContext.clearAll();
+  }
+
+  /**
+   * Adds the identifiers of a record as strings and opens the logging context in the thread context
+   * map.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(value = 1)
+  public void threadContextMapStringIds() throws Exception {
+    open(false);
+  }
+
+  /**
+   * Adds the identifiers of a record unboxed and opens the logging context in the thread context
+   * map.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(value = 1)
+  public void threadContextMapPrimitiveIds() throws Exception {
+    open(true);
+  }
+
+  /**
+   * Adds the identifiers of a record as strings and opens the logging context in the context store.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(
+      value = 1,
+      jvmArgsAppend =
+          "-Dlog4j2.contextDataInjector=io.github.logcontext.log4j2.ContextStoreDataInjector")
+  public void contextStoreStringIds() throws Exception {
+    open(false);
+  }
+
+  /**
+   * Adds the identifiers of a record unboxed and opens the logging context in the context store.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  @Fork(
+      value = 1,
+      jvmArgsAppend =
+          "-Dlog4j2.contextDataInjector=io.github.logcontext.log4j2.ContextStoreDataInjector")
+  public void contextStorePrimitiveIds() throws Exception {
+    open(true);
+  }
+
+  private void open(final boolean unboxed) throws Exception {
+    final long offset = record++ % distinctIds;
+    builder.reset();
+    for (int i = 0; i < KEYS.length; i++) {
+      final long id = FIRST_ID + (long) i * distinctIds + offset;
+      if (unboxed) {
+        builder.andMapped(KEYS[i], id);
+      } else {
+        builder.andMapped(KEYS[i], String.valueOf(id));
+      }
+    }
+    try (LogContext context = builder.get()) {
+      // The record is processed here.
+    }
+  }
+}
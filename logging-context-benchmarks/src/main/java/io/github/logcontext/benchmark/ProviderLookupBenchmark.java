@@ -0,0 +1,64 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LoggingContextServiceProvider;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The ProviderLookupBenchmark class compares obtaining a {@link Builder} through the cached {@link
+ * LoggingContextServiceProviderRegistry} against running the {@link ServiceLoader} on every call,
+ * which is how {@link Builder#builder()} behaved before the registry was introduced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderLookupBenchmark {
+
+  /** Resolves the provider before measuring so the registry path starts warm. */
+  @Setup
+  public void setUp() {
+    LoggingContextServiceProviderRegistry.invalidate();
+    LoggingContextServiceProviderRegistry.getProvider();
+  }
+
+  /**
+   * Obtains a builder through {@link Builder#builder()}, which reads the cached provider.
+   *
+   * @return the builder, so that the lookup cannot be eliminated.
+   */
+  @Benchmark
+  public Builder registryLookup() {
+    return Builder.builder();
+  }
+
+  /**
+   * Obtains a builder by streaming a new {@link ServiceLoader} on every call.
+   *
+   * @return the builder, so that the lookup cannot be eliminated.
+   */
+  @Benchmark
+  public Builder serviceLoaderPerCall() {
+    final ServiceLoader<LoggingContextServiceProvider> serviceLoader =
+        ServiceLoader.load(LoggingContextServiceProvider.class);
+    return StreamSupport.stream(serviceLoader.spliterator(), false)
+        .findFirst()
+        .map(LoggingContextServiceProvider::logContextBuilder)
+        .orElse(Builder.NO_OP_BUILDER);
+  }
+}
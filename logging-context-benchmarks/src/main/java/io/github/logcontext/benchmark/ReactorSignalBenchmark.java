@@ -0,0 +1,186 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import io.github.logcontext.log4j2.spi.Log4j2LoggingContextServiceProvider;
+import io.github.logcontext.reactor.LogContextHooks;
+import io.github.logcontext.reactor.ReactorLogContext;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.apache.logging.log4j.ThreadContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+
+/**
+ * The ReactorSignalBenchmark class measures the overhead per <code>onNext</code> signal of carrying
+ * a Log4j thread context through a Reactor pipeline that is subscribed on a thread without that
+ * context, as happens on the event loop of a WebFlux server.
+ *
+ * <p>The logging context is stored in the subscriber context with {@link
+ * ReactorLogContext#capture()}, and either not attached at all, attached only for the elements
+ * that are logged, or attached around the signals of the pipeline by the {@link LogContextHooks}.
+ * These are compared with copying the thread context map from the subscriber context into the
+ * thread context for every signal. Run with <code>-prof gc</code> to compare the bytes allocated
+ * per pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReactorSignalBenchmark {
+
+  /** The number of elements emitted by each pipeline. */
+  @Param({"100"})
+  public int elements;
+
+  /** The number of entries in the thread context map of the request. */
+  @Param({"2", "8"})
+  public int mappedEntries;
+
+  /** Stores the captured logging context of the request in a subscriber context. */
+  private Function<Context, Context> capturedContext;
+
+  /** Stores a copy of the thread context map of the request in a subscriber context. */
+  private Function<Context, Context> copiedContext;
+
+  /** Selects the Log4j 2 provider and captures the logging context of a request. */
+  @Setup
+  public void setUp() {
+    LoggingContextServiceProviderRegistry.override(new Log4j2LoggingContextServiceProvider());
+    ThreadContext.push("OrdersService");
+    for (int i = 0; i < mappedEntries; i++) {
+      ThreadContext.put("key" + i, "value" + i);
+    }
+    capturedContext = ReactorLogContext.capture();
+    final Map<String, String> mappedContexts = ThreadContext.getImmutableContext();
+    copiedContext = context -> context.put(Map.class, mappedContexts);
+    ThreadContext.clearAll();
+  }
+
+  /** Restores the provider found by the service loader. */
+  @TearDown
+  public void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Runs a pipeline without a logging context.
+   *
+   * @return the result of the pipeline.
+   */
+  @Benchmark
+  public Integer plainPipeline() {
+    return Flux.range(0, elements)
+        .map(ReactorSignalBenchmark::increment)
+        .reduce(0, Integer::sum)
+        .block();
+  }
+
+  /**
+   * Runs a pipeline that stores the logging context, but does not log.
+   *
+   * @return the result of the pipeline.
+   */
+  @Benchmark
+  public Integer contextPipeline() {
+    return Flux.range(0, elements)
+        .map(ReactorSignalBenchmark::increment)
+        .reduce(0, Integer::sum)
+        .contextWrite(capturedContext)
+        .block();
+  }
+
+  /**
+   * Runs a pipeline that logs every element with the stored logging context attached.
+   *
+   * @param blackhole consumes the logged values.
+   * @return the result of the pipeline.
+   */
+  @Benchmark
+  public Integer loggingPipeline(final Blackhole blackhole) {
+    return Flux.range(0, elements)
+        .map(ReactorSignalBenchmark::increment)
+        .doOnEach(ReactorLogContext.onNext(value -> blackhole.consume(ThreadContext.get("key0"))))
+        .reduce(0, Integer::sum)
+        .contextWrite(capturedContext)
+        .block();
+  }
+
+  /**
+   * Runs a pipeline whose signals are delivered with the stored logging context attached by the
+   * {@link LogContextHooks}.
+   *
+   * @param hooks the installed operator hook.
+   * @return the result of the pipeline.
+   */
+  @Benchmark
+  public Integer hookedPipeline(final InstalledHooks hooks) {
+    return Flux.range(0, elements)
+        .map(ReactorSignalBenchmark::increment)
+        .reduce(0, Integer::sum)
+        .contextWrite(capturedContext)
+        .block();
+  }
+
+  /**
+   * Runs a pipeline that copies the thread context map from the subscriber context into the thread
+   * context for every signal and clears it afterwards.
+   *
+   * @param blackhole consumes the copied values.
+   * @return the result of the pipeline.
+   */
+  @Benchmark
+  public Integer copyingPipeline(final Blackhole blackhole) {
+    return Flux.range(0, elements)
+        .map(ReactorSignalBenchmark::increment)
+        .doOnEach(
+            signal -> {
+              if (signal.getType() == SignalType.ON_NEXT) {
+                final Map<String, String> mappedContexts = signal.getContextView().get(Map.class);
+                ThreadContext.putAll(mappedContexts);
+                blackhole.consume(ThreadContext.get("key0"));
+                ThreadContext.clearMap();
+              }
+            })
+        .reduce(0, Integer::sum)
+        .contextWrite(copiedContext)
+        .block();
+  }
+
+  private static Integer increment(final Integer value) {
+    return value + 1;
+  }
+
+  /** The {@link LogContextHooks}, installed only in the fork of the benchmark that uses them. */
+  @State(Scope.Benchmark)
+  public static class InstalledHooks {
+
+    /** Installs the operator hook. */
+    @Setup
+    public void install() {
+      LogContextHooks.install();
+    }
+
+    /** Removes the operator hook. */
+    @TearDown
+    public void uninstall() {
+      LogContextHooks.uninstall();
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder;
+import io.github.logcontext.log4j2.Log4j2LogContextBuilder;
+import io.github.logcontext.slf4j.Slf4jLogContextBuilder;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.ThreadContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+/**
+ * The ShadowedMappedContextBenchmark class measures the cost of restoring a shadowed mapped context
+ * value when a logging context is closed, by comparing a key that is already in the thread context
+ * with one that is not. The garbage-free thread context map is used so that only the cost of the
+ * undo stack is added by the shadowed case.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.garbagefreeThreadContextMap=true")
+public class ShadowedMappedContextBenchmark {
+
+  /** Whether the mapped key already has an outer value that must be restored. */
+  @Param({"false", "true"})
+  public boolean shadowed;
+
+  /** The Log4j 2 builder, reused for every call just as a pooled builder would be. */
+  private final Log4j2LogContextBuilder log4j2Builder = new Log4j2LogContextBuilder();
+
+  /** The Log4J 1.2 builder, reused for every call just as a pooled builder would be. */
+  private final Log4j12LogContextBuilder log4j12Builder = new Log4j12LogContextBuilder();
+
+  /** The SLF4J builder, reused for every call just as a pooled builder would be. */
+  private final Slf4jLogContextBuilder slf4jBuilder = new Slf4jLogContextBuilder();
+
+  /** Puts the outer value, if any, and fills the builders. */
+  @Setup
+  public void setUp() {
+    if (shadowed) {
+      ThreadContext.put("order_number", "OUTER");
+      MDC.put("order_number", "OUTER");
+    }
+    log4j2Builder.andNested("refund").andMapped("order_number", "ORD-1");
+    log4j12Builder.andNested("refund").andMapped("order_number", "ORD-1");
+    slf4jBuilder.andNested("refund").andMapped("order_number", "ORD-1");
+  }
+
+  /** Clears the thread context and MDC of the benchmark thread. */
+  @TearDown
+  public void tearDown() {
+    ThreadContext.clearAll();
+    MDC.clear();
+  }
+
+  /**
+   * Updates and restores the thread context with the Log4j 2 builder.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  public void log4j2() throws Exception {
+    try (LogContext context = log4j2Builder.get()) {
+      // The contexts are only updated and restored.
+    }
+  }
+
+  /**
+   * Updates and restores the thread context with the Log4J 1.2 builder.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  public void log4j12() throws Exception {
+    try (LogContext context = log4j12Builder.get()) {
+      // The contexts are only updated and restored.
+    }
+  }
+
+  /**
+   * Updates and restores the SLF4J MDC with the SLF4J builder.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  public void slf4j() throws Exception {
+    try (LogContext context = slf4jBuilder.get()) {
+      // The contexts are only updated and restored.
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package io.github.logcontext.benchmark;
+
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import io.github.logcontext.LogContext;
+import io.github.logcontext.slf4j.Slf4jLogContextBuilder;
+import io.github.logcontext.slf4j.Slf4jLogContextBuilder.UpdateMode;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+/**
+ * The Slf4jMdcBenchmark class measures a complete update and restore of the SLF4J MDC, bound to
+ * Logback, for each {@link UpdateMode} of the {@link Slf4jLogContextBuilder}, with an increasing
+ * number of mapped context values added to an MDC that already holds the values of a request.
+ *
+ * <p>Logback copies its MDC map on the first put after the map was read by a logging event, so the
+ * {@link #updateLogAndRestore()} benchmark reads the map inside the context as every log statement
+ * would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Slf4jMdcBenchmark {
+
+  /** The update mode of the builder. */
+  @Param({"BATCHED", "PER_KEY"})
+  public UpdateMode updateMode;
+
+  /** The number of mapped context values added by each call. */
+  @Param({"1", "4", "16"})
+  public int mappedCount;
+
+  /** The number of values already in the MDC of the benchmark thread. */
+  @Param({"0", "8"})
+  public int outerCount;
+
+  /** The builder, reused for every call just as a pooled builder would be. */
+  private Slf4jLogContextBuilder builder;
+
+  /** The Logback MDC adapter, which provides the MDC map to logging events. */
+  private LogbackMDCAdapter mdcAdapter;
+
+  /** Fills the MDC of the benchmark thread and the builder. */
+  @Setup
+  public void setUp() {
+    for (int i = 0; i < outerCount; i++) {
+      MDC.put("outer" + i, "value" + i);
+    }
+    builder = new Slf4jLogContextBuilder(updateMode);
+    builder.andNested("refund");
+    for (int i = 0; i < mappedCount; i++) {
+      builder.andMapped("key" + i, "value" + i);
+    }
+    mdcAdapter = (LogbackMDCAdapter) MDC.getMDCAdapter();
+  }
+
+  /** Clears the MDC of the benchmark thread. */
+  @TearDown
+  public void tearDown() {
+    MDC.clear();
+  }
+
+  /**
+   * Updates the MDC and immediately restores it.
+   *
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  public void updateAndRestore() throws Exception {
+    try (LogContext context = builder.get()) {
+      // The MDC is only updated and restored.
+    }
+  }
+
+  /**
+   * Updates the MDC, reads it as a Logback logging event does, and restores it.
+   *
+   * @return the MDC map read by the logging event.
+   * @throws Exception if the logging context cannot be closed.
+   */
+  @Benchmark
+  public Map<String, String> updateLogAndRestore() throws Exception {
+    try (LogContext context = builder.get()) {
+      return mdcAdapter.getPropertyMap();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.LoggingContext;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import io.github.logcontext.log4j2.spi.Log4j2LoggingContextServiceProvider;
+import io.github.logcontext.spring.SpringAopLoggingContextConfiguration;
+import io.github.logcontext.spring.SpringInterceptorLoggingContextConfiguration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The SpringLoggingContextBenchmark class compares the two Spring configurations of the logging
+ * contexts, with the Log4j 2 provider: {@link SpringAopLoggingContextConfiguration}, which applies
+ * the AspectJ advice, and {@link SpringInterceptorLoggingContextConfiguration}, which binds the
+ * plan of each method to an interceptor when the bean is created. Each configuration proxies the
+ * same service in its own application context, as a Spring Boot application would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpringLoggingContextBenchmark {
+
+  /** The order number passed to every call, which is not a constant the JIT could fold. */
+  private String orderNumber = "ORD-1";
+
+  /** The application context with the AspectJ advice. */
+  private AnnotationConfigApplicationContext aspectContext;
+
+  /** The application context with the interceptors. */
+  private AnnotationConfigApplicationContext interceptorContext;
+
+  /** The service proxied with the AspectJ advice. */
+  private OrdersService aspectService;
+
+  /** The service proxied with the interceptors. */
+  private OrdersService interceptorService;
+
+  /** Selects the Log4j 2 provider and creates both application contexts. */
+  @Setup
+  public void setUp() {
+    LoggingContextServiceProviderRegistry.override(new Log4j2LoggingContextServiceProvider());
+    aspectContext = new AnnotationConfigApplicationContext(AspectConfiguration.class);
+    interceptorContext = new AnnotationConfigApplicationContext(InterceptorConfiguration.class);
+    aspectService = aspectContext.getBean(OrdersService.class);
+    interceptorService = interceptorContext.getBean(OrdersService.class);
+  }
+
+  /** Closes the application contexts and restores the provider found by the service loader. */
+  @TearDown
+  public void tearDown() {
+    aspectContext.close();
+    interceptorContext.close();
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Calls the annotated method of the service proxied with the AspectJ advice.
+   *
+   * @return the result of the call.
+   */
+  @Benchmark
+  public int aspect() {
+    return aspectService.refund(orderNumber);
+  }
+
+  /**
+   * Calls the annotated method of the service proxied with the interceptors.
+   *
+   * @return the result of the call.
+   */
+  @Benchmark
+  public int interceptor() {
+    return interceptorService.refund(orderNumber);
+  }
+
+  /** The application context with the AspectJ advice. */
+  @Configuration
+  @Import(SpringAopLoggingContextConfiguration.class)
+  public static class AspectConfiguration {
+
+    /**
+     * Creates the service.
+     *
+     * @return the service.
+     */
+    @Bean
+    public OrdersService ordersService() {
+      return new OrdersService();
+    }
+  }
+
+  /** The application context with the interceptors. */
+  @Configuration
+  @Import(SpringInterceptorLoggingContextConfiguration.class)
+  public static class InterceptorConfiguration {
+
+    /**
+     * Creates the service.
+     *
+     * @return the service.
+     */
+    @Bean
+    public OrdersService ordersService() {
+      return new OrdersService();
+    }
+  }
+
+  /** A service with a method annotated like a typical request handler. */
+  public static class OrdersService {
+
+    /**
+     * Refunds an order inside a logging context.
+     *
+     * @param orderNumber the order number, added to the mapped context.
+     * @return a value derived from the order number.
+     */
+    @LoggingContext("refund")
+    public int refund(@LoggingContext("order_number") final String orderNumber) {
+      return orderNumber.length();
+    }
+  }
+}
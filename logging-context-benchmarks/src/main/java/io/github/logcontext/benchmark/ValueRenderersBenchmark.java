@@ -0,0 +1,76 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.ValueRenderers;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The ValueRenderersBenchmark class compares converting the arguments of {@link
+ * io.github.logcontext.LoggingContext} parameters with {@link String#valueOf(Object)} against
+ * {@link ValueRenderers} limited to 64 characters, for a list of order numbers that would render
+ * to several kilobytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueRenderersBenchmark {
+
+  /** The number of order numbers in the list. */
+  @Param({"16", "512"})
+  public int listSize;
+
+  /** The list of order numbers. */
+  private List<String> orderNumbers;
+
+  /** Creates the list of order numbers and limits the length of rendered values. */
+  @Setup
+  public void setUp() {
+    orderNumbers = new ArrayList<>(listSize);
+    for (int i = 0; i < listSize; i++) {
+      orderNumbers.add("ORD-" + (100000 + i));
+    }
+    ValueRenderers.setMaxLength(64);
+  }
+
+  /** Restores the default renderers. */
+  @TearDown
+  public void tearDown() {
+    ValueRenderers.reset();
+  }
+
+  /**
+   * Converts the list of order numbers with {@link String#valueOf(Object)}.
+   *
+   * @return the string form of the list.
+   */
+  @Benchmark
+  public String listToString() {
+    return String.valueOf(orderNumbers);
+  }
+
+  /**
+   * Converts the list of order numbers with {@link ValueRenderers#render(Object)}.
+   *
+   * @return the truncated string form of the list.
+   */
+  @Benchmark
+  public String listRendered() {
+    return ValueRenderers.render(orderNumbers);
+  }
+}
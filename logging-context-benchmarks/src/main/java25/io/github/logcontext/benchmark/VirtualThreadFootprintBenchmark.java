@@ -0,0 +1,183 @@
+package io.github.logcontext.benchmark;
+
+import io.github.logcontext.scoped.ScopedLoggingContext;
+import io.github.logcontext.scoped.ScopedValueLogContextBuilder;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import org.apache.logging.log4j.ThreadContext;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The VirtualThreadFootprintBenchmark class measures the heap retained by a large number of parked
+ * virtual threads that each hold the logging context of a request: the same shared entries and a
+ * request identifier of their own.
+ *
+ * <p>The context is kept once in the Log4j thread context, which copies the entries into a map of
+ * each thread, and once in {@link ScopedLoggingContext} frames, where every thread binds a frame
+ * with its request identifier on top of the shared frame of the request entries. A run without any
+ * logging context gives the footprint of the virtual threads themselves. The retained heap per
+ * thread is reported as the <code>heapBytesPerThread</code> secondary result.
+ *
+ * <p>This benchmark is only built on JDK 25 or later, when the ScopedValue backend is available.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class VirtualThreadFootprintBenchmark {
+
+  /** The number of virtual threads parked with a logging context. */
+  @Param({"1000000"})
+  public int threads;
+
+  /** The number of request entries shared by every virtual thread. */
+  @Param({"4"})
+  public int mappedEntries;
+
+  /** The request entries for the Log4j thread context. */
+  private Map<String, String> requestEntries;
+
+  /** The frame of the request entries for the ScopedValue backend. */
+  private ScopedLoggingContext requestContext;
+
+  /** Creates the request entries for both kinds of logging context. */
+  @Setup
+  public void setUp() {
+    final ScopedValueLogContextBuilder builder = new ScopedValueLogContextBuilder();
+    requestEntries = new LinkedHashMap<>();
+    for (int i = 0; i < mappedEntries; i++) {
+      requestEntries.put("key" + i, "value" + i);
+      builder.andMapped("key" + i, "value" + i);
+    }
+    requestContext = builder.call(ScopedLoggingContext::current);
+  }
+
+  /**
+   * Parks the virtual threads without a logging context.
+   *
+   * @param footprint the retained heap of the iteration.
+   * @throws InterruptedException if the benchmark thread is interrupted.
+   */
+  @Benchmark
+  public void noContext(final Footprint footprint) throws InterruptedException {
+    measure(footprint, (requestId, park) -> park.run());
+  }
+
+  /**
+   * Parks the virtual threads with the logging context in the Log4j thread context.
+   *
+   * @param footprint the retained heap of the iteration.
+   * @throws InterruptedException if the benchmark thread is interrupted.
+   */
+  @Benchmark
+  public void threadContext(final Footprint footprint) throws InterruptedException {
+    measure(
+        footprint,
+        (requestId, park) -> {
+          ThreadContext.putAll(requestEntries);
+          ThreadContext.put("requestId", requestId);
+          park.run();
+          ThreadContext.clearMap();
+        });
+  }
+
+  /**
+   * Parks the virtual threads with the logging context bound to {@link ScopedLoggingContext}
+   * frames.
+   *
+   * @param footprint the retained heap of the iteration.
+   * @throws InterruptedException if the benchmark thread is interrupted.
+   */
+  @Benchmark
+  public void scopedValue(final Footprint footprint) throws InterruptedException {
+    measure(
+        footprint,
+        (requestId, park) ->
+            requestContext.run(
+                () ->
+                    new ScopedValueLogContextBuilder()
+                        .andMapped("requestId", requestId)
+                        .run(park)));
+  }
+
+  /**
+   * Starts the virtual threads, waits until all of them are parked with their logging context and
+   * records the heap they retain before releasing them.
+   */
+  private void measure(final Footprint footprint, final RequestTask task)
+      throws InterruptedException {
+    final Thread[] virtualThreads = new Thread[threads];
+    final CountDownLatch parked = new CountDownLatch(threads);
+    final CountDownLatch released = new CountDownLatch(1);
+    final Runnable park =
+        () -> {
+          parked.countDown();
+          try {
+            released.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        };
+
+    final long heapBefore = usedHeap();
+    for (int i = 0; i < threads; i++) {
+      final String requestId = "request-" + i;
+      virtualThreads[i] = Thread.ofVirtual().start(() -> task.run(requestId, park));
+    }
+    parked.await();
+    footprint.heapBytesPerThread = (usedHeap() - heapBefore) / threads;
+
+    released.countDown();
+    for (final Thread virtualThread : virtualThreads) {
+      virtualThread.join();
+    }
+  }
+
+  private static long usedHeap() {
+    System.gc();
+    System.gc();
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  /** The work of a virtual thread that handles a request. */
+  @FunctionalInterface
+  private interface RequestTask {
+
+    /**
+     * Establishes the logging context of a request and parks the thread.
+     *
+     * @param requestId the identifier of the request.
+     * @param park parks the thread until the heap has been measured.
+     */
+    void run(String requestId, Runnable park);
+  }
+
+  /** The heap retained per virtual thread, reported as a secondary result. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Footprint {
+
+    /** The heap retained per parked virtual thread, in bytes. */
+    public long heapBytesPerThread;
+
+    /** Clears the result of the previous iteration. */
+    @Setup(Level.Iteration)
+    public void reset() {
+      heapBytesPerThread = 0;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package io.github.logcontext.log4j12;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.MappedContextUndoStack;
+import java.util.function.BiConsumer;
+import org.apache.log4j.MDC;
+import org.apache.log4j.NDC;
+
+/**
+ * The Log4j12ContextFrame class provides a {@link LogContext} that restores the Log4J 1.2 logging
+ * contexts to their state before a {@link Log4j12LogContextBuilder} updated them. It records the
+ * depth of the {@link NDC} before any values were pushed and the {@link MDC} keys that were put, so
+ * that closing it truncates the nested context in a single operation instead of popping each value.
+ * MDC values that were shadowed by the frame are restored from the {@link MappedContextUndoStack}.
+ * When the values were pushed onto a {@link ThreadLocalNDC} instead, that stack is truncated.
+ */
+final class Log4j12ContextFrame implements LogContext {
+
+  /** The depth value used when no nested context values were pushed. */
+  static final int NO_NESTED_CONTEXTS = -1;
+
+  /** The NDC depth to restore, or {@link #NO_NESTED_CONTEXTS} to leave the NDC unchanged. */
+  private final int nestedDepth;
+
+  /** The stack to truncate, or <code>null</code> to truncate the NDC. */
+  private final ThreadLocalNDC nestedStack;
+
+  /** Puts a shadowed value back into the MDC. */
+  private static final BiConsumer<String, String> RESTORE_MAPPED = MDC::put;
+
+  /** The MDC keys to remove. */
+  private final String[] mappedKeys;
+
+  /** The undo stack holding the MDC values shadowed by this frame. */
+  private final MappedContextUndoStack undoStack;
+
+  /** The size of the undo stack before this frame shadowed any MDC values. */
+  private final int undoMark;
+
+  /**
+   * Constructs a new instance of Log4j12ContextFrame.
+   *
+   * @param nestedDepth the NDC depth to restore, or {@link #NO_NESTED_CONTEXTS} to leave the NDC
+   *     unchanged.
+   * @param nestedStack the stack to truncate, or <code>null</code> to truncate the NDC.
+   * @param mappedKeys the MDC keys to remove.
+   * @param undoStack the undo stack holding the MDC values shadowed by this frame.
+   * @param undoMark the size of the undo stack before this frame shadowed any MDC values.
+   */
+  Log4j12ContextFrame(
+      final int nestedDepth,
+      final ThreadLocalNDC nestedStack,
+      final String[] mappedKeys,
+      final MappedContextUndoStack undoStack,
+      final int undoMark) {
+    this.nestedDepth = nestedDepth;
+    this.nestedStack = nestedStack;
+    this.mappedKeys = mappedKeys;
+    this.undoStack = undoStack;
+    this.undoMark = undoMark;
+  }
+
+  /**
+   * Removes the MDC keys in the reverse order they were put, restores the values they shadowed, and
+   * truncates the NDC to its recorded depth, which also discards any nested values left behind by
+   * inner contexts that were not closed.
+   */
+  @Override
+  public void close() {
+    for (int i = mappedKeys.length - 1; i >= 0; i--) {
+      MDC.remove(mappedKeys[i]);
+    }
+    undoStack.restoreTo(undoMark, RESTORE_MAPPED);
+    if (nestedDepth == NO_NESTED_CONTEXTS) {
+      return;
+    }
+    if (nestedStack != null) {
+      nestedStack.truncate(nestedDepth);
+    } else {
+      NDC.setMaxDepth(nestedDepth);
+    }
+  }
+}
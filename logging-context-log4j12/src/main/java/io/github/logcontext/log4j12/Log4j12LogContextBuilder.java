@@ -1,14 +1,21 @@
 package io.github.logcontext.log4j12;
 
 import static java.util.Collections.reverse;
+import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
 import io.github.logcontext.AbstractLogContextBuilder;
+import io.github.logcontext.LazyMappedValue;
 import io.github.logcontext.LogContext;
 import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogContextLeakDetector;
+import io.github.logcontext.LoggingContextMetricsRegistry;
+import io.github.logcontext.MappedContextSlot;
+import io.github.logcontext.MappedContextUndoStack;
 
 import io.github.logcontext.MultiCloseableLogContext;
 import java.util.List;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.apache.log4j.MDC;
@@ -20,42 +27,268 @@ import org.apache.log4j.NDC;
  * updates the Log4J 1.2 logging contexts with additional nested and mapped context values.
  * The logging context will not be updated until the {@link #get()} method is called. Subsequent
  * calls to {@link #get()} will update the context with the same values.
+ *
+ * <p>How the returned {@link LogContext} removes the values is controlled by the {@link
+ * RestoreMode}. By default, one closeable is created per value and the values are removed one by
+ * one. With {@link RestoreMode#DEPTH_MARK}, a single frame records the NDC depth and the MDC keys
+ * instead, so the cost of creating and closing the context does not depend on the number of nested
+ * values.
+ *
+ * <p>The {@link NestedStore} controls where the nested values are pushed. By default they are
+ * pushed onto the Log4J {@link NDC}; they can instead be pushed onto the {@link ThreadLocalNDC},
+ * which is changed in place rather than copied on every push and pop like the Log4j 2 thread
+ * context stack behind the NDC of the <code>log4j-1.2-api</code> bridge.
+ *
+ * <p>In both modes, an MDC value that is overwritten by this builder is restored when the returned
+ * {@link LogContext} is closed.
+ *
+ * <p>Since the Log4J 1.2 MDC holds objects, {@link LazyMappedValue}s are put in the MDC as they
+ * are, and Log4J 1.2 converts them with {@link Object#toString()} only when an event is logged.
+ * Note that the <code>log4j-1.2-api</code> bridge to Log4j 2 converts MDC objects as soon as they
+ * are put, and that a lazy value shadowed by an inner context reusing its key is converted so that
+ * it can be restored.
  */
 public class Log4j12LogContextBuilder extends AbstractLogContextBuilder {
 
+  /** The ways in which the {@link LogContext} returned by {@link #get()} removes its values. */
+  public enum RestoreMode {
+
+    /**
+     * Records the NDC depth and the MDC keys in a single frame and truncates the NDC back to that
+     * depth when closed, which also removes the values pushed by inner contexts left open.
+     */
+    DEPTH_MARK,
+
+    /**
+     * Creates one closeable per NDC and MDC value, which are closed one by one in the reverse order
+     * they were added. This is the default restore mode.
+     */
+    PER_ENTRY
+  }
+
+  /** The stacks onto which the nested context values are pushed. */
+  public enum NestedStore {
+
+    /** Pushes the nested values onto the Log4J {@link NDC}. */
+    LOG4J_NDC,
+
+    /**
+     * Pushes the nested values onto the {@link ThreadLocalNDC}, which is added to the log events by
+     * the {@link ThreadLocalNDCContextDataProvider} instead of being rendered by the <code>%x
+     * </code> conversion.
+     */
+    THREAD_LOCAL_STACK
+  }
+
+  /** The name of this backend in the metrics and in the leak detection reports. */
+  static final String BACKEND_NAME = "log4j12";
+
+  /** The MDC keys of a frame without mapped context values. */
+  private static final String[] NO_MAPPED_KEYS = new String[0];
+
+  /** The way in which the returned {@link LogContext} removes its values. */
+  private final RestoreMode restoreMode;
+
+  /** The stack onto which the nested context values are pushed. */
+  private final NestedStore nestedStore;
+
   /**
-   * Constructs a new instance of {@link Builder}. This method is not intended for direct use.
+   * Constructs a new instance of {@link Builder} using the {@link RestoreMode#PER_ENTRY} restore
+   * mode. This method is not intended for direct use.
    *
    * @see LogContext.Builder#nestedContext(String...)
    * @see LogContext.Builder#mappedContext(String, String)
    */
   public Log4j12LogContextBuilder() {
+    this(RestoreMode.PER_ENTRY);
+  }
+
+  /**
+   * Constructs a new instance of {@link Builder} using the provided restore mode. This method is
+   * not intended for direct use.
+   *
+   * @param restoreMode the way in which the returned {@link LogContext} removes its values (must
+   *     not be <code>null</code>).
+   * @throws NullPointerException if <code>restoreMode</code> is <code>null</code>.
+   */
+  public Log4j12LogContextBuilder(final RestoreMode restoreMode) {
+    this(restoreMode, NestedStore.LOG4J_NDC);
+  }
+
+  /**
+   * Constructs a new instance of {@link Builder} using the provided restore mode and nested store.
+   * This method is not intended for direct use.
+   *
+   * @param restoreMode the way in which the returned {@link LogContext} removes its values (must
+   *     not be <code>null</code>).
+   * @param nestedStore the stack onto which the nested context values are pushed (must not be
+   *     <code>null</code>).
+   * @throws NullPointerException if <code>restoreMode</code> or <code>nestedStore</code> is <code>
+   *     null</code>.
+   */
+  public Log4j12LogContextBuilder(final RestoreMode restoreMode, final NestedStore nestedStore) {
     super();
+    this.restoreMode = requireNonNull(restoreMode, "restoreMode must not be null");
+    this.nestedStore = requireNonNull(nestedStore, "nestedStore must not be null");
   }
 
   /**
    * Updates the Nested Diagnostic Context and Mapped Diagnostic Contexts with the configured values
    * and returns a {@link LogContext} that can be used to remove the logging context updates.
    *
+   * <p>When the {@link io.github.logcontext.LoggingContextMetrics} are enabled, the scope is
+   * reported to them as opened by the <code>"log4j12"</code> backend, and as closed when the returned
+   * {@link LogContext} is closed.
+   *
+   * <p>When the {@link LogContextLeakDetector} is enabled, the returned {@link LogContext} may track
+   * that it is closed once, in order and by the current thread.
+   *
    * @return a {@link LogContext} that can be used to remove the updates to the logging contexts.
    */
   public LogContext get() {
+    final LogContext opened = open();
+    final LogContext context =
+        LoggingContextMetricsRegistry.isEnabled()
+            ? LoggingContextMetricsRegistry.recordScope(
+                BACKEND_NAME, getNestedDepth(), getMappedContextCount(), opened)
+            : opened;
+    return LogContextLeakDetector.track(BACKEND_NAME, context);
+  }
+
+  /**
+   * Updates the logging contexts with the configured values, as {@link #get()} does, and returns a
+   * {@link MappedContextSlot} that puts each value of the provided key into the MDC in place.
+   *
+   * @param context the name of the MDC key of the slot (must not be <code>null</code>).
+   * @return a {@link MappedContextSlot} that can be used to remove the updates to the logging
+   *     contexts.
+   * @throws NullPointerException if <code>context</code> is <code>null</code>.
+   */
+  @Override
+  public MappedContextSlot getSlot(final String context) {
+    requireNonNull(context, "context must not be null");
+    return new Log4j12MappedContextSlot(get(), context);
+  }
+
+  /**
+   * Returns the number of values on the nested store of the current thread.
+   *
+   * @return the depth of the {@link ThreadLocalNDC} or the {@link NDC}.
+   */
+  private int getNestedDepth() {
+    return nestedStore == NestedStore.THREAD_LOCAL_STACK
+        ? ThreadLocalNDC.getDepth()
+        : NDC.getDepth();
+  }
+
+  private LogContext open() {
+    return restoreMode == RestoreMode.DEPTH_MARK ? getFrame() : getPerEntry();
+  }
+
+  /**
+   * Updates the logging contexts and returns a {@link Log4j12ContextFrame} that restores them.
+   *
+   * @return a frame that can be used to remove the updates to the logging contexts.
+   */
+  private LogContext getFrame() {
+    final int nestedCount = getNestedContextCount();
+    final ThreadLocalNDC nestedStack =
+        nestedCount > 0 && nestedStore == NestedStore.THREAD_LOCAL_STACK
+            ? ThreadLocalNDC.forCurrentThread()
+            : null;
+    final int nestedDepth;
+    if (nestedCount == 0) {
+      nestedDepth = Log4j12ContextFrame.NO_NESTED_CONTEXTS;
+    } else if (nestedStack != null) {
+      nestedDepth = nestedStack.depth();
+      for (int i = 0; i < nestedCount; i++) {
+        nestedStack.pushValue(getNestedContext(i));
+      }
+    } else {
+      nestedDepth = NDC.getDepth();
+      for (int i = 0; i < nestedCount; i++) {
+        NDC.push(getNestedContext(i));
+      }
+    }
+
+    final MappedContextUndoStack undoStack = MappedContextUndoStack.forCurrentThread();
+    final int undoMark = undoStack.size();
+    final int mappedCount = getMappedContextCount();
+    final String[] mappedKeys = mappedCount > 0 ? new String[mappedCount] : NO_MAPPED_KEYS;
+    for (int i = 0; i < mappedCount; i++) {
+      final String key = getMappedContextKey(i);
+      final Object shadowed = MDC.get(key);
+      if (shadowed != null) {
+        undoStack.push(key, shadowed.toString());
+      }
+      mappedKeys[i] = key;
+      putMappedContext(key, i);
+    }
+
+    return new Log4j12ContextFrame(nestedDepth, nestedStack, mappedKeys, undoStack, undoMark);
+  }
+
+  /**
+   * Updates the logging contexts and returns a {@link MultiCloseableLogContext} with one closeable
+   * per value.
+   *
+   * @return a {@link LogContext} that can be used to remove the updates to the logging contexts.
+   */
+  private LogContext getPerEntry() {
     final List<AutoCloseable> closeables =
         Stream.concat(
-                getNestedContexts().stream()
-                    .map(
-                        nestedContext -> {
-                          NDC.push(nestedContext);
-                          return new NDCCloseable(nestedContext);
-                        }),
-                getMappedContextValues().entrySet().stream()
-                    .map(
-                        mappedContextEntry -> {
-                            MDC.put(
-                                mappedContextEntry.getKey(), mappedContextEntry.getValue());
-                        return (LogContext) () -> MDC.remove(mappedContextEntry.getKey());}))
+                getNestedContexts().stream().map(this::pushNestedContext),
+                IntStream.range(0, getMappedContextCount())
+                    .mapToObj(
+                        index -> {
+                          final String key = getMappedContextKey(index);
+                          final Object shadowed = MDC.get(key);
+                          putMappedContext(key, index);
+                          return (LogContext)
+                              () -> {
+                                if (shadowed != null) {
+                                  MDC.put(key, shadowed);
+                                } else {
+                                  MDC.remove(key);
+                                }
+                              };
+                        }))
             .collect(toList());
     reverse(closeables);
     return new MultiCloseableLogContext(closeables);
   }
+
+  /**
+   * Pushes a nested context value onto the nested store and returns a closeable that removes it.
+   *
+   * @param nestedContext the nested context value.
+   * @return a closeable that removes the value.
+   */
+  private AutoCloseable pushNestedContext(final String nestedContext) {
+    if (nestedStore == NestedStore.THREAD_LOCAL_STACK) {
+      ThreadLocalNDC.push(nestedContext);
+      return (LogContext)
+          () ->
+              LogContextLeakDetector.checkRemoved(
+                  BACKEND_NAME, nestedContext, ThreadLocalNDC.pop());
+    }
+    NDC.push(nestedContext);
+    return new NDCCloseable(nestedContext);
+  }
+
+  /**
+   * Puts the MDC value at the provided index, leaving it unconverted if it was added as a {@link
+   * LazyMappedValue}.
+   *
+   * @param key the MDC key of the value.
+   * @param index the index of the value.
+   */
+  private void putMappedContext(final String key, final int index) {
+    final LazyMappedValue lazyValue = getLazyMappedContextValue(index);
+    if (lazyValue != null) {
+      MDC.put(key, (Object) lazyValue);
+    } else {
+      MDC.put(key, getMappedContextValue(index));
+    }
+  }
 }
@@ -0,0 +1,116 @@
+package io.github.logcontext.log4j12;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContextSnapshot;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Stack;
+import org.apache.log4j.MDC;
+import org.apache.log4j.NDC;
+
+/**
+ * The Log4j12LogContextSnapshot class provides a {@link LogContextSnapshot} of the Log4J 1.2 NDC
+ * and MDC.
+ *
+ * <p>Capturing a snapshot copies the NDC with {@link NDC#cloneStack()} and the MDC returned by
+ * {@link MDC#getContext()}, which is a copy under the <code>log4j-1.2-api</code> bridge but the
+ * live table of the thread in the original Log4J 1.2. The copies are never modified afterwards and
+ * can be attached any number of times.
+ *
+ * <p>The values of the {@link ThreadLocalNDC} are captured and attached along with the NDC.
+ */
+public final class Log4j12LogContextSnapshot implements LogContextSnapshot {
+
+  /** The logging context that leaves an already empty NDC and MDC unchanged. */
+  private static final LogContext NO_OP_CONTEXT = () -> {};
+
+  /** The captured NDC. */
+  private final Stack<String> nestedContexts;
+
+  /** The captured {@link ThreadLocalNDC}. */
+  private final String[] localNestedContexts;
+
+  /** The captured MDC. */
+  private final Map<String, Object> mappedContexts;
+
+  /**
+   * Constructs a new instance of Log4j12LogContextSnapshot.
+   *
+   * @param nestedContexts the captured NDC.
+   * @param localNestedContexts the captured {@link ThreadLocalNDC}.
+   * @param mappedContexts the captured MDC.
+   */
+  Log4j12LogContextSnapshot(
+      final Stack<String> nestedContexts,
+      final String[] localNestedContexts,
+      final Map<String, Object> mappedContexts) {
+    this.nestedContexts = nestedContexts;
+    this.localNestedContexts = localNestedContexts;
+    this.mappedContexts = mappedContexts;
+  }
+
+  /**
+   * Captures the NDC and MDC of the current thread.
+   *
+   * @return a snapshot of the NDC and MDC of the current thread.
+   */
+  public static LogContextSnapshot capture() {
+    return new Log4j12LogContextSnapshot(
+        cloneNestedContexts(), ThreadLocalNDC.cloneStack(), cloneMappedContexts());
+  }
+
+  /**
+   * Replaces the NDC and MDC of the current thread with this snapshot and returns a {@link
+   * LogContext} that restores the previous NDC and MDC when closed.
+   *
+   * @return a {@link LogContext} that restores the previous NDC and MDC.
+   */
+  @Override
+  public LogContext attach() {
+    final Stack<String> previousNestedContexts = cloneNestedContexts();
+    final String[] previousLocalNestedContexts = ThreadLocalNDC.cloneStack();
+    final Map<String, Object> previousMappedContexts = cloneMappedContexts();
+    if (isEmpty(nestedContexts, localNestedContexts, mappedContexts)
+        && isEmpty(previousNestedContexts, previousLocalNestedContexts, previousMappedContexts)) {
+      return NO_OP_CONTEXT;
+    }
+
+    replace(nestedContexts, localNestedContexts, mappedContexts);
+    return () ->
+        replace(previousNestedContexts, previousLocalNestedContexts, previousMappedContexts);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Stack<String> cloneNestedContexts() {
+    return NDC.cloneStack();
+  }
+
+  private static Map<String, Object> cloneMappedContexts() {
+    final Map<String, Object> mappedContexts = MDC.getContext();
+    return mappedContexts != null ? new HashMap<>(mappedContexts) : Collections.emptyMap();
+  }
+
+  private static boolean isEmpty(
+      final Stack<String> nestedContexts,
+      final String[] localNestedContexts,
+      final Map<String, Object> mappedContexts) {
+    return nestedContexts.isEmpty() && localNestedContexts.length == 0 && mappedContexts.isEmpty();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void replace(
+      final Stack<String> nestedContexts,
+      final String[] localNestedContexts,
+      final Map<String, Object> mappedContexts) {
+    NDC.clear();
+    MDC.clear();
+    if (!nestedContexts.isEmpty()) {
+      NDC.inherit((Stack<String>) nestedContexts.clone());
+    }
+    if (localNestedContexts.length > 0 || ThreadLocalNDC.getDepth() > 0) {
+      ThreadLocalNDC.inherit(localNestedContexts);
+    }
+    mappedContexts.forEach(MDC::put);
+  }
+}
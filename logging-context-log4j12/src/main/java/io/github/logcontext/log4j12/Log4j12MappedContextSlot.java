@@ -0,0 +1,60 @@
+package io.github.logcontext.log4j12;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.MappedContextSlot;
+import org.apache.log4j.MDC;
+
+/**
+ * The Log4j12MappedContextSlot class provides a {@link MappedContextSlot} that replaces its value
+ * in the Log4J 1.2 {@link MDC} in place, so setting a value costs a single put into the map of the
+ * thread. The value the key had when the slot was opened is restored when it is closed.
+ */
+final class Log4j12MappedContextSlot implements MappedContextSlot {
+
+  /** The logging context of the other values of the builder. */
+  private final LogContext context;
+
+  /** The MDC key of the slot. */
+  private final String key;
+
+  /** The value of the key when the slot was opened, or <code>null</code>. */
+  private final Object shadowed;
+
+  /**
+   * Constructs a new instance of Log4j12MappedContextSlot, recording the current value of the key.
+   *
+   * @param context the logging context of the other values of the builder.
+   * @param key the MDC key of the slot.
+   */
+  Log4j12MappedContextSlot(final LogContext context, final String key) {
+    this.context = context;
+    this.key = key;
+    this.shadowed = MDC.get(key);
+  }
+
+  @Override
+  public void set(final String value) {
+    if (value != null) {
+      MDC.put(key, value);
+    } else {
+      restore();
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    try {
+      restore();
+    } finally {
+      context.close();
+    }
+  }
+
+  private void restore() {
+    if (shadowed != null) {
+      MDC.put(key, shadowed);
+    } else {
+      MDC.remove(key);
+    }
+  }
+}
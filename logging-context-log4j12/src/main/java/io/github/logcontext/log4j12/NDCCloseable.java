@@ -1,5 +1,6 @@
 package io.github.logcontext.log4j12;
 
+import io.github.logcontext.LogContextLeakDetector;
 import org.apache.log4j.NDC;
 
 /**
@@ -20,9 +21,15 @@ public class NDCCloseable implements AutoCloseable {
     this.nestedContext = nestedContext;
   }
 
+  /**
+   * Removes the last nested diagnostic context value. A removed value that is not the one pushed by
+   * this scope is reported to the {@link LogContextLeakDetector} when it is enabled.
+   */
   @Override
   public void close() throws Exception {
     String context = NDC.pop();
+    LogContextLeakDetector.checkRemoved(
+        Log4j12LogContextBuilder.BACKEND_NAME, nestedContext, context);
     assert nestedContext.equals(context)
         : "unexpected context " + context + " removed instead of " + nestedContext;
   }
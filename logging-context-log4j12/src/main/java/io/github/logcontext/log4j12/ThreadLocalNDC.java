@@ -0,0 +1,232 @@
+package io.github.logcontext.log4j12;
+
+import java.util.Arrays;
+import org.apache.log4j.NDC;
+
+/**
+ * The ThreadLocalNDC class provides a nested diagnostic context owned by this library, with the
+ * same operations as the Log4J 1.2 {@link NDC}. With the <code>log4j-1.2-api</code> bridge that
+ * this module is built against, the NDC is the Log4j 2 thread context stack, which is already kept
+ * per thread but copies and freezes the whole stack on every push and pop so that log events can
+ * share it. Here, each thread keeps its values in an array of its own that is changed in place, and
+ * the values are only joined again when they are read after a change.
+ *
+ * <p>The values are used instead of the NDC by a {@link Log4j12LogContextBuilder} created with the
+ * {@link Log4j12LogContextBuilder.NestedStore#THREAD_LOCAL_STACK} nested store. Since Log4J does
+ * not know about them, they are only rendered once the {@link ThreadLocalNDCContextDataProvider}
+ * is registered with Log4j 2, which adds them to the log events, where they are rendered with
+ * <code>%X{ndc}</code> in place of the <code>%x</code> conversion, or matched by the {@link
+ * ThreadLocalNDCFilter}. Nothing renders them with the original Log4J 1.2.
+ */
+public final class ThreadLocalNDC {
+
+  /** The initial capacity of a stack. */
+  private static final int INITIAL_CAPACITY = 8;
+
+  /** The values of a thread without nested context values. */
+  private static final String[] NO_VALUES = new String[0];
+
+  /** The stack of each thread, or <code>null</code> if the thread never pushed a value. */
+  private static final ThreadLocal<ThreadLocalNDC> CURRENT = new ThreadLocal<>();
+
+  /** The values, the outermost first. */
+  private String[] values = new String[INITIAL_CAPACITY];
+
+  /** The number of values. */
+  private int depth;
+
+  /** The values joined by spaces, or <code>null</code> if they changed since they were joined. */
+  private String rendered;
+
+  /** Creates the stack of a thread. */
+  private ThreadLocalNDC() {}
+
+  /**
+   * Returns the stack of the current thread, creating it if necessary.
+   *
+   * @return the stack of the current thread.
+   */
+  static ThreadLocalNDC forCurrentThread() {
+    ThreadLocalNDC stack = CURRENT.get();
+    if (stack == null) {
+      stack = new ThreadLocalNDC();
+      CURRENT.set(stack);
+    }
+    return stack;
+  }
+
+  /**
+   * Pushes a value onto the nested diagnostic context of the current thread.
+   *
+   * @param message the value to push.
+   * @see NDC#push(String)
+   */
+  public static void push(final String message) {
+    forCurrentThread().pushValue(message);
+  }
+
+  /**
+   * Removes the innermost value of the nested diagnostic context of the current thread.
+   *
+   * @return the removed value, or an empty string if the context is empty.
+   * @see NDC#pop()
+   */
+  public static String pop() {
+    final ThreadLocalNDC stack = CURRENT.get();
+    return stack != null ? stack.popValue() : "";
+  }
+
+  /**
+   * Returns the innermost value of the nested diagnostic context of the current thread.
+   *
+   * @return the innermost value, or an empty string if the context is empty.
+   * @see NDC#peek()
+   */
+  public static String peek() {
+    final ThreadLocalNDC stack = CURRENT.get();
+    return stack != null && stack.depth > 0 ? stack.values[stack.depth - 1] : "";
+  }
+
+  /**
+   * Returns the values of the nested diagnostic context of the current thread, the outermost first
+   * and separated by spaces, as rendered by the <code>%x</code> conversion.
+   *
+   * @return the rendered values, or <code>null</code> if the context is empty.
+   * @see NDC#get()
+   */
+  public static String get() {
+    final ThreadLocalNDC stack = CURRENT.get();
+    return stack != null ? stack.render() : null;
+  }
+
+  /**
+   * Returns the number of values in the nested diagnostic context of the current thread.
+   *
+   * @return the number of values.
+   * @see NDC#getDepth()
+   */
+  public static int getDepth() {
+    final ThreadLocalNDC stack = CURRENT.get();
+    return stack != null ? stack.depth : 0;
+  }
+
+  /**
+   * Removes the innermost values of the nested diagnostic context of the current thread until it
+   * holds at most the provided number of values.
+   *
+   * @param maxDepth the number of values to keep.
+   * @see NDC#setMaxDepth(int)
+   */
+  public static void setMaxDepth(final int maxDepth) {
+    final ThreadLocalNDC stack = CURRENT.get();
+    if (stack != null) {
+      stack.truncate(maxDepth);
+    }
+  }
+
+  /**
+   * Removes all the values of the nested diagnostic context of the current thread.
+   *
+   * @see NDC#clear()
+   */
+  public static void clear() {
+    setMaxDepth(0);
+  }
+
+  /**
+   * Returns a copy of the values of the nested diagnostic context of the current thread.
+   *
+   * @return the values, the outermost first.
+   * @see NDC#cloneStack()
+   */
+  public static String[] cloneStack() {
+    final ThreadLocalNDC stack = CURRENT.get();
+    return stack != null && stack.depth > 0 ? Arrays.copyOf(stack.values, stack.depth) : NO_VALUES;
+  }
+
+  /**
+   * Replaces the nested diagnostic context of the current thread with a copy of the provided
+   * values.
+   *
+   * @param stack the values, the outermost first.
+   * @see NDC#inherit(java.util.Stack)
+   */
+  public static void inherit(final String[] stack) {
+    final ThreadLocalNDC current = forCurrentThread();
+    current.truncate(0);
+    for (final String value : stack) {
+      current.pushValue(value);
+    }
+  }
+
+  /**
+   * Pushes a value onto this stack.
+   *
+   * @param message the value to push.
+   */
+  void pushValue(final String message) {
+    if (depth == values.length) {
+      values = Arrays.copyOf(values, depth * 2);
+    }
+    values[depth++] = message;
+    rendered = null;
+  }
+
+  /**
+   * Removes the innermost value of this stack.
+   *
+   * @return the removed value, or an empty string if the stack is empty.
+   */
+  String popValue() {
+    if (depth == 0) {
+      return "";
+    }
+    final String value = values[--depth];
+    values[depth] = null;
+    rendered = null;
+    return value;
+  }
+
+  /**
+   * Returns the number of values of this stack.
+   *
+   * @return the number of values.
+   */
+  int depth() {
+    return depth;
+  }
+
+  /**
+   * Removes the innermost values of this stack until it holds at most the provided number of
+   * values.
+   *
+   * @param maxDepth the number of values to keep.
+   */
+  void truncate(final int maxDepth) {
+    if (maxDepth < 0 || maxDepth >= depth) {
+      return;
+    }
+    Arrays.fill(values, maxDepth, depth, null);
+    depth = maxDepth;
+    rendered = null;
+  }
+
+  /**
+   * Joins the values of this stack with spaces, reusing the result until the stack changes.
+   *
+   * @return the rendered values, or <code>null</code> if the stack is empty.
+   */
+  private String render() {
+    if (depth == 0) {
+      return null;
+    }
+    if (rendered == null) {
+      final StringBuilder builder = new StringBuilder(values[0]);
+      for (int i = 1; i < depth; i++) {
+        builder.append(' ').append(values[i]);
+      }
+      rendered = builder.toString();
+    }
+    return rendered;
+  }
+}
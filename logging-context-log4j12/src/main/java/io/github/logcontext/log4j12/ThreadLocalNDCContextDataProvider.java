@@ -0,0 +1,43 @@
+package io.github.logcontext.log4j12;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+
+import java.util.Map;
+import org.apache.logging.log4j.core.util.ContextDataProvider;
+
+/**
+ * The ThreadLocalNDCContextDataProvider class provides a Log4j 2 {@link ContextDataProvider} that
+ * adds the {@link ThreadLocalNDC} of the logging thread to every log event under the {@link #KEY}
+ * key, rendered as by the <code>%x</code> conversion. The <code>log4j-1.2-api</code> bridge sends
+ * the events logged through the Log4J 1.2 API to Log4j 2, so a pattern renders the values with
+ * <code>%X{ndc}</code> where it would render the NDC with <code>%x</code>:
+ *
+ * <pre>
+ * &lt;PatternLayout pattern="%d [%p] [%t] %c{1} [%X{ndc}] %X - %m%n"/&gt;
+ * </pre>
+ *
+ * <p>The provider is not registered by this module: as soon as a provider is registered next to
+ * the one of Log4j 2 itself, Log4j 2 merges their context data into a new map for every event, even
+ * when the stack is empty. Applications that use the {@link
+ * Log4j12LogContextBuilder.NestedStore#THREAD_LOCAL_STACK} nested store register it with the
+ * service loader, by adding the name of this class to a resource named:
+ *
+ * <pre>
+ * META-INF/services/org.apache.logging.log4j.core.util.ContextDataProvider
+ * </pre>
+ *
+ * <p>The values are captured when the event is created on the logging thread, so they are also
+ * rendered by asynchronous loggers and appenders.
+ */
+public class ThreadLocalNDCContextDataProvider implements ContextDataProvider {
+
+  /** The context data key of the rendered values. */
+  public static final String KEY = "ndc";
+
+  @Override
+  public Map<String, String> supplyContextData() {
+    final String nestedContexts = ThreadLocalNDC.get();
+    return nestedContexts != null ? singletonMap(KEY, nestedContexts) : emptyMap();
+  }
+}
@@ -0,0 +1,136 @@
+package io.github.logcontext.log4j12;
+
+import static java.util.Objects.requireNonNull;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+import org.apache.logging.log4j.message.Message;
+
+/**
+ * The ThreadLocalNDCFilter class provides a Log4j 2 {@link Filter} that matches a string against
+ * the {@link ThreadLocalNDC} rendered as by the <code>%x</code> conversion, in the manner of the
+ * Log4j 2 <code>StringMatchFilter</code>. If the string is found, the filter returns the <code>
+ * onMatch</code> result, which defaults to <code>NEUTRAL</code>; otherwise it returns the <code>
+ * onMismatch</code> result, which defaults to <code>DENY</code>.
+ *
+ * <pre>
+ * &lt;ThreadLocalNDCFilter text="orders" onMatch="DENY" onMismatch="NEUTRAL"/&gt;
+ * </pre>
+ *
+ * <p>An event is matched against the values that the {@link ThreadLocalNDCContextDataProvider},
+ * which has to be registered, added to its context data, so the filter can also be used by
+ * asynchronous appenders. A context wide filter, which sees the event before it is created, reads
+ * the stack of the logging thread.
+ */
+@Plugin(
+    name = "ThreadLocalNDCFilter",
+    category = Node.CATEGORY,
+    elementType = Filter.ELEMENT_TYPE,
+    printObject = true)
+public final class ThreadLocalNDCFilter extends AbstractFilter {
+
+  /** The string to find in the rendered values. */
+  private final String text;
+
+  /**
+   * Constructs a new instance of ThreadLocalNDCFilter.
+   *
+   * @param text the string to find in the rendered values.
+   * @param onMatch the result when the string is found, or <code>null</code> for <code>NEUTRAL
+   *     </code>.
+   * @param onMismatch the result when the string is not found, or <code>null</code> for <code>
+   *     DENY</code>.
+   */
+  private ThreadLocalNDCFilter(final String text, final Result onMatch, final Result onMismatch) {
+    super(onMatch, onMismatch);
+    this.text = text;
+  }
+
+  /**
+   * Creates a filter from its configuration.
+   *
+   * @param text the string to find in the rendered values (must not be <code>null</code>).
+   * @param onMatch the result when the string is found, or <code>null</code> for <code>NEUTRAL
+   *     </code>.
+   * @param onMismatch the result when the string is not found, or <code>null</code> for <code>
+   *     DENY</code>.
+   * @return the filter.
+   * @throws NullPointerException if <code>text</code> is <code>null</code>.
+   */
+  @PluginFactory
+  public static ThreadLocalNDCFilter createFilter(
+      @PluginAttribute("text") final String text,
+      @PluginAttribute("onMatch") final Result onMatch,
+      @PluginAttribute("onMismatch") final Result onMismatch) {
+    return new ThreadLocalNDCFilter(
+        requireNonNull(text, "text must not be null"), onMatch, onMismatch);
+  }
+
+  /**
+   * Returns the string to find in the rendered values.
+   *
+   * @return the string to find.
+   */
+  public String getText() {
+    return text;
+  }
+
+  @Override
+  public Result filter(final LogEvent event) {
+    return filter(event.getContextData().<String>getValue(ThreadLocalNDCContextDataProvider.KEY));
+  }
+
+  @Override
+  public Result filter(
+      final Logger logger,
+      final Level level,
+      final Marker marker,
+      final Message msg,
+      final Throwable t) {
+    return filter(ThreadLocalNDC.get());
+  }
+
+  @Override
+  public Result filter(
+      final Logger logger,
+      final Level level,
+      final Marker marker,
+      final Object msg,
+      final Throwable t) {
+    return filter(ThreadLocalNDC.get());
+  }
+
+  @Override
+  public Result filter(
+      final Logger logger,
+      final Level level,
+      final Marker marker,
+      final String msg,
+      final Object... params) {
+    return filter(ThreadLocalNDC.get());
+  }
+
+  /**
+   * Returns the result of the filter for the rendered values.
+   *
+   * @param nestedContexts the rendered values, or <code>null</code> if there are none.
+   * @return the <code>onMatch</code> result if the values contain the string, or the <code>
+   *     onMismatch</code> result otherwise.
+   */
+  private Result filter(final String nestedContexts) {
+    return nestedContexts != null && nestedContexts.contains(text) ? onMatch : onMismatch;
+  }
+
+  @Override
+  public String toString() {
+    return "text=" + text;
+  }
+}
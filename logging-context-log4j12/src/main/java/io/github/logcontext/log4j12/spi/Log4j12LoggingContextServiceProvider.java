@@ -1,20 +1,84 @@
 package io.github.logcontext.log4j12.spi;
 
+import static java.util.Objects.requireNonNull;
+
 import io.github.logcontext.LogContext;
 import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogContextSnapshot;
+import io.github.logcontext.LogLevel;
 import io.github.logcontext.LoggingContextServiceProvider;
 import io.github.logcontext.log4j12.Log4j12LogContextBuilder;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.RestoreMode;
+import io.github.logcontext.log4j12.Log4j12LogContextSnapshot;
+import java.util.function.Predicate;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
 
 /**
  * The Log4j12LoggingContextServiceProvider class provides a {@link LoggingContextServiceProvider}
  * implementation that provides a {@link LogContext.Builder}
  * implementation capable of configuring the logging context for the Log4J 1.2 logging
  * implementation.
+ *
+ * <p>The builders of the provider loaded by the service loader use the {@link
+ * RestoreMode#PER_ENTRY} restore mode. To use another restore mode, install a provider created with
+ * {@link #Log4j12LoggingContextServiceProvider(RestoreMode)} with {@link
+ * io.github.logcontext.LoggingContextServiceProviderRegistry#override}:
+ *
+ * <pre>
+ * LoggingContextServiceProviderRegistry.override(
+ *     new Log4j12LoggingContextServiceProvider(RestoreMode.DEPTH_MARK));
+ * </pre>
  */
 public class Log4j12LoggingContextServiceProvider implements LoggingContextServiceProvider {
 
+  /** The Log4J levels, indexed by the ordinal of the matching {@link LogLevel}. */
+  private static final Level[] LEVELS = {
+    Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR
+  };
+
+  /** The way in which the logging contexts of the builders remove their values. */
+  private final RestoreMode restoreMode;
+
+  /**
+   * Constructs a new instance of the provider whose builders use the {@link RestoreMode#PER_ENTRY}
+   * restore mode.
+   */
+  public Log4j12LoggingContextServiceProvider() {
+    this(RestoreMode.PER_ENTRY);
+  }
+
+  /**
+   * Constructs a new instance of the provider whose builders use the provided restore mode.
+   *
+   * @param restoreMode the way in which the logging contexts of the builders remove their values
+   *     (must not be <code>null</code>).
+   * @throws NullPointerException if <code>restoreMode</code> is <code>null</code>.
+   */
+  public Log4j12LoggingContextServiceProvider(final RestoreMode restoreMode) {
+    this.restoreMode = requireNonNull(restoreMode, "restoreMode must not be null");
+  }
+
   @Override
   public Builder logContextBuilder() {
-    return new Log4j12LogContextBuilder();
+    return new Log4j12LogContextBuilder(restoreMode);
+  }
+
+  @Override
+  public LogContextSnapshot captureSnapshot() {
+    return Log4j12LogContextSnapshot.capture();
+  }
+
+  /**
+   * Returns the predicate of the levels enabled for a Log4J logger. The effective level of the
+   * logger is looked up on every test, so the predicate follows reconfigurations of Log4J.
+   *
+   * @param category the name of the logger.
+   * @return the predicate of the enabled levels.
+   */
+  @Override
+  public Predicate<LogLevel> loggingEnabled(final String category) {
+    final Logger logger = Logger.getLogger(category);
+    return level -> logger.isEnabledFor(LEVELS[level.ordinal()]);
   }
 }
@@ -0,0 +1,33 @@
+package io.github.logcontext.log4j12.spi;
+
+import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.NestedStore;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.RestoreMode;
+
+/**
+ * The Log4j12ThreadLocalLoggingContextServiceProvider class provides a Log4J 1.2 {@link
+ * io.github.logcontext.LoggingContextServiceProvider} whose builders push the nested context values
+ * onto the {@link io.github.logcontext.log4j12.ThreadLocalNDC} instead of the Log4J 1.2 NDC, which
+ * the <code>log4j-1.2-api</code> bridge backs with the Log4j 2 thread context stack, copied on
+ * every push and pop. The mapped values are still put into the Log4J MDC. The nested values are
+ * only rendered once the {@link io.github.logcontext.log4j12.ThreadLocalNDCContextDataProvider} is
+ * registered with Log4j 2.
+ *
+ * <p>It is not registered with the service loader. Install it in place of the default provider
+ * with {@link LoggingContextServiceProviderRegistry#override}:
+ *
+ * <pre>
+ * LoggingContextServiceProviderRegistry.override(
+ *     new Log4j12ThreadLocalLoggingContextServiceProvider());
+ * </pre>
+ */
+public class Log4j12ThreadLocalLoggingContextServiceProvider
+    extends Log4j12LoggingContextServiceProvider {
+
+  @Override
+  public Builder logContextBuilder() {
+    return new Log4j12LogContextBuilder(RestoreMode.DEPTH_MARK, NestedStore.THREAD_LOCAL_STACK);
+  }
+}
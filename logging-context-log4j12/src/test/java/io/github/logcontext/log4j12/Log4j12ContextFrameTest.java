@@ -0,0 +1,93 @@
+package io.github.logcontext.log4j12;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import io.github.logcontext.MappedContextUndoStack;
+import org.apache.log4j.MDC;
+import org.apache.log4j.NDC;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * The Log4j12ContextFrameTest class provides a set of JUnit test cases for the {@link
+ * Log4j12ContextFrame} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class Log4j12ContextFrameTest {
+
+  /**
+   * Test method for {@link Log4j12ContextFrame#close()} that ensures the MDC keys are removed in
+   * reverse order and their shadowed values restored before the NDC is truncated.
+   */
+  @Test
+  void testClose() {
+    final MappedContextUndoStack undoStack = MappedContextUndoStack.forCurrentThread();
+    final int undoMark = undoStack.size();
+    undoStack.push("first", "original");
+
+    try (final MockedStatic<MDC> mockedMdc = Mockito.mockStatic(MDC.class);
+        final MockedStatic<NDC> mockedNdc = Mockito.mockStatic(NDC.class)) {
+      new Log4j12ContextFrame(2, null, new String[] {"first", "second"}, undoStack, undoMark)
+          .close();
+
+      final InOrder inOrder = Mockito.inOrder(MDC.class, NDC.class);
+      inOrder.verify(mockedMdc, () -> MDC.remove("second"));
+      inOrder.verify(mockedMdc, () -> MDC.remove("first"));
+      inOrder.verify(mockedMdc, () -> MDC.put("first", "original"));
+      inOrder.verify(mockedNdc, () -> NDC.setMaxDepth(2));
+      assertThat(undoStack.size(), equalTo(undoMark));
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j12ContextFrame#close()} that ensures the NDC is left unchanged when
+   * the frame did not push any nested context values.
+   */
+  @Test
+  void testClose_noNestedContexts() {
+    try (final MockedStatic<MDC> mockedMdc = Mockito.mockStatic(MDC.class);
+        final MockedStatic<NDC> mockedNdc = Mockito.mockStatic(NDC.class)) {
+      new Log4j12ContextFrame(
+              Log4j12ContextFrame.NO_NESTED_CONTEXTS,
+              null,
+              new String[0],
+              MappedContextUndoStack.forCurrentThread(),
+              MappedContextUndoStack.forCurrentThread().size())
+          .close();
+
+      mockedNdc.verifyNoInteractions();
+      mockedMdc.verifyNoInteractions();
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j12ContextFrame#close()} that ensures the {@link ThreadLocalNDC} is
+   * truncated instead of the NDC when the frame pushed its nested context values onto it.
+   */
+  @Test
+  void testClose_threadLocalStack() {
+    final ThreadLocalNDC nestedStack = ThreadLocalNDC.forCurrentThread();
+    nestedStack.pushValue("outer");
+    nestedStack.pushValue("inner");
+
+    try (final MockedStatic<NDC> mockedNdc = Mockito.mockStatic(NDC.class)) {
+      new Log4j12ContextFrame(
+              1,
+              nestedStack,
+              new String[0],
+              MappedContextUndoStack.forCurrentThread(),
+              MappedContextUndoStack.forCurrentThread().size())
+          .close();
+
+      mockedNdc.verifyNoInteractions();
+      assertThat(ThreadLocalNDC.get(), equalTo("outer"));
+    } finally {
+      ThreadLocalNDC.clear();
+    }
+  }
+}
@@ -2,13 +2,18 @@ package io.github.logcontext.log4j12;
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import io.github.logcontext.LazyMappedValue;
 import io.github.logcontext.LogContext;
 import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.MappedContextSlot;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.NestedStore;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.RestoreMode;
 import org.apache.log4j.MDC;
 import org.apache.log4j.NDC;
 import org.junit.jupiter.api.Test;
@@ -31,11 +36,15 @@ class Log4j12LogContextBuilderTest {
 
   private static final String VALUE_2 = "2";
 
+  /** The SLF4J {@link LogContext.Builder} implementation being tested. */
+  private Log4j12LogContextBuilder logContextBuilder = new Log4j12LogContextBuilder();
+
   /**
-   * The SLF4J {@link LogContext.Builder} implementation being
-   * tested.
+   * The {@link LogContext.Builder} being tested using the {@link RestoreMode#DEPTH_MARK} restore
+   * mode.
    */
-  private Log4j12LogContextBuilder logContextBuilder = new Log4j12LogContextBuilder();
+  private Log4j12LogContextBuilder depthMarkLogContextBuilder =
+      new Log4j12LogContextBuilder(RestoreMode.DEPTH_MARK);
 
   /**
    * Test method for {@link Log4j12LogContextBuilder#get()} to ensure that a {@link LogContext} is
@@ -63,6 +72,8 @@ class Log4j12LogContextBuilderTest {
       mockedNdc.verify(() -> NDC.push(CONTEXT_2));
       mockedNdc.verifyNoMoreInteractions();
 
+      mockedMdc.verify(() -> MDC.get(CONTEXT_1));
+      mockedMdc.verify(() -> MDC.get(CONTEXT_2));
       mockedMdc.verify(() -> MDC.put(CONTEXT_1, VALUE_1));
       mockedMdc.verify(() -> MDC.put(CONTEXT_2, VALUE_2));
       mockedMdc.verifyNoMoreInteractions();
@@ -98,4 +109,228 @@ class Log4j12LogContextBuilderTest {
       mockedMdc.verify(() -> MDC.remove(CONTEXT_2));
     }
   }
+
+  /**
+   * Test method for {@link Log4j12LogContextBuilder#get()} to ensure that the default restore mode
+   * records the NDC depth once and truncates the NDC back to it when the {@link LogContext} is
+   * closed.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_depthMark() throws Throwable {
+    Builder builder =
+        depthMarkLogContextBuilder
+            .andNested(CONTEXT_1, CONTEXT_2)
+            .andMapped(CONTEXT_1, VALUE_1)
+            .andMapped(CONTEXT_2, VALUE_2);
+
+    try (final MockedStatic<MDC> mockedMdc = mockStatic(MDC.class);
+        final MockedStatic<NDC> mockedNdc = mockStatic(NDC.class)) {
+      mockedNdc.when(NDC::getDepth).thenReturn(3);
+
+      final LogContext context = builder.get();
+
+      assertThat(context, instanceOf(Log4j12ContextFrame.class));
+      mockedNdc.verify(NDC::getDepth);
+      mockedNdc.verify(() -> NDC.push(CONTEXT_1));
+      mockedNdc.verify(() -> NDC.push(CONTEXT_2));
+      mockedMdc.verify(() -> MDC.get(CONTEXT_1));
+      mockedMdc.verify(() -> MDC.get(CONTEXT_2));
+      mockedMdc.verify(() -> MDC.put(CONTEXT_1, VALUE_1));
+      mockedMdc.verify(() -> MDC.put(CONTEXT_2, VALUE_2));
+
+      context.close();
+
+      mockedNdc.verify(() -> NDC.setMaxDepth(3));
+      mockedNdc.verifyNoMoreInteractions();
+      mockedMdc.verify(() -> MDC.remove(CONTEXT_1));
+      mockedMdc.verify(() -> MDC.remove(CONTEXT_2));
+      mockedMdc.verifyNoMoreInteractions();
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextBuilder#get()} to ensure that lazy values are put in
+   * the {@link MDC} unconverted, in both restore modes.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_lazyValues() throws Throwable {
+    final LazyMappedValue lazyValue = LazyMappedValue.of(2);
+
+    try (final MockedStatic<MDC> mockedMdc = mockStatic(MDC.class)) {
+      depthMarkLogContextBuilder.andLazyMapped(CONTEXT_2, lazyValue).get().close();
+      logContextBuilder.andLazyMapped(CONTEXT_2, lazyValue).get().close();
+
+      mockedMdc.verify(() -> MDC.put(CONTEXT_2, (Object) lazyValue), times(2));
+      mockedMdc.verify(() -> MDC.remove(CONTEXT_2), times(2));
+      assertThat(lazyValue.isRendered(), equalTo(false));
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextBuilder#get()} to ensure that the default restore mode
+   * does not touch the NDC if no nested context values were added.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_depthMarkWithoutNestedContexts() throws Throwable {
+    try (final MockedStatic<MDC> mockedMdc = mockStatic(MDC.class);
+        final MockedStatic<NDC> mockedNdc = mockStatic(NDC.class)) {
+      depthMarkLogContextBuilder.get().close();
+      depthMarkLogContextBuilder.andMapped(CONTEXT_1, VALUE_1).get().close();
+
+      mockedNdc.verifyNoInteractions();
+      mockedMdc.verify(() -> MDC.put(CONTEXT_1, VALUE_1));
+      mockedMdc.verify(() -> MDC.remove(CONTEXT_1));
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextBuilder#get()} to ensure that closing the {@link
+   * LogContext} of the {@link RestoreMode#DEPTH_MARK} restore mode restores the real Log4J contexts,
+   * including values left behind by an inner context that was never closed.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_depthMarkRestoresContexts() throws Throwable {
+    NDC.clear();
+    NDC.push("outer");
+    try {
+      final LogContext context =
+          depthMarkLogContextBuilder.andNested(CONTEXT_1).andMapped(CONTEXT_1, VALUE_1).get();
+      new Log4j12LogContextBuilder().andNested(CONTEXT_2).get();
+
+      assertThat(NDC.getDepth(), equalTo(3));
+      assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_1));
+
+      context.close();
+
+      assertThat(NDC.getDepth(), equalTo(1));
+      assertThat(NDC.peek(), equalTo("outer"));
+      assertThat(MDC.get(CONTEXT_1), nullValue());
+    } finally {
+      NDC.clear();
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextBuilder#get()} to ensure that nested contexts reusing an
+   * MDC key restore the outer value when they are closed, in both restore modes.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_restoresShadowedMappedValues() throws Throwable {
+    for (final RestoreMode restoreMode : RestoreMode.values()) {
+      MDC.clear();
+      try {
+        final LogContext outer =
+            new Log4j12LogContextBuilder(restoreMode).andMapped(CONTEXT_1, VALUE_1).get();
+        final LogContext inner =
+            new Log4j12LogContextBuilder(restoreMode)
+                .andMapped(CONTEXT_1, VALUE_2)
+                .andMapped(CONTEXT_2, VALUE_2)
+                .get();
+
+        assertThat(restoreMode.name(), MDC.get(CONTEXT_1), equalTo(VALUE_2));
+
+        inner.close();
+
+        assertThat(restoreMode.name(), MDC.get(CONTEXT_1), equalTo(VALUE_1));
+        assertThat(restoreMode.name(), MDC.get(CONTEXT_2), nullValue());
+
+        outer.close();
+
+        assertThat(restoreMode.name(), MDC.get(CONTEXT_1), nullValue());
+      } finally {
+        MDC.clear();
+      }
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextBuilder#get()} to ensure that the nested contexts are
+   * pushed onto the {@link ThreadLocalNDC} instead of the {@link NDC} with the {@link
+   * NestedStore#THREAD_LOCAL_STACK} nested store, and removed when closed in both restore modes.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_threadLocalStack() throws Throwable {
+    for (final RestoreMode restoreMode : RestoreMode.values()) {
+      final int ndcDepth = NDC.getDepth();
+      ThreadLocalNDC.push("outer");
+      try {
+        final LogContext context =
+            new Log4j12LogContextBuilder(restoreMode, NestedStore.THREAD_LOCAL_STACK)
+                .andNested(CONTEXT_1, CONTEXT_2)
+                .get();
+
+        assertThat(restoreMode.name(), ThreadLocalNDC.get(), equalTo("outer CONTEXT1 CONTEXT2"));
+        assertThat(restoreMode.name(), NDC.getDepth(), equalTo(ndcDepth));
+
+        context.close();
+
+        assertThat(restoreMode.name(), ThreadLocalNDC.get(), equalTo("outer"));
+      } finally {
+        ThreadLocalNDC.clear();
+      }
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextBuilder#getSlot(String)} to ensure that the values of
+   * the builder are added, that the value of the slot replaces the previous one in the MDC, and that
+   * closing the slot removes all of them.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGetSlot() throws Throwable {
+    try (MappedContextSlot slot =
+        depthMarkLogContextBuilder
+            .andNested(CONTEXT_1)
+            .andMapped(CONTEXT_1, VALUE_1)
+            .getSlot(CONTEXT_2)) {
+      assertThat(NDC.peek(), equalTo(CONTEXT_1));
+      assertThat(MDC.get(CONTEXT_2), nullValue());
+
+      slot.set(VALUE_1);
+      slot.set(VALUE_2);
+
+      assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_1));
+      assertThat(MDC.get(CONTEXT_2), equalTo(VALUE_2));
+    }
+
+    assertThat(NDC.getDepth(), equalTo(0));
+    assertThat(MDC.get(CONTEXT_1), nullValue());
+    assertThat(MDC.get(CONTEXT_2), nullValue());
+    assertThrows(NullPointerException.class, () -> depthMarkLogContextBuilder.getSlot(null));
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextBuilder#Log4j12LogContextBuilder(RestoreMode)} to
+   * ensure that a {@link NullPointerException} is thrown for a <code>null</code> restore mode.
+   */
+  @Test
+  void testConstructor_nullRestoreMode() {
+    assertThrows(NullPointerException.class, () -> new Log4j12LogContextBuilder(null));
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextBuilder#Log4j12LogContextBuilder(RestoreMode,
+   * NestedStore)} to ensure that a {@link NullPointerException} is thrown for a <code>null</code>
+   * nested store.
+   */
+  @Test
+  void testConstructor_nullNestedStore() {
+    assertThrows(
+        NullPointerException.class,
+        () -> new Log4j12LogContextBuilder(RestoreMode.DEPTH_MARK, null));
+  }
 }
@@ -0,0 +1,195 @@
+package io.github.logcontext.log4j12;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mockStatic;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContextSnapshot;
+import java.util.Hashtable;
+import org.apache.log4j.MDC;
+import org.apache.log4j.NDC;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+/**
+ * The Log4j12LogContextSnapshotTest class provides a set of JUnit test cases for the {@link
+ * Log4j12LogContextSnapshot} class.
+ */
+class Log4j12LogContextSnapshotTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  private static final String VALUE_1 = "value1";
+
+  private static final String VALUE_2 = "2";
+
+  /** Clears the NDC and MDC changed by a test case. */
+  @AfterEach
+  void tearDown() {
+    NDC.clear();
+    MDC.clear();
+    ThreadLocalNDC.clear();
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextSnapshot#capture()} to ensure that the captured context
+   * is not affected by later changes to the NDC and MDC, nor by changes made while it is attached.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testCapture_isImmutable() throws Exception {
+    NDC.push("captured");
+    MDC.put(CONTEXT_1, VALUE_1);
+    final LogContextSnapshot snapshot = Log4j12LogContextSnapshot.capture();
+    NDC.push("later");
+    MDC.put(CONTEXT_1, VALUE_2);
+
+    try (LogContext context = snapshot.attach()) {
+      NDC.push("attached");
+    }
+    try (LogContext context = snapshot.attach()) {
+      assertThat(NDC.getDepth(), equalTo(1));
+      assertThat(NDC.peek(), equalTo("captured"));
+      assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_1));
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextSnapshot#capture()} to ensure that the captured MDC is
+   * copied when {@link MDC#getContext()} returns the live table of the thread, as the original
+   * Log4J 1.2 does.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testCapture_copiesLiveMappedContext() throws Exception {
+    final Hashtable<String, Object> liveContext = new Hashtable<>();
+    liveContext.put(CONTEXT_1, VALUE_1);
+
+    try (final MockedStatic<MDC> mockedMdc = mockStatic(MDC.class)) {
+      mockedMdc.when(MDC::getContext).thenReturn(liveContext);
+      mockedMdc
+          .when(MDC::clear)
+          .then(
+              invocation -> {
+                liveContext.clear();
+                return null;
+              });
+      mockedMdc
+          .when(() -> MDC.put(anyString(), any(Object.class)))
+          .then(
+              invocation ->
+                  liveContext.put(invocation.getArgument(0), invocation.getArgument(1)));
+
+      final LogContextSnapshot snapshot = Log4j12LogContextSnapshot.capture();
+      liveContext.put(CONTEXT_1, VALUE_2);
+
+      try (LogContext context = snapshot.attach()) {
+        assertThat(liveContext.get(CONTEXT_1), equalTo(VALUE_1));
+      }
+      assertThat(liveContext.get(CONTEXT_1), equalTo(VALUE_2));
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextSnapshot#attach()} to ensure that the NDC and MDC are
+   * replaced by the snapshot and restored when the returned {@link LogContext} is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_replacesAndRestoresContext() throws Exception {
+    NDC.push("submitter");
+    MDC.put(CONTEXT_1, VALUE_1);
+    final LogContextSnapshot snapshot = Log4j12LogContextSnapshot.capture();
+    NDC.clear();
+    MDC.clear();
+    NDC.push("worker");
+    MDC.put(CONTEXT_1, VALUE_2);
+
+    final LogContext context = snapshot.attach();
+
+    assertThat(NDC.getDepth(), equalTo(1));
+    assertThat(NDC.peek(), equalTo("submitter"));
+    assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_1));
+
+    context.close();
+
+    assertThat(NDC.getDepth(), equalTo(1));
+    assertThat(NDC.peek(), equalTo("worker"));
+    assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_2));
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextSnapshot#attach()} to ensure that attaching an empty
+   * snapshot clears the NDC and MDC until the returned {@link LogContext} is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_emptySnapshot() throws Exception {
+    final LogContextSnapshot snapshot = Log4j12LogContextSnapshot.capture();
+    NDC.push("worker");
+    MDC.put(CONTEXT_1, VALUE_2);
+
+    try (LogContext context = snapshot.attach()) {
+      assertThat(NDC.getDepth(), equalTo(0));
+      assertThat(MDC.get(CONTEXT_1), nullValue());
+    }
+
+    assertThat(NDC.peek(), equalTo("worker"));
+    assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_2));
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextSnapshot#attach()} to ensure that attaching an empty
+   * snapshot to an empty NDC and MDC leaves them unchanged.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_emptySnapshotAndContext() throws Exception {
+    final LogContextSnapshot snapshot = Log4j12LogContextSnapshot.capture();
+    final LogContext context = snapshot.attach();
+    MDC.put(CONTEXT_1, VALUE_1);
+
+    context.close();
+
+    assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_1));
+  }
+
+  /**
+   * Test method for {@link Log4j12LogContextSnapshot#attach()} to ensure that the {@link
+   * ThreadLocalNDC} is replaced by the snapshot and restored when the returned {@link LogContext}
+   * is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_threadLocalNDC() throws Exception {
+    ThreadLocalNDC.push("submitter");
+    final LogContextSnapshot snapshot = Log4j12LogContextSnapshot.capture();
+    ThreadLocalNDC.clear();
+    ThreadLocalNDC.push("worker");
+
+    try (LogContext context = snapshot.attach()) {
+      assertThat(ThreadLocalNDC.get(), equalTo("submitter"));
+      assertThat(NDC.getDepth(), equalTo(0));
+    }
+
+    assertThat(ThreadLocalNDC.get(), equalTo("worker"));
+
+    ThreadLocalNDC.clear();
+    try (LogContext context = snapshot.attach()) {
+      assertThat(ThreadLocalNDC.get(), equalTo("submitter"));
+    }
+
+    assertThat(ThreadLocalNDC.getDepth(), equalTo(0));
+  }
+}
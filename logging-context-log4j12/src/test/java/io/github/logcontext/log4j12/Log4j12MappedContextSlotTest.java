@@ -0,0 +1,72 @@
+package io.github.logcontext.log4j12;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.MappedContextSlot;
+import org.apache.log4j.MDC;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The Log4j12MappedContextSlotTest class provides a set of JUnit test cases for the {@link
+ * Log4j12MappedContextSlot} class.
+ */
+class Log4j12MappedContextSlotTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  /** Removes the MDC values added by a test case. */
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  /**
+   * Test method for {@link Log4j12MappedContextSlot#set(String)} to ensure that each value is put
+   * into the MDC, and that a <code>null</code> value and closing the slot remove the key.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testSet() throws Exception {
+    final LogContext context = mock(LogContext.class);
+    final MappedContextSlot slot = new Log4j12MappedContextSlot(context, CONTEXT_1);
+
+    slot.set("1");
+
+    assertThat(MDC.get(CONTEXT_1), equalTo("1"));
+
+    slot.set(null);
+
+    assertThat(MDC.get(CONTEXT_1), nullValue());
+
+    slot.set("2");
+    slot.close();
+
+    assertThat(MDC.get(CONTEXT_1), nullValue());
+    verify(context).close();
+  }
+
+  /**
+   * Test method for {@link Log4j12MappedContextSlot#close()} to ensure that the value the key had
+   * when the slot was opened is restored.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testClose_restoresShadowedValue() throws Exception {
+    MDC.put(CONTEXT_1, "outer");
+    final MappedContextSlot slot =
+        new Log4j12MappedContextSlot(mock(LogContext.class), CONTEXT_1);
+
+    slot.set("1");
+    slot.close();
+
+    assertThat(MDC.get(CONTEXT_1), equalTo("outer"));
+  }
+}
@@ -0,0 +1,159 @@
+package io.github.logcontext.log4j12;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.NestedStore;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.RestoreMode;
+import java.io.StringWriter;
+import java.util.ServiceLoader;
+import org.apache.log4j.Logger;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.WriterAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.impl.ThreadContextDataInjector;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.util.ContextDataProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ThreadLocalNDCContextDataProviderTest class provides a set of JUnit test cases for the
+ * {@link ThreadLocalNDCContextDataProvider} class.
+ */
+class ThreadLocalNDCContextDataProviderTest {
+
+  /** The name of the logger of the end-to-end tests. */
+  private static final String LOGGER_NAME = ThreadLocalNDCContextDataProviderTest.class.getName();
+
+  /** The context data provider instance being tested. */
+  private final ThreadLocalNDCContextDataProvider contextDataProvider =
+      new ThreadLocalNDCContextDataProvider();
+
+  /** The output of the appender of the end-to-end tests. */
+  private final StringWriter output = new StringWriter();
+
+  /** The appender of the end-to-end tests, or <code>null</code> if it was not added. */
+  private WriterAppender appender;
+
+  /** Clears the stack changed by a test case and removes the logger of the end-to-end tests. */
+  @AfterEach
+  void tearDown() {
+    ThreadLocalNDC.clear();
+    if (appender != null) {
+      final LoggerContext loggerContext = (LoggerContext) LogManager.getContext(false);
+      loggerContext.getConfiguration().removeLogger(LOGGER_NAME);
+      loggerContext.updateLoggers();
+      appender.stop();
+    }
+  }
+
+  /**
+   * Test method for {@link ThreadLocalNDCContextDataProvider#supplyContextData()} to ensure that
+   * the rendered values of the stack are supplied, and nothing once it is empty.
+   */
+  @Test
+  void testSupplyContextData() {
+    assertThat(contextDataProvider.supplyContextData(), aMapWithSize(0));
+
+    ThreadLocalNDC.push("orders");
+    ThreadLocalNDC.push("refund");
+
+    assertThat(
+        contextDataProvider.supplyContextData(),
+        hasEntry(ThreadLocalNDCContextDataProvider.KEY, "orders refund"));
+
+    ThreadLocalNDC.clear();
+
+    assertThat(contextDataProvider.supplyContextData(), aMapWithSize(0));
+  }
+
+  /**
+   * Test method for {@link ThreadLocalNDCContextDataProvider#supplyContextData()} to ensure that
+   * the provider is not registered by this module, so that an event logged with the {@link
+   * NestedStore#LOG4J_NDC} nested store only carries the context data of Log4j 2 itself.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testSupplyContextData_notRegisteredByDefault() throws Exception {
+    for (final ContextDataProvider provider : ServiceLoader.load(ContextDataProvider.class)) {
+      assertThat(provider, not(instanceOf(ThreadLocalNDCContextDataProvider.class)));
+    }
+    assertThat(ThreadContextDataInjector.contextDataProviders, empty());
+
+    final Logger logger = addLogger("%x [%X{ndc}] %m%n");
+    ThreadLocalNDC.push("unused");
+    try (LogContext context =
+        new Log4j12LogContextBuilder(RestoreMode.DEPTH_MARK, NestedStore.LOG4J_NDC)
+            .andNested("orders", "refund")
+            .get()) {
+      logger.info("Refunding order");
+    }
+
+    assertThat(output.toString(), equalTo(String.format("[orders, refund] [] Refunding order%n")));
+  }
+
+  /**
+   * Test method for {@link ThreadLocalNDCContextDataProvider#supplyContextData()} to ensure that,
+   * once the provider is registered, the values pushed by a logging context onto the {@link
+   * NestedStore#THREAD_LOCAL_STACK} are rendered with <code>%X{ndc}</code> by a Log4j 2 appender
+   * receiving an event logged through the Log4J 1.2 API.
+   *
+   * @throws Exception
+   */
+  @Test
+  @Tag("thread-local-ndc")
+  void testSupplyContextData_renderedByPatternLayout() throws Exception {
+    final Logger logger = addLogger("[%X{ndc}] %m%n");
+    try (LogContext context =
+        new Log4j12LogContextBuilder(RestoreMode.DEPTH_MARK, NestedStore.THREAD_LOCAL_STACK)
+            .andNested("orders", "refund")
+            .get()) {
+      logger.info("Refunding order");
+    }
+    logger.info("Done");
+
+    assertThat(
+        output.toString(), equalTo(String.format("[orders refund] Refunding order%n[] Done%n")));
+  }
+
+  /**
+   * Adds a Log4j 2 logger that writes the events to {@link #output} with the provided pattern, and
+   * returns the Log4J 1.2 logger of the same name.
+   *
+   * @param pattern the pattern of the events.
+   * @return the Log4J 1.2 logger.
+   */
+  private Logger addLogger(final String pattern) {
+    final LoggerContext loggerContext = (LoggerContext) LogManager.getContext(false);
+    final Configuration configuration = loggerContext.getConfiguration();
+    appender =
+        WriterAppender.createAppender(
+            PatternLayout.newBuilder()
+                .withConfiguration(configuration)
+                .withPattern(pattern)
+                .build(),
+            null,
+            output,
+            LOGGER_NAME,
+            false,
+            true);
+    appender.start();
+    final LoggerConfig loggerConfig = new LoggerConfig(LOGGER_NAME, Level.INFO, false);
+    loggerConfig.addAppender(appender, null, null);
+    configuration.addLogger(LOGGER_NAME, loggerConfig);
+    loggerContext.updateLoggers();
+    return Logger.getLogger(LOGGER_NAME);
+  }
+}
@@ -0,0 +1,189 @@
+package io.github.logcontext.log4j12;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.NestedStore;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.RestoreMode;
+import java.io.StringWriter;
+import org.apache.log4j.Logger;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.WriterAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ThreadLocalNDCFilterTest class provides a set of JUnit test cases for the {@link
+ * ThreadLocalNDCFilter} class.
+ */
+class ThreadLocalNDCFilterTest {
+
+  /** The name of the logger of the end-to-end test. */
+  private static final String LOGGER_NAME = ThreadLocalNDCFilterTest.class.getName();
+
+  /** The output of the appender of the end-to-end test. */
+  private final StringWriter output = new StringWriter();
+
+  /** The appender of the end-to-end test, or <code>null</code> if it was not added. */
+  private WriterAppender appender;
+
+  /** Clears the stack changed by a test case and removes the logger of the end-to-end test. */
+  @AfterEach
+  void tearDown() {
+    ThreadLocalNDC.clear();
+    if (appender != null) {
+      final LoggerContext loggerContext = (LoggerContext) LogManager.getContext(false);
+      loggerContext.getConfiguration().removeLogger(LOGGER_NAME);
+      loggerContext.updateLoggers();
+      appender.stop();
+    }
+  }
+
+  /**
+   * Test method for {@link ThreadLocalNDCFilter#createFilter(String, Result, Result)} that ensures
+   * the results default to those of the Log4j 2 <code>StringMatchFilter</code>.
+   */
+  @Test
+  void testCreateFilter() {
+    final ThreadLocalNDCFilter filter = ThreadLocalNDCFilter.createFilter("orders", null, null);
+
+    assertThat(filter.getText(), equalTo("orders"));
+    assertThat(filter.getOnMatch(), equalTo(Result.NEUTRAL));
+    assertThat(filter.getOnMismatch(), equalTo(Result.DENY));
+    assertThat(filter.toString(), equalTo("text=orders"));
+  }
+
+  /**
+   * Test method for {@link ThreadLocalNDCFilter#createFilter(String, Result, Result)} that ensures
+   * a filter without a string to match is rejected.
+   */
+  @Test
+  void testCreateFilter_nullText() {
+    assertThrows(
+        NullPointerException.class,
+        () -> ThreadLocalNDCFilter.createFilter(null, Result.ACCEPT, Result.NEUTRAL));
+  }
+
+  /**
+   * Test method for {@link ThreadLocalNDCFilter#filter(LogEvent)} that ensures an event is matched
+   * against the values in its context data rather than the stack of the current thread.
+   */
+  @Test
+  void testFilter_event() {
+    final ThreadLocalNDCFilter filter =
+        ThreadLocalNDCFilter.createFilter("orders", Result.ACCEPT, Result.NEUTRAL);
+    final StringMap contextData = ContextDataFactory.createContextData();
+    ThreadLocalNDC.push("orders");
+
+    assertThat(filter.filter(event(contextData)), equalTo(Result.NEUTRAL));
+
+    contextData.putValue(ThreadLocalNDCContextDataProvider.KEY, "users");
+
+    assertThat(filter.filter(event(contextData)), equalTo(Result.NEUTRAL));
+
+    contextData.putValue(ThreadLocalNDCContextDataProvider.KEY, "users orders");
+
+    assertThat(filter.filter(event(contextData)), equalTo(Result.ACCEPT));
+  }
+
+  /**
+   * Test method for the logger variants of {@link ThreadLocalNDCFilter#filter} that ensures a
+   * context wide filter matches the stack of the current thread.
+   */
+  @Test
+  void testFilter_logger() {
+    final ThreadLocalNDCFilter filter =
+        ThreadLocalNDCFilter.createFilter("orders", Result.DENY, Result.ACCEPT);
+    final org.apache.logging.log4j.core.Logger logger =
+        (org.apache.logging.log4j.core.Logger) LogManager.getLogger(LOGGER_NAME);
+
+    assertThat(filter.filter(logger, Level.INFO, null, "message"), equalTo(Result.ACCEPT));
+
+    ThreadLocalNDC.push("users");
+    ThreadLocalNDC.push("orders");
+
+    assertThat(filter.filter(logger, Level.INFO, null, "message"), equalTo(Result.DENY));
+    assertThat(filter.filter(logger, Level.INFO, null, "message", "p0"), equalTo(Result.DENY));
+    assertThat(
+        filter.filter(logger, Level.INFO, null, (Object) "message", null), equalTo(Result.DENY));
+    assertThat(
+        filter.filter(logger, Level.INFO, null, new SimpleMessage("message"), null),
+        equalTo(Result.DENY));
+  }
+
+  /**
+   * Test method for {@link ThreadLocalNDCFilter#filter(LogEvent)} that ensures a Log4j 2 appender
+   * receiving the events logged through the Log4J 1.2 API drops those logged in a logging context
+   * whose nested values contain the string, once the {@link ThreadLocalNDCContextDataProvider} is
+   * registered.
+   *
+   * @throws Exception
+   */
+  @Test
+  @Tag("thread-local-ndc")
+  void testFilter_appender() throws Exception {
+    final LoggerContext loggerContext = (LoggerContext) LogManager.getContext(false);
+    final Configuration configuration = loggerContext.getConfiguration();
+    appender =
+        WriterAppender.createAppender(
+            PatternLayout.newBuilder()
+                .withConfiguration(configuration)
+                .withPattern("[%X{ndc}] %m%n")
+                .build(),
+            ThreadLocalNDCFilter.createFilter("orders", Result.DENY, Result.NEUTRAL),
+            output,
+            LOGGER_NAME,
+            false,
+            true);
+    appender.start();
+    final LoggerConfig loggerConfig = new LoggerConfig(LOGGER_NAME, Level.INFO, false);
+    loggerConfig.addAppender(appender, null, null);
+    configuration.addLogger(LOGGER_NAME, loggerConfig);
+    loggerContext.updateLoggers();
+
+    final Logger logger = Logger.getLogger(LOGGER_NAME);
+    try (LogContext context =
+        new Log4j12LogContextBuilder(RestoreMode.DEPTH_MARK, NestedStore.THREAD_LOCAL_STACK)
+            .andNested("users")
+            .get()) {
+      logger.info("Updating user");
+    }
+    try (LogContext context =
+        new Log4j12LogContextBuilder(RestoreMode.DEPTH_MARK, NestedStore.THREAD_LOCAL_STACK)
+            .andNested("orders")
+            .get()) {
+      logger.info("Refunding order");
+    }
+
+    assertThat(output.toString(), equalTo(String.format("[users] Updating user%n")));
+  }
+
+  /**
+   * Creates a log event with the provided context data.
+   *
+   * @param contextData the context data of the event.
+   * @return the log event.
+   */
+  private static LogEvent event(final StringMap contextData) {
+    return Log4jLogEvent.newBuilder()
+        .setLoggerName(LOGGER_NAME)
+        .setLevel(Level.INFO)
+        .setMessage(new SimpleMessage("message"))
+        .setContextData(contextData)
+        .build();
+  }
+}
@@ -0,0 +1,137 @@
+package io.github.logcontext.log4j12;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.concurrent.CompletableFuture;
+import org.apache.log4j.NDC;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ThreadLocalNDCTest class provides a set of JUnit test cases for the {@link ThreadLocalNDC}
+ * class.
+ */
+class ThreadLocalNDCTest {
+
+  /** Clears the stack changed by a test case. */
+  @AfterEach
+  void tearDown() {
+    ThreadLocalNDC.clear();
+  }
+
+  /**
+   * Test method for {@link ThreadLocalNDC#push(String)} and {@link ThreadLocalNDC#pop()} that
+   * ensures values are removed in the reverse order they were pushed, beyond the initial capacity,
+   * and that the Log4J {@link NDC} is left unchanged.
+   */
+  @Test
+  void testPushAndPop() {
+    final int ndcDepth = NDC.getDepth();
+    for (int i = 0; i < 20; i++) {
+      ThreadLocalNDC.push("value" + i);
+    }
+
+    assertThat(ThreadLocalNDC.getDepth(), equalTo(20));
+    assertThat(ThreadLocalNDC.peek(), equalTo("value19"));
+    assertThat(NDC.getDepth(), equalTo(ndcDepth));
+    for (int i = 19; i >= 0; i--) {
+      assertThat(ThreadLocalNDC.pop(), equalTo("value" + i));
+    }
+    assertThat(ThreadLocalNDC.pop(), equalTo(""));
+    assertThat(ThreadLocalNDC.peek(), equalTo(""));
+  }
+
+  /**
+   * Test method for {@link ThreadLocalNDC#get()} that ensures the values are joined by spaces, the
+   * outermost first, and that the joined values are reused until the stack changes.
+   */
+  @Test
+  void testGet() {
+    assertThat(ThreadLocalNDC.get(), nullValue());
+
+    ThreadLocalNDC.push("users");
+    ThreadLocalNDC.push("orders");
+    final String rendered = ThreadLocalNDC.get();
+
+    assertThat(rendered, equalTo("users orders"));
+    assertThat(ThreadLocalNDC.get(), sameInstance(rendered));
+
+    ThreadLocalNDC.pop();
+
+    assertThat(ThreadLocalNDC.get(), equalTo("users"));
+  }
+
+  /**
+   * Test method for {@link ThreadLocalNDC#setMaxDepth(int)} that ensures the innermost values are
+   * removed, and that a depth that is negative or not below the current depth is ignored.
+   */
+  @Test
+  void testSetMaxDepth() {
+    ThreadLocalNDC.push("users");
+    ThreadLocalNDC.push("orders");
+    ThreadLocalNDC.push("items");
+
+    ThreadLocalNDC.setMaxDepth(-1);
+    ThreadLocalNDC.setMaxDepth(3);
+
+    assertThat(ThreadLocalNDC.getDepth(), equalTo(3));
+
+    ThreadLocalNDC.setMaxDepth(1);
+
+    assertThat(ThreadLocalNDC.getDepth(), equalTo(1));
+    assertThat(ThreadLocalNDC.get(), equalTo("users"));
+  }
+
+  /**
+   * Test method for {@link ThreadLocalNDC#cloneStack()} and {@link
+   * ThreadLocalNDC#inherit(String[])} that ensures the copied values are not affected by later
+   * changes and replace the values of the current thread.
+   */
+  @Test
+  void testCloneStackAndInherit() {
+    assertThat(ThreadLocalNDC.cloneStack(), emptyArray());
+
+    ThreadLocalNDC.push("users");
+    ThreadLocalNDC.push("orders");
+    final String[] stack = ThreadLocalNDC.cloneStack();
+    ThreadLocalNDC.pop();
+    ThreadLocalNDC.push("items");
+
+    assertThat(stack, arrayContaining("users", "orders"));
+
+    ThreadLocalNDC.inherit(new String[] {"requests"});
+
+    assertThat(ThreadLocalNDC.cloneStack(), arrayContaining("requests"));
+  }
+
+  /**
+   * Test method for {@link ThreadLocalNDC} that ensures a thread that never pushed a value has an
+   * empty stack without creating one.
+   */
+  @Test
+  void testEmptyThread() throws Exception {
+    ThreadLocalNDC.push("users");
+
+    final String[] result =
+        CompletableFuture.supplyAsync(
+                () -> {
+                  ThreadLocalNDC.setMaxDepth(0);
+                  return new String[] {
+                    ThreadLocalNDC.pop(),
+                    ThreadLocalNDC.peek(),
+                    String.valueOf(ThreadLocalNDC.get()),
+                    String.valueOf(ThreadLocalNDC.getDepth()),
+                    String.valueOf(ThreadLocalNDC.cloneStack().length)
+                  };
+                })
+            .get();
+
+    assertThat(result, arrayContaining("", "", "null", "0", "0"));
+    assertThat(ThreadLocalNDC.get(), equalTo("users"));
+  }
+}
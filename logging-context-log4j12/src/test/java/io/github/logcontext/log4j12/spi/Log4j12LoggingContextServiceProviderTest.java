@@ -2,10 +2,22 @@ package io.github.logcontext.log4j12.spi;
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 
 import io.github.logcontext.LogContext.Builder;
 import io.github.logcontext.log4j12.Log4j12LogContextBuilder;
+import io.github.logcontext.log4j12.Log4j12LogContextBuilder.RestoreMode;
+import io.github.logcontext.log4j12.Log4j12LogContextSnapshot;
+import io.github.logcontext.LogLevel;
+import java.util.function.Predicate;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.NDC;
 import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
 
 /**
  * The Log4j12LoggingContextServiceProviderTest class provides a set of JUnit test cases for the
@@ -13,6 +25,8 @@ import org.junit.jupiter.api.Test;
  */
 class Log4j12LoggingContextServiceProviderTest {
 
+  private static final String CONTEXT = "CONTEXT";
+
   /** The Log4j12 logging context service provider instance being tested. */
   private final Log4j12LoggingContextServiceProvider loggingContextServiceProvider =
       new Log4j12LoggingContextServiceProvider();
@@ -25,4 +39,65 @@ class Log4j12LoggingContextServiceProviderTest {
     assertThat(builder, notNullValue());
     assertThat(builder, instanceOf(Log4j12LogContextBuilder.class));
   }
+
+  /**
+   * Test method for {@link Log4j12LoggingContextServiceProvider#logContextBuilder()} to ensure that
+   * the builders of the default provider pop the NDC values one by one, while those of a provider
+   * created with the {@link RestoreMode#DEPTH_MARK} restore mode truncate the NDC back to its depth.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testLogContextBuilder_restoreMode() throws Throwable {
+    try (final MockedStatic<NDC> mockedNdc = mockStatic(NDC.class)) {
+      mockedNdc.when(NDC::pop).thenReturn(CONTEXT);
+      mockedNdc.when(NDC::getDepth).thenReturn(3);
+
+      loggingContextServiceProvider.logContextBuilder().andNested(CONTEXT).get().close();
+
+      mockedNdc.verify(NDC::pop);
+      mockedNdc.verify(() -> NDC.setMaxDepth(anyInt()), never());
+
+      new Log4j12LoggingContextServiceProvider(RestoreMode.DEPTH_MARK)
+          .logContextBuilder()
+          .andNested(CONTEXT)
+          .get()
+          .close();
+
+      mockedNdc.verify(() -> NDC.setMaxDepth(3));
+      mockedNdc.verify(NDC::pop);
+    }
+  }
+
+  /**
+   * Test method for {@link
+   * Log4j12LoggingContextServiceProvider#Log4j12LoggingContextServiceProvider(RestoreMode)} to
+   * ensure that a <code>null</code> restore mode is rejected.
+   */
+  @Test
+  void testConstructor_nullRestoreMode() {
+    assertThrows(NullPointerException.class, () -> new Log4j12LoggingContextServiceProvider(null));
+  }
+
+  /** Test method for {@link Log4j12LoggingContextServiceProvider#captureSnapshot()}. */
+  @Test
+  void testCaptureSnapshot() {
+    assertThat(
+        loggingContextServiceProvider.captureSnapshot(), instanceOf(Log4j12LogContextSnapshot.class));
+  }
+
+  /**
+   * Test method for {@link Log4j12LoggingContextServiceProvider#loggingEnabled(String)} that
+   * ensures the predicate answers as the logger does for each level.
+   */
+  @Test
+  void testLoggingEnabled() {
+    final String category = Log4j12LoggingContextServiceProviderTest.class.getName();
+    final Logger logger = Logger.getLogger(category);
+    final Predicate<LogLevel> enabled = loggingContextServiceProvider.loggingEnabled(category);
+
+    assertThat(enabled.test(LogLevel.TRACE), equalTo(logger.isEnabledFor(Level.TRACE)));
+    assertThat(enabled.test(LogLevel.INFO), equalTo(logger.isEnabledFor(Level.INFO)));
+    assertThat(enabled.test(LogLevel.ERROR), equalTo(logger.isEnabledFor(Level.ERROR)));
+  }
 }
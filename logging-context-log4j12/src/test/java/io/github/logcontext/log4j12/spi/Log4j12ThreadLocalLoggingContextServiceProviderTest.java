@@ -0,0 +1,36 @@
+package io.github.logcontext.log4j12.spi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.log4j12.ThreadLocalNDC;
+import org.apache.log4j.NDC;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The Log4j12ThreadLocalLoggingContextServiceProviderTest class provides a set of JUnit test cases
+ * for the {@link Log4j12ThreadLocalLoggingContextServiceProvider} class.
+ */
+class Log4j12ThreadLocalLoggingContextServiceProviderTest {
+
+  /**
+   * Test method for {@link Log4j12ThreadLocalLoggingContextServiceProvider#logContextBuilder()}
+   * that ensures the nested values are pushed onto the {@link ThreadLocalNDC} instead of the NDC.
+   */
+  @Test
+  void testLogContextBuilder() throws Exception {
+    final int ndcDepth = NDC.getDepth();
+
+    try (LogContext context =
+        new Log4j12ThreadLocalLoggingContextServiceProvider()
+            .logContextBuilder()
+            .andNested("orders")
+            .get()) {
+      assertThat(ThreadLocalNDC.get(), equalTo("orders"));
+      assertThat(NDC.getDepth(), equalTo(ndcDepth));
+    }
+
+    assertThat(ThreadLocalNDC.getDepth(), equalTo(0));
+  }
+}
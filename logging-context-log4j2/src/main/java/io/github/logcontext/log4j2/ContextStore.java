@@ -0,0 +1,338 @@
+package io.github.logcontext.log4j2;
+
+import io.github.logcontext.AbstractLogContextBuilder;
+import io.github.logcontext.AttachableLogContext;
+import io.github.logcontext.LazyMappedValue;
+import io.github.logcontext.LogContext;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.util.StringMap;
+
+/**
+ * The ContextStore class keeps mapped context values of the current thread outside of the Log4j
+ * thread context map. The values are kept in an immutable list per thread, the innermost value
+ * first, and are added to the context data of log events by the {@link LazyContextDataInjector}.
+ * Since the list is immutable, its head identifies the values it holds, so the injector can cache
+ * the context data built from it and snapshots can share it without copying.
+ *
+ * <p>What the {@link Log4j2LogContextBuilder} keeps here depends on the {@link Mode}, which is set
+ * when Log4j creates one of the injectors. Until then, every value is put in the thread context
+ * map, so that no value is lost. This class does not depend on <code>log4j-core</code>.
+ *
+ * <p>The values of an {@link AttachableLogContext} are kept in a list of their own, built once, and
+ * are attached by linking a single group entry that refers to that list in front of the entries of
+ * the thread, so attaching them does not depend on their number.
+ */
+final class ContextStore {
+
+  /** The values the {@link Log4j2LogContextBuilder} keeps in the store. */
+  enum Mode {
+
+    /** No injector was created, so all values are put in the thread context map. */
+    DISABLED,
+
+    /**
+     * The {@link LazyContextDataInjector} was created, so {@link LazyMappedValue}s are kept in the
+     * store and the other values are put in the thread context map.
+     */
+    LAZY_VALUES,
+
+    /**
+     * The {@link ContextStoreDataInjector} was created, so all mapped values are kept in the store
+     * and the thread context map is left unchanged.
+     */
+    ALL_VALUES
+  }
+
+  /**
+   * The value of an entry that hides an outer value of the same key, because the key was put in
+   * the thread context map by an inner context.
+   */
+  static final Object MASKED = new Object();
+
+  /** The innermost entry of each thread, or <code>null</code>. */
+  private static final ThreadLocal<Entry> CURRENT = new ThreadLocal<>();
+
+  /** The values kept in the store. */
+  private static volatile Mode mode = Mode.DISABLED;
+
+  /** Prevents instantiation of the ContextStore class. */
+  private ContextStore() {}
+
+  /**
+   * Returns the values the {@link Log4j2LogContextBuilder} keeps in the store.
+   *
+   * @return the mode of the store.
+   */
+  static Mode getMode() {
+    return mode;
+  }
+
+  /**
+   * Sets the values the {@link Log4j2LogContextBuilder} keeps in the store. This is called by the
+   * injectors when Log4j creates them, and by tests.
+   *
+   * @param newMode the mode of the store.
+   */
+  static void setMode(final Mode newMode) {
+    mode = newMode;
+  }
+
+  /**
+   * Returns the innermost entry of the current thread.
+   *
+   * @return the innermost entry, or <code>null</code> if the store of the thread is empty.
+   */
+  static Entry current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Replaces the entries of the current thread.
+   *
+   * @param entry the innermost entry, or <code>null</code> to remove all entries.
+   */
+  static void set(final Entry entry) {
+    if (entry == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(entry);
+    }
+  }
+
+  /**
+   * Adds the lazy values of a builder to the current thread, after its other values were put in
+   * the thread context map, and returns a {@link LogContext} that closes the provided context and
+   * then restores the previous entries. A string value of the builder whose key has an outer entry
+   * is recorded as {@link #MASKED}, so that the outer value is not added over it.
+   *
+   * @param builder the builder of the logging context.
+   * @param context the logging context that restores the thread context.
+   * @return a {@link LogContext} that also restores the previous entries.
+   */
+  static LogContext pushLazyValues(
+      final AbstractLogContextBuilder builder, final LogContext context) {
+    final Entry previous = CURRENT.get();
+    Entry head = previous;
+    for (int i = 0; i < builder.getMappedContextCount(); i++) {
+      final String key = builder.getMappedContextKey(i);
+      final LazyMappedValue value = builder.getLazyMappedContextValue(i);
+      if (value != null) {
+        head = new Entry(key, value, head);
+      } else if (previous != null && previous.find(key) != null) {
+        head = new Entry(key, MASKED, head);
+      }
+    }
+    if (head == previous) {
+      return context;
+    }
+
+    CURRENT.set(head);
+    return () -> {
+      context.close();
+      set(previous);
+    };
+  }
+
+  /**
+   * Adds all mapped values of a builder to the current thread, leaving the thread context map
+   * unchanged, and pushes its nested values onto the thread context stack. The returned {@link
+   * LogContext} restores the previous entries and truncates the stack back to its previous depth.
+   *
+   * @param builder the builder of the logging context.
+   * @return a {@link LogContext} that restores the previous entries and stack.
+   */
+  static LogContext pushAllValues(final AbstractLogContextBuilder builder) {
+    final int nestedCount = builder.getNestedContextCount();
+    final int nestedDepth =
+        nestedCount > 0 ? ThreadContext.getDepth() : Log4j2ContextFrame.NO_NESTED_CONTEXTS;
+    for (int i = 0; i < nestedCount; i++) {
+      ThreadContext.push(builder.getNestedContext(i));
+    }
+
+    final Entry previous = CURRENT.get();
+    Entry head = previous;
+    for (int i = 0; i < builder.getMappedContextCount(); i++) {
+      final LazyMappedValue lazyValue = builder.getLazyMappedContextValue(i);
+      head =
+          new Entry(
+              builder.getMappedContextKey(i),
+              lazyValue != null ? lazyValue : builder.getMappedContextValue(i),
+              head);
+    }
+    if (head != previous) {
+      CURRENT.set(head);
+    }
+
+    return restore(previous, nestedDepth);
+  }
+
+  /**
+   * Copies the values of a builder into an {@link AttachableLogContext} that adds them to the store
+   * of the current thread in the same way as {@link #pushAllValues(AbstractLogContextBuilder)}, but
+   * by linking a single group entry in front of the entries of the thread.
+   *
+   * @param builder the builder of the logging context.
+   * @return the values of the builder as an {@link AttachableLogContext}.
+   */
+  static AttachableLogContext freeze(final AbstractLogContextBuilder builder) {
+    Entry group = null;
+    for (int i = 0; i < builder.getMappedContextCount(); i++) {
+      final LazyMappedValue lazyValue = builder.getLazyMappedContextValue(i);
+      group =
+          new Entry(
+              builder.getMappedContextKey(i),
+              lazyValue != null ? lazyValue : builder.getMappedContextValue(i),
+              group);
+    }
+    final Entry values = group;
+    final String[] nestedContexts = builder.getNestedContexts().toArray(new String[0]);
+    return () -> attach(values, nestedContexts);
+  }
+
+  /**
+   * Links a group entry for a list of entries in front of the entries of the current thread, and
+   * pushes nested values onto the thread context stack. The returned {@link LogContext} restores
+   * the previous entries and truncates the stack back to its previous depth.
+   *
+   * @param group the innermost entry of the list, or <code>null</code> if there are no values.
+   * @param nestedContexts the nested values.
+   * @return a {@link LogContext} that restores the previous entries and stack.
+   */
+  static LogContext attach(final Entry group, final String[] nestedContexts) {
+    final int nestedDepth =
+        nestedContexts.length > 0
+            ? ThreadContext.getDepth()
+            : Log4j2ContextFrame.NO_NESTED_CONTEXTS;
+    for (final String nestedContext : nestedContexts) {
+      ThreadContext.push(nestedContext);
+    }
+
+    final Entry previous = CURRENT.get();
+    if (group != null) {
+      CURRENT.set(new Entry(group, previous));
+    }
+    return restore(previous, nestedDepth);
+  }
+
+  private static LogContext restore(final Entry previous, final int nestedDepth) {
+    return () -> {
+      set(previous);
+      if (nestedDepth != Log4j2ContextFrame.NO_NESTED_CONTEXTS) {
+        ThreadContext.trim(nestedDepth);
+      }
+    };
+  }
+
+  /**
+   * Adds the values of a list of entries to the context data of a log event, converting each lazy
+   * value the first time it is logged. Outer values that are shadowed by an inner entry of the same
+   * key are skipped without being converted.
+   *
+   * @param head the innermost entry.
+   * @param contextData the mutable context data of the log event.
+   */
+  static void putAll(final Entry head, final StringMap contextData) {
+    for (Entry entry = head; entry != null; entry = entry.next) {
+      if (entry.group == null) {
+        put(head, entry, contextData);
+      } else {
+        for (Entry grouped = entry.group; grouped != null; grouped = grouped.next) {
+          put(head, grouped, contextData);
+        }
+      }
+    }
+  }
+
+  private static void put(final Entry head, final Entry entry, final StringMap contextData) {
+    if (entry.value != MASKED && head.find(entry.key) == entry) {
+      contextData.putValue(entry.key, entry.value != null ? entry.value.toString() : null);
+    }
+  }
+
+  /**
+   * An immutable element of the list of entries of a thread, which either holds a value or groups
+   * the list of entries of an {@link AttachableLogContext}.
+   */
+  static final class Entry {
+
+    /** The mapped context key, or <code>null</code> for a group entry. */
+    final String key;
+
+    /** The string or {@link LazyMappedValue} value, which may be {@link #MASKED}. */
+    final Object value;
+
+    /** The innermost entry of the grouped list, or <code>null</code> for a value entry. */
+    final Entry group;
+
+    /** The next outer entry, or <code>null</code>. */
+    final Entry next;
+
+    /** The number of value entries in the list starting at this entry, including grouped ones. */
+    final int size;
+
+    /**
+     * The context data last built from the list starting at this entry, or <code>null</code>. It
+     * may be built more than once on different threads, which is harmless since the data is
+     * immutable and every build yields equal data.
+     */
+    CachedContextData cachedContextData;
+
+    Entry(final String key, final Object value, final Entry next) {
+      this(key, value, null, next);
+    }
+
+    /**
+     * Creates a group entry in front of a list of entries.
+     *
+     * @param group the innermost entry of the grouped list, which has no group entries itself.
+     * @param next the next outer entry, or <code>null</code>.
+     */
+    Entry(final Entry group, final Entry next) {
+      this(null, null, group, next);
+    }
+
+    private Entry(final String key, final Object value, final Entry group, final Entry next) {
+      this.key = key;
+      this.value = value;
+      this.group = group;
+      this.next = next;
+      this.size = (group != null ? group.size : 1) + (next != null ? next.size : 0);
+    }
+
+    /**
+     * Returns the innermost value entry of a key, starting at this entry and searching the lists of
+     * group entries.
+     *
+     * @param key the mapped context key.
+     * @return the innermost entry of the key, or <code>null</code>.
+     */
+    Entry find(final String key) {
+      for (Entry entry = this; entry != null; entry = entry.next) {
+        if (entry.group != null) {
+          final Entry grouped = entry.group.find(key);
+          if (grouped != null) {
+            return grouped;
+          }
+        } else if (entry.key.equals(key)) {
+          return entry;
+        }
+      }
+      return null;
+    }
+  }
+
+  /** The frozen context data built from a list of entries and the thread context data. */
+  static final class CachedContextData {
+
+    /** The frozen thread context data the entries were added to. */
+    final StringMap threadContextData;
+
+    /** The frozen context data holding the thread context data and the entries. */
+    final StringMap contextData;
+
+    CachedContextData(final StringMap threadContextData, final StringMap contextData) {
+      this.threadContextData = threadContextData;
+      this.contextData = contextData;
+    }
+  }
+}
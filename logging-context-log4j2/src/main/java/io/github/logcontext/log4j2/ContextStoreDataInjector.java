@@ -0,0 +1,45 @@
+package io.github.logcontext.log4j2;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.ContextDataInjector;
+
+/**
+ * The ContextStoreDataInjector class provides a Log4j {@link ContextDataInjector} for which the
+ * {@link Log4j2LogContextBuilder} keeps all mapped context values in a per-thread store owned by
+ * this library instead of the Log4j thread context map. It is installed with the <code>
+ * log4j2.contextDataInjector</code> system property:
+ *
+ * <pre>
+ * -Dlog4j2.contextDataInjector=io.github.logcontext.log4j2.ContextStoreDataInjector
+ * </pre>
+ *
+ * <p>Opening a logging context then only links its values in front of the values of the enclosing
+ * contexts, instead of copying the copy-on-write thread context map, and closing it only restores
+ * the previous list. The context data of log events is built from the store as described by
+ * {@link LazyContextDataInjector}, and is reused by consecutive events while the store and the
+ * thread context map are unchanged, so events logged through asynchronous loggers share it too.
+ *
+ * <p>Mapped values added by this library are not visible through {@link ThreadContext#get(String)}
+ * or {@link #rawContextData()}. Values put directly in the thread context map by other code are
+ * still logged, and are shadowed by values of this library with the same key. Nested context
+ * values are still pushed onto the thread context stack.
+ */
+public class ContextStoreDataInjector extends LazyContextDataInjector {
+
+  /**
+   * Constructs a new instance of ContextStoreDataInjector that delegates to the injector Log4j
+   * creates by default for the thread context map. This constructor is called by Log4j.
+   */
+  public ContextStoreDataInjector() {
+    this(createDefaultInjector(ThreadContext.getThreadContextMap()));
+  }
+
+  /**
+   * Constructs a new instance of ContextStoreDataInjector that delegates to the provided injector.
+   *
+   * @param delegate the injector of the thread context data.
+   */
+  ContextStoreDataInjector(final ContextDataInjector delegate) {
+    super(delegate, ContextStore.Mode.ALL_VALUES);
+  }
+}
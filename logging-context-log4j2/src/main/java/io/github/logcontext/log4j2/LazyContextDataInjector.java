@@ -0,0 +1,131 @@
+package io.github.logcontext.log4j2;
+
+import io.github.logcontext.LazyMappedValue;
+import io.github.logcontext.LogContext;
+import java.util.List;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.ContextDataInjector;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.ThreadContextDataInjector;
+import org.apache.logging.log4j.spi.CopyOnWrite;
+import org.apache.logging.log4j.spi.DefaultThreadContextMap;
+import org.apache.logging.log4j.spi.ReadOnlyThreadContextMap;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringMap;
+
+/**
+ * The LazyContextDataInjector class provides a Log4j {@link ContextDataInjector} that adds the
+ * {@link LazyMappedValue}s of the current thread to the context data of log events, so that the
+ * values added with {@link LogContext.Builder#andLazyMapped(String, Object)} are only converted to
+ * strings when an event is logged. It is installed with the <code>log4j2.contextDataInjector
+ * </code> system property:
+ *
+ * <pre>
+ * -Dlog4j2.contextDataInjector=io.github.logcontext.log4j2.LazyContextDataInjector
+ * </pre>
+ *
+ * <p>The thread context data is injected by the injector Log4j would use by default, and the lazy
+ * values are added over it. A log event without lazy values is therefore injected exactly as
+ * without this injector. When the thread context data is frozen, as with the default copy-on-write
+ * thread context map, the data with the lazy values is frozen too and cached until either the
+ * thread context or the lazy values change, so that consecutive events share it. Until the
+ * injector is installed, the {@link Log4j2LogContextBuilder} converts lazy values immediately and
+ * puts them in the thread context map.
+ *
+ * <p>Lazy values are not visible through {@link ThreadContext#get(String)} or {@link
+ * #rawContextData()}, which only return the thread context map.
+ */
+public class LazyContextDataInjector implements ContextDataInjector {
+
+  /** The injector of the thread context data. */
+  private final ContextDataInjector delegate;
+
+  /**
+   * Constructs a new instance of LazyContextDataInjector that delegates to the injector Log4j
+   * creates by default for the thread context map. This constructor is called by Log4j.
+   */
+  public LazyContextDataInjector() {
+    this(createDefaultInjector(ThreadContext.getThreadContextMap()));
+  }
+
+  /**
+   * Constructs a new instance of LazyContextDataInjector that delegates to the provided injector.
+   *
+   * @param delegate the injector of the thread context data.
+   */
+  LazyContextDataInjector(final ContextDataInjector delegate) {
+    this(delegate, ContextStore.Mode.LAZY_VALUES);
+  }
+
+  /**
+   * Constructs a new instance of LazyContextDataInjector that delegates to the provided injector
+   * and sets the values the {@link Log4j2LogContextBuilder} keeps in the {@link ContextStore}.
+   *
+   * @param delegate the injector of the thread context data.
+   * @param mode the values kept in the {@link ContextStore}.
+   */
+  LazyContextDataInjector(final ContextDataInjector delegate, final ContextStore.Mode mode) {
+    this.delegate = delegate;
+    ContextStore.setMode(mode);
+  }
+
+  /**
+   * Creates the injector Log4j uses by default for a thread context map.
+   *
+   * @param contextMap the thread context map.
+   * @return the default injector of the thread context data.
+   */
+  static ContextDataInjector createDefaultInjector(final ReadOnlyThreadContextMap contextMap) {
+    if (contextMap == null || contextMap instanceof DefaultThreadContextMap) {
+      return new ThreadContextDataInjector.ForDefaultThreadContextMap();
+    }
+    if (contextMap instanceof CopyOnWrite) {
+      return new ThreadContextDataInjector.ForCopyOnWriteThreadContextMap();
+    }
+    return new ThreadContextDataInjector.ForGarbageFreeThreadContextMap();
+  }
+
+  /**
+   * Injects the thread context data and then the values of the {@link ContextStore} of the current
+   * thread into the context data of a log event. A frozen map returned by the delegate is copied
+   * before the values are added, and the frozen copy is reused while neither changes.
+   *
+   * @param properties the properties of the logger configuration, or <code>null</code>.
+   * @param reusable a context data map that may be reused.
+   * @return the context data of the log event.
+   */
+  @Override
+  public StringMap injectContextData(final List<Property> properties, final StringMap reusable) {
+    final StringMap contextData = delegate.injectContextData(properties, reusable);
+    final ContextStore.Entry head = ContextStore.current();
+    if (head == null) {
+      return contextData;
+    }
+    if (!contextData.isFrozen()) {
+      ContextStore.putAll(head, contextData);
+      return contextData;
+    }
+
+    final ContextStore.CachedContextData cached = head.cachedContextData;
+    if (cached != null && cached.threadContextData == contextData) {
+      return cached.contextData;
+    }
+    final StringMap result = ContextDataFactory.createContextData(contextData.size() + head.size);
+    result.putAll(contextData);
+    ContextStore.putAll(head, result);
+    result.freeze();
+    head.cachedContextData = new ContextStore.CachedContextData(contextData, result);
+    return result;
+  }
+
+  /**
+   * Returns the thread context data, without the values of the {@link ContextStore}.
+   *
+   * @return the thread context data.
+   */
+  @Override
+  public ReadOnlyStringMap rawContextData() {
+    return delegate.rawContextData();
+  }
+}
@@ -0,0 +1,87 @@
+package io.github.logcontext.log4j2;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.MappedContextUndoStack;
+import java.util.function.BiConsumer;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.spi.ThreadContextMap;
+
+/**
+ * The Log4j2ContextFrame class provides a {@link LogContext} that restores the Log4j thread context
+ * after a {@link Log4j2LogContextBuilder} updated a garbage-free {@link ThreadContextMap} in place.
+ * Closing the frame removes the mapped keys it put and restores the values they shadowed from the
+ * {@link MappedContextUndoStack}, so the map is never copied, and it truncates the thread context
+ * stack back to the depth recorded before any values were pushed.
+ *
+ * <p>The frame is also the {@link BiConsumer} that puts shadowed values back into the map, so that
+ * closing it does not allocate.
+ */
+final class Log4j2ContextFrame implements LogContext, BiConsumer<String, String> {
+
+  /** The depth value used when no nested context values were pushed. */
+  static final int NO_NESTED_CONTEXTS = -1;
+
+  /** The thread context map that was updated in place. */
+  private final ThreadContextMap contextMap;
+
+  /** The stack depth to restore, or {@link #NO_NESTED_CONTEXTS} to leave the stack unchanged. */
+  private final int nestedDepth;
+
+  /** The mapped keys that were put. */
+  private final String[] mappedKeys;
+
+  /** The undo stack holding the mapped values shadowed by this frame. */
+  private final MappedContextUndoStack undoStack;
+
+  /** The size of the undo stack before this frame shadowed any mapped values. */
+  private final int undoMark;
+
+  /**
+   * Constructs a new instance of Log4j2ContextFrame.
+   *
+   * @param contextMap the thread context map that was updated in place.
+   * @param nestedDepth the stack depth to restore, or {@link #NO_NESTED_CONTEXTS} to leave the
+   *     stack unchanged.
+   * @param mappedKeys the mapped keys that were put.
+   * @param undoStack the undo stack holding the mapped values shadowed by this frame.
+   * @param undoMark the size of the undo stack before this frame shadowed any mapped values.
+   */
+  Log4j2ContextFrame(
+      final ThreadContextMap contextMap,
+      final int nestedDepth,
+      final String[] mappedKeys,
+      final MappedContextUndoStack undoStack,
+      final int undoMark) {
+    this.contextMap = contextMap;
+    this.nestedDepth = nestedDepth;
+    this.mappedKeys = mappedKeys;
+    this.undoStack = undoStack;
+    this.undoMark = undoMark;
+  }
+
+  /**
+   * Removes the mapped keys in the reverse order they were put, restores the values they shadowed,
+   * and truncates the thread context stack to its recorded depth.
+   */
+  @Override
+  public void close() {
+    for (int i = mappedKeys.length - 1; i >= 0; i--) {
+      contextMap.remove(mappedKeys[i]);
+    }
+    undoStack.restoreTo(undoMark, this);
+    if (nestedDepth != NO_NESTED_CONTEXTS) {
+      ThreadContext.trim(nestedDepth);
+    }
+  }
+
+  /**
+   * Puts a shadowed value back into the thread context map.
+   *
+   * @param key the mapped key.
+   * @param value the value the key had before it was shadowed.
+   */
+  @Override
+  public void accept(final String key, final String value) {
+    contextMap.put(key, value);
+  }
+}
@@ -1,19 +1,49 @@
 package io.github.logcontext.log4j2;
 
+import static java.util.Objects.requireNonNull;
+
 import io.github.logcontext.AbstractLogContextBuilder;
+import io.github.logcontext.AttachableLogContext;
+import io.github.logcontext.LazyMappedValue;
 import io.github.logcontext.LogContext;
 import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogContextLeakDetector;
+import io.github.logcontext.LoggingContextMetricsRegistry;
+import io.github.logcontext.MappedContextSlot;
+import io.github.logcontext.MappedContextUndoStack;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.apache.logging.log4j.CloseableThreadContext;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.spi.CopyOnWrite;
+import org.apache.logging.log4j.spi.ReadOnlyThreadContextMap;
+import org.apache.logging.log4j.spi.ThreadContextMap;
 
 /**
  * The Log4j2LogContextBuilder class provides a {@link LogContext.Builder} implementation that
  * updates the Log4j logging contexts with additional nested and mapped context values. The logging
  * context will not be updated until the {@link #get()} method is called. Subsequent calls to {@link
  * #get()} will update the context with the same values.
+ *
+ * <p>When Log4j is configured with a garbage-free thread context map (for example with <code>
+ * -Dlog4j2.garbagefreeThreadContextMap=true</code>), the map is updated in place and the returned
+ * {@link LogContext} restores the values it shadowed from the {@link MappedContextUndoStack}, so no
+ * copy of the map is made. Otherwise, the contexts are updated through {@link
+ * CloseableThreadContext}, which also restores shadowed values.
+ *
+ * <p>When the {@link LazyContextDataInjector} is installed, {@link LazyMappedValue}s are not put in
+ * the thread context map but kept aside for the injector, so they are only converted to strings
+ * when an event is logged. Otherwise, they are converted when {@link #get()} is called. When the
+ * {@link ContextStoreDataInjector} is installed, no mapped values are put in the thread context
+ * map at all, and are only kept in a per-thread store for the injector.
  */
 public class Log4j2LogContextBuilder extends AbstractLogContextBuilder {
 
+  /** The name of this backend in the metrics and in the leak detection reports. */
+  static final String BACKEND_NAME = "log4j2";
 
+  /** The mapped keys of a frame without mapped context values. */
+  private static final String[] NO_MAPPED_KEYS = new String[0];
 
   /**
    * Constructs a new instance of {@link Builder}. This method is not intended for direct use.
@@ -29,11 +59,154 @@ public class Log4j2LogContextBuilder extends AbstractLogContextBuilder {
    * Updates the Nested Diagnostic Context and Mapped Diagnostic Contexts with the configured values
    * and returns a {@link LogContext} that can be used to remove the logging context updates.
    *
+   * <p>When the {@link io.github.logcontext.LoggingContextMetrics} are enabled, the scope is
+   * reported to them as opened by the <code>"log4j2"</code> backend, and as closed when the returned
+   * {@link LogContext} is closed.
+   *
+   * <p>When the {@link LogContextLeakDetector} is enabled, the returned {@link LogContext} may track
+   * that it is closed once, in order and by the current thread.
+   *
    * @return a {@link LogContext} that can be used to remove the updates to the logging contexts.
    */
   public LogContext get() {
+    return instrument(getMappedContextCount(), open());
+  }
+
+  /**
+   * Returns an immutable copy of the values of this builder. When the {@link
+   * ContextStoreDataInjector} is installed, attaching it links the copied values in front of the
+   * values of the store with a single entry, whatever their number. Otherwise, the values are added
+   * to a pooled builder as by {@link AbstractLogContextBuilder#toAttachable()}.
+   *
+   * @return the values of this builder as an {@link AttachableLogContext}.
+   */
+  @Override
+  public AttachableLogContext toAttachable() {
+    final AttachableLogContext copied = super.toAttachable();
+    final AttachableLogContext stored = ContextStore.freeze(this);
+    final int mappedCount = getMappedContextCount();
+    return () ->
+        ContextStore.getMode() == ContextStore.Mode.ALL_VALUES
+            ? instrument(mappedCount, stored.attach())
+            : copied.attach();
+  }
+
+  /**
+   * Updates the logging contexts with the configured values, as {@link #get()} does, and returns a
+   * {@link MappedContextSlot} that replaces each value of the provided key in place. When the
+   * {@link LazyContextDataInjector} or the {@link ContextStoreDataInjector} is installed, the value
+   * is kept in the per-thread store read by the injector, so that the thread context map is not
+   * copied for every value.
+   *
+   * @param context the name of the MDC key of the slot (must not be <code>null</code>).
+   * @return a {@link MappedContextSlot} that can be used to remove the updates to the logging
+   *     contexts.
+   * @throws NullPointerException if <code>context</code> is <code>null</code>.
+   */
+  @Override
+  public MappedContextSlot getSlot(final String context) {
+    requireNonNull(context, "context must not be null");
+    return new Log4j2MappedContextSlot(get(), context);
+  }
+
+  /**
+   * Reports a scope to the metrics and the leak detector when they are enabled. The scope is
+   * reported with the depth of the thread context stack once its nested values were pushed.
+   *
+   * @param mappedCount the number of mapped values added by the scope.
+   * @param context the opened logging context of the scope.
+   * @return the logging context that reports its closing.
+   */
+  private static LogContext instrument(final int mappedCount, final LogContext context) {
+    final LogContext recorded =
+        LoggingContextMetricsRegistry.isEnabled()
+            ? LoggingContextMetricsRegistry.recordScope(
+                BACKEND_NAME, ThreadContext.getDepth(), mappedCount, context)
+            : context;
+    return LogContextLeakDetector.track(BACKEND_NAME, recorded);
+  }
+
+  private LogContext open() {
+    final ContextStore.Mode storeMode = ContextStore.getMode();
+    if (storeMode == ContextStore.Mode.ALL_VALUES) {
+      return ContextStore.pushAllValues(this);
+    }
+    final boolean lazy =
+        storeMode == ContextStore.Mode.LAZY_VALUES
+            && (getLazyMappedContextCount() > 0 || ContextStore.current() != null);
+    final ReadOnlyThreadContextMap contextMap = ThreadContext.getThreadContextMap();
+    if (isGarbageFree(contextMap)) {
+      final LogContext context = getInPlace((ThreadContextMap) contextMap, lazy);
+      return lazy ? ContextStore.pushLazyValues(this, context) : context;
+    }
+
     CloseableThreadContext.Instance context = CloseableThreadContext.pushAll(getNestedContexts());
-    context = context.putAll(getMappedContextValues());
-    return LogContext.closeableLogContext(context);
+    context = context.putAll(lazy ? getStringMappedContextValues() : getMappedContextValues());
+    return lazy
+        ? ContextStore.pushLazyValues(this, LogContext.closeableLogContext(context))
+        : LogContext.closeableLogContext(context);
+  }
+
+  /**
+   * Returns whether a thread context map can be updated in place, which is the case for maps that
+   * are not {@link CopyOnWrite}. The default map is not returned by {@link
+   * ThreadContext#getThreadContextMap()} at all.
+   *
+   * @param contextMap the thread context map, or <code>null</code> if it is not exposed by Log4j.
+   * @return <code>true</code> if the map can be updated in place.
+   */
+  static boolean isGarbageFree(final ReadOnlyThreadContextMap contextMap) {
+    return contextMap instanceof ThreadContextMap && !(contextMap instanceof CopyOnWrite);
+  }
+
+  /**
+   * Updates the thread context map in place and returns a {@link Log4j2ContextFrame} that restores
+   * it.
+   *
+   * @param contextMap the garbage-free thread context map.
+   * @param skipLazy whether the {@link LazyMappedValue}s are left out of the thread context map.
+   * @return a frame that can be used to remove the updates to the logging contexts.
+   */
+  private LogContext getInPlace(final ThreadContextMap contextMap, final boolean skipLazy) {
+    final int nestedCount = getNestedContextCount();
+    final int nestedDepth =
+        nestedCount > 0 ? ThreadContext.getDepth() : Log4j2ContextFrame.NO_NESTED_CONTEXTS;
+    for (int i = 0; i < nestedCount; i++) {
+      ThreadContext.push(getNestedContext(i));
+    }
+
+    final MappedContextUndoStack undoStack = MappedContextUndoStack.forCurrentThread();
+    final int undoMark = undoStack.size();
+    final int mappedCount = getMappedContextCount();
+    final int putCount = skipLazy ? mappedCount - getLazyMappedContextCount() : mappedCount;
+    final String[] mappedKeys = putCount > 0 ? new String[putCount] : NO_MAPPED_KEYS;
+    for (int i = 0, put = 0; i < mappedCount; i++) {
+      if (skipLazy && getLazyMappedContextValue(i) != null) {
+        continue;
+      }
+      final String key = getMappedContextKey(i);
+      if (contextMap.containsKey(key)) {
+        undoStack.push(key, contextMap.get(key));
+      }
+      mappedKeys[put++] = key;
+      contextMap.put(key, getMappedContextValue(i));
+    }
+
+    return new Log4j2ContextFrame(contextMap, nestedDepth, mappedKeys, undoStack, undoMark);
+  }
+
+  /**
+   * Returns the Mapped Diagnostic Context values that were not added as {@link LazyMappedValue}s.
+   *
+   * @return the string Mapped Diagnostic Context values.
+   */
+  private Map<String, String> getStringMappedContextValues() {
+    final Map<String, String> values = new LinkedHashMap<>();
+    for (int i = 0; i < getMappedContextCount(); i++) {
+      if (getLazyMappedContextValue(i) == null) {
+        values.put(getMappedContextKey(i), getMappedContextValue(i));
+      }
+    }
+    return values;
   }
 }
@@ -0,0 +1,245 @@
+package io.github.logcontext.log4j2;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContextSnapshot;
+import java.util.Map;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.ThreadContext.ContextStack;
+import org.apache.logging.log4j.spi.CopyOnWrite;
+import org.apache.logging.log4j.spi.ReadOnlyThreadContextMap;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+
+/**
+ * The Log4j2LogContextSnapshot class provides a {@link LogContextSnapshot} of the Log4j thread
+ * context stack and map.
+ *
+ * <p>The snapshot holds the immutable stack returned by {@link ThreadContext#getImmutableStack()}
+ * and, for a {@link CopyOnWrite} thread context map, the frozen context data returned by {@link
+ * ReadOnlyThreadContextMap#getReadOnlyContextData()}, or otherwise the map returned by {@link
+ * ThreadContext#getImmutableContext()}. With the default thread context stack and map, these are
+ * the structures Log4j already shares with its log events, so capturing a snapshot does not copy
+ * the context. Attaching a snapshot to a thread that still holds the same stack and map, such as
+ * the thread that captured it or a thread it is already attached to, does not change the thread
+ * context at all.
+ *
+ * <p>The snapshot also holds the immutable list of values kept in the {@link ContextStore} for the
+ * {@link LazyContextDataInjector}, so that they are propagated unconverted and without copying.
+ */
+public final class Log4j2LogContextSnapshot implements LogContextSnapshot {
+
+  /** The logging context returned when attaching does not change the thread context. */
+  private static final LogContext NO_OP_CONTEXT = () -> {};
+
+  /** The logging context returned when attaching to a thread with an empty thread context. */
+  private static final LogContext CLEAR_CONTEXT =
+      () -> {
+        ThreadContext.clearAll();
+        ContextStore.set(null);
+      };
+
+  /** The snapshot last captured by each thread, returned again while its context is unchanged. */
+  private static final ThreadLocal<Log4j2LogContextSnapshot> LAST_CAPTURED = new ThreadLocal<>();
+
+  /** The captured thread context stack. */
+  private final ContextStack nestedContexts;
+
+  /** The captured data of a copy-on-write thread context map, or <code>null</code>. */
+  private final ReadOnlyStringMap contextData;
+
+  /**
+   * The captured thread context map, or <code>null</code> until the {@link #contextData} is first
+   * attached. The field is volatile because the snapshot may be attached on many threads at once,
+   * so the map converted by one of them must be safely published to the others.
+   */
+  private volatile Map<String, String> mappedContexts;
+
+  /** The captured entries of the {@link ContextStore}, or <code>null</code>. */
+  private final ContextStore.Entry stored;
+
+  /**
+   * The snapshot whose {@link #attach()} produced the captured thread context, or <code>null
+   * </code>.
+   */
+  private final Log4j2LogContextSnapshot attachedFrom;
+
+  /**
+   * Constructs a new instance of Log4j2LogContextSnapshot.
+   *
+   * @param nestedContexts the captured thread context stack.
+   * @param contextData the captured data of a copy-on-write thread context map, or <code>null
+   *     </code> if <code>mappedContexts</code> is provided.
+   * @param mappedContexts the captured thread context map, or <code>null</code> if <code>
+   *     contextData</code> is provided.
+   */
+  Log4j2LogContextSnapshot(
+      final ContextStack nestedContexts,
+      final ReadOnlyStringMap contextData,
+      final Map<String, String> mappedContexts) {
+    this(nestedContexts, contextData, mappedContexts, null, null);
+  }
+
+  private Log4j2LogContextSnapshot(
+      final ContextStack nestedContexts,
+      final ReadOnlyStringMap contextData,
+      final Map<String, String> mappedContexts,
+      final ContextStore.Entry stored,
+      final Log4j2LogContextSnapshot attachedFrom) {
+    this.nestedContexts = nestedContexts;
+    this.contextData = contextData;
+    this.mappedContexts = mappedContexts;
+    this.stored = stored;
+    this.attachedFrom = attachedFrom;
+  }
+
+  /**
+   * Captures the thread context of the current thread. Consecutive captures of an unchanged thread
+   * context, such as the stages of a chain created by the same thread, return the same snapshot.
+   *
+   * @return a snapshot of the thread context of the current thread.
+   */
+  public static LogContextSnapshot capture() {
+    final ContextStack nestedContexts = ThreadContext.getImmutableStack();
+    final ReadOnlyStringMap contextData = getCopyOnWriteContextData();
+    final Map<String, String> mappedContexts =
+        contextData == null ? ThreadContext.getImmutableContext() : null;
+    final ContextStore.Entry stored = ContextStore.current();
+
+    final Log4j2LogContextSnapshot lastCaptured = LAST_CAPTURED.get();
+    if (lastCaptured != null
+        && lastCaptured.isSameContext(nestedContexts, contextData, mappedContexts, stored)) {
+      return lastCaptured;
+    }
+    return remember(
+        new Log4j2LogContextSnapshot(
+            nestedContexts, contextData, mappedContexts, stored, null));
+  }
+
+  /**
+   * Replaces the thread context of the current thread with this snapshot and returns a {@link
+   * LogContext} that restores the previous thread context when closed.
+   *
+   * @return a {@link LogContext} that restores the previous thread context.
+   */
+  @Override
+  public LogContext attach() {
+    final ContextStack nestedContexts = ThreadContext.getImmutableStack();
+    final ReadOnlyStringMap contextData = getCopyOnWriteContextData();
+    final Map<String, String> mappedContexts =
+        contextData == null ? ThreadContext.getImmutableContext() : null;
+    final ContextStore.Entry stored = ContextStore.current();
+    if (isSameContext(nestedContexts, contextData, mappedContexts, stored)) {
+      return NO_OP_CONTEXT;
+    }
+    final Log4j2LogContextSnapshot lastCaptured = LAST_CAPTURED.get();
+    if (lastCaptured != null
+        && lastCaptured.attachedFrom == this
+        && lastCaptured.isSameContext(nestedContexts, contextData, mappedContexts, stored)) {
+      return NO_OP_CONTEXT;
+    }
+
+    if (nestedContexts.isEmpty()
+        && (contextData != null ? contextData.isEmpty() : mappedContexts.isEmpty())
+        && stored == null) {
+      if (isEmpty()) {
+        return NO_OP_CONTEXT;
+      }
+      putThreadContext();
+      return CLEAR_CONTEXT;
+    }
+    final Log4j2LogContextSnapshot previous =
+        new Log4j2LogContextSnapshot(
+            nestedContexts, contextData, mappedContexts, stored, null);
+    replaceThreadContext();
+    return previous::replaceThreadContext;
+  }
+
+  /**
+   * Makes a snapshot the one returned by {@link #capture()} while the thread context is unchanged.
+   *
+   * @param snapshot the snapshot of the current thread context.
+   * @return the snapshot.
+   */
+  private static Log4j2LogContextSnapshot remember(final Log4j2LogContextSnapshot snapshot) {
+    LAST_CAPTURED.set(snapshot);
+    return snapshot;
+  }
+
+  /**
+   * Returns the data of the thread context map if it is {@link CopyOnWrite}, and can therefore be
+   * shared.
+   *
+   * @return the data of the thread context map, or <code>null</code> if it is not copy-on-write.
+   */
+  private static ReadOnlyStringMap getCopyOnWriteContextData() {
+    final ReadOnlyThreadContextMap contextMap = ThreadContext.getThreadContextMap();
+    return contextMap instanceof CopyOnWrite ? contextMap.getReadOnlyContextData() : null;
+  }
+
+  private boolean isEmpty() {
+    return nestedContexts.isEmpty() && isMappedContextsEmpty() && stored == null;
+  }
+
+  private boolean isMappedContextsEmpty() {
+    return contextData != null ? contextData.isEmpty() : mappedContexts.isEmpty();
+  }
+
+  private boolean isSameContext(
+      final ContextStack otherNestedContexts,
+      final ReadOnlyStringMap otherContextData,
+      final Map<String, String> otherMappedContexts,
+      final ContextStore.Entry otherStored) {
+    return nestedContexts == otherNestedContexts
+        && stored == otherStored
+        && (contextData != null
+            ? contextData == otherContextData
+            : otherContextData == null && mappedContexts == otherMappedContexts);
+  }
+
+  private void replaceThreadContext() {
+    ThreadContext.clearAll();
+    ContextStore.set(null);
+    if (!isEmpty()) {
+      putThreadContext();
+    }
+  }
+
+  /**
+   * Adds this snapshot to an empty thread context and remembers the resulting thread context as
+   * attached from this snapshot, so that attaching this snapshot again, for example by a nested
+   * decorator, leaves it unchanged.
+   */
+  private void putThreadContext() {
+    if (!nestedContexts.isEmpty()) {
+      ThreadContext.setStack(nestedContexts);
+    }
+    if (!isMappedContextsEmpty()) {
+      ThreadContext.putAll(getMappedContexts());
+    }
+    ContextStore.set(stored);
+    final ReadOnlyStringMap attachedData = getCopyOnWriteContextData();
+    remember(
+        new Log4j2LogContextSnapshot(
+            ThreadContext.getImmutableStack(),
+            attachedData,
+            attachedData == null ? ThreadContext.getImmutableContext() : null,
+            stored,
+            this));
+  }
+
+  /**
+   * Returns the captured thread context map, converting the captured context data the first time it
+   * is needed. Threads attaching the snapshot at the same time may each convert the data, but each
+   * of them only reads a map that was fully built, since the map is published through a volatile
+   * field.
+   *
+   * @return the captured thread context map.
+   */
+  private Map<String, String> getMappedContexts() {
+    Map<String, String> map = mappedContexts;
+    if (map == null) {
+      map = contextData.toMap();
+      mappedContexts = map;
+    }
+    return map;
+  }
+}
@@ -0,0 +1,79 @@
+package io.github.logcontext.log4j2;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.MappedContextSlot;
+import org.apache.logging.log4j.ThreadContext;
+
+/**
+ * The Log4j2MappedContextSlot class provides a {@link MappedContextSlot} for the Log4j thread
+ * context. When one of the injectors of this library is installed, the value is kept in the {@link
+ * ContextStore}, and setting it only links a single entry in front of the entries the thread had
+ * when the slot was opened, so the thread context map is never copied. Otherwise, the value is put
+ * in the thread context map, which a garbage-free map updates in place but the default
+ * copy-on-write map copies on every value.
+ */
+final class Log4j2MappedContextSlot implements MappedContextSlot {
+
+  /** The logging context of the other values of the builder. */
+  private final LogContext context;
+
+  /** The MDC key of the slot. */
+  private final String key;
+
+  /** Whether the value is kept in the {@link ContextStore}. */
+  private final boolean stored;
+
+  /** The innermost entry of the store when the slot was opened, or <code>null</code>. */
+  private final ContextStore.Entry previous;
+
+  /** Whether the thread context map contained the key when the slot was opened. */
+  private final boolean shadowing;
+
+  /** The value of the key in the thread context map when the slot was opened. */
+  private final String shadowed;
+
+  /**
+   * Constructs a new instance of Log4j2MappedContextSlot, recording the current value of the key.
+   *
+   * @param context the logging context of the other values of the builder.
+   * @param key the MDC key of the slot.
+   */
+  Log4j2MappedContextSlot(final LogContext context, final String key) {
+    this.context = context;
+    this.key = key;
+    this.stored = ContextStore.getMode() != ContextStore.Mode.DISABLED;
+    this.previous = stored ? ContextStore.current() : null;
+    this.shadowing = !stored && ThreadContext.containsKey(key);
+    this.shadowed = shadowing ? ThreadContext.get(key) : null;
+  }
+
+  @Override
+  public void set(final String value) {
+    if (value == null) {
+      restore();
+    } else if (stored) {
+      ContextStore.set(new ContextStore.Entry(key, value, previous));
+    } else {
+      ThreadContext.put(key, value);
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    try {
+      restore();
+    } finally {
+      context.close();
+    }
+  }
+
+  private void restore() {
+    if (stored) {
+      ContextStore.set(previous);
+    } else if (shadowing) {
+      ThreadContext.put(key, shadowed);
+    } else {
+      ThreadContext.remove(key);
+    }
+  }
+}
@@ -2,8 +2,15 @@ package io.github.logcontext.log4j2.spi;
 
 import io.github.logcontext.LogContext;
 import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogContextSnapshot;
+import io.github.logcontext.LogLevel;
 import io.github.logcontext.LoggingContextServiceProvider;
 import io.github.logcontext.log4j2.Log4j2LogContextBuilder;
+import io.github.logcontext.log4j2.Log4j2LogContextSnapshot;
+import java.util.function.Predicate;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * The Log4j2LoggingContextServiceProvider class provides a {@link LoggingContextServiceProvider}
@@ -12,8 +19,31 @@ import io.github.logcontext.log4j2.Log4j2LogContextBuilder;
  */
 public class Log4j2LoggingContextServiceProvider implements LoggingContextServiceProvider {
 
+  /** The Log4j levels, indexed by the ordinal of the matching {@link LogLevel}. */
+  private static final Level[] LEVELS = {
+    Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR
+  };
+
   @Override
   public Builder logContextBuilder() {
     return new Log4j2LogContextBuilder();
   }
+
+  @Override
+  public LogContextSnapshot captureSnapshot() {
+    return Log4j2LogContextSnapshot.capture();
+  }
+
+  /**
+   * Returns the predicate of the levels enabled for a Log4j logger. The logger follows
+   * reconfigurations of Log4j, so the predicate does too.
+   *
+   * @param category the name of the logger.
+   * @return the predicate of the enabled levels.
+   */
+  @Override
+  public Predicate<LogLevel> loggingEnabled(final String category) {
+    final Logger logger = LogManager.getLogger(category);
+    return level -> logger.isEnabled(LEVELS[level.ordinal()]);
+  }
 }
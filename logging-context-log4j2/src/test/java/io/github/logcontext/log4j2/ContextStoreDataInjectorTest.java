@@ -0,0 +1,84 @@
+package io.github.logcontext.log4j2;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import io.github.logcontext.LogContext;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.impl.ThreadContextDataInjector;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ContextStoreDataInjectorTest class provides a set of JUnit test cases for the {@link
+ * ContextStoreDataInjector} class.
+ */
+class ContextStoreDataInjectorTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  private static final String CONTEXT_2 = "CONTEXT2";
+
+  /** Removes the entries and the injector installed by a test case. */
+  @AfterEach
+  void tearDown() {
+    ContextStore.setMode(ContextStore.Mode.DISABLED);
+    ContextStore.set(null);
+    ThreadContext.clearAll();
+  }
+
+  /**
+   * Test method for {@link ContextStoreDataInjector#ContextStoreDataInjector()} to ensure that
+   * creating the injector makes the builders keep all mapped values in the store.
+   */
+  @Test
+  void testContextStoreDataInjector_enablesContextStore() {
+    new ContextStoreDataInjector();
+
+    assertThat(ContextStore.getMode(), equalTo(ContextStore.Mode.ALL_VALUES));
+  }
+
+  /**
+   * Test method for {@link LazyContextDataInjector#injectContextData(java.util.List, StringMap)}
+   * to ensure that the values of the builders are injected from the store over the thread context
+   * data, and that the injected data is reused until the store or the thread context changes.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testInjectContextData_reusedWhileUnchanged() throws Exception {
+    ThreadContext.put(CONTEXT_1, "thread");
+    final ContextStoreDataInjector injector =
+        new ContextStoreDataInjector(new ThreadContextDataInjector.ForCopyOnWriteThreadContextMap());
+
+    try (LogContext outer =
+        new Log4j2LogContextBuilder().andMapped(CONTEXT_1, "1").andMapped(CONTEXT_2, "2").get()) {
+      assertThat(ThreadContext.get(CONTEXT_1), equalTo("thread"));
+      assertThat(ThreadContext.containsKey(CONTEXT_2), equalTo(false));
+
+      final StringMap contextData = injector.injectContextData(null, null);
+
+      assertThat(contextData.getValue(CONTEXT_1), equalTo("1"));
+      assertThat(contextData.getValue(CONTEXT_2), equalTo("2"));
+      assertThat(injector.injectContextData(null, null), sameInstance(contextData));
+
+      try (LogContext inner = new Log4j2LogContextBuilder().andMapped(CONTEXT_2, "inner").get()) {
+        assertThat(injector.injectContextData(null, null).getValue(CONTEXT_2), equalTo("inner"));
+      }
+
+      assertThat(injector.injectContextData(null, null), sameInstance(contextData));
+
+      ThreadContext.put("other", "value");
+      final StringMap changedData = injector.injectContextData(null, null);
+
+      assertThat(changedData, not(sameInstance(contextData)));
+      assertThat(changedData.getValue("other"), equalTo("value"));
+      assertThat(changedData.getValue(CONTEXT_1), equalTo("1"));
+    }
+
+    assertThat(injector.injectContextData(null, null).getValue(CONTEXT_1), equalTo("thread"));
+  }
+}
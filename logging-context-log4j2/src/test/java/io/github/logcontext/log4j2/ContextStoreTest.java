@@ -0,0 +1,222 @@
+package io.github.logcontext.log4j2;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import io.github.logcontext.AbstractLogContextBuilder;
+import io.github.logcontext.AttachableLogContext;
+import io.github.logcontext.LazyMappedValue;
+import io.github.logcontext.LogContext;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ContextStoreTest class provides a set of JUnit test cases for the {@link ContextStore}
+ * class.
+ */
+class ContextStoreTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  private static final String CONTEXT_2 = "CONTEXT2";
+
+  /** Removes the entries and the thread context added by a test case. */
+  @AfterEach
+  void tearDown() {
+    ContextStore.set(null);
+    ThreadContext.clearAll();
+  }
+
+  /**
+   * Test method for {@link ContextStore#pushLazyValues(AbstractLogContextBuilder,
+   * LogContext)} to ensure that the provided context is returned unchanged when there are no lazy
+   * values to add or mask.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testPush_withoutLazyValues() throws Exception {
+    final LogContext context = mock(LogContext.class);
+    final Log4j2LogContextBuilder builder = new Log4j2LogContextBuilder();
+    builder.andMapped(CONTEXT_1, "1");
+
+    assertThat(ContextStore.pushLazyValues(builder, context), sameInstance(context));
+
+    ContextStore.set(new ContextStore.Entry(CONTEXT_2, LazyMappedValue.of(2), null));
+
+    assertThat(ContextStore.pushLazyValues(builder, context), sameInstance(context));
+  }
+
+  /**
+   * Test method for {@link ContextStore#pushLazyValues(AbstractLogContextBuilder,
+   * LogContext)} to ensure that the lazy values are added and that closing the returned context
+   * closes the provided context and restores the previous values.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testPush_restoresPreviousValues() throws Exception {
+    final ContextStore.Entry previous =
+        new ContextStore.Entry(CONTEXT_2, LazyMappedValue.of(2), null);
+    ContextStore.set(previous);
+    final LogContext context = mock(LogContext.class);
+
+    final LogContext pushed =
+        ContextStore.pushLazyValues(
+            (Log4j2LogContextBuilder)
+                new Log4j2LogContextBuilder()
+                    .andLazyMapped(CONTEXT_1, (Object) 1)
+                    .andMapped(CONTEXT_2, "2"),
+            context);
+
+    assertThat(ContextStore.current().size, equalTo(3));
+    assertThat(ContextStore.current().find(CONTEXT_2).value, sameInstance(ContextStore.MASKED));
+    assertThat(ContextStore.current().find(CONTEXT_1).value.toString(), equalTo("1"));
+
+    pushed.close();
+
+    verify(context).close();
+    assertThat(ContextStore.current(), sameInstance(previous));
+  }
+
+  /**
+   * Test method for {@link ContextStore#putAll(ContextStore.Entry, StringMap)} to ensure that
+   * only the innermost value of each key is added and converted, and that masked keys are skipped.
+   */
+  @Test
+  void testPutAll() {
+    final LazyMappedValue shadowed = LazyMappedValue.of(() -> "shadowed");
+    final LazyMappedValue masked = LazyMappedValue.of(() -> "masked");
+    ContextStore.Entry head = new ContextStore.Entry(CONTEXT_1, shadowed, null);
+    head = new ContextStore.Entry(CONTEXT_2, masked, head);
+    head = new ContextStore.Entry(CONTEXT_1, LazyMappedValue.of(1), head);
+    head = new ContextStore.Entry(CONTEXT_2, ContextStore.MASKED, head);
+    final StringMap contextData = ContextDataFactory.createContextData();
+    contextData.putValue(CONTEXT_2, "string");
+
+    ContextStore.putAll(head, contextData);
+
+    assertThat(contextData.getValue(CONTEXT_1), equalTo("1"));
+    assertThat(contextData.getValue(CONTEXT_2), equalTo("string"));
+    assertThat(shadowed.isRendered(), equalTo(false));
+    assertThat(masked.isRendered(), equalTo(false));
+    assertThat(head.find("missing"), nullValue());
+
+    ContextStore.putAll(new ContextStore.Entry(CONTEXT_1, null, null), contextData);
+
+    assertThat(contextData.containsKey(CONTEXT_1), equalTo(true));
+    assertThat(contextData.getValue(CONTEXT_1), nullValue());
+  }
+
+  /**
+   * Test method for {@link ContextStore#pushAllValues(AbstractLogContextBuilder)}
+   * to ensure that the mapped values are only added to the store, that the nested values are pushed
+   * onto the thread context stack, and that both are restored when the returned context is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testPushAllValues() throws Exception {
+    ThreadContext.push("outer");
+    final LogContext outer =
+        ContextStore.pushAllValues(
+            (Log4j2LogContextBuilder) new Log4j2LogContextBuilder().andMapped(CONTEXT_1, "1"));
+    final ContextStore.Entry previous = ContextStore.current();
+    final LazyMappedValue lazyValue = LazyMappedValue.of(2);
+
+    final LogContext inner =
+        ContextStore.pushAllValues(
+            (Log4j2LogContextBuilder)
+                new Log4j2LogContextBuilder()
+                    .andNested(CONTEXT_2)
+                    .andMapped(CONTEXT_1, "inner")
+                    .andLazyMapped(CONTEXT_2, lazyValue));
+
+    assertThat(ThreadContext.isEmpty(), equalTo(true));
+    assertThat(ThreadContext.getImmutableStack().asList(), contains("outer", CONTEXT_2));
+    assertThat(ContextStore.current().size, equalTo(3));
+    assertThat(ContextStore.current().value, sameInstance(lazyValue));
+    assertThat(ContextStore.current().find(CONTEXT_1).value, equalTo("inner"));
+
+    inner.close();
+
+    assertThat(ContextStore.current(), sameInstance(previous));
+    assertThat(ThreadContext.getImmutableStack().asList(), contains("outer"));
+
+    outer.close();
+
+    assertThat(ContextStore.current(), nullValue());
+    assertThat(ThreadContext.getImmutableStack().asList(), contains("outer"));
+    assertThat(lazyValue.isRendered(), equalTo(false));
+  }
+
+  /**
+   * Test method for {@link ContextStore#freeze(AbstractLogContextBuilder)} to ensure that the
+   * copied values are attached with a single group entry over the entries of the thread, and
+   * restored when the returned context is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testFreeze() throws Exception {
+    final ContextStore.Entry previous = new ContextStore.Entry(CONTEXT_1, "outer", null);
+    ContextStore.set(previous);
+    ThreadContext.push("outer");
+    final LazyMappedValue lazyValue = LazyMappedValue.of(2);
+    final Log4j2LogContextBuilder builder = new Log4j2LogContextBuilder();
+    builder.andNested(CONTEXT_2).andMapped(CONTEXT_1, "1").andLazyMapped(CONTEXT_2, lazyValue);
+
+    final AttachableLogContext attachable = ContextStore.freeze(builder);
+    builder.reset();
+
+    final LogContext attached = attachable.attach();
+
+    assertThat(ContextStore.current().next, sameInstance(previous));
+    assertThat(ContextStore.current().size, equalTo(3));
+    assertThat(ContextStore.current().find(CONTEXT_1).value, equalTo("1"));
+    assertThat(ContextStore.current().find(CONTEXT_2).value, sameInstance(lazyValue));
+    assertThat(ThreadContext.getImmutableStack().asList(), contains("outer", CONTEXT_2));
+
+    final StringMap contextData = ContextDataFactory.createContextData();
+    ContextStore.putAll(ContextStore.current(), contextData);
+
+    assertThat(contextData.size(), equalTo(2));
+    assertThat(contextData.getValue(CONTEXT_1), equalTo("1"));
+    assertThat(contextData.getValue(CONTEXT_2), equalTo("2"));
+
+    attached.close();
+
+    assertThat(ContextStore.current(), sameInstance(previous));
+    assertThat(ThreadContext.getImmutableStack().asList(), contains("outer"));
+  }
+
+  /**
+   * Test method for {@link ContextStore#attach(ContextStore.Entry, String[])} to ensure that
+   * attaching no values leaves the entries and the thread context stack unchanged.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_noValues() throws Exception {
+    final ContextStore.Entry previous = new ContextStore.Entry(CONTEXT_1, "1", null);
+    ContextStore.set(previous);
+
+    final LogContext attached = ContextStore.attach(null, new String[0]);
+
+    assertThat(ContextStore.current(), sameInstance(previous));
+    assertThat(ThreadContext.getDepth(), equalTo(0));
+
+    attached.close();
+
+    assertThat(ContextStore.current(), sameInstance(previous));
+    assertThat(ContextStore.current().find(CONTEXT_2), nullValue());
+  }
+}
@@ -0,0 +1,148 @@
+package io.github.logcontext.log4j2;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.logcontext.LazyMappedValue;
+import io.github.logcontext.LogContext;
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.ContextDataInjector;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.ThreadContextDataInjector;
+import org.apache.logging.log4j.spi.ReadOnlyThreadContextMap;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LazyContextDataInjectorTest class provides a set of JUnit test cases for the {@link
+ * LazyContextDataInjector} class.
+ */
+class LazyContextDataInjectorTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  private static final String CONTEXT_2 = "CONTEXT2";
+
+  /** Removes the lazy values and the injector installed by a test case. */
+  @AfterEach
+  void tearDown() {
+    ContextStore.setMode(ContextStore.Mode.DISABLED);
+    ContextStore.set(null);
+    ThreadContext.clearAll();
+  }
+
+  /**
+   * Test method for {@link LazyContextDataInjector#LazyContextDataInjector()} to ensure that
+   * creating the injector makes the builders keep lazy values for it.
+   */
+  @Test
+  void testLazyContextDataInjector_enablesLazyValues() {
+    new LazyContextDataInjector();
+
+    assertThat(ContextStore.getMode(), equalTo(ContextStore.Mode.LAZY_VALUES));
+  }
+
+  /**
+   * Test method for {@link LazyContextDataInjector#createDefaultInjector(ReadOnlyThreadContextMap)}
+   * to ensure that the injector Log4j would use is created for each kind of thread context map.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testCreateDefaultInjector() throws Exception {
+    assertThat(
+        LazyContextDataInjector.createDefaultInjector(null),
+        instanceOf(ThreadContextDataInjector.ForDefaultThreadContextMap.class));
+    assertThat(
+        LazyContextDataInjector.createDefaultInjector(
+            threadContextMap(
+                "org.apache.logging.log4j.spi.CopyOnWriteSortedArrayThreadContextMap")),
+        instanceOf(ThreadContextDataInjector.ForCopyOnWriteThreadContextMap.class));
+    assertThat(
+        LazyContextDataInjector.createDefaultInjector(
+            threadContextMap(
+                "org.apache.logging.log4j.spi.GarbageFreeSortedArrayThreadContextMap")),
+        instanceOf(ThreadContextDataInjector.ForGarbageFreeThreadContextMap.class));
+  }
+
+  /**
+   * Test method for {@link LazyContextDataInjector#injectContextData(java.util.List, StringMap)}
+   * to ensure that the thread context data is returned unchanged without lazy values.
+   */
+  @Test
+  void testInjectContextData_withoutLazyValues() {
+    final StringMap contextData = ContextDataFactory.createContextData();
+    final ContextDataInjector delegate = mock(ContextDataInjector.class);
+    when(delegate.injectContextData(null, null)).thenReturn(contextData);
+
+    assertThat(
+        new LazyContextDataInjector(delegate).injectContextData(null, null),
+        sameInstance(contextData));
+  }
+
+  /**
+   * Test method for {@link LazyContextDataInjector#injectContextData(java.util.List, StringMap)}
+   * to ensure that the lazy values are added over the thread context data, copying it if it is
+   * frozen and reusing the copy while neither changes.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testInjectContextData_withLazyValues() throws Exception {
+    ThreadContext.put(CONTEXT_1, "outer");
+    final LazyContextDataInjector injector =
+        new LazyContextDataInjector(new ThreadContextDataInjector.ForCopyOnWriteThreadContextMap());
+    final LazyMappedValue lazyValue = LazyMappedValue.of(() -> "inner");
+
+    try (LogContext context =
+        new Log4j2LogContextBuilder()
+            .andLazyMapped(CONTEXT_1, lazyValue)
+            .andMapped(CONTEXT_2, "2")
+            .get()) {
+      assertThat(lazyValue.isRendered(), equalTo(false));
+
+      final StringMap contextData = injector.injectContextData(null, null);
+
+      assertThat(contextData.getValue(CONTEXT_1), equalTo("inner"));
+      assertThat(contextData.getValue(CONTEXT_2), equalTo("2"));
+      assertThat(contextData.isFrozen(), equalTo(true));
+      assertThat(injector.injectContextData(null, null), sameInstance(contextData));
+      assertThat(contextData, not(sameInstance(injector.rawContextData())));
+      assertThat(injector.rawContextData().getValue(CONTEXT_1), equalTo("outer"));
+    }
+  }
+
+  /**
+   * Test method for {@link LazyContextDataInjector#injectContextData(java.util.List, StringMap)}
+   * to ensure that the lazy values are added to a mutable map returned by the delegate in place.
+   */
+  @Test
+  void testInjectContextData_mutableContextData() {
+    final StringMap contextData = ContextDataFactory.createContextData();
+    final ContextDataInjector delegate = mock(ContextDataInjector.class);
+    when(delegate.injectContextData(Collections.emptyList(), contextData)).thenReturn(contextData);
+    ContextStore.set(new ContextStore.Entry(CONTEXT_1, LazyMappedValue.of(1), null));
+
+    assertThat(
+        new LazyContextDataInjector(delegate)
+            .injectContextData(Collections.emptyList(), contextData),
+        sameInstance(contextData));
+    assertThat(contextData.getValue(CONTEXT_1), equalTo("1"));
+  }
+
+  private static ReadOnlyThreadContextMap threadContextMap(final String className)
+      throws Exception {
+    final Constructor<?> constructor = Class.forName(className).getDeclaredConstructor();
+    constructor.setAccessible(true);
+    return (ReadOnlyThreadContextMap) constructor.newInstance();
+  }
+}
@@ -0,0 +1,69 @@
+package io.github.logcontext.log4j2;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import io.github.logcontext.MappedContextUndoStack;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.spi.ThreadContextMap;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.MockedStatic;
+
+/**
+ * The Log4j2ContextFrameTest class provides a set of JUnit test cases for the {@link
+ * Log4j2ContextFrame} class.
+ */
+class Log4j2ContextFrameTest {
+
+  /**
+   * Test method for {@link Log4j2ContextFrame#close()} that ensures the mapped keys are removed in
+   * reverse order and their shadowed values restored before the thread context stack is truncated.
+   */
+  @Test
+  void testClose() {
+    final ThreadContextMap contextMap = mock(ThreadContextMap.class);
+    final MappedContextUndoStack undoStack = MappedContextUndoStack.forCurrentThread();
+    final int undoMark = undoStack.size();
+    undoStack.push("first", "original");
+
+    try (final MockedStatic<ThreadContext> mockThreadContext = mockStatic(ThreadContext.class)) {
+      new Log4j2ContextFrame(
+              contextMap, 2, new String[] {"first", "second"}, undoStack, undoMark)
+          .close();
+
+      final InOrder inOrder = inOrder(contextMap, ThreadContext.class);
+      inOrder.verify(contextMap).remove("second");
+      inOrder.verify(contextMap).remove("first");
+      inOrder.verify(contextMap).put("first", "original");
+      inOrder.verify(mockThreadContext, () -> ThreadContext.trim(2));
+      assertThat(undoStack.size(), equalTo(undoMark));
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j2ContextFrame#close()} that ensures nothing is changed when the
+   * frame did not add any context values.
+   */
+  @Test
+  void testClose_noContexts() {
+    final ThreadContextMap contextMap = mock(ThreadContextMap.class);
+
+    try (final MockedStatic<ThreadContext> mockThreadContext = mockStatic(ThreadContext.class)) {
+      new Log4j2ContextFrame(
+              contextMap,
+              Log4j2ContextFrame.NO_NESTED_CONTEXTS,
+              new String[0],
+              MappedContextUndoStack.forCurrentThread(),
+              MappedContextUndoStack.forCurrentThread().size())
+          .close();
+
+      mockThreadContext.verifyNoInteractions();
+      verifyNoInteractions(contextMap);
+    }
+  }
+}
@@ -5,16 +5,26 @@ import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.github.logcontext.AttachableLogContext;
+import io.github.logcontext.LazyMappedValue;
 import io.github.logcontext.LogContext;
 import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.MappedContextSlot;
+import java.lang.reflect.Constructor;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import org.apache.logging.log4j.CloseableThreadContext;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.spi.ReadOnlyThreadContextMap;
+import org.apache.logging.log4j.spi.ThreadContextMap;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 
@@ -32,12 +42,26 @@ class Log4j2LogContextBuilderTest {
 
   private static final String VALUE_2 = "2";
 
+  private static final String GARBAGE_FREE_MAP =
+      "org.apache.logging.log4j.spi.GarbageFreeSortedArrayThreadContextMap";
+
+  private static final String COPY_ON_WRITE_MAP =
+      "org.apache.logging.log4j.spi.CopyOnWriteSortedArrayThreadContextMap";
+
   /**
    * The Log4j2 {@link LogContext.Builder} implementation being
    * tested.
    */
   private Log4j2LogContextBuilder logContextBuilder = new Log4j2LogContextBuilder();
 
+  /** Removes the lazy values and the injector installed by a test case. */
+  @AfterEach
+  void tearDown() {
+    ContextStore.setMode(ContextStore.Mode.DISABLED);
+    ContextStore.set(null);
+    ThreadContext.clearAll();
+  }
+
   /**
    * Test method for {@link Log4j2LogContextBuilder#get()} to ensure that a {@link LogContext} is
    * generated and that the Log4j2 {@link org.apache.logging.log4j.ThreadContext} is updated.
@@ -106,4 +130,333 @@ class Log4j2LogContextBuilderTest {
       verify(mockContext).close();
     }
   }
+
+  /**
+   * Test method for {@link Log4j2LogContextBuilder#get()} to ensure that a garbage-free thread
+   * context map is updated in place and restored from the undo log when the {@link LogContext} is
+   * closed.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_garbageFreeMapUpdatedInPlace() throws Throwable {
+    final ThreadContextMap contextMap = threadContextMap(GARBAGE_FREE_MAP);
+    contextMap.put(CONTEXT_1, "original");
+    final StringMap contextData = contextData(contextMap);
+
+    Builder builder =
+        logContextBuilder
+            .andNested(CONTEXT_1, CONTEXT_2)
+            .andMapped(CONTEXT_1, VALUE_1)
+            .andMapped(CONTEXT_2, VALUE_2);
+
+    ThreadContext.clearStack();
+    ThreadContext.push("outer");
+    try (final MockedStatic<ThreadContext> mockThreadContext =
+            mockStatic(ThreadContext.class, CALLS_REAL_METHODS);
+        final MockedStatic<CloseableThreadContext> mockCloseableThreadContext =
+            mockStatic(CloseableThreadContext.class)) {
+      mockThreadContext
+          .when(ThreadContext::getThreadContextMap)
+          .thenReturn((ReadOnlyThreadContextMap) contextMap);
+
+      final LogContext context = builder.get();
+
+      assertThat(context, instanceOf(Log4j2ContextFrame.class));
+      assertThat(contextMap.get(CONTEXT_1), equalTo(VALUE_1));
+      assertThat(contextMap.get(CONTEXT_2), equalTo(VALUE_2));
+      assertThat(ThreadContext.getImmutableStack().asList(), contains("outer", CONTEXT_1, CONTEXT_2));
+
+      context.close();
+
+      assertThat(contextMap.get(CONTEXT_1), equalTo("original"));
+      assertThat(contextMap.containsKey(CONTEXT_2), equalTo(false));
+      assertThat(ThreadContext.getImmutableStack().asList(), contains("outer"));
+      assertThat(
+          "map was copied", contextData(contextMap), sameInstance(contextData));
+      mockCloseableThreadContext.verifyNoInteractions();
+    } finally {
+      ThreadContext.clearStack();
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextBuilder#get()} to ensure that nested contexts reusing a
+   * key in a garbage-free thread context map restore the outer value when they are closed, and
+   * that a key holding a <code>null</code> value is restored as such.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_garbageFreeMapRestoresShadowedValues() throws Throwable {
+    final ThreadContextMap contextMap = threadContextMap(GARBAGE_FREE_MAP);
+    contextMap.put(CONTEXT_2, null);
+
+    try (final MockedStatic<ThreadContext> mockThreadContext =
+        mockStatic(ThreadContext.class, CALLS_REAL_METHODS)) {
+      mockThreadContext
+          .when(ThreadContext::getThreadContextMap)
+          .thenReturn((ReadOnlyThreadContextMap) contextMap);
+
+      final LogContext outer = new Log4j2LogContextBuilder().andMapped(CONTEXT_1, VALUE_1).get();
+      final LogContext inner =
+          new Log4j2LogContextBuilder()
+              .andMapped(CONTEXT_1, VALUE_2)
+              .andMapped(CONTEXT_2, VALUE_2)
+              .get();
+
+      assertThat(contextMap.get(CONTEXT_1), equalTo(VALUE_2));
+
+      inner.close();
+
+      assertThat(contextMap.get(CONTEXT_1), equalTo(VALUE_1));
+      assertThat(contextMap.containsKey(CONTEXT_2), equalTo(true));
+      assertThat(contextMap.get(CONTEXT_2), nullValue());
+
+      outer.close();
+
+      assertThat(contextMap.containsKey(CONTEXT_1), equalTo(false));
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextBuilder#get()} to ensure that a garbage-free thread
+   * context map is left untouched when there is nothing to add.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_garbageFreeMapWithoutContexts() throws Throwable {
+    final ThreadContextMap contextMap = threadContextMap(GARBAGE_FREE_MAP);
+
+    try (final MockedStatic<ThreadContext> mockThreadContext = mockStatic(ThreadContext.class)) {
+      mockThreadContext
+          .when(ThreadContext::getThreadContextMap)
+          .thenReturn((ReadOnlyThreadContextMap) contextMap);
+
+      logContextBuilder.get().close();
+
+      mockThreadContext.verify(ThreadContext::getThreadContextMap);
+      mockThreadContext.verifyNoMoreInteractions();
+      assertThat(contextMap.isEmpty(), equalTo(true));
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextBuilder#get()} to ensure that lazy values are converted
+   * and put in the thread context map while the {@link LazyContextDataInjector} is not installed.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_lazyValuesWithoutInjector() throws Throwable {
+    final LazyMappedValue lazyValue = LazyMappedValue.of(2);
+
+    try (LogContext context = logContextBuilder.andLazyMapped(CONTEXT_2, lazyValue).get()) {
+      assertThat(ThreadContext.get(CONTEXT_2), equalTo(VALUE_2));
+      assertThat(ContextStore.current(), nullValue());
+    }
+
+    assertThat(ThreadContext.containsKey(CONTEXT_2), equalTo(false));
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextBuilder#get()} to ensure that lazy values are kept
+   * unconverted for the {@link LazyContextDataInjector}, and that an inner string value masks an
+   * outer lazy value of the same key.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_lazyValuesWithInjector() throws Throwable {
+    ContextStore.setMode(ContextStore.Mode.LAZY_VALUES);
+    final LazyMappedValue lazyValue = LazyMappedValue.of(2);
+
+    final Builder builder =
+        logContextBuilder.andMapped(CONTEXT_1, VALUE_1).andLazyMapped(CONTEXT_2, lazyValue);
+
+    try (LogContext outer = builder.get()) {
+      assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_1));
+      assertThat(ThreadContext.containsKey(CONTEXT_2), equalTo(false));
+      assertThat(ContextStore.current().value, sameInstance(lazyValue));
+
+      try (LogContext inner = new Log4j2LogContextBuilder().andMapped(CONTEXT_2, VALUE_1).get()) {
+        assertThat(ThreadContext.get(CONTEXT_2), equalTo(VALUE_1));
+        assertThat(ContextStore.current().key, equalTo(CONTEXT_2));
+        assertThat(ContextStore.current().value, sameInstance(ContextStore.MASKED));
+      }
+
+      assertThat(ContextStore.current().value, sameInstance(lazyValue));
+    }
+
+    assertThat(ContextStore.current(), nullValue());
+    assertThat(ThreadContext.containsKey(CONTEXT_1), equalTo(false));
+    assertThat(lazyValue.isRendered(), equalTo(false));
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextBuilder#get()} to ensure that lazy values are left out
+   * of a garbage-free thread context map while the {@link LazyContextDataInjector} is installed.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_garbageFreeMapLazyValuesWithInjector() throws Throwable {
+    ContextStore.setMode(ContextStore.Mode.LAZY_VALUES);
+    final ThreadContextMap contextMap = threadContextMap(GARBAGE_FREE_MAP);
+
+    try (final MockedStatic<ThreadContext> mockThreadContext =
+        mockStatic(ThreadContext.class, CALLS_REAL_METHODS)) {
+      mockThreadContext
+          .when(ThreadContext::getThreadContextMap)
+          .thenReturn((ReadOnlyThreadContextMap) contextMap);
+
+      final LogContext context =
+          logContextBuilder
+              .andLazyMapped(CONTEXT_1, () -> VALUE_1)
+              .andMapped(CONTEXT_2, VALUE_2)
+              .get();
+
+      assertThat(contextMap.containsKey(CONTEXT_1), equalTo(false));
+      assertThat(contextMap.get(CONTEXT_2), equalTo(VALUE_2));
+      assertThat(ContextStore.current().key, equalTo(CONTEXT_1));
+
+      context.close();
+
+      assertThat(contextMap.isEmpty(), equalTo(true));
+      assertThat(ContextStore.current(), nullValue());
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextBuilder#get()} to ensure that the thread context map is
+   * left unchanged while the {@link ContextStoreDataInjector} is installed.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGet_contextStore() throws Throwable {
+    ContextStore.setMode(ContextStore.Mode.ALL_VALUES);
+
+    try (LogContext context =
+        logContextBuilder.andNested(CONTEXT_1).andMapped(CONTEXT_1, VALUE_1).get()) {
+      assertThat(ThreadContext.isEmpty(), equalTo(true));
+      assertThat(ThreadContext.peek(), equalTo(CONTEXT_1));
+      assertThat(ContextStore.current().value, equalTo(VALUE_1));
+    }
+
+    assertThat(ContextStore.current(), nullValue());
+    assertThat(ThreadContext.getDepth(), equalTo(0));
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextBuilder#toAttachable()} to ensure that the values are
+   * attached with a single entry of the store while the {@link ContextStoreDataInjector} is
+   * installed.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testToAttachable_contextStore() throws Throwable {
+    ContextStore.setMode(ContextStore.Mode.ALL_VALUES);
+    final AttachableLogContext attachable =
+        logContextBuilder
+            .andNested(CONTEXT_1)
+            .andMapped(CONTEXT_1, VALUE_1)
+            .andMapped(CONTEXT_2, VALUE_2)
+            .toAttachable();
+    logContextBuilder.reset();
+
+    try (LogContext context = attachable.attach()) {
+      assertThat(ThreadContext.isEmpty(), equalTo(true));
+      assertThat(ThreadContext.peek(), equalTo(CONTEXT_1));
+      assertThat(ContextStore.current().group, notNullValue());
+      assertThat(ContextStore.current().size, equalTo(2));
+      assertThat(ContextStore.current().find(CONTEXT_2).value, equalTo(VALUE_2));
+    }
+
+    assertThat(ContextStore.current(), nullValue());
+    assertThat(ThreadContext.getDepth(), equalTo(0));
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextBuilder#toAttachable()} to ensure that the values are
+   * added to the Log4j2 {@link ThreadContext} when the {@link ContextStoreDataInjector} is not
+   * installed.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testToAttachable_threadContext() throws Throwable {
+    final AttachableLogContext attachable =
+        logContextBuilder.andNested(CONTEXT_1).andMapped(CONTEXT_1, VALUE_1).toAttachable();
+    logContextBuilder.reset();
+
+    try (LogContext context = attachable.attach()) {
+      assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_1));
+      assertThat(ThreadContext.peek(), equalTo(CONTEXT_1));
+      assertThat(ContextStore.current(), nullValue());
+    }
+
+    assertThat(ThreadContext.isEmpty(), equalTo(true));
+    assertThat(ThreadContext.getDepth(), equalTo(0));
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextBuilder#getSlot(String)} to ensure that the values of the
+   * builder are added, that the value of the slot replaces the previous one, and that closing the
+   * slot removes all of them.
+   *
+   * @throws Throwable
+   */
+  @Test
+  void testGetSlot() throws Throwable {
+    try (MappedContextSlot slot =
+        logContextBuilder.andNested(CONTEXT_1).andMapped(CONTEXT_1, VALUE_1).getSlot(CONTEXT_2)) {
+      assertThat(ThreadContext.peek(), equalTo(CONTEXT_1));
+      assertThat(ThreadContext.containsKey(CONTEXT_2), equalTo(false));
+
+      slot.set(VALUE_1);
+      slot.set(VALUE_2);
+
+      assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_1));
+      assertThat(ThreadContext.get(CONTEXT_2), equalTo(VALUE_2));
+    }
+
+    assertThat(ThreadContext.isEmpty(), equalTo(true));
+    assertThat(ThreadContext.getDepth(), equalTo(0));
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextBuilder#isGarbageFree(ReadOnlyThreadContextMap)} to
+   * ensure that only thread context maps that are not copy-on-write are updated in place.
+   */
+  @Test
+  void testIsGarbageFree() throws Exception {
+    assertThat(Log4j2LogContextBuilder.isGarbageFree(null), equalTo(false));
+    assertThat(
+        Log4j2LogContextBuilder.isGarbageFree(
+            (ReadOnlyThreadContextMap) threadContextMap(COPY_ON_WRITE_MAP)),
+        equalTo(false));
+    assertThat(
+        Log4j2LogContextBuilder.isGarbageFree(
+            (ReadOnlyThreadContextMap) threadContextMap(GARBAGE_FREE_MAP)),
+        equalTo(true));
+  }
+
+  /**
+   * Creates one of the thread context maps provided by Log4j, whose classes are not public.
+   *
+   * @param className the name of the thread context map class.
+   * @return a new instance of the thread context map.
+   */
+  private static ThreadContextMap threadContextMap(final String className) throws Exception {
+    final Constructor<?> constructor = Class.forName(className).getDeclaredConstructor();
+    constructor.setAccessible(true);
+    return (ThreadContextMap) constructor.newInstance();
+  }
+
+  private static StringMap contextData(final ThreadContextMap contextMap) {
+    return (StringMap) ((ReadOnlyThreadContextMap) contextMap).getReadOnlyContextData();
+  }
 }
@@ -0,0 +1,264 @@
+package io.github.logcontext.log4j2;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+
+import io.github.logcontext.LazyMappedValue;
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContextSnapshot;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.ThreadContext.ContextStack;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+/**
+ * The Log4j2LogContextSnapshotTest class provides a set of JUnit test cases for the {@link
+ * Log4j2LogContextSnapshot} class.
+ */
+class Log4j2LogContextSnapshotTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  private static final String VALUE_1 = "value1";
+
+  private static final String VALUE_2 = "2";
+
+  /** Clears the thread context changed by a test case. */
+  @AfterEach
+  void tearDown() {
+    ThreadContext.clearAll();
+    ContextStore.setMode(ContextStore.Mode.DISABLED);
+    ContextStore.set(null);
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextSnapshot#capture()} to ensure that the captured context
+   * is not affected by later changes to the thread context.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testCapture_isImmutable() throws Exception {
+    ThreadContext.push("captured");
+    ThreadContext.put(CONTEXT_1, VALUE_1);
+    final LogContextSnapshot snapshot = Log4j2LogContextSnapshot.capture();
+    ThreadContext.push("later");
+    ThreadContext.put(CONTEXT_1, VALUE_2);
+    ThreadContext.clearAll();
+
+    try (LogContext context = snapshot.attach()) {
+      assertThat(ThreadContext.getImmutableStack().asList(), contains("captured"));
+      assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_1));
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextSnapshot#capture()} to ensure that the same snapshot is
+   * returned while the thread context is unchanged.
+   */
+  @Test
+  void testCapture_unchangedContext() {
+    ThreadContext.put(CONTEXT_1, VALUE_1);
+    final LogContextSnapshot snapshot = Log4j2LogContextSnapshot.capture();
+
+    assertThat(Log4j2LogContextSnapshot.capture(), sameInstance(snapshot));
+
+    ThreadContext.put(CONTEXT_1, VALUE_2);
+
+    assertThat(Log4j2LogContextSnapshot.capture(), not(sameInstance(snapshot)));
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextSnapshot#attach()} to ensure that the thread context is
+   * replaced by the snapshot and restored when the returned {@link LogContext} is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_replacesAndRestoresContext() throws Exception {
+    ThreadContext.push("submitter");
+    ThreadContext.put(CONTEXT_1, VALUE_1);
+    final LogContextSnapshot captured = Log4j2LogContextSnapshot.capture();
+    ThreadContext.clearAll();
+    ThreadContext.push("worker");
+    ThreadContext.put(CONTEXT_1, VALUE_2);
+
+    final LogContext context = captured.attach();
+
+    assertThat(ThreadContext.getImmutableStack().asList(), contains("submitter"));
+    assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_1));
+
+    context.close();
+
+    assertThat(ThreadContext.getImmutableStack().asList(), contains("worker"));
+    assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_2));
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextSnapshot#attach()} to ensure that attaching an empty
+   * snapshot clears the thread context until the returned {@link LogContext} is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_emptySnapshot() throws Exception {
+    final LogContextSnapshot snapshot = Log4j2LogContextSnapshot.capture();
+    ThreadContext.push("worker");
+    ThreadContext.put(CONTEXT_1, VALUE_2);
+
+    try (LogContext context = snapshot.attach()) {
+      assertThat(ThreadContext.getDepth(), equalTo(0));
+      assertThat(ThreadContext.get(CONTEXT_1), nullValue());
+    }
+
+    assertThat(ThreadContext.getImmutableStack().asList(), contains("worker"));
+    assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_2));
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextSnapshot#attach()} to ensure that attaching a snapshot
+   * again to a thread it is already attached to, as nested decorators do, leaves the thread context
+   * unchanged, and that closing the outer attachment clears the previously empty thread context.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_alreadyAttached() throws Exception {
+    ThreadContext.push("submitter");
+    ThreadContext.put(CONTEXT_1, VALUE_1);
+    final LogContextSnapshot snapshot = Log4j2LogContextSnapshot.capture();
+    ThreadContext.clearAll();
+
+    try (LogContext outer = snapshot.attach()) {
+      final ContextStack attachedStack = ThreadContext.getImmutableStack();
+      final ReadOnlyStringMap attachedData =
+          ThreadContext.getThreadContextMap().getReadOnlyContextData();
+
+      try (LogContext inner = snapshot.attach()) {
+        assertThat(ThreadContext.getImmutableStack(), sameInstance(attachedStack));
+        assertThat(
+            ThreadContext.getThreadContextMap().getReadOnlyContextData(),
+            sameInstance(attachedData));
+      }
+      assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_1));
+    }
+
+    assertThat(ThreadContext.getDepth(), equalTo(0));
+    assertThat(ThreadContext.isEmpty(), equalTo(true));
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextSnapshot#attach()} to ensure that attaching an empty
+   * snapshot to an empty thread context leaves it unchanged.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_emptySnapshotAndContext() throws Exception {
+    final LogContextSnapshot snapshot = Log4j2LogContextSnapshot.capture();
+    final LogContext context = snapshot.attach();
+    ThreadContext.put(CONTEXT_1, VALUE_1);
+
+    context.close();
+
+    assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_1));
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextSnapshot#attach()} to ensure that attaching a snapshot to
+   * the thread context it was captured from leaves the thread context unchanged.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_sameContext() throws Exception {
+    ThreadContext.push("submitter");
+    ThreadContext.put(CONTEXT_1, VALUE_1);
+    final ReadOnlyStringMap contextData = ThreadContext.getThreadContextMap().getReadOnlyContextData();
+    final LogContextSnapshot snapshot = Log4j2LogContextSnapshot.capture();
+
+    final LogContext context = snapshot.attach();
+
+    assertThat(
+        ThreadContext.getThreadContextMap().getReadOnlyContextData(), sameInstance(contextData));
+
+    ThreadContext.put(CONTEXT_1, VALUE_2);
+    context.close();
+
+    assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_2));
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextSnapshot#capture()} and {@link
+   * Log4j2LogContextSnapshot#attach()} to ensure that the immutable thread context map is captured
+   * when the thread context map is not copy-on-write.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_notCopyOnWrite() throws Exception {
+    try (final MockedStatic<ThreadContext> mockThreadContext =
+        mockStatic(ThreadContext.class, CALLS_REAL_METHODS)) {
+      mockThreadContext.when(ThreadContext::getThreadContextMap).thenReturn(null);
+      ThreadContext.put(CONTEXT_1, VALUE_1);
+      final LogContextSnapshot snapshot = Log4j2LogContextSnapshot.capture();
+      ThreadContext.put(CONTEXT_1, VALUE_2);
+
+      try (LogContext context = snapshot.attach()) {
+        assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_1));
+      }
+
+      assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_2));
+
+      ThreadContext.clearAll();
+      final LogContext context = Log4j2LogContextSnapshot.capture().attach();
+      ThreadContext.put(CONTEXT_1, VALUE_1);
+      context.close();
+
+      assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_1));
+    }
+  }
+
+  /**
+   * Test method for {@link Log4j2LogContextSnapshot#capture()} and {@link
+   * Log4j2LogContextSnapshot#attach()} to ensure that lazy values are propagated unconverted.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_lazyValues() throws Exception {
+    ContextStore.setMode(ContextStore.Mode.LAZY_VALUES);
+    final LazyMappedValue lazyValue = LazyMappedValue.of(2);
+    final LogContext lazyContext =
+        new Log4j2LogContextBuilder().andLazyMapped(CONTEXT_1, lazyValue).get();
+    final LogContextSnapshot snapshot = Log4j2LogContextSnapshot.capture();
+    lazyContext.close();
+
+    assertThat(ContextStore.current(), nullValue());
+
+    final LogContext context = snapshot.attach();
+
+    assertThat(ContextStore.current().value, sameInstance(lazyValue));
+    context.close();
+
+    assertThat(ContextStore.current(), nullValue());
+    assertThat(lazyValue.isRendered(), equalTo(false));
+
+    ThreadContext.put(CONTEXT_1, VALUE_1);
+    try (LogContext attached = snapshot.attach()) {
+      assertThat(ThreadContext.containsKey(CONTEXT_1), equalTo(false));
+      assertThat(ContextStore.current().value, sameInstance(lazyValue));
+    }
+
+    assertThat(ThreadContext.get(CONTEXT_1), equalTo(VALUE_1));
+    assertThat(ContextStore.current(), nullValue());
+  }
+}
@@ -0,0 +1,110 @@
+package io.github.logcontext.log4j2;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.MappedContextSlot;
+import org.apache.logging.log4j.ThreadContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The Log4j2MappedContextSlotTest class provides a set of JUnit test cases for the {@link
+ * Log4j2MappedContextSlot} class.
+ */
+class Log4j2MappedContextSlotTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  /** Removes the entries, the thread context and the injector mode of a test case. */
+  @AfterEach
+  void tearDown() {
+    ContextStore.setMode(ContextStore.Mode.DISABLED);
+    ContextStore.set(null);
+    ThreadContext.clearAll();
+  }
+
+  /**
+   * Test method for {@link Log4j2MappedContextSlot#set(String)} to ensure that each value is put in
+   * the thread context map when no injector is installed, and that a <code>null</code> value and
+   * closing the slot remove the key.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testSet_threadContext() throws Exception {
+    final LogContext context = mock(LogContext.class);
+    final MappedContextSlot slot = new Log4j2MappedContextSlot(context, CONTEXT_1);
+
+    slot.set("1");
+
+    assertThat(ThreadContext.get(CONTEXT_1), equalTo("1"));
+    assertThat(ContextStore.current(), nullValue());
+
+    slot.set(null);
+
+    assertThat(ThreadContext.containsKey(CONTEXT_1), equalTo(false));
+
+    slot.set("2");
+    slot.close();
+
+    assertThat(ThreadContext.containsKey(CONTEXT_1), equalTo(false));
+    verify(context).close();
+  }
+
+  /**
+   * Test method for {@link Log4j2MappedContextSlot#close()} to ensure that the value the key had in
+   * the thread context map when the slot was opened is restored.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testClose_restoresShadowedValue() throws Exception {
+    ThreadContext.put(CONTEXT_1, "outer");
+    final MappedContextSlot slot = new Log4j2MappedContextSlot(mock(LogContext.class), CONTEXT_1);
+
+    slot.set("1");
+
+    assertThat(ThreadContext.get(CONTEXT_1), equalTo("1"));
+
+    slot.close();
+
+    assertThat(ThreadContext.get(CONTEXT_1), equalTo("outer"));
+  }
+
+  /**
+   * Test method for {@link Log4j2MappedContextSlot#set(String)} to ensure that each value replaces
+   * the previous one with a single entry of the store when an injector is installed, leaving the
+   * thread context map unchanged, and that closing the slot restores the previous entries.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testSet_contextStore() throws Exception {
+    ContextStore.setMode(ContextStore.Mode.LAZY_VALUES);
+    final ContextStore.Entry previous = new ContextStore.Entry(CONTEXT_1, "outer", null);
+    ContextStore.set(previous);
+    final MappedContextSlot slot = new Log4j2MappedContextSlot(mock(LogContext.class), CONTEXT_1);
+
+    slot.set("1");
+    slot.set("2");
+
+    assertThat(ContextStore.current().next, sameInstance(previous));
+    assertThat(ContextStore.current().find(CONTEXT_1).value, equalTo("2"));
+    assertThat(ThreadContext.isEmpty(), equalTo(true));
+
+    slot.set(null);
+
+    assertThat(ContextStore.current(), sameInstance(previous));
+
+    slot.set("3");
+    slot.close();
+
+    assertThat(ContextStore.current(), sameInstance(previous));
+  }
+}
@@ -1,11 +1,17 @@
 package io.github.logcontext.log4j2.spi;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.notNullValue;
 
 import io.github.logcontext.LogContext.Builder;
 import io.github.logcontext.log4j2.Log4j2LogContextBuilder;
+import io.github.logcontext.log4j2.Log4j2LogContextSnapshot;
+import io.github.logcontext.LogLevel;
+import java.util.function.Predicate;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -26,4 +32,28 @@ class Log4j2LoggingContextServiceProviderTest {
     assertThat(builder, notNullValue());
     assertThat(builder, instanceOf(Log4j2LogContextBuilder.class));
   }
+
+  /** Test method for {@link Log4j2LoggingContextServiceProvider#captureSnapshot()}. */
+  @Test
+  void testCaptureSnapshot() {
+    assertThat(
+        loggingContextServiceProvider.captureSnapshot(), instanceOf(Log4j2LogContextSnapshot.class));
+  }
+
+  /**
+   * Test method for {@link Log4j2LoggingContextServiceProvider#loggingEnabled(String)} that ensures
+   * the predicate follows changes of the logger level.
+   */
+  @Test
+  void testLoggingEnabled() {
+    final String category = Log4j2LoggingContextServiceProviderTest.class.getName();
+    final Predicate<LogLevel> enabled = loggingContextServiceProvider.loggingEnabled(category);
+
+    Configurator.setLevel(category, Level.WARN);
+    assertThat(enabled.test(LogLevel.INFO), equalTo(false));
+    assertThat(enabled.test(LogLevel.WARN), equalTo(true));
+
+    Configurator.setLevel(category, Level.TRACE);
+    assertThat(enabled.test(LogLevel.TRACE), equalTo(true));
+  }
 }
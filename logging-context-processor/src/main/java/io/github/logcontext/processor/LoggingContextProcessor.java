@@ -0,0 +1,360 @@
+package io.github.logcontext.processor;
+
+import io.github.logcontext.LogLevel;
+import io.github.logcontext.LoggingContext;
+import io.github.logcontext.LoggingContextPlan;
+import io.github.logcontext.LoggingContextPlanIndex;
+import io.github.logcontext.LoggingContextPlanIndexes;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * The LoggingContextProcessor class is an annotation processor that generates a {@link
+ * LoggingContextPlanIndex} for every class that uses the {@link LoggingContext} annotation on the
+ * class itself, its methods, or its method parameters.
+ *
+ * <p>The generated index holds a {@link LoggingContextPlan} for each instance method declared by
+ * the class. Because the plans are resolved from the source, parameters without an explicit
+ * context name use their real names even when the class is not compiled with <code>-parameters
+ * </code>. The index is named by {@link LoggingContextPlanIndexes#indexClassName(String)} and is
+ * found by {@link LoggingContextPlanIndexes} at runtime.
+ */
+public class LoggingContextProcessor extends AbstractProcessor {
+
+  /** The binary names of the classes that have already been indexed. */
+  private final Set<String> indexedTypes = new HashSet<>();
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    return Collections.singleton(LoggingContext.class.getCanonicalName());
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(
+      final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+    final Set<TypeElement> types = new LinkedHashSet<>();
+    for (final Element element : roundEnv.getElementsAnnotatedWith(LoggingContext.class)) {
+      final TypeElement type = enclosingType(element);
+      if (type != null
+          && (type.getKind() == ElementKind.CLASS || type.getKind() == ElementKind.ENUM)) {
+        types.add(type);
+      }
+    }
+
+    for (final TypeElement type : types) {
+      final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+      if (indexedTypes.add(binaryName)) {
+        writeIndex(type, binaryName);
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Writes the source of the generated index for the provided class.
+   *
+   * @param type the class to index.
+   * @param binaryName the binary name of the class.
+   */
+  private void writeIndex(final TypeElement type, final String binaryName) {
+    final String indexName = LoggingContextPlanIndexes.indexClassName(binaryName);
+    final int packageEnd = indexName.lastIndexOf('.');
+    final String packageName = packageEnd < 0 ? "" : indexName.substring(0, packageEnd);
+    final String simpleName = indexName.substring(packageEnd + 1);
+
+    final LoggingContext typeContext = inheritedAnnotation(type);
+    final String typeContexts =
+        typeContext != null
+            ? stringArray(contextsOrDefault(typeContext, type.getSimpleName().toString()))
+            : "null";
+
+    final StringBuilder constants = new StringBuilder();
+    final Map<String, List<String>> cases = new LinkedHashMap<>();
+    int planCount = 0;
+    for (final ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+      if (method.getModifiers().contains(Modifier.STATIC)) {
+        continue;
+      }
+
+      final String planName = "PLAN_" + planCount++;
+      constants
+          .append("  private static final LoggingContextPlan ")
+          .append(planName)
+          .append(" =\n      ")
+          .append(planExpression(method, typeContext))
+          .append(";\n\n");
+
+      final StringBuilder match =
+          new StringBuilder("LoggingContextPlanIndexes.matches(parameterTypes");
+      for (final VariableElement parameter : method.getParameters()) {
+        match.append(", ").append(literal(binaryName(parameter.asType())));
+      }
+      match.append(")");
+
+      cases
+          .computeIfAbsent(method.getSimpleName().toString(), name -> new ArrayList<>())
+          .add("        if (" + match + ") {\n          return " + planName + ";\n        }\n");
+    }
+
+    final StringBuilder source = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source
+        .append("import io.github.logcontext.LoggingContextPlan;\n")
+        .append("import io.github.logcontext.LoggingContextPlanIndex;\n")
+        .append("import io.github.logcontext.LoggingContextPlanIndexes;\n\n")
+        .append("/** The logging context plans of {@code ")
+        .append(type.getQualifiedName())
+        .append("}, generated by {@code ")
+        .append(getClass().getName())
+        .append("}. */\n")
+        .append("public final class ")
+        .append(simpleName)
+        .append(" implements LoggingContextPlanIndex {\n\n")
+        .append("  private static final String[] TYPE_CONTEXTS = ")
+        .append(typeContexts)
+        .append(";\n\n")
+        .append(constants)
+        .append("  @Override\n")
+        .append("  public LoggingContextPlan plan(\n")
+        .append("      final String methodName, final Class<?>[] parameterTypes) {\n")
+        .append("    switch (methodName) {\n");
+    for (final Map.Entry<String, List<String>> entry : cases.entrySet()) {
+      source.append("      case ").append(literal(entry.getKey())).append(":\n");
+      entry.getValue().forEach(source::append);
+      source.append("        break;\n");
+    }
+    source
+        .append("      default:\n")
+        .append("        break;\n")
+        .append("    }\n")
+        .append("    return null;\n")
+        .append("  }\n")
+        .append("}\n");
+
+    try (Writer writer =
+        processingEnv.getFiler().createSourceFile(indexName, type).openWriter()) {
+      writer.write(source.toString());
+    } catch (final IOException e) {
+      processingEnv
+          .getMessager()
+          .printMessage(
+              Diagnostic.Kind.ERROR,
+              "Unable to write logging context plans " + indexName + ": " + e.getMessage(),
+              type);
+    }
+  }
+
+  /**
+   * Returns the Java expression constructing the {@link LoggingContextPlan} of a method.
+   *
+   * @param method the method whose plan is generated.
+   * @param typeContext the annotation of the class, or <code>null</code>.
+   * @return the expression constructing the plan.
+   */
+  private String planExpression(
+      final ExecutableElement method, final LoggingContext typeContext) {
+    final LoggingContext methodContext = method.getAnnotation(LoggingContext.class);
+    final List<String> indexes = new ArrayList<>();
+    final List<String> names = new ArrayList<>();
+    final List<? extends VariableElement> parameters = method.getParameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      final LoggingContext parameterContext = parameters.get(i).getAnnotation(LoggingContext.class);
+      if (parameterContext != null) {
+        final String[] contexts =
+            contextsOrDefault(parameterContext, parameters.get(i).getSimpleName().toString());
+        indexes.add(Integer.toString(i));
+        names.add(literal(contexts[contexts.length - 1]));
+      }
+    }
+
+    LogLevel level = methodContext != null ? leastSevereLevel(methodContext) : null;
+    if (level == null && typeContext != null) {
+      level = leastSevereLevel(typeContext);
+    }
+
+    return "new LoggingContextPlan(TYPE_CONTEXTS, "
+        + (methodContext != null
+            ? stringArray(contextsOrDefault(methodContext, method.getSimpleName().toString()))
+            : "null")
+        + ", new int[] {"
+        + String.join(", ", indexes)
+        + "}, new String[] {"
+        + String.join(", ", names)
+        + "}"
+        + (level != null ? ", " + LogLevel.class.getName() + "." + level.name() : "")
+        + ")";
+  }
+
+  /**
+   * Returns the {@link LoggingContext} annotation of a class or its nearest annotated superclass,
+   * following the semantics of {@link java.lang.annotation.Inherited}.
+   *
+   * @param type the class to examine.
+   * @return the annotation, or <code>null</code> if neither the class nor a superclass has one.
+   */
+  private LoggingContext inheritedAnnotation(final TypeElement type) {
+    TypeElement current = type;
+    while (current != null) {
+      final LoggingContext loggingContext = current.getAnnotation(LoggingContext.class);
+      if (loggingContext != null) {
+        return loggingContext;
+      }
+      final TypeMirror superclass = current.getSuperclass();
+      current =
+          superclass.getKind() == TypeKind.DECLARED
+              ? (TypeElement) ((DeclaredType) superclass).asElement()
+              : null;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the name of the erasure of a type in the form returned by {@link Class#getName()}.
+   *
+   * @param type the type to name.
+   * @return the runtime name of the type.
+   */
+  private String binaryName(final TypeMirror type) {
+    final TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+    if (erased.getKind().isPrimitive()) {
+      return erased.toString();
+    } else if (erased.getKind() == TypeKind.ARRAY) {
+      return "[" + descriptor(((ArrayType) erased).getComponentType());
+    } else {
+      return processingEnv
+          .getElementUtils()
+          .getBinaryName((TypeElement) ((DeclaredType) erased).asElement())
+          .toString();
+    }
+  }
+
+  /**
+   * Returns the field descriptor of a type, which is how array component types are named.
+   *
+   * @param type the type to describe.
+   * @return the field descriptor of the type.
+   */
+  private String descriptor(final TypeMirror type) {
+    switch (type.getKind()) {
+      case BOOLEAN:
+        return "Z";
+      case BYTE:
+        return "B";
+      case CHAR:
+        return "C";
+      case SHORT:
+        return "S";
+      case INT:
+        return "I";
+      case LONG:
+        return "J";
+      case FLOAT:
+        return "F";
+      case DOUBLE:
+        return "D";
+      case ARRAY:
+        return "[" + descriptor(((ArrayType) type).getComponentType());
+      default:
+        return "L" + binaryName(type) + ";";
+    }
+  }
+
+  /**
+   * Returns the class that declares or is the provided annotated element.
+   *
+   * @param element a class, method, or parameter annotated with {@link LoggingContext}.
+   * @return the enclosing class, or <code>null</code> if there is none.
+   */
+  private static TypeElement enclosingType(final Element element) {
+    Element current = element;
+    while (current != null && !(current instanceof TypeElement)) {
+      current = current.getEnclosingElement();
+    }
+    return (TypeElement) current;
+  }
+
+  private static String[] contextsOrDefault(
+      final LoggingContext loggingContext, final String defaultContext) {
+    final String[] contexts = loggingContext.value();
+    return contexts.length > 0 ? contexts : new String[] {defaultContext};
+  }
+
+  private static LogLevel leastSevereLevel(final LoggingContext loggingContext) {
+    LogLevel level = null;
+    for (final LogLevel candidate : loggingContext.ifEnabled()) {
+      if (level == null || candidate.compareTo(level) < 0) {
+        level = candidate;
+      }
+    }
+    return level;
+  }
+
+  private static String stringArray(final String[] values) {
+    final List<String> literals = new ArrayList<>();
+    for (final String value : values) {
+      literals.add(literal(value));
+    }
+    return "new String[] {" + String.join(", ", literals) + "}";
+  }
+
+  private static String literal(final String value) {
+    final StringBuilder literal = new StringBuilder("\"");
+    for (final char c : value.toCharArray()) {
+      switch (c) {
+        case '"':
+          literal.append("\\\"");
+          break;
+        case '\\':
+          literal.append("\\\\");
+          break;
+        case '\n':
+          literal.append("\\n");
+          break;
+        case '\r':
+          literal.append("\\r");
+          break;
+        case '\t':
+          literal.append("\\t");
+          break;
+        default:
+          if (c < ' ' || c > '~') {
+            literal.append(String.format("\\u%04x", (int) c));
+          } else {
+            literal.append(c);
+          }
+      }
+    }
+    return literal.append('"').toString();
+  }
+}
@@ -0,0 +1,318 @@
+package io.github.logcontext.processor;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import io.github.logcontext.LogLevel;
+import io.github.logcontext.LoggingContext;
+import io.github.logcontext.LoggingContextPlan;
+import io.github.logcontext.LoggingContextPlanIndex;
+import io.github.logcontext.LoggingContextPlanIndexes;
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The LoggingContextProcessorTest class provides a set of JUnit test cases for the {@link
+ * LoggingContextProcessor} class. Each test compiles a small source file with the processor and
+ * inspects the generated {@link LoggingContextPlanIndex}.
+ */
+class LoggingContextProcessorTest {
+
+  private static final String ORDERS_SERVICE =
+      "package example;\n"
+          + "import io.github.logcontext.LoggingContext;\n"
+          + "@LoggingContext(\"ORDERS\")\n"
+          + "public class OrdersService {\n"
+          + "  @LoggingContext(\"REFUND\")\n"
+          + "  public void refund(@LoggingContext(\"order_number\") String orderNumber) {}\n"
+          + "  @LoggingContext\n"
+          + "  public void cancel(@LoggingContext String orderNumber, int[][] lines) {}\n"
+          + "  public void cancel(@LoggingContext({\"a\", \"b\\\"\"}) java.util.List<String> ids)"
+          + " {}\n"
+          + "  public void audit(String note) {}\n"
+          + "  public static void helper() {}\n"
+          + "  public static class Refunds extends OrdersService {\n"
+          + "    public void issue(@LoggingContext long amount, Object[] details) {}\n"
+          + "  }\n"
+          + "}\n";
+
+  private static final String DEFAULT_SERVICE =
+      "import io.github.logcontext.LoggingContext;\n"
+          + "@LoggingContext\n"
+          + "public class DefaultService {\n"
+          + "  public void find(char c, boolean b, byte y, short s, float f, double d,"
+          + " String[] names) {}\n"
+          + "}\n";
+
+  private static final String ESCAPED_SERVICE =
+      "package example;\n"
+          + "import io.github.logcontext.LoggingContext;\n"
+          + "@LoggingContext(\"tab\\there\\\\n\\r\\n\\u00e9\\u0001\")\n"
+          + "public enum EscapedService {\n"
+          + "  INSTANCE;\n"
+          + "  public void load(@LoggingContext boolean[] z, byte[] b, char[] c, short[] s,"
+          + " long[] j, float[] f, double[] d) {}\n"
+          + "  @LoggingContext\n"
+          + "  public interface Lookup {\n"
+          + "    void lookup(@LoggingContext String key);\n"
+          + "  }\n"
+          + "}\n";
+
+  private static final String GATED_SERVICE =
+      "package example;\n"
+          + "import io.github.logcontext.LogLevel;\n"
+          + "import io.github.logcontext.LoggingContext;\n"
+          + "@LoggingContext(value = \"GATED\", ifEnabled = LogLevel.DEBUG)\n"
+          + "public class GatedService {\n"
+          + "  public void find(@LoggingContext(\"id\") String id) {}\n"
+          + "  @LoggingContext(ifEnabled = {LogLevel.WARN, LogLevel.INFO})\n"
+          + "  public void save(@LoggingContext(\"id\") String id) {}\n"
+          + "}\n";
+
+  private static final String OUTER_SERVICE =
+      "package example;\n"
+          + "import io.github.logcontext.LoggingContext;\n"
+          + "public class Outer {\n"
+          + "  @LoggingContext(\"NESTED\")\n"
+          + "  public static class Inner {\n"
+          + "    public void find(@LoggingContext(\"nested_id\") String id) {}\n"
+          + "  }\n"
+          + "}\n";
+
+  private static final String OUTER_INNER_SERVICE =
+      "package example;\n"
+          + "import io.github.logcontext.LoggingContext;\n"
+          + "@LoggingContext(\"TOP_LEVEL\")\n"
+          + "public class Outer_Inner {\n"
+          + "  public void find(@LoggingContext(\"top_level_id\") String id) {}\n"
+          + "}\n";
+
+  @TempDir Path workDir;
+
+  /**
+   * Test method for {@link LoggingContextProcessor} that ensures the plans of named class, method,
+   * and parameter contexts are generated.
+   */
+  @Test
+  void testProcess_namedContexts() throws Exception {
+    try (URLClassLoader classLoader = compile("example/OrdersService.java", ORDERS_SERVICE)) {
+      final Class<?> type = classLoader.loadClass("example.OrdersService");
+      final LoggingContextPlan plan =
+          LoggingContextPlanIndexes.find(type, type.getMethod("refund", String.class));
+
+      assertThat(plan, notNullValue());
+      assertThat(
+          plan.toString(), equalTo(LoggingContextPlan.resolve(type, refund(type)).toString()));
+      assertThat(plan.toString(), containsString("[ORDERS][REFUND]"));
+      assertThat(plan.toString(), containsString("[order_number]@[0]"));
+    }
+  }
+
+  /**
+   * Test method for {@link LoggingContextProcessor} that ensures default contexts use the real
+   * parameter names and that overloads are told apart by their parameter types.
+   */
+  @Test
+  void testProcess_defaultContextsAndOverloads() throws Exception {
+    try (URLClassLoader classLoader = compile("example/OrdersService.java", ORDERS_SERVICE)) {
+      final Class<?> type = classLoader.loadClass("example.OrdersService");
+
+      final LoggingContextPlan cancel =
+          LoggingContextPlanIndexes.find(
+              type, type.getMethod("cancel", String.class, int[][].class));
+      assertThat(cancel.toString(), containsString("[ORDERS][cancel]"));
+      assertThat(cancel.toString(), containsString("[orderNumber]@[0]"));
+
+      final LoggingContextPlan cancelIds =
+          LoggingContextPlanIndexes.find(type, type.getMethod("cancel", List.class));
+      assertThat(cancelIds.toString(), containsString("[ORDERS]null"));
+      assertThat(cancelIds.toString(), containsString("[b\"]@[0]"));
+
+      final LoggingContextPlan audit =
+          LoggingContextPlanIndexes.find(type, type.getMethod("audit", String.class));
+      assertThat(audit.toString(), containsString("mapped=[]"));
+
+      assertThat(LoggingContextPlanIndexes.find(type, type.getMethod("helper")), nullValue());
+      assertThat(LoggingContextPlanIndexes.find(type, type.getMethod("hashCode")), nullValue());
+    }
+  }
+
+  /**
+   * Test method for {@link LoggingContextProcessor} that ensures nested classes inherit the context
+   * of their annotated superclass.
+   */
+  @Test
+  void testProcess_nestedInheritingClass() throws Exception {
+    try (URLClassLoader classLoader = compile("example/OrdersService.java", ORDERS_SERVICE)) {
+      final Class<?> type = classLoader.loadClass("example.OrdersService$Refunds");
+      final Method issue = type.getMethod("issue", long.class, Object[].class);
+
+      final LoggingContextPlan plan = LoggingContextPlanIndexes.find(type, issue);
+
+      assertThat(plan.toString(), containsString("[ORDERS]null"));
+      assertThat(plan.toString(), containsString("[amount]@[0]"));
+    }
+  }
+
+  /**
+   * Test method for {@link LoggingContextProcessor} that ensures a nested class and a top-level
+   * class whose name joins the same names with an underscore get indexes of their own.
+   */
+  @Test
+  void testProcess_nestedAndUnderscoreNamedClasses() throws Exception {
+    try (URLClassLoader classLoader =
+        compile(
+            "example/Outer.java",
+            OUTER_SERVICE,
+            "example/Outer_Inner.java",
+            OUTER_INNER_SERVICE)) {
+      final Class<?> nested = classLoader.loadClass("example.Outer$Inner");
+      final Class<?> topLevel = classLoader.loadClass("example.Outer_Inner");
+
+      final LoggingContextPlan nestedPlan =
+          LoggingContextPlanIndexes.find(nested, nested.getMethod("find", String.class));
+      final LoggingContextPlan topLevelPlan =
+          LoggingContextPlanIndexes.find(topLevel, topLevel.getMethod("find", String.class));
+
+      assertThat(nestedPlan.toString(), containsString("[NESTED]null"));
+      assertThat(nestedPlan.toString(), containsString("[nested_id]@[0]"));
+      assertThat(topLevelPlan.toString(), containsString("[TOP_LEVEL]null"));
+      assertThat(topLevelPlan.toString(), containsString("[top_level_id]@[0]"));
+    }
+  }
+
+  /**
+   * Test method for {@link LoggingContextProcessor} for a class in the default package with
+   * primitive and array parameter types.
+   */
+  @Test
+  void testProcess_defaultPackage() throws Exception {
+    try (URLClassLoader classLoader = compile("DefaultService.java", DEFAULT_SERVICE)) {
+      final Class<?> type = classLoader.loadClass("DefaultService");
+      final Method find =
+          type.getMethod(
+              "find",
+              char.class,
+              boolean.class,
+              byte.class,
+              short.class,
+              float.class,
+              double.class,
+              String[].class);
+
+      final LoggingContextPlan plan = LoggingContextPlanIndexes.find(type, find);
+
+      assertThat(plan.toString(), containsString("[DefaultService]null"));
+    }
+  }
+
+  /**
+   * Test method for {@link LoggingContextProcessor} that ensures enums are indexed with escaped
+   * context names, primitive array parameters are matched, and interfaces are not indexed.
+   */
+  @Test
+  void testProcess_enumWithEscapedContexts() throws Exception {
+    try (URLClassLoader classLoader = compile("example/EscapedService.java", ESCAPED_SERVICE)) {
+      final Class<?> type = classLoader.loadClass("example.EscapedService");
+      final Method load =
+          type.getMethod(
+              "load",
+              boolean[].class,
+              byte[].class,
+              char[].class,
+              short[].class,
+              long[].class,
+              float[].class,
+              double[].class);
+
+      final LoggingContextPlan plan = LoggingContextPlanIndexes.find(type, load);
+
+      assertThat(plan.toString(), containsString("[tab\there\\n\r\n\u00e9\u0001]null"));
+      assertThat(plan.toString(), containsString("[z]@[0]"));
+
+      final Class<?> lookup = classLoader.loadClass("example.EscapedService$Lookup");
+      assertThat(
+          LoggingContextPlanIndexes.find(lookup, lookup.getMethod("lookup", String.class)),
+          nullValue());
+    }
+  }
+
+  /**
+   * Test method for {@link LoggingContextProcessor} that ensures the plans require the logging
+   * level of their method, or else of their class.
+   */
+  @Test
+  void testProcess_enabledLevels() throws Exception {
+    try (URLClassLoader classLoader = compile("example/GatedService.java", GATED_SERVICE)) {
+      final Class<?> type = classLoader.loadClass("example.GatedService");
+      final Method find = type.getMethod("find", String.class);
+      final Method save = type.getMethod("save", String.class);
+
+      assertThat(
+          LoggingContextPlanIndexes.find(type, find).getEnabledLevel(), equalTo(LogLevel.DEBUG));
+      assertThat(
+          LoggingContextPlanIndexes.find(type, save).getEnabledLevel(), equalTo(LogLevel.INFO));
+      assertThat(
+          LoggingContextPlanIndexes.find(type, save).toString(),
+          equalTo(LoggingContextPlan.resolve(type, save).toString()));
+    }
+  }
+
+  private static Method refund(final Class<?> type) throws NoSuchMethodException {
+    return type.getMethod("refund", String.class);
+  }
+
+  /**
+   * Compiles the provided sources with the {@link LoggingContextProcessor} and returns a class
+   * loader for the compiled classes.
+   *
+   * @param pathsAndSources the path of each source file followed by its source.
+   */
+  private URLClassLoader compile(final String... pathsAndSources) throws Exception {
+    final List<File> sourceFiles = new ArrayList<>();
+    for (int i = 0; i < pathsAndSources.length; i += 2) {
+      final Path sourceFile = workDir.resolve("src").resolve(pathsAndSources[i]);
+      Files.createDirectories(sourceFile.getParent());
+      Files.write(sourceFile, pathsAndSources[i + 1].getBytes(StandardCharsets.UTF_8));
+      sourceFiles.add(sourceFile.toFile());
+    }
+    final Path classes = Files.createDirectories(workDir.resolve("classes"));
+
+    final File apiClasses =
+        new File(LoggingContext.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+      final JavaCompiler.CompilationTask task =
+          compiler.getTask(
+              null,
+              fileManager,
+              null,
+              asList("-classpath", apiClasses.getPath(), "-d", classes.toString()),
+              null,
+              fileManager.getJavaFileObjectsFromFiles(sourceFiles));
+      task.setProcessors(singletonList(new LoggingContextProcessor()));
+      assertThat("compilation succeeded", task.call(), equalTo(true));
+    }
+
+    return new URLClassLoader(new URL[] {classes.toUri().toURL()}, getClass().getClassLoader());
+  }
+}
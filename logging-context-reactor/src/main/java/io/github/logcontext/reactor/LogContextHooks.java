@@ -0,0 +1,73 @@
+package io.github.logcontext.reactor;
+
+import io.github.logcontext.LogContextSnapshot;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.Scannable.Attr;
+import reactor.core.Scannable.Attr.RunStyle;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Operators;
+
+/**
+ * The LogContextHooks class installs a Reactor operator hook that attaches the logging context
+ * stored by {@link ReactorLogContext#capture()} while operators deliver their signals, so that
+ * code logging from any operator of the pipeline sees it.
+ *
+ * <p>The hook only decorates the subscribers of sources and of operators that may deliver signals
+ * on another thread, which Reactor reports through {@link Attr#RUN_STYLE}. Synchronous operators
+ * run within the signal of the decorated subscriber upstream of them, and attaching a logging
+ * context that the thread already holds does not change the thread context of the Log4j 2
+ * provider, so a pipeline does not copy the logging context for every signal. Pipelines assembled
+ * before {@link #install()} is called, or that do not store a logging context, are not affected.
+ *
+ * <p>Only signals are decorated. Work that a source does while it is subscribed, such as the
+ * callable of <code>Mono.fromCallable</code>, runs before its first signal and is best logged with
+ * {@link ReactorLogContext#withLogContext}.
+ */
+public final class LogContextHooks {
+
+  /** The key of the operator hook. */
+  static final String HOOK_KEY = LogContextHooks.class.getName();
+
+  /** Prevents instantiation of the LogContextHooks utility class. */
+  private LogContextHooks() {}
+
+  /** Installs the operator hook, which applies to the pipelines assembled afterwards. */
+  public static void install() {
+    Hooks.onEachOperator(
+        HOOK_KEY, Operators.lift(LogContextHooks::isDecorated, LogContextHooks::decorate));
+  }
+
+  /** Removes the operator hook from the pipelines assembled afterwards. */
+  public static void uninstall() {
+    Hooks.resetOnEachOperator(HOOK_KEY);
+  }
+
+  /**
+   * Returns whether the subscriber of an operator is decorated, which is the case for sources and
+   * for operators that are not known to deliver their signals synchronously.
+   *
+   * @param operator the operator.
+   * @return <code>true</code> if the subscriber of the operator is decorated.
+   */
+  static boolean isDecorated(final Scannable operator) {
+    return operator.scan(Attr.RUN_STYLE) != RunStyle.SYNC || operator.scan(Attr.PARENT) == null;
+  }
+
+  /**
+   * Decorates the subscriber of an operator so that its signals are delivered with the logging
+   * context stored in its subscriber context.
+   *
+   * @param operator the operator.
+   * @param subscriber the subscriber of the operator.
+   * @param <T> the element type of the operator.
+   * @return the decorated subscriber, or <code>subscriber</code> if its context does not store a
+   *     logging context.
+   */
+  static <T> CoreSubscriber<? super T> decorate(
+      final Scannable operator, final CoreSubscriber<? super T> subscriber) {
+    final LogContextSnapshot snapshot =
+        subscriber.currentContext().getOrDefault(ReactorLogContext.CONTEXT_KEY, null);
+    return snapshot == null ? subscriber : new LogContextSubscriber<>(subscriber, snapshot);
+  }
+}
@@ -0,0 +1,84 @@
+package io.github.logcontext.reactor;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContextSnapshot;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.util.context.Context;
+
+/**
+ * A {@link CoreSubscriber} that delivers every signal to the decorated subscriber with a logging
+ * context attached to the current thread.
+ *
+ * @param <T> the element type of the subscriber.
+ */
+final class LogContextSubscriber<T> implements CoreSubscriber<T>, Scannable {
+
+  /** The decorated subscriber. */
+  private final CoreSubscriber<? super T> actual;
+
+  /** The logging context attached while the signals are delivered. */
+  private final LogContextSnapshot snapshot;
+
+  LogContextSubscriber(final CoreSubscriber<? super T> actual, final LogContextSnapshot snapshot) {
+    this.actual = actual;
+    this.snapshot = snapshot;
+  }
+
+  @Override
+  public Context currentContext() {
+    return actual.currentContext();
+  }
+
+  @Override
+  public void onSubscribe(final Subscription subscription) {
+    final LogContext context = snapshot.attach();
+    try {
+      actual.onSubscribe(subscription);
+    } finally {
+      ReactorLogContext.restore(context);
+    }
+  }
+
+  @Override
+  public void onNext(final T value) {
+    final LogContext context = snapshot.attach();
+    try {
+      actual.onNext(value);
+    } finally {
+      ReactorLogContext.restore(context);
+    }
+  }
+
+  @Override
+  public void onError(final Throwable error) {
+    final LogContext context = snapshot.attach();
+    try {
+      actual.onError(error);
+    } finally {
+      ReactorLogContext.restore(context);
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    final LogContext context = snapshot.attach();
+    try {
+      actual.onComplete();
+    } finally {
+      ReactorLogContext.restore(context);
+    }
+  }
+
+  @Override
+  public Object scanUnsafe(final Attr key) {
+    if (key == Attr.ACTUAL) {
+      return actual;
+    }
+    if (key == Attr.RUN_STYLE) {
+      return Attr.RunStyle.SYNC;
+    }
+    return null;
+  }
+}
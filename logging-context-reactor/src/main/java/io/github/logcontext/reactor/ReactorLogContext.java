@@ -0,0 +1,169 @@
+package io.github.logcontext.reactor;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContextSnapshot;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import reactor.core.publisher.Signal;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * The ReactorLogContext class carries the logging context through Project Reactor pipelines in the
+ * subscriber {@link Context} instead of the thread-local contexts of the logging framework.
+ *
+ * <p>The logging context of the thread that assembles a pipeline, for example inside a method
+ * annotated with <code>@LoggingContext</code>, is stored in the pipeline's context with {@link
+ * #capture()}. Operators of the pipeline may then run on any scheduler, and the logging context is
+ * only attached to the thread at the moment an event is logged:
+ *
+ * <pre>
+ * return orderRepository.findById(orderNumber)
+ *     .doOnEach(ReactorLogContext.onNext(order -&gt; log.info("Refunding order")))
+ *     .flatMap(this::refund)
+ *     .doOnEach(ReactorLogContext.onError(e -&gt; log.error("Refund failed", e)))
+ *     .contextWrite(ReactorLogContext.capture());
+ * </pre>
+ *
+ * <p>Signals that are not logged do not touch the logging framework at all. {@link
+ * LogContextHooks} can instead attach the logging context around every signal of every operator
+ * for code that logs without these helpers.
+ */
+public final class ReactorLogContext {
+
+  /** The key of the {@link LogContextSnapshot} in the subscriber context. */
+  static final Class<LogContextSnapshot> CONTEXT_KEY = LogContextSnapshot.class;
+
+  /** Prevents instantiation of the ReactorLogContext utility class. */
+  private ReactorLogContext() {}
+
+  /**
+   * Captures the logging context of the current thread and returns a function that stores it in
+   * the subscriber context, for use with <code>contextWrite</code>. The logging context is captured
+   * when this method is called, not when the pipeline is subscribed.
+   *
+   * @return a function that stores the captured logging context in a subscriber context.
+   */
+  public static Function<Context, Context> capture() {
+    return withSnapshot(LogContextSnapshot.capture());
+  }
+
+  /**
+   * Returns a function that stores the logging context of the current thread, updated with the
+   * values of a builder, in the subscriber context. The values are attached to the current thread
+   * only while the logging context is captured.
+   *
+   * @param builder the builder with the context values to add (must not be <code>null</code>).
+   * @return a function that stores the updated logging context in a subscriber context.
+   * @throws NullPointerException if <code>builder</code> is <code>null</code>.
+   */
+  public static Function<Context, Context> capture(final LogContext.Builder builder) {
+    requireNonNull(builder, "builder must not be null");
+    final LogContext context = builder.get();
+    try {
+      return withSnapshot(LogContextSnapshot.capture());
+    } finally {
+      restore(context);
+    }
+  }
+
+  /**
+   * Returns the logging context stored in a subscriber context.
+   *
+   * @param context the subscriber context.
+   * @return the stored logging context, or {@link LogContextSnapshot#EMPTY} if there is none.
+   */
+  public static LogContextSnapshot snapshot(final ContextView context) {
+    return context.getOrDefault(CONTEXT_KEY, LogContextSnapshot.EMPTY);
+  }
+
+  /**
+   * Runs a supplier with the logging context stored in a subscriber context attached to the
+   * current thread, such as in a <code>Mono.deferContextual</code> callback.
+   *
+   * @param context the subscriber context.
+   * @param supplier the supplier to run.
+   * @param <T> the result type of the supplier.
+   * @return the result of the supplier.
+   */
+  public static <T> T withLogContext(final ContextView context, final Supplier<T> supplier) {
+    final LogContext logContext = snapshot(context).attach();
+    try {
+      return supplier.get();
+    } finally {
+      restore(logContext);
+    }
+  }
+
+  /**
+   * Returns a <code>doOnEach</code> callback that runs a log statement for every element, with the
+   * logging context of the subscriber attached.
+   *
+   * @param logStatement the log statement to run for every element (must not be <code>null</code>
+   *     ).
+   * @param <T> the element type of the pipeline.
+   * @return a callback that logs the elements of a pipeline.
+   * @throws NullPointerException if <code>logStatement</code> is <code>null</code>.
+   */
+  public static <T> Consumer<Signal<T>> onNext(final Consumer<? super T> logStatement) {
+    requireNonNull(logStatement, "logStatement must not be null");
+    return signal -> {
+      if (signal.getType() == SignalType.ON_NEXT) {
+        final LogContext context = snapshot(signal.getContextView()).attach();
+        try {
+          logStatement.accept(signal.get());
+        } finally {
+          restore(context);
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns a <code>doOnEach</code> callback that runs a log statement for the error of a pipeline,
+   * with the logging context of the subscriber attached.
+   *
+   * @param logStatement the log statement to run for the error (must not be <code>null</code>).
+   * @param <T> the element type of the pipeline.
+   * @return a callback that logs the error of a pipeline.
+   * @throws NullPointerException if <code>logStatement</code> is <code>null</code>.
+   */
+  public static <T> Consumer<Signal<T>> onError(final Consumer<? super Throwable> logStatement) {
+    requireNonNull(logStatement, "logStatement must not be null");
+    return signal -> {
+      if (signal.getType() == SignalType.ON_ERROR) {
+        final LogContext context = snapshot(signal.getContextView()).attach();
+        try {
+          logStatement.accept(signal.getThrowable());
+        } finally {
+          restore(context);
+        }
+      }
+    };
+  }
+
+  private static Function<Context, Context> withSnapshot(final LogContextSnapshot snapshot) {
+    return context -> context.put(CONTEXT_KEY, snapshot);
+  }
+
+  /**
+   * Closes an attached logging context, wrapping checked exceptions, which {@link LogContext}
+   * implementations do not throw in practice.
+   *
+   * @param context the attached logging context.
+   * @throws IllegalStateException if the logging context cannot be closed.
+   */
+  static void restore(final LogContext context) {
+    try {
+      context.close();
+    } catch (final RuntimeException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new IllegalStateException("Unable to restore the logging context", e);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package io.github.logcontext.reactor;
+
+import static io.github.logcontext.ThreadLocalLoggingContextServiceProvider.CONTEXT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import io.github.logcontext.ThreadLocalLoggingContextServiceProvider;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The LogContextHooksTest class provides a set of JUnit test cases for the {@link LogContextHooks}
+ * class.
+ */
+class LogContextHooksTest {
+
+  /**
+   * Makes the active provider capture snapshots of {@link
+   * ThreadLocalLoggingContextServiceProvider#CONTEXT}.
+   */
+  @BeforeEach
+  void setUp() {
+    LoggingContextServiceProviderRegistry.override(new ThreadLocalLoggingContextServiceProvider());
+    CONTEXT.set("assembler");
+  }
+
+  /** Removes the hook and clears the logging context of the thread. */
+  @AfterEach
+  void tearDown() {
+    LogContextHooks.uninstall();
+    CONTEXT.remove();
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Test method for {@link LogContextHooks#install()} to ensure that operators running on another
+   * scheduler see the stored logging context.
+   */
+  @Test
+  void testInstall() {
+    LogContextHooks.install();
+
+    assertThat(contexts(), contains("assembler", "assembler", "assembler"));
+    assertThat(CONTEXT.get(), equalTo("assembler"));
+  }
+
+  /**
+   * Test method for {@link LogContextHooks#install()} to ensure that sources emitting on the
+   * subscribing thread see the stored logging context.
+   */
+  @Test
+  void testInstall_synchronousSource() {
+    LogContextHooks.install();
+    final Mono<String> mono =
+        Mono.just("value").map(value -> CONTEXT.get()).contextWrite(ReactorLogContext.capture());
+    CONTEXT.set("subscriber");
+
+    assertThat(mono.block(), equalTo("assembler"));
+  }
+
+  /**
+   * Test method for {@link LogContextHooks#install()} to ensure that errors are delivered with the
+   * stored logging context.
+   */
+  @Test
+  void testInstall_error() {
+    LogContextHooks.install();
+
+    final String context =
+        Mono.<String>error(new IllegalStateException("failed"))
+            .publishOn(Schedulers.single())
+            .onErrorResume(error -> Mono.fromSupplier(CONTEXT::get))
+            .contextWrite(ReactorLogContext.capture())
+            .block();
+
+    assertThat(context, equalTo("assembler"));
+  }
+
+  /**
+   * Test method for {@link LogContextHooks#install()} to ensure that pipelines without a stored
+   * logging context are not affected.
+   */
+  @Test
+  void testInstall_noLogContext() {
+    LogContextHooks.install();
+
+    final List<String> contexts =
+        Flux.range(1, 3)
+            .publishOn(Schedulers.single())
+            .map(value -> String.valueOf(CONTEXT.get()))
+            .collectList()
+            .block();
+
+    assertThat(contexts, everyItem(equalTo("null")));
+  }
+
+  /**
+   * Test method for {@link LogContextHooks#uninstall()} to ensure that pipelines assembled after
+   * the hook is removed are not decorated.
+   */
+  @Test
+  void testUninstall() {
+    LogContextHooks.install();
+    LogContextHooks.uninstall();
+
+    assertThat(contexts(), everyItem(equalTo("null")));
+  }
+
+  /**
+   * Test method for {@link LogContextHooks#isDecorated(Scannable)} to ensure that only sources and
+   * operators that may change threads are decorated.
+   */
+  @Test
+  void testIsDecorated() {
+    final Flux<Integer> source = Flux.range(1, 3);
+
+    assertThat(LogContextHooks.isDecorated(Scannable.from(source)), is(true));
+    assertThat(LogContextHooks.isDecorated(Scannable.from(source.map(value -> value))), is(false));
+    assertThat(
+        LogContextHooks.isDecorated(Scannable.from(source.publishOn(Schedulers.single()))),
+        is(true));
+  }
+
+  private static List<String> contexts() {
+    return Flux.range(1, 3)
+        .publishOn(Schedulers.single())
+        .map(value -> String.valueOf(CONTEXT.get()))
+        .contextWrite(ReactorLogContext.capture())
+        .collectList()
+        .block();
+  }
+}
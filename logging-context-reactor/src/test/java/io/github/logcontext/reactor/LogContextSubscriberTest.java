@@ -0,0 +1,58 @@
+package io.github.logcontext.reactor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.logcontext.LogContextSnapshot;
+import org.junit.jupiter.api.Test;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable.Attr;
+import reactor.core.publisher.BaseSubscriber;
+
+/**
+ * The LogContextSubscriberTest class provides a set of JUnit test cases for the {@link
+ * LogContextSubscriber} class.
+ */
+class LogContextSubscriberTest {
+
+  /** The decorated subscriber. */
+  private final CoreSubscriber<Object> actual = new BaseSubscriber<Object>() {};
+
+  /** Test method for {@link LogContextSubscriber#scanUnsafe(Attr)}. */
+  @Test
+  void testScanUnsafe() {
+    final LogContextSubscriber<Object> subscriber =
+        new LogContextSubscriber<>(actual, LogContextSnapshot.EMPTY);
+
+    assertThat(subscriber.scanUnsafe(Attr.ACTUAL), sameInstance(actual));
+    assertThat(subscriber.scanUnsafe(Attr.RUN_STYLE), sameInstance(Attr.RunStyle.SYNC));
+    assertThat(subscriber.scanUnsafe(Attr.PARENT), nullValue());
+  }
+
+  /**
+   * Test method for {@link LogContextSubscriber#onComplete()} to ensure that failures to restore
+   * the logging context are reported.
+   */
+  @Test
+  void testOnComplete_restoreFails() {
+    final LogContextSubscriber<Object> checked =
+        new LogContextSubscriber<>(
+            actual,
+            () ->
+                () -> {
+                  throw new Exception("close");
+                });
+    final LogContextSubscriber<Object> unchecked =
+        new LogContextSubscriber<>(
+            actual,
+            () ->
+                () -> {
+                  throw new IllegalArgumentException("close");
+                });
+
+    assertThrows(IllegalStateException.class, checked::onComplete);
+    assertThrows(IllegalArgumentException.class, unchecked::onComplete);
+  }
+}
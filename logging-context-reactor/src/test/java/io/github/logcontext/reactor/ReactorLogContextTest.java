@@ -0,0 +1,192 @@
+package io.github.logcontext.reactor;
+
+import static io.github.logcontext.ThreadLocalLoggingContextServiceProvider.CONTEXT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.logcontext.AbstractLogContextBuilder;
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContextSnapshot;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import io.github.logcontext.ThreadLocalLoggingContextServiceProvider;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+/**
+ * The ReactorLogContextTest class provides a set of JUnit test cases for the {@link
+ * ReactorLogContext} class.
+ */
+class ReactorLogContextTest {
+
+  /**
+   * Makes the active provider capture snapshots of {@link
+   * ThreadLocalLoggingContextServiceProvider#CONTEXT}.
+   */
+  @BeforeEach
+  void setUp() {
+    LoggingContextServiceProviderRegistry.override(new ThreadLocalLoggingContextServiceProvider());
+    CONTEXT.set("assembler");
+  }
+
+  /** Clears the provider overridden by a test case and the logging context of the thread. */
+  @AfterEach
+  void tearDown() {
+    CONTEXT.remove();
+    LoggingContextServiceProviderRegistry.invalidate();
+  }
+
+  /**
+   * Test method for {@link ReactorLogContext#capture()} to ensure that the logging context of the
+   * assembling thread is stored and attached by {@link ReactorLogContext#withLogContext}.
+   */
+  @Test
+  void testCapture() {
+    final Mono<String> mono =
+        Mono.deferContextual(
+                context -> Mono.just(ReactorLogContext.withLogContext(context, CONTEXT::get)))
+            .contextWrite(ReactorLogContext.capture());
+    CONTEXT.set("subscriber");
+
+    assertThat(mono.block(), equalTo("assembler"));
+    assertThat(CONTEXT.get(), equalTo("subscriber"));
+  }
+
+  /**
+   * Test method for {@link ReactorLogContext#capture(LogContext.Builder)} to ensure that the values
+   * of the builder are stored without changing the logging context of the assembling thread.
+   */
+  @Test
+  void testCapture_builder() {
+    final Mono<String> mono =
+        Mono.deferContextual(
+                context -> Mono.just(ReactorLogContext.withLogContext(context, CONTEXT::get)))
+            .contextWrite(ReactorLogContext.capture(LogContext.Builder.nestedContext("request")));
+
+    assertThat(CONTEXT.get(), equalTo("assembler"));
+    assertThat(mono.block(), equalTo("request{}"));
+  }
+
+  /**
+   * Test method for {@link ReactorLogContext#capture(LogContext.Builder)} to ensure that a builder
+   * is required and that failures to restore the logging context are reported.
+   */
+  @Test
+  void testCapture_invalidBuilder() {
+    assertThrows(NullPointerException.class, () -> ReactorLogContext.capture(null));
+    assertThrows(
+        IllegalStateException.class,
+        () -> ReactorLogContext.capture(builder(new Exception("close"))));
+    final IllegalArgumentException exception = new IllegalArgumentException("close");
+    assertThat(
+        assertThrows(
+            IllegalArgumentException.class, () -> ReactorLogContext.capture(builder(exception))),
+        sameInstance(exception));
+  }
+
+  /**
+   * Test method for {@link ReactorLogContext#snapshot(reactor.util.context.ContextView)} to ensure
+   * that an empty snapshot is returned when no logging context is stored.
+   */
+  @Test
+  void testSnapshot_absent() {
+    assertThat(ReactorLogContext.snapshot(Context.empty()), sameInstance(LogContextSnapshot.EMPTY));
+  }
+
+  /**
+   * Test method for {@link ReactorLogContext#withLogContext} to ensure that failures to restore the
+   * logging context are reported.
+   */
+  @Test
+  void testWithLogContext_restoreFails() {
+    final LogContextSnapshot checked =
+        () ->
+            () -> {
+              throw new Exception("close");
+            };
+    final LogContextSnapshot unchecked =
+        () ->
+            () -> {
+              throw new IllegalArgumentException("close");
+            };
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            ReactorLogContext.withLogContext(
+                Context.of(ReactorLogContext.CONTEXT_KEY, checked), CONTEXT::get));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            ReactorLogContext.withLogContext(
+                Context.of(ReactorLogContext.CONTEXT_KEY, unchecked), CONTEXT::get));
+  }
+
+  /**
+   * Test method for {@link ReactorLogContext#onNext(java.util.function.Consumer)} to ensure that
+   * elements are logged with the stored logging context on another scheduler.
+   */
+  @Test
+  void testOnNext() {
+    final List<String> logged = new CopyOnWriteArrayList<>();
+
+    Flux.just("1", "2")
+        .publishOn(Schedulers.single())
+        .doOnEach(ReactorLogContext.onNext(value -> logged.add(CONTEXT.get() + value)))
+        .contextWrite(ReactorLogContext.capture())
+        .blockLast();
+
+    assertThat(logged, contains("assembler1", "assembler2"));
+  }
+
+  /**
+   * Test method for {@link ReactorLogContext#onError(java.util.function.Consumer)} to ensure that
+   * the error is logged with the stored logging context on another scheduler.
+   */
+  @Test
+  void testOnError() {
+    final List<String> logged = new CopyOnWriteArrayList<>();
+
+    Flux.just("1")
+        .concatWith(Mono.error(new IllegalStateException("failed")))
+        .publishOn(Schedulers.single())
+        .doOnEach(
+            ReactorLogContext.onError(error -> logged.add(CONTEXT.get() + error.getMessage())))
+        .contextWrite(ReactorLogContext.capture())
+        .onErrorResume(error -> Mono.empty())
+        .blockLast();
+
+    assertThat(logged, contains("assemblerfailed"));
+  }
+
+  /**
+   * Test method for {@link ReactorLogContext#onNext(java.util.function.Consumer)} and {@link
+   * ReactorLogContext#onError(java.util.function.Consumer)} to ensure that a log statement is
+   * required.
+   */
+  @Test
+  void testLogStatement_null() {
+    assertThrows(NullPointerException.class, () -> ReactorLogContext.onNext(null));
+    assertThrows(NullPointerException.class, () -> ReactorLogContext.onError(null));
+  }
+
+  private static LogContext.Builder builder(final Exception closeFailure) {
+    return new AbstractLogContextBuilder() {
+      @Override
+      public LogContext get() {
+        return () -> {
+          throw closeFailure;
+        };
+      }
+    };
+  }
+}
@@ -0,0 +1,293 @@
+package io.github.logcontext.scoped;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+import io.github.logcontext.AbstractLogContextBuilder;
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContextSnapshot;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ScopedLoggingContext class holds the logging context of a thread as an immutable frame that
+ * is bound with a {@link ScopedValue} instead of being kept in a {@link ThreadLocal}.
+ *
+ * <p>Each frame only stores the nested and mapped context values added by its own builder and
+ * refers to the frame it was created from, so nested frames share their enclosing contexts instead
+ * of copying them. A frame bound with {@link #run(Runnable)} or {@link
+ * #call(ScopedValue.CallableOp)}, for example by a {@link ScopedValueLogContextBuilder}, is visible
+ * to the bound operation and to every subtask it forks into a <code>StructuredTaskScope</code>, and
+ * costs a thread nothing once the operation returns.
+ *
+ * <p>Frames created with {@link ScopedValueLogContextBuilder#get()}, or attached as a {@link
+ * LogContextSnapshot}, cannot be bound to the rest of the caller's scope. They are attached to the
+ * current thread until the returned {@link LogContext} is closed and are not seen by subtasks that
+ * are forked in the meantime. Attaching to a thread that runs a bound operation updates a field of
+ * the binding, so only threads that attach outside of any binding of their own fall back to a
+ * {@link ThreadLocal}.
+ */
+public final class ScopedLoggingContext implements LogContextSnapshot {
+
+  /** The logging context returned when attaching does not change the logging context. */
+  private static final LogContext NO_OP_CONTEXT = () -> {};
+
+  /** The values of a frame that does not add nested or mapped contexts. */
+  private static final String[] NO_VALUES = new String[0];
+
+  /** The empty logging context of a thread without a bound or attached frame. */
+  static final ScopedLoggingContext EMPTY =
+      new ScopedLoggingContext(null, NO_VALUES, NO_VALUES, NO_VALUES);
+
+  /** The binding used by threads that do not run a bound operation. */
+  private static final Binding UNBOUND = new Binding(EMPTY, null);
+
+  /** The binding of the operations run with a logging context. */
+  private static final ScopedValue<Binding> BINDING = ScopedValue.newInstance();
+
+  /** The frames attached to threads that do not own the binding they run in. */
+  private static final ThreadLocal<ScopedLoggingContext> ATTACHED = new ThreadLocal<>();
+
+  /**
+   * The number of threads with a frame in {@link #ATTACHED}, which allows {@link #current()} to
+   * skip the {@link ThreadLocal}, and the map it would create, while no thread uses it.
+   */
+  private static final AtomicInteger ATTACHED_THREADS = new AtomicInteger();
+
+  /** The frame this frame was created from, or <code>null</code> for the {@link #EMPTY} frame. */
+  private final ScopedLoggingContext parent;
+
+  /** The Nested Diagnostic Context values added by this frame. */
+  private final String[] nestedContexts;
+
+  /** The Mapped Diagnostic Context keys added by this frame, aligned with {@link #mappedValues}. */
+  private final String[] mappedKeys;
+
+  /** The Mapped Diagnostic Context values added by this frame. */
+  private final String[] mappedValues;
+
+  /**
+   * The Mapped Diagnostic Context values of this frame and its parents, or <code>null</code> until
+   * they are first requested.
+   */
+  private Map<String, String> mappedContexts;
+
+  private ScopedLoggingContext(
+      final ScopedLoggingContext parent,
+      final String[] nestedContexts,
+      final String[] mappedKeys,
+      final String[] mappedValues) {
+    this.parent = parent;
+    this.nestedContexts = nestedContexts;
+    this.mappedKeys = mappedKeys;
+    this.mappedValues = mappedValues;
+  }
+
+  /**
+   * Returns the logging context of the current thread, which is the frame attached most recently by
+   * the thread or, if there is none, the frame bound to the operation the thread runs.
+   *
+   * @return the logging context of the current thread (never <code>null</code>).
+   */
+  public static ScopedLoggingContext current() {
+    final Binding binding = BINDING.orElse(UNBOUND);
+    if (binding.owner == Thread.currentThread()) {
+      final ScopedLoggingContext attached = binding.attached;
+      return attached != null ? attached : binding.context;
+    }
+    if (ATTACHED_THREADS.get() > 0) {
+      final ScopedLoggingContext attached = ATTACHED.get();
+      if (attached != null) {
+        return attached;
+      }
+    }
+    return binding.context;
+  }
+
+  /**
+   * Attaches this logging context to the current thread until the returned {@link LogContext} is
+   * closed. Attaching the current logging context leaves it unchanged.
+   *
+   * @return a {@link LogContext} that restores the previous logging context.
+   */
+  @Override
+  public LogContext attach() {
+    final Binding binding = BINDING.orElse(UNBOUND);
+    if (binding.owner == Thread.currentThread()) {
+      final ScopedLoggingContext previous = binding.attached;
+      if (this == (previous != null ? previous : binding.context)) {
+        return NO_OP_CONTEXT;
+      }
+      binding.attached = this;
+      return () -> binding.attached = previous;
+    }
+
+    final ScopedLoggingContext previous = ATTACHED.get();
+    if (this == (previous != null ? previous : binding.context)) {
+      return NO_OP_CONTEXT;
+    }
+    ATTACHED.set(this);
+    if (previous != null) {
+      return () -> ATTACHED.set(previous);
+    }
+    ATTACHED_THREADS.incrementAndGet();
+    return () -> {
+      ATTACHED.remove();
+      ATTACHED_THREADS.decrementAndGet();
+    };
+  }
+
+  /**
+   * Returns the Nested Diagnostic Context values of this logging context, from the outermost to the
+   * innermost value.
+   *
+   * @return an immutable list of the Nested Diagnostic Context values.
+   */
+  public List<String> getNestedContexts() {
+    final List<String> contexts = new ArrayList<>();
+    addNestedContexts(contexts);
+    return unmodifiableList(contexts);
+  }
+
+  /**
+   * Returns the Mapped Diagnostic Context values of this logging context. The map is built the
+   * first time it is requested and shared afterwards. Building it may happen more than once on
+   * different threads, which is harmless since every build yields an equal map.
+   *
+   * @return an immutable map of the Mapped Diagnostic Context values.
+   */
+  public Map<String, String> getMappedContexts() {
+    Map<String, String> map = mappedContexts;
+    if (map == null) {
+      if (mappedKeys.length == 0) {
+        map = parent != null ? parent.getMappedContexts() : emptyMap();
+      } else {
+        final Map<String, String> contexts = new LinkedHashMap<>(parent.getMappedContexts());
+        for (int i = 0; i < mappedKeys.length; i++) {
+          contexts.put(mappedKeys[i], mappedValues[i]);
+        }
+        map = unmodifiableMap(contexts);
+      }
+      mappedContexts = map;
+    }
+    return map;
+  }
+
+  /**
+   * Returns the Mapped Diagnostic Context value of a key, without building the map of all values.
+   *
+   * @param key the Mapped Diagnostic Context key.
+   * @return the value of the key, or <code>null</code> if it is not mapped.
+   */
+  public String getMappedContext(final String key) {
+    for (ScopedLoggingContext frame = this; frame != null; frame = frame.parent) {
+      for (int i = frame.mappedKeys.length - 1; i >= 0; i--) {
+        if (frame.mappedKeys[i].equals(key)) {
+          return frame.mappedValues[i];
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Creates a frame that adds the context values of a builder to this logging context. The values
+   * are copied, so the builder can be reset and reused afterwards.
+   *
+   * @param builder the builder with the context values to add.
+   * @return the new frame, or this frame if the builder does not add any values.
+   */
+  ScopedLoggingContext with(final AbstractLogContextBuilder builder) {
+    final int nestedCount = builder.getNestedContextCount();
+    final int mappedCount = builder.getMappedContextCount();
+    if (nestedCount == 0 && mappedCount == 0) {
+      return this;
+    }
+
+    final String[] nested = nestedCount > 0 ? new String[nestedCount] : NO_VALUES;
+    for (int i = 0; i < nestedCount; i++) {
+      nested[i] = builder.getNestedContext(i);
+    }
+    final String[] keys = mappedCount > 0 ? new String[mappedCount] : NO_VALUES;
+    final String[] values = mappedCount > 0 ? new String[mappedCount] : NO_VALUES;
+    for (int i = 0; i < mappedCount; i++) {
+      keys[i] = builder.getMappedContextKey(i);
+      values[i] = builder.getMappedContextValue(i);
+    }
+    return new ScopedLoggingContext(this, nested, keys, values);
+  }
+
+  /**
+   * Runs an operation with this logging context bound, which makes it visible to the operation and
+   * the subtasks it forks without using a {@link ThreadLocal}. This is the counterpart of {@link
+   * #attach()} for work that can be expressed as a single operation, such as the task of a virtual
+   * thread.
+   *
+   * @param operation the operation to run.
+   */
+  public void run(final Runnable operation) {
+    bind().run(operation);
+  }
+
+  /**
+   * Calls an operation with this logging context bound.
+   *
+   * @param operation the operation to call.
+   * @param <R> the result type of the operation.
+   * @param <X> the type of the exception thrown by the operation.
+   * @return the result of the operation.
+   * @throws X if the operation fails.
+   * @see #run(Runnable)
+   */
+  public <R, X extends Throwable> R call(final ScopedValue.CallableOp<? extends R, X> operation)
+      throws X {
+    return bind().call(operation);
+  }
+
+  private ScopedValue.Carrier bind() {
+    return ScopedValue.where(BINDING, new Binding(this, Thread.currentThread()));
+  }
+
+  private void addNestedContexts(final List<String> contexts) {
+    if (parent != null) {
+      parent.addNestedContexts(contexts);
+    }
+    contexts.addAll(Arrays.asList(nestedContexts));
+  }
+
+  @Override
+  public String toString() {
+    return "ScopedLoggingContext[nested="
+        + getNestedContexts()
+        + ", mapped="
+        + getMappedContexts()
+        + "]";
+  }
+
+  /**
+   * The value bound by a {@link ScopedValueLogContextBuilder}, which holds the bound frame and the
+   * frame attached on top of it by the thread that runs the bound operation. Threads forked by the
+   * operation share the binding, but only see its bound frame.
+   */
+  private static final class Binding {
+
+    /** The frame bound to the operation. */
+    private final ScopedLoggingContext context;
+
+    /** The thread that runs the bound operation, or <code>null</code> if it is not bound. */
+    private final Thread owner;
+
+    /** The frame attached by the {@link #owner}, or <code>null</code>. */
+    private ScopedLoggingContext attached;
+
+    Binding(final ScopedLoggingContext context, final Thread owner) {
+      this.context = context;
+      this.owner = owner;
+    }
+  }
+}
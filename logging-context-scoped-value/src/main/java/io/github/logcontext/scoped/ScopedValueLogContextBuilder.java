@@ -0,0 +1,148 @@
+package io.github.logcontext.scoped;
+
+import io.github.logcontext.AbstractLogContextBuilder;
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContext.Builder;
+
+/**
+ * The ScopedValueLogContextBuilder class provides a {@link LogContext.Builder} implementation that
+ * keeps the logging context in {@link ScopedLoggingContext} frames instead of a thread-local Mapped
+ * or Nested Diagnostic Context.
+ *
+ * <p>The context values are best applied with {@link #run(Runnable)} or {@link
+ * #call(ScopedValue.CallableOp)}, which bind them with a {@link ScopedValue} for the duration of an
+ * operation, so that virtual threads do not keep any logging context after the operation returns
+ * and subtasks forked into a <code>StructuredTaskScope</code> inherit it without being copied. The
+ * {@link #get()} method attaches the values to the current thread until the returned {@link
+ * LogContext} is closed, as the other providers do, but these values are not inherited by forked
+ * subtasks.
+ */
+public class ScopedValueLogContextBuilder extends AbstractLogContextBuilder {
+
+  /**
+   * Constructs a new instance of {@link Builder}. This method is not intended for direct use.
+   *
+   * @see LogContext.Builder#nestedContext(String...)
+   * @see LogContext.Builder#mappedContext(String, String)
+   */
+  public ScopedValueLogContextBuilder() {
+    super();
+  }
+
+  /**
+   * Adds additional Nested Diagnostic Context (NDC) information to the logging context.
+   *
+   * @param context the NDC values to add to the logging context.
+   * @return a reference to this builder for chaining, so that {@link #run(Runnable)} and {@link
+   *     #call(ScopedValue.CallableOp)} remain available.
+   */
+  @Override
+  public ScopedValueLogContextBuilder andNested(final String... context) {
+    super.andNested(context);
+    return this;
+  }
+
+  /**
+   * Adds a Mapped Diagnostic Context (MDC) value to the logging context.
+   *
+   * @param context the name of the MDC key associated with the value to be added.
+   * @param value the value of the MDC attribute.
+   * @return a reference to this builder for chaining, so that {@link #run(Runnable)} and {@link
+   *     #call(ScopedValue.CallableOp)} remain available.
+   */
+  @Override
+  public ScopedValueLogContextBuilder andMapped(final String context, final String value) {
+    super.andMapped(context, value);
+    return this;
+  }
+
+  /**
+   * Adds a <code>long</code> Mapped Diagnostic Context (MDC) value to the logging context.
+   *
+   * @param context the name of the MDC key associated with the value to be added.
+   * @param value the value of the MDC attribute.
+   * @return a reference to this builder for chaining, so that {@link #run(Runnable)} and {@link
+   *     #call(ScopedValue.CallableOp)} remain available.
+   */
+  @Override
+  public ScopedValueLogContextBuilder andMapped(final String context, final long value) {
+    super.andMapped(context, value);
+    return this;
+  }
+
+  /**
+   * Adds an <code>int</code> Mapped Diagnostic Context (MDC) value to the logging context.
+   *
+   * @param context the name of the MDC key associated with the value to be added.
+   * @param value the value of the MDC attribute.
+   * @return a reference to this builder for chaining, so that {@link #run(Runnable)} and {@link
+   *     #call(ScopedValue.CallableOp)} remain available.
+   */
+  @Override
+  public ScopedValueLogContextBuilder andMapped(final String context, final int value) {
+    super.andMapped(context, value);
+    return this;
+  }
+
+  /**
+   * Adds a <code>double</code> Mapped Diagnostic Context (MDC) value to the logging context.
+   *
+   * @param context the name of the MDC key associated with the value to be added.
+   * @param value the value of the MDC attribute.
+   * @return a reference to this builder for chaining, so that {@link #run(Runnable)} and {@link
+   *     #call(ScopedValue.CallableOp)} remain available.
+   */
+  @Override
+  public ScopedValueLogContextBuilder andMapped(final String context, final double value) {
+    super.andMapped(context, value);
+    return this;
+  }
+
+  /**
+   * Adds a <code>boolean</code> Mapped Diagnostic Context (MDC) value to the logging context.
+   *
+   * @param context the name of the MDC key associated with the value to be added.
+   * @param value the value of the MDC attribute.
+   * @return a reference to this builder for chaining, so that {@link #run(Runnable)} and {@link
+   *     #call(ScopedValue.CallableOp)} remain available.
+   */
+  @Override
+  public ScopedValueLogContextBuilder andMapped(final String context, final boolean value) {
+    super.andMapped(context, value);
+    return this;
+  }
+
+  /**
+   * Attaches the configured values on top of the current logging context and returns a {@link
+   * LogContext} that can be used to remove them.
+   *
+   * @return a {@link LogContext} that can be used to remove the updates to the logging context.
+   */
+  @Override
+  public LogContext get() {
+    return ScopedLoggingContext.current().with(this).attach();
+  }
+
+  /**
+   * Runs an operation with the configured values bound on top of the current logging context.
+   *
+   * @param operation the operation to run.
+   */
+  public void run(final Runnable operation) {
+    ScopedLoggingContext.current().with(this).run(operation);
+  }
+
+  /**
+   * Calls an operation with the configured values bound on top of the current logging context.
+   *
+   * @param operation the operation to call.
+   * @param <R> the result type of the operation.
+   * @param <X> the type of the exception thrown by the operation.
+   * @return the result of the operation.
+   * @throws X if the operation fails.
+   */
+  public <R, X extends Throwable> R call(final ScopedValue.CallableOp<? extends R, X> operation)
+      throws X {
+    return ScopedLoggingContext.current().with(this).call(operation);
+  }
+}
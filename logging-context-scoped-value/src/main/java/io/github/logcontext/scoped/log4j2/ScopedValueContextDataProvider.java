@@ -0,0 +1,23 @@
+package io.github.logcontext.scoped.log4j2;
+
+import io.github.logcontext.scoped.ScopedLoggingContext;
+import java.util.Map;
+import org.apache.logging.log4j.core.util.ContextDataProvider;
+
+/**
+ * The ScopedValueContextDataProvider class provides a Log4j 2 {@link ContextDataProvider} that
+ * adds the Mapped Diagnostic Context values of the {@link ScopedLoggingContext#current() current}
+ * logging context to every log event, so that layouts can refer to them like thread context map
+ * entries.
+ *
+ * <p>Log4j 2 discovers the provider with the service loader, so it only has to be on the class
+ * path. Nested Diagnostic Context values are not part of the context data of a log event and
+ * remain available through {@link ScopedLoggingContext#getNestedContexts()}.
+ */
+public class ScopedValueContextDataProvider implements ContextDataProvider {
+
+  @Override
+  public Map<String, String> supplyContextData() {
+    return ScopedLoggingContext.current().getMappedContexts();
+  }
+}
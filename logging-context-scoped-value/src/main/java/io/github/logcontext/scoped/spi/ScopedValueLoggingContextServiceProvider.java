@@ -0,0 +1,26 @@
+package io.github.logcontext.scoped.spi;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogContextSnapshot;
+import io.github.logcontext.LoggingContextServiceProvider;
+import io.github.logcontext.scoped.ScopedLoggingContext;
+import io.github.logcontext.scoped.ScopedValueLogContextBuilder;
+
+/**
+ * The ScopedValueLoggingContextServiceProvider class provides a {@link
+ * LoggingContextServiceProvider} implementation that provides a {@link LogContext.Builder}
+ * implementation that keeps the logging context in {@link ScopedValue} bindings.
+ */
+public class ScopedValueLoggingContextServiceProvider implements LoggingContextServiceProvider {
+
+  @Override
+  public Builder logContextBuilder() {
+    return new ScopedValueLogContextBuilder();
+  }
+
+  @Override
+  public LogContextSnapshot captureSnapshot() {
+    return ScopedLoggingContext.current();
+  }
+}
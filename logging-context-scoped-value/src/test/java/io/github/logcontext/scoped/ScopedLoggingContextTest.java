@@ -0,0 +1,221 @@
+package io.github.logcontext.scoped;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContextSnapshot;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ScopedLoggingContextTest class provides a set of JUnit test cases for the {@link
+ * ScopedLoggingContext} class.
+ */
+class ScopedLoggingContextTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  private static final String CONTEXT_2 = "CONTEXT2";
+
+  private static final String VALUE_1 = "value1";
+
+  private static final String VALUE_2 = "2";
+
+  /**
+   * Test method for {@link ScopedLoggingContext#current()} to ensure that a thread without a bound
+   * or attached frame has an empty logging context.
+   */
+  @Test
+  void testCurrent_empty() {
+    final ScopedLoggingContext context = ScopedLoggingContext.current();
+
+    assertThat(context, sameInstance(ScopedLoggingContext.EMPTY));
+    assertThat(context.getNestedContexts(), empty());
+    assertThat(context.getMappedContexts(), aMapWithSize(0));
+    assertThat(context.getMappedContext(CONTEXT_1), nullValue());
+  }
+
+  /**
+   * Test method for {@link ScopedLoggingContext#attach()} to ensure that nested attachments of a
+   * thread without a binding are removed in order.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_unbound() throws Exception {
+    try (LogContext outer = new ScopedValueLogContextBuilder().andNested(CONTEXT_1).get()) {
+      final ScopedLoggingContext outerContext = ScopedLoggingContext.current();
+      assertThat(outerContext.getNestedContexts(), contains(CONTEXT_1));
+
+      try (LogContext inner = new ScopedValueLogContextBuilder().andNested(CONTEXT_2).get()) {
+        assertThat(
+            ScopedLoggingContext.current().getNestedContexts(), contains(CONTEXT_1, CONTEXT_2));
+      }
+      assertThat(ScopedLoggingContext.current(), sameInstance(outerContext));
+    }
+    assertThat(ScopedLoggingContext.current(), sameInstance(ScopedLoggingContext.EMPTY));
+  }
+
+  /**
+   * Test method for {@link ScopedLoggingContext#attach()} to ensure that attaching the current
+   * logging context leaves it unchanged.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_current() throws Exception {
+    try (LogContext outer =
+        new ScopedValueLogContextBuilder().andMapped(CONTEXT_1, VALUE_1).get()) {
+      final ScopedLoggingContext context = ScopedLoggingContext.current();
+      context.attach().close();
+
+      assertThat(ScopedLoggingContext.current(), sameInstance(context));
+    }
+    ScopedLoggingContext.EMPTY.attach().close();
+    new ScopedValueLogContextBuilder()
+        .run(
+            () ->
+                assertThat(
+                    ScopedLoggingContext.current(), sameInstance(ScopedLoggingContext.EMPTY)));
+  }
+
+  /**
+   * Test method for {@link ScopedLoggingContext#attach()} to ensure that a frame attached by the
+   * thread that runs a bound operation shadows the bound frame until it is closed.
+   */
+  @Test
+  void testAttach_bound() {
+    new ScopedValueLogContextBuilder()
+        .andMapped(CONTEXT_1, VALUE_1)
+        .run(
+            () -> {
+              final ScopedLoggingContext bound = ScopedLoggingContext.current();
+              try (LogContext context =
+                  new ScopedValueLogContextBuilder().andMapped(CONTEXT_1, VALUE_2).get()) {
+                assertThat(
+                    ScopedLoggingContext.current().getMappedContext(CONTEXT_1), equalTo(VALUE_2));
+              } catch (final Exception e) {
+                throw new IllegalStateException(e);
+              }
+              assertThat(ScopedLoggingContext.current(), sameInstance(bound));
+            });
+  }
+
+  /**
+   * Test method for {@link ScopedLoggingContext#attach()} to ensure that a snapshot of a bound
+   * logging context can be attached to another thread.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_otherThread() throws Exception {
+    final AtomicReference<LogContextSnapshot> snapshot = new AtomicReference<>();
+    new ScopedValueLogContextBuilder()
+        .andNested(CONTEXT_1)
+        .run(() -> snapshot.set(ScopedLoggingContext.current()));
+
+    final AtomicReference<ScopedLoggingContext> attached = new AtomicReference<>();
+    final Thread thread =
+        new Thread(
+            () -> {
+              try (LogContext context = snapshot.get().attach()) {
+                attached.set(ScopedLoggingContext.current());
+              } catch (final Exception e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    thread.start();
+    thread.join();
+
+    assertThat(attached.get(), sameInstance(snapshot.get()));
+    assertThat(ScopedLoggingContext.current(), sameInstance(ScopedLoggingContext.EMPTY));
+  }
+
+  /**
+   * Test method for {@link ScopedLoggingContext#getMappedContexts()} to ensure that inner frames
+   * shadow the values of outer frames and share their map when they do not add values.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testGetMappedContexts_shadowed() throws Exception {
+    new ScopedValueLogContextBuilder()
+        .andMapped(CONTEXT_1, VALUE_1)
+        .andMapped(CONTEXT_2, VALUE_2)
+        .run(
+            () -> {
+              final ScopedLoggingContext outer = ScopedLoggingContext.current();
+              new ScopedValueLogContextBuilder()
+                  .andMapped(CONTEXT_1, VALUE_2)
+                  .andNested(CONTEXT_1)
+                  .run(
+                      () -> {
+                        final ScopedLoggingContext inner = ScopedLoggingContext.current();
+                        assertThat(inner.getMappedContexts(), hasEntry(CONTEXT_1, VALUE_2));
+                        assertThat(inner.getMappedContexts(), hasEntry(CONTEXT_2, VALUE_2));
+                        assertThat(
+                            inner.getMappedContexts(), sameInstance(inner.getMappedContexts()));
+                        assertThat(inner.getMappedContext(CONTEXT_1), equalTo(VALUE_2));
+                      });
+              new ScopedValueLogContextBuilder()
+                  .andNested(CONTEXT_2)
+                  .run(
+                      () ->
+                          assertThat(
+                              ScopedLoggingContext.current().getMappedContexts(),
+                              sameInstance(outer.getMappedContexts())));
+              assertThat(outer.getMappedContext(CONTEXT_1), equalTo(VALUE_1));
+            });
+  }
+
+  /**
+   * Test method for {@link ScopedLoggingContext#run(Runnable)} and {@link
+   * ScopedLoggingContext#call(ScopedValue.CallableOp)} to ensure that a captured logging context
+   * can be bound on another thread without attaching it.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testRun_otherThread() throws Exception {
+    final ScopedLoggingContext snapshot =
+        new ScopedValueLogContextBuilder()
+            .andMapped(CONTEXT_1, VALUE_1)
+            .call(ScopedLoggingContext::current);
+
+    final AtomicReference<String> value = new AtomicReference<>();
+    final Thread thread =
+        new Thread(
+            () ->
+                snapshot.run(
+                    () -> value.set(snapshot.call(() -> currentMappedContext(CONTEXT_1)))));
+    thread.start();
+    thread.join();
+
+    assertThat(value.get(), equalTo(VALUE_1));
+  }
+
+  /** Test method for {@link ScopedLoggingContext#toString()}. */
+  @Test
+  void testToString() {
+    new ScopedValueLogContextBuilder()
+        .andNested(CONTEXT_1)
+        .andMapped(CONTEXT_2, VALUE_2)
+        .run(
+            () ->
+                assertThat(
+                    ScopedLoggingContext.current().toString(),
+                    containsString("nested=[CONTEXT1], mapped={CONTEXT2=2}")));
+  }
+
+  private static String currentMappedContext(final String key) {
+    return ScopedLoggingContext.current().getMappedContext(key);
+  }
+}
@@ -0,0 +1,100 @@
+package io.github.logcontext.scoped;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.logcontext.LogContext;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ScopedValueLogContextBuilderTest class provides a set of JUnit test cases for the {@link
+ * ScopedValueLogContextBuilder} class.
+ */
+class ScopedValueLogContextBuilderTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  private static final String CONTEXT_2 = "CONTEXT2";
+
+  private static final String VALUE_1 = "value1";
+
+  /** The {@link LogContext.Builder} implementation being tested. */
+  private final ScopedValueLogContextBuilder logContextBuilder = new ScopedValueLogContextBuilder();
+
+  /**
+   * Test method for {@link ScopedValueLogContextBuilder#get()} to ensure that the logging context
+   * keeps the configured values after the builder is reset.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testGet_updatesLoggingContext() throws Exception {
+    logContextBuilder.andNested(CONTEXT_1, CONTEXT_2).andMapped(CONTEXT_1, VALUE_1);
+
+    try (LogContext context = logContextBuilder.get()) {
+      logContextBuilder.reset();
+
+      final ScopedLoggingContext current = ScopedLoggingContext.current();
+      assertThat(current.getNestedContexts(), contains(CONTEXT_1, CONTEXT_2));
+      assertThat(current.getMappedContexts(), hasEntry(CONTEXT_1, VALUE_1));
+    }
+    assertThat(ScopedLoggingContext.current(), sameInstance(ScopedLoggingContext.EMPTY));
+  }
+
+  /**
+   * Test method for {@link ScopedValueLogContextBuilder#run(Runnable)} to ensure that the values
+   * are only bound while the operation runs.
+   */
+  @Test
+  void testRun_bindsLoggingContext() {
+    logContextBuilder
+        .andNested(CONTEXT_1)
+        .run(
+            () ->
+                assertThat(
+                    ScopedLoggingContext.current().getNestedContexts(), contains(CONTEXT_1)));
+
+    assertThat(ScopedLoggingContext.current(), sameInstance(ScopedLoggingContext.EMPTY));
+  }
+
+  /**
+   * Test method for {@link ScopedValueLogContextBuilder#call(ScopedValue.CallableOp)} to ensure
+   * that the result of the operation is returned.
+   */
+  @Test
+  void testCall_returnsResult() {
+    final String result =
+        logContextBuilder
+            .andMapped(CONTEXT_1, VALUE_1)
+            .call(() -> ScopedLoggingContext.current().getMappedContext(CONTEXT_1));
+
+    assertThat(result, equalTo(VALUE_1));
+  }
+
+  /**
+   * Test method for {@link ScopedValueLogContextBuilder#call(ScopedValue.CallableOp)} to ensure
+   * that the exception thrown by the operation is propagated.
+   */
+  @Test
+  void testCall_throwsException() {
+    final IOException exception = new IOException("failed");
+
+    final IOException thrown =
+        assertThrows(
+            IOException.class,
+            () ->
+                logContextBuilder
+                    .andNested(CONTEXT_1)
+                    .call(
+                        () -> {
+                          throw exception;
+                        }));
+
+    assertThat(thrown, sameInstance(exception));
+  }
+}
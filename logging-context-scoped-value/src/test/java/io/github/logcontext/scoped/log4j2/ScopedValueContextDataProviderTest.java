@@ -0,0 +1,33 @@
+package io.github.logcontext.scoped.log4j2;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasEntry;
+
+import io.github.logcontext.scoped.ScopedValueLogContextBuilder;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ScopedValueContextDataProviderTest class provides a set of JUnit test cases for the {@link
+ * ScopedValueContextDataProvider} class.
+ */
+class ScopedValueContextDataProviderTest {
+
+  /** The context data provider instance being tested. */
+  private final ScopedValueContextDataProvider contextDataProvider =
+      new ScopedValueContextDataProvider();
+
+  /**
+   * Test method for {@link ScopedValueContextDataProvider#supplyContextData()} to ensure that the
+   * mapped values of the bound logging context are supplied.
+   */
+  @Test
+  void testSupplyContextData() {
+    assertThat(contextDataProvider.supplyContextData(), aMapWithSize(0));
+
+    new ScopedValueLogContextBuilder()
+        .andMapped("requestId", "42")
+        .run(
+            () -> assertThat(contextDataProvider.supplyContextData(), hasEntry("requestId", "42")));
+  }
+}
@@ -0,0 +1,43 @@
+package io.github.logcontext.scoped.spi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.scoped.ScopedLoggingContext;
+import io.github.logcontext.scoped.ScopedValueLogContextBuilder;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ScopedValueLoggingContextServiceProviderTest class provides a set of JUnit test cases for the
+ * {@link ScopedValueLoggingContextServiceProvider} class.
+ */
+class ScopedValueLoggingContextServiceProviderTest {
+
+  /** The ScopedValue logging context service provider instance being tested. */
+  private final ScopedValueLoggingContextServiceProvider loggingContextServiceProvider =
+      new ScopedValueLoggingContextServiceProvider();
+
+  /** Test method for {@link ScopedValueLoggingContextServiceProvider#logContextBuilder()}. */
+  @Test
+  void testLogContextBuilder() {
+    final Builder builder = loggingContextServiceProvider.logContextBuilder();
+
+    assertThat(builder, notNullValue());
+    assertThat(builder, instanceOf(ScopedValueLogContextBuilder.class));
+  }
+
+  /** Test method for {@link ScopedValueLoggingContextServiceProvider#captureSnapshot()}. */
+  @Test
+  void testCaptureSnapshot() {
+    new ScopedValueLogContextBuilder()
+        .andNested("captured")
+        .run(
+            () ->
+                assertThat(
+                    loggingContextServiceProvider.captureSnapshot(),
+                    sameInstance(ScopedLoggingContext.current())));
+  }
+}
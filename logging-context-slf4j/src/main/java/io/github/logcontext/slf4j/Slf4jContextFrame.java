@@ -0,0 +1,155 @@
+package io.github.logcontext.slf4j;
+
+import io.github.logcontext.LogContext;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.MDC;
+import org.slf4j.NDC;
+
+/**
+ * The Slf4jContextFrame class provides a {@link LogContext} that restores the SLF4J {@link MDC} to
+ * its state before a {@link Slf4jLogContextBuilder} updated it. The nested context values are kept
+ * in the MDC under the <code>NDC0</code>, <code>NDC1</code>, ... keys used by the SLF4J {@link
+ * NDC}, so the frame records the depth of the nested context before any values were pushed, the MDC
+ * keys that were put, and the MDC values they shadowed.
+ *
+ * <p>A batched frame restores the MDC with a single {@link MDC#setContextMap(Map)} call, while a
+ * per-key frame removes and restores every key with its own MDC call. Either way, MDC keys that
+ * were added by other code while the frame was open are left in place.
+ */
+final class Slf4jContextFrame implements LogContext {
+
+  /** The depth value used when no nested context values were pushed. */
+  static final int NO_NESTED_CONTEXTS = -1;
+
+  /** The MDC keys of the first nested context values, which are looked up for every frame. */
+  private static final String[] NESTED_KEYS = new String[16];
+
+  static {
+    for (int i = 0; i < NESTED_KEYS.length; i++) {
+      NESTED_KEYS[i] = NDC.PREFIX + i;
+    }
+  }
+
+  /** Whether the MDC is restored with a single {@link MDC#setContextMap(Map)} call. */
+  private final boolean batched;
+
+  /** The nested context depth to restore, or {@link #NO_NESTED_CONTEXTS} to leave it unchanged. */
+  private final int nestedDepth;
+
+  /** The MDC keys to remove, in the order they were put. */
+  private final String[] mappedKeys;
+
+  /** The MDC values shadowed by the {@link #mappedKeys}, or <code>null</code> for new keys. */
+  private final String[] shadowedValues;
+
+  /**
+   * Constructs a new instance of Slf4jContextFrame.
+   *
+   * @param batched whether the MDC is restored with a single {@link MDC#setContextMap(Map)} call.
+   * @param nestedDepth the nested context depth to restore, or {@link #NO_NESTED_CONTEXTS} to leave
+   *     the nested context unchanged.
+   * @param mappedKeys the MDC keys to remove, in the order they were put.
+   * @param shadowedValues the MDC values shadowed by the <code>mappedKeys</code>, or <code>null
+   *     </code> for keys that were not set.
+   */
+  Slf4jContextFrame(
+      final boolean batched,
+      final int nestedDepth,
+      final String[] mappedKeys,
+      final String[] shadowedValues) {
+    this.batched = batched;
+    this.nestedDepth = nestedDepth;
+    this.mappedKeys = mappedKeys;
+    this.shadowedValues = shadowedValues;
+  }
+
+  /**
+   * Removes the MDC keys in the reverse order they were put, restores the values they shadowed, and
+   * truncates the nested context to its recorded depth, which also discards any nested values left
+   * behind by inner contexts that were not closed.
+   */
+  @Override
+  public void close() {
+    if (batched) {
+      final Map<String, String> contextMap = copyOfContextMap();
+      for (int i = mappedKeys.length - 1; i >= 0; i--) {
+        if (shadowedValues[i] != null) {
+          contextMap.put(mappedKeys[i], shadowedValues[i]);
+        } else {
+          contextMap.remove(mappedKeys[i]);
+        }
+      }
+      if (nestedDepth != NO_NESTED_CONTEXTS) {
+        for (int depth = nestedDepth; contextMap.containsKey(nestedKey(depth)); depth++) {
+          contextMap.remove(nestedKey(depth));
+        }
+      }
+      if (contextMap.isEmpty()) {
+        MDC.clear();
+      } else {
+        MDC.setContextMap(contextMap);
+      }
+    } else {
+      for (int i = mappedKeys.length - 1; i >= 0; i--) {
+        if (shadowedValues[i] != null) {
+          MDC.put(mappedKeys[i], shadowedValues[i]);
+        } else {
+          MDC.remove(mappedKeys[i]);
+        }
+      }
+      if (nestedDepth != NO_NESTED_CONTEXTS) {
+        for (int depth = nestedDepth; MDC.get(nestedKey(depth)) != null; depth++) {
+          MDC.remove(nestedKey(depth));
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the MDC key of a nested context value, as used by the SLF4J {@link NDC}.
+   *
+   * @param depth the depth of the nested context value, starting at zero.
+   * @return the MDC key of the nested context value.
+   */
+  static String nestedKey(final int depth) {
+    return depth < NESTED_KEYS.length ? NESTED_KEYS[depth] : NDC.PREFIX + depth;
+  }
+
+  /**
+   * Returns the depth of the nested context kept in an MDC map.
+   *
+   * @param contextMap the MDC map.
+   * @return the number of consecutive nested context keys in the map.
+   */
+  static int nestedDepth(final Map<String, String> contextMap) {
+    int depth = 0;
+    while (contextMap.containsKey(nestedKey(depth))) {
+      depth++;
+    }
+    return depth;
+  }
+
+  /**
+   * Returns the depth of the nested context kept in the MDC of the current thread.
+   *
+   * @return the number of consecutive nested context keys in the MDC.
+   */
+  static int nestedDepth() {
+    int depth = 0;
+    while (MDC.get(nestedKey(depth)) != null) {
+      depth++;
+    }
+    return depth;
+  }
+
+  /**
+   * Returns a modifiable copy of the MDC of the current thread.
+   *
+   * @return a copy of the MDC, which is empty if the MDC adapter has no map for the thread.
+   */
+  static Map<String, String> copyOfContextMap() {
+    final Map<String, String> contextMap = MDC.getCopyOfContextMap();
+    return contextMap != null ? contextMap : new HashMap<>();
+  }
+}
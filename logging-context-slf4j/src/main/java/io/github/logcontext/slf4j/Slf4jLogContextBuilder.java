@@ -0,0 +1,154 @@
+package io.github.logcontext.slf4j;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.logcontext.AbstractLogContextBuilder;
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogContextLeakDetector;
+import io.github.logcontext.LoggingContextMetricsRegistry;
+import java.util.Map;
+import org.slf4j.MDC;
+import org.slf4j.NDC;
+
+/**
+ * The Slf4jLogContextBuilder class provides a {@link LogContext.Builder} implementation that
+ * updates the SLF4J {@link MDC}, and therefore the MDC of the bound logging framework such as
+ * Logback, with additional nested and mapped context values. The logging context will not be
+ * updated until the {@link #get()} method is called. Subsequent calls to {@link #get()} will update
+ * the context with the same values.
+ *
+ * <p>SLF4J 1.7 does not have a nested diagnostic context of its own, so nested context values are
+ * pushed into the MDC under the <code>NDC0</code>, <code>NDC1</code>, ... keys used by the {@link
+ * NDC} of <code>slf4j-ext</code>. They can be logged with a pattern such as <code>%X{NDC0}</code>
+ * and are visible to code that uses the {@link NDC} directly.
+ *
+ * <p>How the MDC is updated is controlled by the {@link UpdateMode}. By default, every value is put
+ * with its own MDC call, which is the cheapest way to update an MDC that already holds the values of
+ * a request, since the SLF4J API can only replace the whole MDC with a copy. Batching the updates
+ * pays off when many values are added to a small MDC. In both modes, an MDC value that is
+ * overwritten by this builder is restored when the returned {@link LogContext} is closed.
+ */
+public class Slf4jLogContextBuilder extends AbstractLogContextBuilder {
+
+  /** The ways in which {@link #get()} updates the MDC. */
+  public enum UpdateMode {
+
+    /**
+     * Copies the MDC once, applies all values to the copy, and replaces the MDC with a single
+     * {@link MDC#setContextMap(Map)} call. Closing the context restores the MDC the same way. A
+     * single value is put directly, since batching it would only add the copies of the MDC.
+     */
+    BATCHED,
+
+    /** Reads, puts and removes every value with its own MDC call. */
+    PER_KEY
+  }
+
+  /** The name of this backend in the metrics and in the leak detection reports. */
+  static final String BACKEND_NAME = "slf4j";
+
+  /** The logging context returned when the builder does not add any values. */
+  private static final LogContext NO_OP_CONTEXT = () -> {};
+
+  /** The way in which the MDC is updated. */
+  private final UpdateMode updateMode;
+
+  /**
+   * Constructs a new instance of {@link Builder} using the {@link UpdateMode#PER_KEY} update mode.
+   * This method is not intended for direct use.
+   *
+   * @see LogContext.Builder#nestedContext(String...)
+   * @see LogContext.Builder#mappedContext(String, String)
+   */
+  public Slf4jLogContextBuilder() {
+    this(UpdateMode.PER_KEY);
+  }
+
+  /**
+   * Constructs a new instance of {@link Builder} using the provided update mode. This method is not
+   * intended for direct use.
+   *
+   * @param updateMode the way in which the MDC is updated (must not be <code>null</code>).
+   * @throws NullPointerException if <code>updateMode</code> is <code>null</code>.
+   */
+  public Slf4jLogContextBuilder(final UpdateMode updateMode) {
+    super();
+    this.updateMode = requireNonNull(updateMode, "updateMode must not be null");
+  }
+
+  /**
+   * Updates the MDC with the configured nested and mapped context values and returns a {@link
+   * LogContext} that can be used to remove the logging context updates.
+   *
+   * <p>When the {@link io.github.logcontext.LoggingContextMetrics} are enabled, the scope is
+   * reported to them as opened by the <code>"slf4j"</code> backend, and as closed when the returned
+   * {@link LogContext} is closed.
+   *
+   * <p>When the {@link LogContextLeakDetector} is enabled, the returned {@link LogContext} may track
+   * that it is closed once, in order and by the current thread.
+   *
+   * @return a {@link LogContext} that can be used to remove the updates to the MDC.
+   */
+  public LogContext get() {
+    final LogContext opened = open();
+    final LogContext context =
+        LoggingContextMetricsRegistry.isEnabled()
+            ? LoggingContextMetricsRegistry.recordScope(
+                BACKEND_NAME, Slf4jContextFrame.nestedDepth(), getMappedContextCount(), opened)
+            : opened;
+    return LogContextLeakDetector.track(BACKEND_NAME, context);
+  }
+
+  private LogContext open() {
+    final int nestedCount = getNestedContextCount();
+    final int mappedCount = getMappedContextCount();
+    if (nestedCount == 0 && mappedCount == 0) {
+      return NO_OP_CONTEXT;
+    }
+    return updateMode == UpdateMode.BATCHED && nestedCount + mappedCount > 1
+        ? getBatched(nestedCount, mappedCount)
+        : getPerKey(nestedCount, mappedCount);
+  }
+
+  private LogContext getBatched(final int nestedCount, final int mappedCount) {
+    final Map<String, String> contextMap = Slf4jContextFrame.copyOfContextMap();
+    final int nestedDepth =
+        nestedCount > 0
+            ? Slf4jContextFrame.nestedDepth(contextMap)
+            : Slf4jContextFrame.NO_NESTED_CONTEXTS;
+    for (int i = 0; i < nestedCount; i++) {
+      contextMap.put(Slf4jContextFrame.nestedKey(nestedDepth + i), getNestedContext(i));
+    }
+
+    final String[] mappedKeys = new String[mappedCount];
+    final String[] shadowedValues = new String[mappedCount];
+    for (int i = 0; i < mappedCount; i++) {
+      mappedKeys[i] = getMappedContextKey(i);
+      shadowedValues[i] = contextMap.put(mappedKeys[i], getMappedContextValue(i));
+    }
+
+    MDC.setContextMap(contextMap);
+    return new Slf4jContextFrame(true, nestedDepth, mappedKeys, shadowedValues);
+  }
+
+  private LogContext getPerKey(final int nestedCount, final int mappedCount) {
+    int nestedDepth = Slf4jContextFrame.NO_NESTED_CONTEXTS;
+    if (nestedCount > 0) {
+      nestedDepth = Slf4jContextFrame.nestedDepth();
+      for (int i = 0; i < nestedCount; i++) {
+        MDC.put(Slf4jContextFrame.nestedKey(nestedDepth + i), getNestedContext(i));
+      }
+    }
+
+    final String[] mappedKeys = new String[mappedCount];
+    final String[] shadowedValues = new String[mappedCount];
+    for (int i = 0; i < mappedCount; i++) {
+      mappedKeys[i] = getMappedContextKey(i);
+      shadowedValues[i] = MDC.get(mappedKeys[i]);
+      MDC.put(mappedKeys[i], getMappedContextValue(i));
+    }
+
+    return new Slf4jContextFrame(false, nestedDepth, mappedKeys, shadowedValues);
+  }
+}
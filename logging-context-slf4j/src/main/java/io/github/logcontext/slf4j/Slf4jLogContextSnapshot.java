@@ -0,0 +1,77 @@
+package io.github.logcontext.slf4j;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContextSnapshot;
+import java.util.Map;
+import org.slf4j.MDC;
+
+/**
+ * The Slf4jLogContextSnapshot class provides a {@link LogContextSnapshot} of the SLF4J {@link MDC},
+ * which also holds the nested context values pushed by a {@link Slf4jLogContextBuilder}.
+ *
+ * <p>The SLF4J API only exposes a copy of the MDC, through {@link MDC#getCopyOfContextMap()}, so
+ * capturing a snapshot copies the context once. The copy is never modified afterwards and can be
+ * attached any number of times.
+ */
+public final class Slf4jLogContextSnapshot implements LogContextSnapshot {
+
+  /** The logging context that leaves an already empty MDC unchanged. */
+  private static final LogContext NO_OP_CONTEXT = () -> {};
+
+  /** The logging context that restores an MDC that was empty before a snapshot was attached. */
+  private static final LogContext CLEAR_CONTEXT = MDC::clear;
+
+  /** The captured MDC, or <code>null</code> if it was empty. */
+  private final Map<String, String> mappedContexts;
+
+  /**
+   * Constructs a new instance of Slf4jLogContextSnapshot.
+   *
+   * @param mappedContexts the captured MDC, or <code>null</code> if it was empty.
+   */
+  Slf4jLogContextSnapshot(final Map<String, String> mappedContexts) {
+    this.mappedContexts = isEmpty(mappedContexts) ? null : mappedContexts;
+  }
+
+  /**
+   * Captures the MDC of the current thread.
+   *
+   * @return a snapshot of the MDC of the current thread.
+   */
+  public static LogContextSnapshot capture() {
+    return new Slf4jLogContextSnapshot(MDC.getCopyOfContextMap());
+  }
+
+  /**
+   * Replaces the MDC of the current thread with this snapshot and returns a {@link LogContext} that
+   * restores the previous MDC when closed.
+   *
+   * @return a {@link LogContext} that restores the previous MDC.
+   */
+  @Override
+  public LogContext attach() {
+    final Map<String, String> previousMappedContexts = MDC.getCopyOfContextMap();
+    if (isEmpty(previousMappedContexts)) {
+      if (mappedContexts == null) {
+        return NO_OP_CONTEXT;
+      }
+      MDC.setContextMap(mappedContexts);
+      return CLEAR_CONTEXT;
+    }
+
+    replace(mappedContexts);
+    return () -> replace(previousMappedContexts);
+  }
+
+  private static boolean isEmpty(final Map<String, String> mappedContexts) {
+    return mappedContexts == null || mappedContexts.isEmpty();
+  }
+
+  private static void replace(final Map<String, String> mappedContexts) {
+    if (mappedContexts != null) {
+      MDC.setContextMap(mappedContexts);
+    } else {
+      MDC.clear();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package io.github.logcontext.slf4j.spi;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogContextSnapshot;
+import io.github.logcontext.LogLevel;
+import io.github.logcontext.LoggingContextServiceProvider;
+import io.github.logcontext.slf4j.Slf4jLogContextBuilder;
+import io.github.logcontext.slf4j.Slf4jLogContextBuilder.UpdateMode;
+import io.github.logcontext.slf4j.Slf4jLogContextSnapshot;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Slf4jLoggingContextServiceProvider class provides a {@link LoggingContextServiceProvider}
+ * implementation that provides a {@link LogContext.Builder} implementation capable of configuring
+ * the logging context through the SLF4J MDC, for logging implementations such as Logback.
+ *
+ * <p>The builders of the provider loaded by the service loader use the {@link UpdateMode#PER_KEY}
+ * update mode. To use another update mode, install a provider created with {@link
+ * #Slf4jLoggingContextServiceProvider(UpdateMode)} with {@link
+ * io.github.logcontext.LoggingContextServiceProviderRegistry#override}:
+ *
+ * <pre>
+ * LoggingContextServiceProviderRegistry.override(
+ *     new Slf4jLoggingContextServiceProvider(UpdateMode.BATCHED));
+ * </pre>
+ */
+public class Slf4jLoggingContextServiceProvider implements LoggingContextServiceProvider {
+
+  /** The way in which the builders update the MDC. */
+  private final UpdateMode updateMode;
+
+  /**
+   * Constructs a new instance of the provider whose builders use the {@link UpdateMode#PER_KEY}
+   * update mode.
+   */
+  public Slf4jLoggingContextServiceProvider() {
+    this(UpdateMode.PER_KEY);
+  }
+
+  /**
+   * Constructs a new instance of the provider whose builders use the provided update mode.
+   *
+   * @param updateMode the way in which the builders update the MDC (must not be <code>null</code>).
+   * @throws NullPointerException if <code>updateMode</code> is <code>null</code>.
+   */
+  public Slf4jLoggingContextServiceProvider(final UpdateMode updateMode) {
+    this.updateMode = requireNonNull(updateMode, "updateMode must not be null");
+  }
+
+  @Override
+  public Builder logContextBuilder() {
+    return new Slf4jLogContextBuilder(updateMode);
+  }
+
+  @Override
+  public LogContextSnapshot captureSnapshot() {
+    return Slf4jLogContextSnapshot.capture();
+  }
+
+  /**
+   * Returns the predicate of the levels enabled for an SLF4J logger. The predicate asks the logger
+   * on every test, so it follows reconfigurations of the logging implementation.
+   *
+   * @param category the name of the logger.
+   * @return the predicate of the enabled levels.
+   */
+  @Override
+  public Predicate<LogLevel> loggingEnabled(final String category) {
+    final Logger logger = LoggerFactory.getLogger(category);
+    return level -> {
+      switch (level) {
+        case TRACE:
+          return logger.isTraceEnabled();
+        case DEBUG:
+          return logger.isDebugEnabled();
+        case INFO:
+          return logger.isInfoEnabled();
+        case WARN:
+          return logger.isWarnEnabled();
+        default:
+          return logger.isErrorEnabled();
+      }
+    };
+  }
+}
@@ -0,0 +1,121 @@
+package io.github.logcontext.slf4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+/**
+ * The Slf4jContextFrameTest class provides a set of JUnit test cases for the {@link
+ * Slf4jContextFrame} class.
+ */
+class Slf4jContextFrameTest {
+
+  /** Clears the MDC changed by a test case. */
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  /**
+   * Test method for {@link Slf4jContextFrame#close()} that ensures the MDC keys are removed, their
+   * shadowed values restored and the nested context truncated to its recorded depth.
+   */
+  @Test
+  void testClose() {
+    assertClose(true);
+  }
+
+  /**
+   * Test method for {@link Slf4jContextFrame#close()} that ensures a per-key frame restores the MDC
+   * the same way as a batched frame.
+   */
+  @Test
+  void testClose_perKey() {
+    assertClose(false);
+  }
+
+  /**
+   * Test method for {@link Slf4jContextFrame#close()} that ensures the nested context is left
+   * unchanged when the frame did not push any nested context values.
+   */
+  @Test
+  void testClose_noNestedContexts() {
+    assertCloseWithoutNestedContexts(true);
+    assertCloseWithoutNestedContexts(false);
+  }
+
+  /**
+   * Test method for {@link Slf4jContextFrame#nestedKey(int)} that ensures keys beyond the cached
+   * ones follow the SLF4J NDC naming.
+   */
+  @Test
+  void testNestedKey() {
+    assertThat(Slf4jContextFrame.nestedKey(0), equalTo("NDC0"));
+    assertThat(Slf4jContextFrame.nestedKey(42), equalTo("NDC42"));
+  }
+
+  /**
+   * Test method for {@link Slf4jContextFrame#nestedDepth(Map)} that ensures only consecutive nested
+   * context keys are counted.
+   */
+  @Test
+  void testNestedDepth() {
+    final Map<String, String> contextMap = new HashMap<>();
+    contextMap.put("NDC0", "first");
+    contextMap.put("NDC1", "second");
+    contextMap.put("NDC3", "orphan");
+
+    assertThat(Slf4jContextFrame.nestedDepth(contextMap), equalTo(2));
+  }
+
+  /**
+   * Test method for {@link Slf4jContextFrame#nestedDepth()} that ensures only consecutive nested
+   * context keys of the MDC are counted.
+   */
+  @Test
+  void testNestedDepth_mdc() {
+    assertThat(Slf4jContextFrame.nestedDepth(), equalTo(0));
+
+    MDC.put("NDC0", "first");
+    MDC.put("NDC1", "second");
+    MDC.put("NDC3", "orphan");
+
+    assertThat(Slf4jContextFrame.nestedDepth(), equalTo(2));
+  }
+
+  private static void assertClose(final boolean batched) {
+    MDC.put("NDC0", "outer");
+    MDC.put("NDC1", "inner");
+    MDC.put("NDC2", "innermost");
+    MDC.put("first", "value");
+    MDC.put("second", "value");
+    MDC.put("other", "value");
+
+    new Slf4jContextFrame(
+            batched, 1, new String[] {"first", "second"}, new String[] {"original", null})
+        .close();
+
+    final Map<String, String> contextMap = MDC.getCopyOfContextMap();
+    assertThat(contextMap, aMapWithSize(3));
+    assertThat(contextMap.get("NDC0"), equalTo("outer"));
+    assertThat(contextMap.get("first"), equalTo("original"));
+    assertThat(contextMap.get("other"), equalTo("value"));
+  }
+
+  private static void assertCloseWithoutNestedContexts(final boolean batched) {
+    MDC.clear();
+    MDC.put("NDC0", "outer");
+
+    new Slf4jContextFrame(
+            batched, Slf4jContextFrame.NO_NESTED_CONTEXTS, new String[0], new String[0])
+        .close();
+
+    assertThat(MDC.get("NDC0"), equalTo("outer"));
+  }
+}
@@ -0,0 +1,203 @@
+package io.github.logcontext.slf4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.slf4j.Slf4jLogContextBuilder.UpdateMode;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.slf4j.MDC;
+
+/**
+ * The Slf4jLogContextBuilderTest class provides a set of JUnit test cases for the {@link
+ * Slf4jLogContextBuilder} class.
+ */
+class Slf4jLogContextBuilderTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  private static final String CONTEXT_2 = "CONTEXT2";
+
+  private static final String VALUE_1 = "value1";
+
+  private static final String VALUE_2 = "2";
+
+  /** Clears the MDC changed by a test case. */
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextBuilder#Slf4jLogContextBuilder(UpdateMode)} to ensure
+   * that a <code>null</code> update mode is rejected.
+   */
+  @Test
+  void testConstructor_nullUpdateMode() {
+    assertThrows(NullPointerException.class, () -> new Slf4jLogContextBuilder(null));
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextBuilder#get()} to ensure that the MDC is updated with the
+   * nested and mapped context values and restored when the returned {@link LogContext} is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testGet_updatesLoggingContext() throws Exception {
+    assertUpdatesLoggingContext(UpdateMode.PER_KEY);
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextBuilder#get()} to ensure that the MDC is updated and
+   * restored using the {@link UpdateMode#BATCHED} update mode.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testGet_updatesLoggingContext_batched() throws Exception {
+    assertUpdatesLoggingContext(UpdateMode.BATCHED);
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextBuilder#get()} to ensure that nested context values are
+   * pushed on top of the existing ones, that shadowed MDC values are restored, and that MDC keys
+   * added while the context was open are kept.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testGet_restoresShadowedValues() throws Exception {
+    assertRestoresShadowedValues(UpdateMode.PER_KEY);
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextBuilder#get()} to ensure that shadowed MDC values are
+   * restored using the {@link UpdateMode#BATCHED} update mode.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testGet_restoresShadowedValues_batched() throws Exception {
+    assertRestoresShadowedValues(UpdateMode.BATCHED);
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextBuilder#get()} to ensure that the batched update mode
+   * updates the MDC with a single call and clears the MDC it left empty, without putting individual
+   * keys.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testGet_batched() throws Exception {
+    try (final MockedStatic<MDC> mockedMdc = mockStatic(MDC.class, CALLS_REAL_METHODS)) {
+      final LogContext context =
+          new Slf4jLogContextBuilder(UpdateMode.BATCHED)
+              .andNested(CONTEXT_1, CONTEXT_2)
+              .andMapped(CONTEXT_1, VALUE_1)
+              .andMapped(CONTEXT_2, VALUE_2)
+              .get();
+      context.close();
+
+      mockedMdc.verify(() -> MDC.setContextMap(anyMap()));
+      mockedMdc.verify(MDC::clear);
+      mockedMdc.verify(() -> MDC.put(anyString(), any()), never());
+      mockedMdc.verify(() -> MDC.remove(anyString()), never());
+    }
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextBuilder#get()} to ensure that the batched update mode
+   * puts a single value directly instead of replacing the whole MDC.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testGet_batchedSingleValue() throws Exception {
+    try (final MockedStatic<MDC> mockedMdc = mockStatic(MDC.class, CALLS_REAL_METHODS)) {
+      final LogContext context =
+          new Slf4jLogContextBuilder(UpdateMode.BATCHED).andMapped(CONTEXT_1, VALUE_1).get();
+
+      assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_1));
+
+      context.close();
+
+      assertThat(MDC.get(CONTEXT_1), nullValue());
+      mockedMdc.verify(() -> MDC.setContextMap(anyMap()), never());
+    }
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextBuilder#get()} to ensure that a builder without values
+   * leaves the MDC untouched.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testGet_noValues() throws Exception {
+    try (final MockedStatic<MDC> mockedMdc = mockStatic(MDC.class)) {
+      new Slf4jLogContextBuilder().get().close();
+      new Slf4jLogContextBuilder(UpdateMode.BATCHED).get().close();
+
+      mockedMdc.verifyNoInteractions();
+    }
+  }
+
+  private static void assertUpdatesLoggingContext(final UpdateMode updateMode) throws Exception {
+    final LogContext context =
+        new Slf4jLogContextBuilder(updateMode)
+            .andNested(CONTEXT_1, CONTEXT_2)
+            .andMapped(CONTEXT_1, VALUE_1)
+            .andMapped(CONTEXT_2, VALUE_2)
+            .get();
+
+    assertThat(MDC.get("NDC0"), equalTo(CONTEXT_1));
+    assertThat(MDC.get("NDC1"), equalTo(CONTEXT_2));
+    assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_1));
+    assertThat(MDC.get(CONTEXT_2), equalTo(VALUE_2));
+
+    context.close();
+
+    assertThat(MDC.getCopyOfContextMap(), anyOf(nullValue(), anEmptyMap()));
+  }
+
+  private static void assertRestoresShadowedValues(final UpdateMode updateMode) throws Exception {
+    MDC.put("NDC0", "outer");
+    MDC.put(CONTEXT_1, "original");
+
+    final LogContext context =
+        new Slf4jLogContextBuilder(updateMode)
+            .andNested(CONTEXT_1)
+            .andMapped(CONTEXT_1, VALUE_1)
+            .get();
+    MDC.put(CONTEXT_2, VALUE_2);
+    MDC.put("NDC2", "unclosed");
+
+    assertThat(MDC.get("NDC0"), equalTo("outer"));
+    assertThat(MDC.get("NDC1"), equalTo(CONTEXT_1));
+    assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_1));
+
+    context.close();
+
+    final Map<String, String> contextMap = MDC.getCopyOfContextMap();
+    assertThat(contextMap, aMapWithSize(3));
+    assertThat(contextMap.get("NDC0"), equalTo("outer"));
+    assertThat(contextMap.get(CONTEXT_1), equalTo("original"));
+    assertThat(contextMap.get(CONTEXT_2), equalTo(VALUE_2));
+  }
+}
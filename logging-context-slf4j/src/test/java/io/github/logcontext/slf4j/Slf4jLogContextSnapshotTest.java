@@ -0,0 +1,129 @@
+package io.github.logcontext.slf4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContextSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+/**
+ * The Slf4jLogContextSnapshotTest class provides a set of JUnit test cases for the {@link
+ * Slf4jLogContextSnapshot} class.
+ */
+class Slf4jLogContextSnapshotTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  private static final String VALUE_1 = "value1";
+
+  private static final String VALUE_2 = "2";
+
+  /** Clears the MDC changed by a test case. */
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextSnapshot#capture()} to ensure that the captured context
+   * is not affected by later changes to the MDC, nor by changes made while it is attached.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testCapture_isImmutable() throws Exception {
+    MDC.put(CONTEXT_1, VALUE_1);
+    final LogContextSnapshot snapshot = Slf4jLogContextSnapshot.capture();
+    MDC.put(CONTEXT_1, VALUE_2);
+
+    try (LogContext context = snapshot.attach()) {
+      MDC.put("attached", VALUE_2);
+    }
+    try (LogContext context = snapshot.attach()) {
+      assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_1));
+      assertThat(MDC.get("attached"), nullValue());
+    }
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextSnapshot#attach()} to ensure that the MDC is replaced by
+   * the snapshot and restored when the returned {@link LogContext} is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_replacesAndRestoresContext() throws Exception {
+    MDC.put(CONTEXT_1, VALUE_1);
+    final LogContextSnapshot snapshot = Slf4jLogContextSnapshot.capture();
+    MDC.clear();
+    MDC.put(CONTEXT_1, VALUE_2);
+
+    final LogContext context = snapshot.attach();
+
+    assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_1));
+
+    context.close();
+
+    assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_2));
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextSnapshot#attach()} to ensure that attaching an empty
+   * snapshot clears the MDC until the returned {@link LogContext} is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_emptySnapshot() throws Exception {
+    final LogContextSnapshot snapshot = Slf4jLogContextSnapshot.capture();
+    MDC.put(CONTEXT_1, VALUE_2);
+
+    try (LogContext context = snapshot.attach()) {
+      assertThat(MDC.get(CONTEXT_1), nullValue());
+    }
+
+    assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_2));
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextSnapshot#attach()} to ensure that attaching a snapshot to
+   * an empty MDC clears the MDC again when the returned {@link LogContext} is closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_emptyContext() throws Exception {
+    MDC.put(CONTEXT_1, VALUE_1);
+    final LogContextSnapshot snapshot = Slf4jLogContextSnapshot.capture();
+    MDC.clear();
+
+    try (LogContext context = snapshot.attach()) {
+      assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_1));
+    }
+
+    assertThat(MDC.getCopyOfContextMap(), anyOf(nullValue(), anEmptyMap()));
+  }
+
+  /**
+   * Test method for {@link Slf4jLogContextSnapshot#attach()} to ensure that attaching an empty
+   * snapshot to an empty MDC leaves it unchanged.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testAttach_emptySnapshotAndContext() throws Exception {
+    final LogContextSnapshot snapshot = Slf4jLogContextSnapshot.capture();
+    final LogContext context = snapshot.attach();
+    MDC.put(CONTEXT_1, VALUE_1);
+
+    context.close();
+
+    assertThat(MDC.get(CONTEXT_1), equalTo(VALUE_1));
+  }
+}
@@ -0,0 +1,118 @@
+package io.github.logcontext.slf4j.spi;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+
+import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.slf4j.Slf4jLogContextBuilder;
+import io.github.logcontext.slf4j.Slf4jLogContextBuilder.UpdateMode;
+import io.github.logcontext.slf4j.Slf4jLogContextSnapshot;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.github.logcontext.LogLevel;
+import java.util.function.Predicate;
+import org.slf4j.LoggerFactory;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.slf4j.MDC;
+
+/**
+ * The Slf4jLoggingContextServiceProviderTest class provides a set of JUnit test cases for the
+ * {@link Slf4jLoggingContextServiceProvider} class.
+ */
+class Slf4jLoggingContextServiceProviderTest {
+
+  private static final String CONTEXT_1 = "CONTEXT1";
+
+  private static final String CONTEXT_2 = "CONTEXT2";
+
+  private static final String VALUE_1 = "value1";
+
+  private static final String VALUE_2 = "2";
+
+  /** The SLF4J logging context service provider instance being tested. */
+  private final Slf4jLoggingContextServiceProvider loggingContextServiceProvider =
+      new Slf4jLoggingContextServiceProvider();
+
+  /** Test method for {@link Slf4jLoggingContextServiceProvider#logContextBuilder()}. */
+  @Test
+  void testLogContextBuilder() {
+    final Builder builder = loggingContextServiceProvider.logContextBuilder();
+
+    assertThat(builder, notNullValue());
+    assertThat(builder, instanceOf(Slf4jLogContextBuilder.class));
+  }
+
+  /**
+   * Test method for {@link Slf4jLoggingContextServiceProvider#logContextBuilder()} to ensure that
+   * the builders of a provider created with the {@link UpdateMode#BATCHED} update mode replace the
+   * MDC with a single call.
+   *
+   * @throws Exception
+   */
+  @Test
+  void testLogContextBuilder_updateMode() throws Exception {
+    try (final MockedStatic<MDC> mockedMdc = mockStatic(MDC.class, CALLS_REAL_METHODS)) {
+      new Slf4jLoggingContextServiceProvider(UpdateMode.BATCHED)
+          .logContextBuilder()
+          .andMapped(CONTEXT_1, VALUE_1)
+          .andMapped(CONTEXT_2, VALUE_2)
+          .get()
+          .close();
+
+      mockedMdc.verify(() -> MDC.setContextMap(anyMap()));
+      mockedMdc.verify(() -> MDC.put(anyString(), any()), never());
+    }
+  }
+
+  /**
+   * Test method for {@link
+   * Slf4jLoggingContextServiceProvider#Slf4jLoggingContextServiceProvider(UpdateMode)} to ensure
+   * that a <code>null</code> update mode is rejected.
+   */
+  @Test
+  void testConstructor_nullUpdateMode() {
+    assertThrows(NullPointerException.class, () -> new Slf4jLoggingContextServiceProvider(null));
+  }
+
+  /** Test method for {@link Slf4jLoggingContextServiceProvider#captureSnapshot()}. */
+  @Test
+  void testCaptureSnapshot() {
+    assertThat(
+        loggingContextServiceProvider.captureSnapshot(), instanceOf(Slf4jLogContextSnapshot.class));
+  }
+
+  /**
+   * Test method for {@link Slf4jLoggingContextServiceProvider#loggingEnabled(String)} that ensures
+   * the predicate follows changes of the logger level.
+   */
+  @Test
+  void testLoggingEnabled() {
+    final String category = Slf4jLoggingContextServiceProviderTest.class.getName();
+    final Logger logger = (Logger) LoggerFactory.getLogger(category);
+    final Predicate<LogLevel> enabled = loggingContextServiceProvider.loggingEnabled(category);
+
+    try {
+      logger.setLevel(Level.WARN);
+      assertThat(enabled.test(LogLevel.TRACE), equalTo(false));
+      assertThat(enabled.test(LogLevel.DEBUG), equalTo(false));
+      assertThat(enabled.test(LogLevel.INFO), equalTo(false));
+      assertThat(enabled.test(LogLevel.WARN), equalTo(true));
+      assertThat(enabled.test(LogLevel.ERROR), equalTo(true));
+
+      logger.setLevel(Level.TRACE);
+      assertThat(enabled.test(LogLevel.TRACE), equalTo(true));
+    } finally {
+      logger.setLevel(null);
+    }
+  }
+}
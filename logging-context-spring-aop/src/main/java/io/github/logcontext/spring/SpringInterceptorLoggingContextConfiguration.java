@@ -0,0 +1,28 @@
+package io.github.logcontext.spring;
+
+import io.github.logcontext.spring.aop.LoggingContextBeanPostProcessor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * Configures logging contexts with a {@link LoggingContextBeanPostProcessor}, which resolves the
+ * logging contexts of each bean class once and proxies the beans with plain Spring AOP
+ * interceptors. Use either this configuration or {@link SpringAopLoggingContextConfiguration}, not
+ * both.
+ */
+@Configuration
+public class SpringInterceptorLoggingContextConfiguration {
+
+  /**
+   * Creates the post processor that proxies beans with logging contexts.
+   *
+   * @return the post processor.
+   */
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public static LoggingContextBeanPostProcessor loggingContextBeanPostProcessor() {
+    return new LoggingContextBeanPostProcessor();
+  }
+}
@@ -0,0 +1,188 @@
+package io.github.logcontext.spring.aop;
+
+import io.github.logcontext.LogLevel;
+import io.github.logcontext.LoggingContext;
+import io.github.logcontext.LoggingContextPlan;
+import io.github.logcontext.LoggingContextPlanIndexes;
+import io.github.logcontext.aop.LoggerLevels;
+import io.github.logcontext.aop.LoggingContextAdvice;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopInfrastructureBean;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.framework.ProxyProcessorSupport;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * The LoggingContextBeanPostProcessor class proxies beans with methods that include a logging
+ * context, without AspectJ. It is an alternative to {@link SpringLoggingContextAdvice}; only one of
+ * them should be configured.
+ *
+ * <p>The {@link LoggingContextPlan} of every method of a bean class is resolved once, when the
+ * first bean of the class is post-processed, from the annotations of the bean class itself, so
+ * that non-public methods and overriding methods are supported. A plan generated by the <code>
+ * logging-context-processor</code> annotation processor is preferred over reading the annotations.
+ * Each method with a logging context gets its own {@link LoggingContextMethodInterceptor} bound to
+ * its plan, so invocations do not look up or resolve anything.
+ *
+ * <p>Beans that are already proxied by Spring AOP get the interceptors added to their existing
+ * proxy. Other beans are proxied according to the {@link ProxyProcessorSupport} settings.
+ */
+public class LoggingContextBeanPostProcessor extends ProxyProcessorSupport
+    implements BeanPostProcessor {
+
+  private static final long serialVersionUID = 1L;
+
+  /** The advisors of the methods with a logging context of each bean class. */
+  private final transient ClassValue<List<Advisor>> advisors =
+      new ClassValue<List<Advisor>>() {
+        @Override
+        protected List<Advisor> computeValue(final Class<?> type) {
+          return resolveAdvisors(type);
+        }
+      };
+
+  /** The level required by plans without their own level, or <code>null</code> for none. */
+  private volatile LogLevel defaultEnabledLevel;
+
+  @Override
+  public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+    return bean;
+  }
+
+  /**
+   * Proxies the bean if any of its methods include a logging context, or adds the interceptors of
+   * those methods to the bean if it is already proxied.
+   *
+   * @param bean the bean instance.
+   * @param beanName the name of the bean.
+   * @return the proxied bean, or the bean itself if none of its methods include a logging context.
+   */
+  @Override
+  public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+    if (bean instanceof AopInfrastructureBean) {
+      return bean;
+    }
+
+    final List<Advisor> beanAdvisors = advisors.get(AopUtils.getTargetClass(bean));
+    if (beanAdvisors.isEmpty()) {
+      return bean;
+    }
+
+    if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+      for (final Advisor advisor : beanAdvisors) {
+        ((Advised) bean).addAdvisor(advisor);
+      }
+      return bean;
+    }
+
+    final ProxyFactory proxyFactory = new ProxyFactory();
+    proxyFactory.copyFrom(this);
+    proxyFactory.setTarget(bean);
+    if (!proxyFactory.isProxyTargetClass()) {
+      evaluateProxyInterfaces(bean.getClass(), proxyFactory);
+    }
+    for (final Advisor advisor : beanAdvisors) {
+      proxyFactory.addAdvisor(advisor);
+    }
+    return proxyFactory.getProxy(getProxyClassLoader());
+  }
+
+  /**
+   * Returns the level at which the logger of a bean class must be enabled for methods whose
+   * annotations do not require a level of their own.
+   *
+   * @return the default level, or <code>null</code> if such methods always get a logging context.
+   * @see LoggingContextAdvice#getDefaultEnabledLevel()
+   */
+  public LogLevel getDefaultEnabledLevel() {
+    return defaultEnabledLevel;
+  }
+
+  /**
+   * Sets the level at which the logger of a bean class must be enabled for methods whose
+   * annotations do not require a level of their own, as if they were annotated with {@link
+   * LoggingContext#ifEnabled()}. The level must be set before the beans are created; it is bound to
+   * the interceptors of a bean class when its first bean is post-processed.
+   *
+   * @param defaultEnabledLevel the default level, or <code>null</code> to always create the
+   *     logging context of such methods.
+   * @see LoggingContextAdvice#setDefaultEnabledLevel(LogLevel)
+   */
+  public void setDefaultEnabledLevel(final LogLevel defaultEnabledLevel) {
+    this.defaultEnabledLevel = defaultEnabledLevel;
+  }
+
+  /**
+   * Resolves an advisor for every method of the provided class that includes a logging context.
+   *
+   * @param type the bean class.
+   * @return the advisors of the class, or an empty list if no method includes a logging context.
+   */
+  private List<Advisor> resolveAdvisors(final Class<?> type) {
+    final Set<Method> methods = new LinkedHashSet<>();
+    ReflectionUtils.doWithMethods(
+        type,
+        method -> methods.add(AopUtils.getMostSpecificMethod(method, type)),
+        method -> isInterceptable(method) && ReflectionUtils.USER_DECLARED_METHODS.matches(method));
+
+    final LogLevel defaultLevel = defaultEnabledLevel;
+    final LoggerLevels loggerLevels = new LoggerLevels(type.getName());
+    final List<Advisor> typeAdvisors = new ArrayList<>();
+    for (final Method method : methods) {
+      final LoggingContextPlan generatedPlan = LoggingContextPlanIndexes.find(type, method);
+      final LoggingContextPlan plan =
+          generatedPlan != null ? generatedPlan : LoggingContextPlan.resolve(type, method);
+      if (!plan.isEmpty()) {
+        final LogLevel enabledLevel =
+            plan.getEnabledLevel() != null ? plan.getEnabledLevel() : defaultLevel;
+        typeAdvisors.add(
+            new DefaultPointcutAdvisor(
+                new MethodPointcut(method),
+                new LoggingContextMethodInterceptor(plan, enabledLevel, loggerLevels)));
+      }
+    }
+    return typeAdvisors.isEmpty()
+        ? Collections.emptyList()
+        : Collections.unmodifiableList(typeAdvisors);
+  }
+
+  private static boolean isInterceptable(final Method method) {
+    final int modifiers = method.getModifiers();
+    return !Modifier.isStatic(modifiers) && !Modifier.isPrivate(modifiers);
+  }
+
+  /** A pointcut that matches a single method of a bean class and the methods it implements. */
+  private static final class MethodPointcut extends StaticMethodMatcherPointcut {
+
+    /** The most specific method of the bean class. */
+    private final Method method;
+
+    MethodPointcut(final Method method) {
+      this.method = method;
+    }
+
+    @Override
+    public boolean matches(final Method candidate, final Class<?> targetClass) {
+      return method.equals(candidate)
+          || (targetClass != null
+              && method.equals(AopUtils.getMostSpecificMethod(candidate, targetClass)));
+    }
+
+    @Override
+    public String toString() {
+      return "MethodPointcut{method=" + method + "}";
+    }
+  }
+}
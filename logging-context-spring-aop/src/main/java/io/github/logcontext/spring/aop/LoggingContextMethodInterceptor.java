@@ -0,0 +1,92 @@
+package io.github.logcontext.spring.aop;
+
+import static java.util.Objects.requireNonNull;
+
+import io.github.logcontext.LogContext;
+import io.github.logcontext.LogContext.Builder;
+import io.github.logcontext.LogContextBuilderPool;
+import io.github.logcontext.LogLevel;
+import io.github.logcontext.LoggingContextMetricsRegistry;
+import io.github.logcontext.LoggingContextPlan;
+import io.github.logcontext.aop.LoggerLevels;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * The LoggingContextMethodInterceptor class includes the logging context of a single advised
+ * method. The {@link LoggingContextPlan} of the method is resolved by the {@link
+ * LoggingContextBeanPostProcessor} before the bean is proxied and bound to the interceptor, so an
+ * invocation only applies the plan and opens and closes the logging context.
+ */
+public class LoggingContextMethodInterceptor implements MethodInterceptor {
+
+  /** The plan of the advised method. */
+  private final LoggingContextPlan plan;
+
+  /** The level the logger must log, or <code>null</code> to always include the context. */
+  private final LogLevel enabledLevel;
+
+  /** The levels enabled for the logger of the advised class. */
+  private final LoggerLevels loggerLevels;
+
+  /**
+   * Creates an interceptor that includes the logging context of the provided plan.
+   *
+   * @param plan the plan of the advised method.
+   * @param enabledLevel the level that the logger must log for the logging context to be included,
+   *     or <code>null</code> to always include it.
+   * @param loggerLevels the levels enabled for the logger of the advised class.
+   * @throws NullPointerException if <code>plan</code> or <code>loggerLevels</code> is <code>null
+   *     </code>.
+   */
+  public LoggingContextMethodInterceptor(
+      final LoggingContextPlan plan, final LogLevel enabledLevel, final LoggerLevels loggerLevels) {
+    this.plan = requireNonNull(plan, "plan must not be null");
+    this.enabledLevel = enabledLevel;
+    this.loggerLevels = requireNonNull(loggerLevels, "loggerLevels must not be null");
+  }
+
+  /**
+   * Proceeds with the invocation inside the logging context of the plan, unless the logger of the
+   * advised class does not log the required level. The time taken to open the logging context is
+   * reported to the {@link io.github.logcontext.LoggingContextMetrics} when they are enabled.
+   *
+   * @param invocation the invocation of the advised method.
+   * @return the return value from the invocation.
+   * @throws Throwable if the invoked method threw an exception.
+   */
+  @Override
+  public Object invoke(final MethodInvocation invocation) throws Throwable {
+    if (enabledLevel != null && !loggerLevels.isEnabled(enabledLevel)) {
+      return invocation.proceed();
+    }
+
+    final long start = LoggingContextMetricsRegistry.startTime();
+    final Builder builder = LogContextBuilderPool.acquire();
+    final LogContext loggingContext;
+    try {
+      loggingContext = plan.apply(builder, invocation.getArguments()).get();
+    } finally {
+      LogContextBuilderPool.release(builder);
+    }
+    LoggingContextMetricsRegistry.recordAdvice(start);
+
+    try (LogContext context = loggingContext) {
+      return invocation.proceed();
+    }
+  }
+
+  /**
+   * Returns the plan applied by this interceptor.
+   *
+   * @return the plan of the advised method.
+   */
+  public LoggingContextPlan getPlan() {
+    return plan;
+  }
+
+  @Override
+  public String toString() {
+    return "LoggingContextMethodInterceptor{plan=" + plan + ", enabledLevel=" + enabledLevel + "}";
+  }
+}
@@ -0,0 +1,72 @@
+package io.github.logcontext.spring;
+
+import static io.github.logcontext.ThreadLocalLoggingContextServiceProvider.CONTEXT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import io.github.logcontext.LoggingContext;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import io.github.logcontext.ThreadLocalLoggingContextServiceProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The SpringAopLoggingContextConfigurationTest class provides a set of JUnit test cases for the
+ * {@link SpringAopLoggingContextConfiguration} class.
+ */
+class SpringAopLoggingContextConfigurationTest {
+
+  /** Records logging contexts in a thread local. */
+  @BeforeEach
+  void setUp() {
+    LoggingContextServiceProviderRegistry.override(new ThreadLocalLoggingContextServiceProvider());
+  }
+
+  /** Restores the provider found by the service loader. */
+  @AfterEach
+  void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+    CONTEXT.remove();
+  }
+
+  /**
+   * Test method for {@link SpringAopLoggingContextConfiguration} that ensures the AspectJ advice
+   * includes the logging contexts of the beans of an application context.
+   */
+  @Test
+  void testConfiguration() {
+    try (AnnotationConfigApplicationContext applicationContext =
+        new AnnotationConfigApplicationContext(TestConfiguration.class)) {
+      final OrdersService ordersService = applicationContext.getBean(OrdersService.class);
+
+      assertThat(ordersService.refund("A-1"), equalTo("refund{order_number=A-1}"));
+      assertThat(CONTEXT.get(), nullValue());
+    }
+  }
+
+  /** The application context of the test. */
+  @Configuration
+  @Import(SpringAopLoggingContextConfiguration.class)
+  static class TestConfiguration {
+
+    @Bean
+    OrdersService ordersService() {
+      return new OrdersService();
+    }
+  }
+
+  /** An example service. */
+  public static class OrdersService {
+
+    @LoggingContext
+    public String refund(@LoggingContext("order_number") final String orderNumber) {
+      return CONTEXT.get();
+    }
+  }
+}
@@ -0,0 +1,225 @@
+package io.github.logcontext.spring.aop;
+
+import static io.github.logcontext.ThreadLocalLoggingContextServiceProvider.CONTEXT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import io.github.logcontext.LogLevel;
+import io.github.logcontext.LoggingContext;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import io.github.logcontext.ThreadLocalLoggingContextServiceProvider;
+import io.github.logcontext.spring.SpringInterceptorLoggingContextConfiguration;
+import java.util.Arrays;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The LoggingContextBeanPostProcessorTest class provides a set of JUnit test cases for the {@link
+ * LoggingContextBeanPostProcessor} class.
+ */
+class LoggingContextBeanPostProcessorTest {
+
+  private static final String ORDER_NUMBER = "A-1";
+
+  /** Records logging contexts in a thread local. */
+  @BeforeEach
+  void setUp() {
+    LoggingContextServiceProviderRegistry.override(new ThreadLocalLoggingContextServiceProvider());
+  }
+
+  /** Restores the provider found by the service loader. */
+  @AfterEach
+  void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+    CONTEXT.remove();
+  }
+
+  /**
+   * Test method for {@link LoggingContextBeanPostProcessor#postProcessAfterInitialization(Object,
+   * String)} that ensures the beans of an application context are proxied when their methods
+   * include logging contexts, including non-public methods and methods called through an
+   * interface.
+   */
+  @Test
+  void testPostProcessAfterInitialization_applicationContext() {
+    try (AnnotationConfigApplicationContext applicationContext =
+        new AnnotationConfigApplicationContext(TestConfiguration.class)) {
+      final OrdersService ordersService = applicationContext.getBean(OrdersService.class);
+      final Greeter greeter = applicationContext.getBean(Greeter.class);
+      final PlainService plainService = applicationContext.getBean(PlainService.class);
+
+      assertThat(AopUtils.isCglibProxy(ordersService), equalTo(true));
+      assertThat(ordersService.refund(ORDER_NUMBER), equalTo("refund{order_number=A-1}"));
+      assertThat(ordersService.cancel(), equalTo("cancel{}"));
+      assertThat(ordersService.describe(), nullValue());
+      assertThat(AopUtils.isJdkDynamicProxy(greeter), equalTo(true));
+      assertThat(greeter.greet("Ada"), equalTo("greeter/greet{name=Ada}"));
+      assertThat(AopUtils.isAopProxy(plainService), equalTo(false));
+      assertThat(CONTEXT.get(), nullValue());
+    }
+  }
+
+  /**
+   * Test method for {@link LoggingContextBeanPostProcessor#postProcessAfterInitialization(Object,
+   * String)} that ensures the interceptors are added to a bean that is already proxied, and that a
+   * frozen proxy is proxied again.
+   */
+  @Test
+  void testPostProcessAfterInitialization_advisedBean() {
+    final LoggingContextBeanPostProcessor postProcessor = new LoggingContextBeanPostProcessor();
+    postProcessor.setProxyTargetClass(true);
+    final Object advisedBean = proxy(false);
+    final Object frozenBean = proxy(true);
+
+    final Object processedBean = postProcessor.postProcessAfterInitialization(advisedBean, "a");
+    final Object processedFrozenBean =
+        postProcessor.postProcessAfterInitialization(frozenBean, "b");
+
+    assertThat(processedBean, sameInstance(advisedBean));
+    assertThat(((OrdersService) processedBean).refund(ORDER_NUMBER), not(nullValue()));
+    assertThat(processedFrozenBean, not(sameInstance(frozenBean)));
+    assertThat(((Advised) processedFrozenBean).getAdvisors(), arrayWithSize(3));
+    assertThat(
+        Arrays.toString(((Advised) processedFrozenBean).getAdvisors()),
+        containsString("MethodPointcut{method=public java.lang.String"));
+    assertThat(
+        ((OrdersService) processedFrozenBean).refund(ORDER_NUMBER),
+        equalTo("refund{order_number=A-1}"));
+  }
+
+  /**
+   * Test method for {@link LoggingContextBeanPostProcessor#postProcessAfterInitialization(Object,
+   * String)} that ensures infrastructure beans and beans without logging contexts are not proxied.
+   */
+  @Test
+  void testPostProcessAfterInitialization_notProxied() {
+    final LoggingContextBeanPostProcessor postProcessor = new LoggingContextBeanPostProcessor();
+    final PlainService plainService = new PlainService();
+
+    assertThat(
+        postProcessor.postProcessBeforeInitialization(plainService, "plain"),
+        sameInstance(plainService));
+    assertThat(
+        postProcessor.postProcessAfterInitialization(plainService, "plain"),
+        sameInstance(plainService));
+    assertThat(
+        postProcessor.postProcessAfterInitialization(postProcessor, "postProcessor"),
+        sameInstance(postProcessor));
+  }
+
+  /**
+   * Test method for {@link LoggingContextBeanPostProcessor#setDefaultEnabledLevel(LogLevel)} that
+   * ensures the default level applies to methods without a level of their own, and that the level
+   * of a method is kept.
+   */
+  @Test
+  void testSetDefaultEnabledLevel() {
+    final LoggingContextBeanPostProcessor postProcessor = new LoggingContextBeanPostProcessor();
+    postProcessor.setDefaultEnabledLevel(LogLevel.DEBUG);
+    LoggingContextServiceProviderRegistry.override(
+        new ThreadLocalLoggingContextServiceProvider() {
+          @Override
+          public Predicate<LogLevel> loggingEnabled(final String category) {
+            return level -> level.compareTo(LogLevel.INFO) >= 0;
+          }
+        });
+
+    final Object bean = postProcessor.postProcessAfterInitialization(new OrdersService(), "orders");
+
+    assertThat(postProcessor.getDefaultEnabledLevel(), equalTo(LogLevel.DEBUG));
+    assertThat(bean, instanceOf(OrdersService.class));
+    assertThat(((OrdersService) bean).refund(ORDER_NUMBER), nullValue());
+    assertThat(((OrdersService) bean).audit(), equalTo("audit{}"));
+  }
+
+  private static Object proxy(final boolean frozen) {
+    final ProxyFactory proxyFactory = new ProxyFactory(new OrdersService());
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.setFrozen(frozen);
+    return proxyFactory.getProxy();
+  }
+
+  /** The application context of the tests. */
+  @Configuration
+  @Import(SpringInterceptorLoggingContextConfiguration.class)
+  static class TestConfiguration {
+
+    @Bean
+    OrdersService ordersService() {
+      return new OrdersService();
+    }
+
+    @Bean
+    Greeter greeter() {
+      return new AnnotatedGreeter();
+    }
+
+    @Bean
+    PlainService plainService() {
+      return new PlainService();
+    }
+  }
+
+  /** An example service without interfaces, proxied by subclassing. */
+  public static class OrdersService {
+
+    @LoggingContext
+    public String refund(@LoggingContext("order_number") final String orderNumber) {
+      return CONTEXT.get();
+    }
+
+    @LoggingContext
+    String cancel() {
+      return CONTEXT.get();
+    }
+
+    @LoggingContext(ifEnabled = LogLevel.WARN)
+    public String audit() {
+      return CONTEXT.get();
+    }
+
+    public String describe() {
+      return CONTEXT.get();
+    }
+  }
+
+  /** An example interface. */
+  public interface Greeter {
+
+    String greet(String name);
+  }
+
+  /** An example service implementing an interface, proxied with the interface. */
+  @LoggingContext("greeter")
+  public static class AnnotatedGreeter implements Greeter {
+
+    @Override
+    @LoggingContext
+    public String greet(@LoggingContext("name") final String name) {
+      return CONTEXT.get();
+    }
+  }
+
+  /** An example service without logging contexts. */
+  public static class PlainService {
+
+    public String describe() {
+      return CONTEXT.get();
+    }
+  }
+}
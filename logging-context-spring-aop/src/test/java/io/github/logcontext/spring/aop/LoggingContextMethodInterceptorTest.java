@@ -0,0 +1,124 @@
+package io.github.logcontext.spring.aop;
+
+import static io.github.logcontext.ThreadLocalLoggingContextServiceProvider.CONTEXT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.logcontext.LogLevel;
+import io.github.logcontext.LoggingContext;
+import io.github.logcontext.LoggingContextPlan;
+import io.github.logcontext.LoggingContextServiceProviderRegistry;
+import io.github.logcontext.ThreadLocalLoggingContextServiceProvider;
+import io.github.logcontext.aop.LoggerLevels;
+import java.util.function.Predicate;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The LoggingContextMethodInterceptorTest class provides a set of JUnit test cases for the {@link
+ * LoggingContextMethodInterceptor} class.
+ */
+class LoggingContextMethodInterceptorTest {
+
+  private static final String ORDER_NUMBER = "A-1";
+
+  private LoggingContextPlan plan;
+
+  /** Resolves the plan of the example method and records logging contexts in a thread local. */
+  @BeforeEach
+  void setUp() throws Exception {
+    plan =
+        LoggingContextPlan.resolve(
+            OrdersService.class, OrdersService.class.getMethod("refund", String.class));
+    LoggingContextServiceProviderRegistry.override(new ThreadLocalLoggingContextServiceProvider());
+  }
+
+  /** Restores the provider found by the service loader. */
+  @AfterEach
+  void tearDown() {
+    LoggingContextServiceProviderRegistry.invalidate();
+    CONTEXT.remove();
+  }
+
+  /**
+   * Test method for {@link LoggingContextMethodInterceptor#invoke(MethodInvocation)} that ensures
+   * the invocation proceeds inside the logging context of the plan, which is closed afterwards.
+   */
+  @Test
+  void testInvoke() throws Throwable {
+    final LoggingContextMethodInterceptor interceptor =
+        new LoggingContextMethodInterceptor(plan, null, new LoggerLevels("orders"));
+
+    final Object result = interceptor.invoke(invocationRecordingContext());
+
+    assertThat(result, equalTo("refund{order_number=A-1}"));
+    assertThat(CONTEXT.get(), nullValue());
+    assertThat(interceptor.getPlan(), sameInstance(plan));
+    assertThat(interceptor.toString(), containsString("refund"));
+  }
+
+  /**
+   * Test method for {@link LoggingContextMethodInterceptor#invoke(MethodInvocation)} that ensures
+   * the invocation proceeds without a logging context when the logger does not log the required
+   * level.
+   */
+  @Test
+  void testInvoke_levelNotEnabled() throws Throwable {
+    final LoggingContextMethodInterceptor interceptor =
+        new LoggingContextMethodInterceptor(plan, LogLevel.DEBUG, new LoggerLevels("orders"));
+
+    LoggingContextServiceProviderRegistry.override(
+        new ThreadLocalLoggingContextServiceProvider() {
+          @Override
+          public Predicate<LogLevel> loggingEnabled(final String category) {
+            return level -> level.compareTo(LogLevel.INFO) >= 0;
+          }
+        });
+
+    assertThat(interceptor.invoke(invocationRecordingContext()), nullValue());
+  }
+
+  /**
+   * Test method for {@link LoggingContextMethodInterceptor#LoggingContextMethodInterceptor(
+   * LoggingContextPlan, LogLevel, LoggerLevels)} that ensures a {@link NullPointerException} is
+   * thrown for a <code>null</code> plan or logger levels.
+   */
+  @Test
+  void testLoggingContextMethodInterceptor_nullArguments() {
+    final LoggerLevels loggerLevels = new LoggerLevels("orders");
+
+    assertThrows(
+        NullPointerException.class,
+        () -> new LoggingContextMethodInterceptor(null, null, loggerLevels));
+    assertThrows(
+        NullPointerException.class, () -> new LoggingContextMethodInterceptor(plan, null, null));
+  }
+
+  /**
+   * Creates an invocation of the example method whose result is the logging context it proceeded
+   * in.
+   *
+   * @return the invocation.
+   */
+  private static MethodInvocation invocationRecordingContext() throws Throwable {
+    final MethodInvocation invocation = mock(MethodInvocation.class);
+    when(invocation.getArguments()).thenReturn(new Object[] {ORDER_NUMBER});
+    when(invocation.proceed()).thenAnswer(i -> CONTEXT.get());
+    return invocation;
+  }
+
+  /** An example service. */
+  public static class OrdersService {
+
+    @LoggingContext
+    public void refund(@LoggingContext("order_number") final String orderNumber) {}
+  }
+}